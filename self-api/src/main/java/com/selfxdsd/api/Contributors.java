@@ -32,6 +32,20 @@ import com.selfxdsd.api.storage.Paged;
  */
 public interface Contributors extends Iterable<Contributor>, Paged {
 
+    /**
+     * How many contributors are there, on all the pages? Storage
+     * implementations should answer it with an aggregate (count) query;
+     * by default, all the contributors are iterated.
+     * @return Integer greater or equal to 0.
+     */
+    default int count() {
+        int count = 0;
+        for(final Contributor contributor : this.page(Paged.Page.all())) {
+            count++;
+        }
+        return count;
+    }
+
     /**
      * Register a new contributor in Self.
      * @param username Username.
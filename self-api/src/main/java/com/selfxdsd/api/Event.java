@@ -132,5 +132,10 @@ public interface Event {
          */
         public static final String STATUS = "status";
 
+        /**
+         * The labels of the repo changed.
+         */
+        public static final String LABEL = "label";
+
     }
 }
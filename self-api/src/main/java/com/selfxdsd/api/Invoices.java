@@ -13,6 +13,20 @@ import java.math.BigDecimal;
  */
 public interface Invoices extends Iterable<Invoice> {
 
+    /**
+     * How many invoices are there? Storage implementations should answer it
+     * with an aggregate (count) query; by default, all the invoices
+     * are iterated.
+     * @return Integer greater or equal to 0.
+     */
+    default int count() {
+        int count = 0;
+        for(final Invoice invoice : this) {
+            count++;
+        }
+        return count;
+    }
+
     /**
      * Get an Invoice by its ID.
      * @param id Invoice's ID.
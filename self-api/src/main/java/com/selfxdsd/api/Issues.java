@@ -23,6 +23,9 @@
 package com.selfxdsd.api;
 
 import javax.json.JsonObject;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * Issues in a repository.
@@ -68,4 +71,27 @@ public interface Issues extends Iterable<Issue> {
      * @return Issues.
      */
     Issues search(final String text, final String... labels);
+
+    /**
+     * Fetch several Issues at once, if the Provider supports it (e.g.
+     * Github can read up to 100 Issues with one GraphQL query). This is
+     * only an optimization: the Issues which are missing from the result
+     * should be read with {@link #getById(String)}.
+     * @param issueIds IDs of the Issues.
+     * @return Fetched Issues, by ID. Empty by default.
+     */
+    default Map<String, Issue> prefetch(final Collection<String> issueIds) {
+        return Map.of();
+    }
+
+    /**
+     * The Issues (open or closed) which were updated since the given
+     * moment: edited, commented, assigned, closed etc.
+     * @param since Moment.
+     * @return Updated Issues, by ID, or null if the Provider cannot
+     *  list them (then every Issue should be considered updated).
+     */
+    default Map<String, Issue> updatedSince(final Instant since) {
+        return null;
+    }
 }
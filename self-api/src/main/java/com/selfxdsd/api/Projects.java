@@ -32,6 +32,20 @@ import com.selfxdsd.api.storage.Paged;
  */
 public interface Projects extends Iterable<Project>, Paged {
 
+    /**
+     * How many projects are there, on all the pages? Storage implementations
+     * should answer it with an aggregate (count) query; by default, all
+     * the projects are iterated.
+     * @return Integer greater or equal to 0.
+     */
+    default int count() {
+        int count = 0;
+        for(final Project project : this.page(Paged.Page.all())) {
+            count++;
+        }
+        return count;
+    }
+
     /**
      * Register a new Project with Self.
      * @param repo Repo to register.
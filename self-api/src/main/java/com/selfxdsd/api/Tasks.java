@@ -30,6 +30,20 @@ package com.selfxdsd.api;
  */
 public interface Tasks extends Iterable<Task> {
 
+    /**
+     * How many tasks are there? Storage implementations should answer it
+     * with an aggregate (count) query; by default, all the tasks
+     * are iterated.
+     * @return Integer greater or equal to 0.
+     */
+    default int count() {
+        int count = 0;
+        for(final Task task : this) {
+            count++;
+        }
+        return count;
+    }
+
     /**
      * Get a Task by its ID.
      * @param issueId Issue ID from Github, Gitlab etc.
@@ -0,0 +1,320 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.api.storage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Specification of a query over some stored entities: criteria, ordering,
+ * offset and limit. It is meant to be pushed down to the database by the
+ * Storage implementation (see {@link Queryable}).<br><br>
+ *
+ * Each criterion and ordering has a field name (e.g. "paid", "createdAt"),
+ * which the Storage maps to a column, and the function which reads the
+ * same value from the entity in Java. So any query can also be evaluated
+ * in memory, with {@link #evaluate(Stream)}, if the Storage doesn't know
+ * how to push it down.<br><br>
+ *
+ * Queries are immutable, every method returns a new Query.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ * @param <T> Type of the queried entities.
+ */
+public final class Query<T> {
+
+    /**
+     * Criteria, all of them must match.
+     */
+    private final List<Criterion<T>> criteria;
+
+    /**
+     * Orderings, in order of priority.
+     */
+    private final List<Order<T>> orders;
+
+    /**
+     * How many results to skip.
+     */
+    private final long offset;
+
+    /**
+     * Maximum number of results.
+     */
+    private final long limit;
+
+    /**
+     * Ctor.
+     * @param criteria Criteria.
+     * @param orders Orderings.
+     * @param offset How many results to skip.
+     * @param limit Maximum number of results.
+     */
+    private Query(
+        final List<Criterion<T>> criteria,
+        final List<Order<T>> orders,
+        final long offset,
+        final long limit
+    ) {
+        this.criteria = Collections.unmodifiableList(criteria);
+        this.orders = Collections.unmodifiableList(orders);
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Query for all the entities.
+     * @param <T> Type of the entities.
+     * @return Query.
+     */
+    public static <T> Query<T> all() {
+        return new Query<>(List.of(), List.of(), 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Only the entities with the given value of a field.
+     * @param field Name of the field.
+     * @param value Expected value.
+     * @param attribute Reads the field's value from an entity.
+     * @return Query.
+     */
+    public Query<T> where(
+        final String field,
+        final Object value,
+        final Function<T, ?> attribute
+    ) {
+        final List<Criterion<T>> more = new ArrayList<>(this.criteria);
+        more.add(new Criterion<>(field, value, attribute));
+        return new Query<>(more, this.orders, this.offset, this.limit);
+    }
+
+    /**
+     * Order the results ascending by a field. The first ordering has
+     * the highest priority.
+     * @param field Name of the field.
+     * @param attribute Reads the field's value from an entity.
+     * @param <U> Type of the field.
+     * @return Query.
+     */
+    public <U extends Comparable<? super U>> Query<T> orderBy(
+        final String field,
+        final Function<T, U> attribute
+    ) {
+        final List<Order<T>> more = new ArrayList<>(this.orders);
+        more.add(new Order<>(field, Comparator.comparing(attribute)));
+        return new Query<>(this.criteria, more, this.offset, this.limit);
+    }
+
+    /**
+     * Only the results of the given Page.
+     * @param page Page.
+     * @return Query.
+     */
+    public Query<T> page(final Paged.Page page) {
+        return new Query<>(
+            this.criteria,
+            this.orders,
+            (long) (page.getNumber() - 1) * page.getSize(),
+            page.getSize()
+        );
+    }
+
+    /**
+     * At most the given number of results.
+     * @param max Maximum number of results.
+     * @return Query.
+     */
+    public Query<T> limit(final long max) {
+        return new Query<>(this.criteria, this.orders, this.offset, max);
+    }
+
+    /**
+     * Criteria, all of them must match.
+     * @return List.
+     */
+    public List<Criterion<T>> criteria() {
+        return this.criteria;
+    }
+
+    /**
+     * Orderings, in order of priority.
+     * @return List.
+     */
+    public List<Order<T>> orders() {
+        return this.orders;
+    }
+
+    /**
+     * How many results to skip.
+     * @return Long.
+     */
+    public long offset() {
+        return this.offset;
+    }
+
+    /**
+     * Maximum number of results, Long.MAX_VALUE if there's no limit.
+     * @return Long.
+     */
+    public long limit() {
+        return this.limit;
+    }
+
+    /**
+     * Evaluate this query in memory.
+     * @param entities All the entities.
+     * @return The results.
+     */
+    public Stream<T> evaluate(final Stream<T> entities) {
+        Stream<T> results = entities;
+        for(final Criterion<T> criterion : this.criteria) {
+            results = results.filter(criterion::matches);
+        }
+        if(!this.orders.isEmpty()) {
+            Comparator<T> order = (first, second) -> 0;
+            for(final Order<T> next : this.orders) {
+                order = order.thenComparing(next.comparator);
+            }
+            results = results.sorted(order);
+        }
+        return results.skip(this.offset).limit(this.limit);
+    }
+
+    /**
+     * Count the matching entities in memory. The offset and limit are
+     * ignored.
+     * @param entities All the entities.
+     * @return Number of matching entities.
+     */
+    public long count(final Stream<T> entities) {
+        Stream<T> results = entities;
+        for(final Criterion<T> criterion : this.criteria) {
+            results = results.filter(criterion::matches);
+        }
+        return results.count();
+    }
+
+    /**
+     * A field must have a given value.
+     * @param <T> Type of the entities.
+     */
+    public static final class Criterion<T> {
+
+        /**
+         * Name of the field.
+         */
+        private final String field;
+
+        /**
+         * Expected value.
+         */
+        private final Object value;
+
+        /**
+         * Reads the field's value from an entity.
+         */
+        private final Function<T, ?> attribute;
+
+        /**
+         * Ctor.
+         * @param field Name of the field.
+         * @param value Expected value.
+         * @param attribute Reads the field's value from an entity.
+         */
+        private Criterion(
+            final String field,
+            final Object value,
+            final Function<T, ?> attribute
+        ) {
+            this.field = field;
+            this.value = value;
+            this.attribute = attribute;
+        }
+
+        /**
+         * Name of the field.
+         * @return String.
+         */
+        public String field() {
+            return this.field;
+        }
+
+        /**
+         * Expected value.
+         * @return Object.
+         */
+        public Object value() {
+            return this.value;
+        }
+
+        /**
+         * Does the entity match this criterion?
+         * @param entity Entity.
+         * @return True or false.
+         */
+        public boolean matches(final T entity) {
+            return Objects.equals(this.attribute.apply(entity), this.value);
+        }
+    }
+
+    /**
+     * Ascending order by a field.
+     * @param <T> Type of the entities.
+     */
+    public static final class Order<T> {
+
+        /**
+         * Name of the field.
+         */
+        private final String field;
+
+        /**
+         * Compares the entities by the field.
+         */
+        private final Comparator<T> comparator;
+
+        /**
+         * Ctor.
+         * @param field Name of the field.
+         * @param comparator Compares the entities by the field.
+         */
+        private Order(final String field, final Comparator<T> comparator) {
+            this.field = field;
+            this.comparator = comparator;
+        }
+
+        /**
+         * Name of the field.
+         * @return String.
+         */
+        public String field() {
+            return this.field;
+        }
+    }
+}
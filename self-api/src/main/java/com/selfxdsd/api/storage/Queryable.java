@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.api.storage;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Stored entities which can be queried. Storage implementations should
+ * push the {@link Query} down to the database; if they can't (e.g. an
+ * unknown field), they can evaluate it in memory with
+ * {@link Query#evaluate(Stream)}, which is what {@link InMemory} does.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ * @param <T> Type of the entities.
+ */
+public interface Queryable<T> {
+
+    /**
+     * Find the entities matching the query.
+     * @param query Query.
+     * @return Stream of results.
+     */
+    Stream<T> find(Query<T> query);
+
+    /**
+     * Count the entities matching the query's criteria, ignoring its
+     * offset and limit.
+     * @param query Query.
+     * @return Number of entities.
+     */
+    long count(Query<T> query);
+
+    /**
+     * Queryable entities which are all read and then filtered, ordered
+     * and paged in memory. It's the fallback for Storages which only
+     * provide a Stream of all the entities.
+     * @param <T> Type of the entities.
+     */
+    final class InMemory<T> implements Queryable<T> {
+
+        /**
+         * All the entities.
+         */
+        private final Supplier<Stream<T>> all;
+
+        /**
+         * Ctor.
+         * @param all Supplier of all the entities.
+         */
+        public InMemory(final Supplier<Stream<T>> all) {
+            this.all = all;
+        }
+
+        @Override
+        public Stream<T> find(final Query<T> query) {
+            return query.evaluate(this.all.get());
+        }
+
+        @Override
+        public long count(final Query<T> query) {
+            return query.count(this.all.get());
+        }
+    }
+}
@@ -121,4 +121,15 @@ public interface Storage extends AutoCloseable {
      * @return Payments.
      */
     Payments payments();
+
+    /**
+     * Begin a unit of work: the mutations made until it is committed are
+     * written together, in one transaction. By default, every mutation
+     * is written immediately, in its own transaction: the Storages which
+     * batch their mutations have to override it.
+     * @return UnitOfWork.
+     */
+    default UnitOfWork begin() {
+        return new UnitOfWork.Immediate();
+    }
 }
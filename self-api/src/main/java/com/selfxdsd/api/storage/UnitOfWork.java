@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.api.storage;
+
+/**
+ * Unit of work of a {@link Storage}. The mutations (register, assign,
+ * unassign, remove etc) made while it is open, by the thread which began
+ * it, are collected and, on {@link #commit()}, written together: as
+ * batched statements, in one transaction. If the commit fails, or if the
+ * unit of work is closed without being committed, the mutations are
+ * discarded. The reads made within the unit of work should see its
+ * collected mutations.<br><br>
+ *
+ * Use it with try-with-resources:
+ * <pre>
+ *     try (final UnitOfWork work = storage.begin()) {
+ *         //... mutations ...
+ *         work.commit();
+ *     }
+ * </pre>
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public interface UnitOfWork extends AutoCloseable {
+
+    /**
+     * Write the collected mutations, in one transaction.
+     */
+    void commit();
+
+    /**
+     * Discard the collected mutations, if they were not committed.
+     */
+    @Override
+    void close();
+
+    /**
+     * Unit of work of a Storage which writes every mutation immediately,
+     * in its own transaction. Nothing is collected, so there is nothing
+     * to commit or discard.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    final class Immediate implements UnitOfWork {
+
+        @Override
+        public void commit() {
+            // Nothing to commit, the mutations were written already.
+        }
+
+        @Override
+        public void close() {
+            // Nothing to close.
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Contract;
+import com.selfxdsd.api.Contracts;
+import com.selfxdsd.api.Contributor;
+import com.selfxdsd.core.contracts.ContributorContracts;
+import com.selfxdsd.core.contracts.ProjectContracts;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+/**
+ * Contracts of a {@link CachedStorage}. The Contracts of a Project and
+ * the Contracts of a Contributor are read from the cache.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CachedContracts implements Contracts {
+
+    /**
+     * Original Contracts.
+     */
+    private final Contracts origin;
+
+    /**
+     * Cache.
+     */
+    private final StorageCache<Contract> cache;
+
+    /**
+     * Caching Storage.
+     */
+    private final CachedStorage storage;
+
+    /**
+     * Ctor.
+     * @param origin Original Contracts.
+     * @param cache Cache.
+     * @param storage Caching Storage.
+     */
+    CachedContracts(
+        final Contracts origin,
+        final StorageCache<Contract> cache,
+        final CachedStorage storage
+    ) {
+        this.origin = origin;
+        this.cache = cache;
+        this.storage = storage;
+    }
+
+    @Override
+    public int count() {
+        return this.origin.count();
+    }
+
+    @Override
+    public Contracts ofProject(
+        final String repoFullName,
+        final String repoProvider
+    ) {
+        return new ProjectContracts(
+            repoFullName,
+            repoProvider,
+            () -> this.cache.get(
+                CachedStorage.project(repoFullName, repoProvider),
+                () -> this.origin.ofProject(repoFullName, repoProvider)
+            ).stream(),
+            this.storage
+        );
+    }
+
+    @Override
+    public Contracts ofContributor(final Contributor contributor) {
+        return new ContributorContracts(
+            contributor,
+            () -> this.cache.get(
+                CachedStorage.contributor(
+                    contributor.username(), contributor.provider()
+                ),
+                () -> this.origin.ofContributor(contributor)
+            ).stream(),
+            this.storage
+        );
+    }
+
+    @Override
+    public Contract addContract(
+        final String repoFullName,
+        final String contributorUsername,
+        final String provider,
+        final BigDecimal hourlyRate,
+        final String role
+    ) {
+        final Contract added = this.origin.addContract(
+            repoFullName, contributorUsername, provider, hourlyRate, role
+        );
+        this.storage.evictProject(repoFullName, provider);
+        this.storage.evictContributor(contributorUsername, provider);
+        return added;
+    }
+
+    @Override
+    public void remove(final Contract contract) {
+        this.origin.remove(contract);
+        this.storage.evictContract(contract.contractId());
+    }
+
+    @Override
+    public Contract findById(final Contract.Id id) {
+        return this.origin.findById(id);
+    }
+
+    @Override
+    public Contract update(
+        final Contract contract,
+        final BigDecimal hourlyRate
+    ) {
+        final Contract updated = this.origin.update(contract, hourlyRate);
+        this.storage.evictContract(contract.contractId());
+        return updated;
+    }
+
+    @Override
+    public Contract markForRemoval(
+        final Contract contract,
+        final LocalDateTime time
+    ) {
+        final Contract marked = this.origin.markForRemoval(contract, time);
+        this.storage.evictContract(contract.contractId());
+        return marked;
+    }
+
+    @Override
+    public Iterator<Contract> iterator() {
+        return this.origin.iterator();
+    }
+}
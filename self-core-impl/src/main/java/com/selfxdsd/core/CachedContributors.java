@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Contributor;
+import com.selfxdsd.api.Contributors;
+import com.selfxdsd.api.Task;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Contributors of a {@link CachedStorage}. The Contributors of a Project
+ * are read from the cache when iterated or counted.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CachedContributors implements Contributors {
+
+    /**
+     * Original Contributors.
+     */
+    private final Contributors origin;
+
+    /**
+     * Cache.
+     */
+    private final StorageCache<Contributor> cache;
+
+    /**
+     * Ctor.
+     * @param origin Original Contributors.
+     * @param cache Cache.
+     */
+    CachedContributors(
+        final Contributors origin,
+        final StorageCache<Contributor> cache
+    ) {
+        this.origin = origin;
+        this.cache = cache;
+    }
+
+    @Override
+    public int count() {
+        return this.origin.count();
+    }
+
+    @Override
+    public Contributor register(final String username, final String provider) {
+        return this.origin.register(username, provider);
+    }
+
+    @Override
+    public Contributor getById(final String username, final String provider) {
+        return this.origin.getById(username, provider);
+    }
+
+    @Override
+    public Contributors ofProject(
+        final String repoFullName,
+        final String repoProvider
+    ) {
+        final Contributors contributors = this.origin.ofProject(
+            repoFullName, repoProvider
+        );
+        return new Snapshot(
+            contributors,
+            () -> this.cache.get(
+                CachedStorage.project(repoFullName, repoProvider),
+                () -> contributors
+            )
+        );
+    }
+
+    @Override
+    public Contributors ofProvider(final String provider) {
+        return this.origin.ofProvider(provider);
+    }
+
+    @Override
+    public Contributors page(final Page page) {
+        return this.origin.page(page);
+    }
+
+    @Override
+    public Contributor elect(final Task task) {
+        return this.origin.elect(task);
+    }
+
+    @Override
+    public Page current() {
+        return this.origin.current();
+    }
+
+    @Override
+    public int totalPages() {
+        return this.origin.totalPages();
+    }
+
+    @Override
+    public Iterator<Contributor> iterator() {
+        return this.origin.iterator();
+    }
+
+    /**
+     * Contributors of a Project, iterated and counted from the cache.
+     * The Project is not known here, so everything else is delegated to
+     * the original view.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Snapshot implements Contributors {
+
+        /**
+         * Original view.
+         */
+        private final Contributors origin;
+
+        /**
+         * Cached Contributors.
+         */
+        private final Supplier<List<Contributor>> cached;
+
+        /**
+         * Ctor.
+         * @param origin Original view.
+         * @param cached Cached Contributors.
+         */
+        private Snapshot(
+            final Contributors origin,
+            final Supplier<List<Contributor>> cached
+        ) {
+            this.origin = origin;
+            this.cached = cached;
+        }
+
+        @Override
+        public int count() {
+            return this.cached.get().size();
+        }
+
+        @Override
+        public Contributor register(
+            final String username,
+            final String provider
+        ) {
+            return this.origin.register(username, provider);
+        }
+
+        @Override
+        public Contributor getById(
+            final String username,
+            final String provider
+        ) {
+            return this.origin.getById(username, provider);
+        }
+
+        @Override
+        public Contributors ofProject(
+            final String repoFullName,
+            final String repoProvider
+        ) {
+            return this.origin.ofProject(repoFullName, repoProvider);
+        }
+
+        @Override
+        public Contributors ofProvider(final String provider) {
+            return this.origin.ofProvider(provider);
+        }
+
+        @Override
+        public Contributors page(final Page page) {
+            return this.origin.page(page);
+        }
+
+        @Override
+        public Contributor elect(final Task task) {
+            return this.origin.elect(task);
+        }
+
+        @Override
+        public Page current() {
+            return this.origin.current();
+        }
+
+        @Override
+        public int totalPages() {
+            return this.origin.totalPages();
+        }
+
+        @Override
+        public Iterator<Contributor> iterator() {
+            return this.cached.get().iterator();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Invoice;
+import com.selfxdsd.api.InvoicedTask;
+import com.selfxdsd.api.InvoicedTasks;
+import com.selfxdsd.api.Task;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+
+/**
+ * InvoicedTasks of a {@link CachedStorage}. They are not cached, but
+ * invoicing a Task evicts whatever is cached about its Contract.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CachedInvoicedTasks implements InvoicedTasks {
+
+    /**
+     * Original InvoicedTasks.
+     */
+    private final InvoicedTasks origin;
+
+    /**
+     * Caching Storage.
+     */
+    private final CachedStorage storage;
+
+    /**
+     * Ctor.
+     * @param origin Original InvoicedTasks.
+     * @param storage Caching Storage.
+     */
+    CachedInvoicedTasks(
+        final InvoicedTasks origin,
+        final CachedStorage storage
+    ) {
+        this.origin = origin;
+        this.storage = storage;
+    }
+
+    @Override
+    public InvoicedTasks ofInvoice(final Invoice invoice) {
+        return new CachedInvoicedTasks(
+            this.origin.ofInvoice(invoice), this.storage
+        );
+    }
+
+    @Override
+    public InvoicedTask register(
+        final Invoice invoice,
+        final Task finished,
+        final BigDecimal commission
+    ) {
+        final InvoicedTask registered = this.origin.register(
+            invoice, finished, commission
+        );
+        this.storage.evictInvoice(invoice);
+        return registered;
+    }
+
+    @Override
+    public Iterator<InvoicedTask> iterator() {
+        return this.origin.iterator();
+    }
+}
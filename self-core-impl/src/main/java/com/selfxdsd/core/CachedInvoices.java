@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Contract;
+import com.selfxdsd.api.Invoice;
+import com.selfxdsd.api.Invoices;
+import com.selfxdsd.api.Payment;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+
+/**
+ * Invoices of a {@link CachedStorage}. They are not cached, but creating
+ * or paying an Invoice evicts whatever is cached about its Contract.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CachedInvoices implements Invoices {
+
+    /**
+     * Original Invoices.
+     */
+    private final Invoices origin;
+
+    /**
+     * Contract of these Invoices, null if they are all the Invoices.
+     */
+    private final Contract.Id contract;
+
+    /**
+     * Caching Storage.
+     */
+    private final CachedStorage storage;
+
+    /**
+     * Ctor.
+     * @param origin Original Invoices.
+     * @param storage Caching Storage.
+     */
+    CachedInvoices(final Invoices origin, final CachedStorage storage) {
+        this(origin, null, storage);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original Invoices.
+     * @param contract Contract of these Invoices, null if they are all
+     *  the Invoices.
+     * @param storage Caching Storage.
+     */
+    CachedInvoices(
+        final Invoices origin,
+        final Contract.Id contract,
+        final CachedStorage storage
+    ) {
+        this.origin = origin;
+        this.contract = contract;
+        this.storage = storage;
+    }
+
+    @Override
+    public int count() {
+        return this.origin.count();
+    }
+
+    @Override
+    public Invoice getById(final int id) {
+        return this.origin.getById(id);
+    }
+
+    @Override
+    public Invoice createNewInvoice(final Contract.Id contractId) {
+        final Invoice created = this.origin.createNewInvoice(contractId);
+        this.storage.evictContract(contractId);
+        return created;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The active Invoice of a Contract may be created, so the Contract
+     * is evicted.
+     */
+    @Override
+    public Invoice active() {
+        final Invoice active = this.origin.active();
+        if(this.contract != null) {
+            this.storage.evictContract(this.contract);
+        }
+        return active;
+    }
+
+    @Override
+    public Invoices ofContract(final Contract.Id id) {
+        return new CachedInvoices(this.origin.ofContract(id), id, this.storage);
+    }
+
+    @Override
+    public Payment registerAsPaid(
+        final Invoice invoice,
+        final BigDecimal contributorVat,
+        final BigDecimal eurToRon
+    ) {
+        final Payment payment = this.origin.registerAsPaid(
+            invoice, contributorVat, eurToRon
+        );
+        this.storage.evictInvoice(invoice);
+        return payment;
+    }
+
+    @Override
+    public Iterator<Invoice> iterator() {
+        return this.origin.iterator();
+    }
+}
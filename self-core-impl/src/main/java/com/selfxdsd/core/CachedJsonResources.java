@@ -0,0 +1,448 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JsonResources which cache the GET responses that have an ETag or a
+ * Last-Modified header. The next GET of the same URI (with the same
+ * access token and request headers) is a conditional request
+ * (If-None-Match/If-Modified-Since) and, if the provider answers with
+ * 304 Not Modified, the cached Resource is returned.<br><br>
+ *
+ * Github does not count 304 responses against the rate limit, so this
+ * saves both bandwidth and requests.<br><br>
+ *
+ * The cache is bounded both by number of entries and by the size of the
+ * cached bodies; the least recently used entries are evicted first.
+ * Authenticated instances share the cache of their origin. The cache keys
+ * hold a hash of the access token, not the token itself.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class CachedJsonResources implements JsonResources {
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Hash of the access token, empty for anonymous requests.
+     */
+    private final String token;
+
+    /**
+     * The cache.
+     */
+    private final Cache cache;
+
+    /**
+     * Ctor. At most 1000 responses, of at most 32 MB in total, are cached.
+     * @param origin Original JsonResources.
+     */
+    public CachedJsonResources(final JsonResources origin) {
+        this(origin, 1000);
+    }
+
+    /**
+     * Ctor. At most 32 MB of bodies are cached.
+     * @param origin Original JsonResources.
+     * @param maxEntries Maximum number of cached responses.
+     */
+    public CachedJsonResources(
+        final JsonResources origin,
+        final int maxEntries
+    ) {
+        this(origin, maxEntries, 32L * 1024 * 1024);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param maxEntries Maximum number of cached responses.
+     * @param maxBytes Maximum size of the cached bodies, in bytes.
+     */
+    public CachedJsonResources(
+        final JsonResources origin,
+        final int maxEntries,
+        final long maxBytes
+    ) {
+        this(origin, "", new Cache(maxEntries, maxBytes));
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param token Hash of the access token, empty for anonymous requests.
+     * @param cache The cache.
+     */
+    private CachedJsonResources(
+        final JsonResources origin,
+        final String token,
+        final Cache cache
+    ) {
+        this.origin = origin;
+        this.token = token;
+        this.cache = cache;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new CachedJsonResources(
+            this.origin.authenticated(accessToken),
+            HttpTransport.hash(accessToken.value()),
+            this.cache
+        );
+    }
+
+    @Override
+    public JsonResources prioritized(
+        final RateLimitedJsonResources.Priority priority
+    ) {
+        return new CachedJsonResources(
+            this.origin.prioritized(priority),
+            this.token,
+            this.cache
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.get(uri, Map.of());
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        final String key = this.key(uri, headers);
+        final Resource cached = this.cache.get(key);
+        return this.cached(
+            key,
+            cached,
+            this.origin.get(uri, this.conditional(headers, cached))
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.getAsync(uri, Map.of());
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        final String key = this.key(uri, headers);
+        final Resource cached = this.cache.get(key);
+        return this.origin.getAsync(
+            uri, this.conditional(headers, cached)
+        ).thenApply(received -> this.cached(key, cached, received));
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.origin.post(uri, body);
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.origin.patch(uri, body);
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.origin.put(uri, body);
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.origin.delete(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.postAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.patchAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.putAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.deleteAsync(uri, body);
+    }
+
+    /**
+     * How many GETs were answered from the cache (304 Not Modified).
+     * @return Long.
+     */
+    public long hits() {
+        return this.cache.hits.get();
+    }
+
+    /**
+     * How many GETs had to be downloaded.
+     * @return Long.
+     */
+    public long misses() {
+        return this.cache.misses.get();
+    }
+
+    /**
+     * Cache key of a GET: the token's hash, the URI and the request
+     * headers, which may change the response (e.g. Accept).
+     * @param uri URI.
+     * @param headers Request headers.
+     * @return String.
+     */
+    private String key(final URI uri, final Map<String, String> headers) {
+        final StringBuilder key = new StringBuilder(this.token)
+            .append(' ').append(uri);
+        for(final Map.Entry<String, String> header
+            : new TreeMap<>(headers).entrySet()) {
+            key.append('\n').append(header.getKey().toLowerCase(Locale.ENGLISH))
+                .append(": ").append(header.getValue());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Add the conditional headers to the request, if we have the Resource
+     * cached.
+     * @param headers Original request headers.
+     * @param cached Cached Resource, null if we don't have it.
+     * @return Request headers.
+     */
+    private Map<String, String> conditional(
+        final Map<String, String> headers,
+        final Resource cached
+    ) {
+        final Map<String, String> conditional;
+        if(cached == null) {
+            conditional = headers;
+        } else {
+            conditional = new HashMap<>(headers);
+            final String etag = first(cached, "ETag");
+            if(etag != null) {
+                conditional.put("If-None-Match", etag);
+            }
+            final String modified = first(cached, "Last-Modified");
+            if(modified != null) {
+                conditional.put("If-Modified-Since", modified);
+            }
+        }
+        return conditional;
+    }
+
+    /**
+     * Decide what Resource to return and update the cache.
+     * @param key Cache key.
+     * @param cached Cached Resource, null if we don't have it.
+     * @param received Resource received from the provider.
+     * @return Resource.
+     */
+    private Resource cached(
+        final String key,
+        final Resource cached,
+        final Resource received
+    ) {
+        final Resource resource;
+        if(cached != null
+            && received.statusCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            this.cache.hits.incrementAndGet();
+            resource = cached;
+        } else {
+            this.cache.misses.incrementAndGet();
+            if(received.statusCode() == HttpURLConnection.HTTP_OK
+                && (first(received, "ETag") != null
+                || first(received, "Last-Modified") != null)) {
+                this.cache.put(key, received);
+            } else {
+                this.cache.remove(key);
+            }
+            resource = received;
+        }
+        return resource;
+    }
+
+    /**
+     * First value of a response header.
+     * @param resource Resource.
+     * @param name Header name.
+     * @return String or null if the header is missing.
+     */
+    private static String first(final Resource resource, final String name) {
+        final List<String> values = resource.headers().get(name);
+        final String first;
+        if(values == null || values.isEmpty()) {
+            first = null;
+        } else {
+            first = values.get(0);
+        }
+        return first;
+    }
+
+    /**
+     * Bounded, least-recently-used cache of Resources. It is bounded by
+     * number of Resources and by the size of their bodies.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Cache {
+
+        /**
+         * Cached Resources.
+         */
+        private final Map<String, Resource> resources;
+
+        /**
+         * Maximum number of cached Resources.
+         */
+        private final int maxEntries;
+
+        /**
+         * Maximum size of the cached bodies, in bytes.
+         */
+        private final long maxBytes;
+
+        /**
+         * Hits counter.
+         */
+        private final AtomicLong hits;
+
+        /**
+         * Misses counter.
+         */
+        private final AtomicLong misses;
+
+        /**
+         * Size of the cached bodies, in bytes.
+         */
+        private long bytes;
+
+        /**
+         * Ctor.
+         * @param maxEntries Maximum number of cached Resources.
+         * @param maxBytes Maximum size of the cached bodies, in bytes.
+         */
+        private Cache(final int maxEntries, final long maxBytes) {
+            this.resources = new LinkedHashMap<>(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+            this.hits = new AtomicLong();
+            this.misses = new AtomicLong();
+        }
+
+        /**
+         * Get a cached Resource.
+         * @param key Key.
+         * @return Resource or null if it's not cached.
+         */
+        private Resource get(final String key) {
+            synchronized (this.resources) {
+                return this.resources.get(key);
+            }
+        }
+
+        /**
+         * Cache a Resource, evicting the least recently used ones if the
+         * cache is full. A Resource bigger than the whole cache is not
+         * cached.
+         * @param key Key.
+         * @param resource Resource.
+         */
+        private void put(final String key, final Resource resource) {
+            synchronized (this.resources) {
+                this.remove(key);
+                final long size = Cache.size(resource);
+                if(size <= this.maxBytes) {
+                    this.resources.put(key, resource);
+                    this.bytes = this.bytes + size;
+                    final Iterator<Resource> eldest =
+                        this.resources.values().iterator();
+                    while(this.resources.size() > this.maxEntries
+                        || this.bytes > this.maxBytes) {
+                        this.bytes = this.bytes - Cache.size(eldest.next());
+                        eldest.remove();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Remove a cached Resource.
+         * @param key Key.
+         */
+        private void remove(final String key) {
+            synchronized (this.resources) {
+                final Resource removed = this.resources.remove(key);
+                if(removed != null) {
+                    this.bytes = this.bytes - Cache.size(removed);
+                }
+            }
+        }
+
+        /**
+         * Size of a Resource's body, 0 if unknown.
+         * @param resource Resource.
+         * @return Long.
+         */
+        private static long size(final Resource resource) {
+            return Math.max(resource.size(), 0);
+        }
+    }
+}
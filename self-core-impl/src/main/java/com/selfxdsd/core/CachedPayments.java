@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Invoice;
+import com.selfxdsd.api.Payment;
+import com.selfxdsd.api.Payments;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+/**
+ * Payments of a {@link CachedStorage}. They are not cached, but
+ * registering a Payment evicts whatever is cached about the Contract
+ * of its Invoice.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CachedPayments implements Payments {
+
+    /**
+     * Original Payments.
+     */
+    private final Payments origin;
+
+    /**
+     * Caching Storage.
+     */
+    private final CachedStorage storage;
+
+    /**
+     * Ctor.
+     * @param origin Original Payments.
+     * @param storage Caching Storage.
+     */
+    CachedPayments(final Payments origin, final CachedStorage storage) {
+        this.origin = origin;
+        this.storage = storage;
+    }
+
+    @Override
+    public Payment register(
+        final Invoice invoice,
+        final String transactionId,
+        final LocalDateTime timestamp,
+        final BigDecimal value,
+        final String status,
+        final String failReason
+    ) {
+        final Payment registered = this.origin.register(
+            invoice, transactionId, timestamp, value, status, failReason
+        );
+        this.storage.evictInvoice(invoice);
+        return registered;
+    }
+
+    @Override
+    public Payments ofInvoice(final Invoice invoice) {
+        return new CachedPayments(this.origin.ofInvoice(invoice), this.storage);
+    }
+
+    @Override
+    public Iterator<Payment> iterator() {
+        return this.origin.iterator();
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.ProjectManager;
+import com.selfxdsd.api.Projects;
+import com.selfxdsd.api.Repo;
+import com.selfxdsd.api.User;
+
+import java.util.Iterator;
+
+/**
+ * Projects of a {@link CachedStorage}. Nothing is cached here, but
+ * removing a Project evicts everything cached about it.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CachedProjects implements Projects {
+
+    /**
+     * Original Projects.
+     */
+    private final Projects origin;
+
+    /**
+     * Caching Storage.
+     */
+    private final CachedStorage storage;
+
+    /**
+     * Ctor.
+     * @param origin Original Projects.
+     * @param storage Caching Storage.
+     */
+    CachedProjects(final Projects origin, final CachedStorage storage) {
+        this.origin = origin;
+        this.storage = storage;
+    }
+
+    @Override
+    public int count() {
+        return this.origin.count();
+    }
+
+    @Override
+    public Project register(
+        final Repo repo,
+        final ProjectManager manager,
+        final String webHookToken
+    ) {
+        return this.origin.register(repo, manager, webHookToken);
+    }
+
+    @Override
+    public Projects assignedTo(final int projectManagerId) {
+        return this.origin.assignedTo(projectManagerId);
+    }
+
+    @Override
+    public Projects ownedBy(final User user) {
+        return this.origin.ownedBy(user);
+    }
+
+    @Override
+    public Project getProjectById(
+        final String repoFullName,
+        final String repoProvider
+    ) {
+        return this.origin.getProjectById(repoFullName, repoProvider);
+    }
+
+    @Override
+    public Projects page(final Page page) {
+        return this.origin.page(page);
+    }
+
+    @Override
+    public void remove(final Project project) {
+        this.origin.remove(project);
+        this.storage.evictProject(project.repoFullName(), project.provider());
+    }
+
+    @Override
+    public Page current() {
+        return this.origin.current();
+    }
+
+    @Override
+    public int totalPages() {
+        return this.origin.totalPages();
+    }
+
+    @Override
+    public Iterator<Project> iterator() {
+        return this.origin.iterator();
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Resignation;
+import com.selfxdsd.api.Resignations;
+import com.selfxdsd.api.Task;
+
+import java.util.Iterator;
+
+/**
+ * Resignations of a {@link CachedStorage}. They are not cached, but
+ * registering a Resignation evicts whatever is cached about its Task's
+ * Project and assignee.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CachedResignations implements Resignations {
+
+    /**
+     * Original Resignations.
+     */
+    private final Resignations origin;
+
+    /**
+     * Caching Storage.
+     */
+    private final CachedStorage storage;
+
+    /**
+     * Ctor.
+     * @param origin Original Resignations.
+     * @param storage Caching Storage.
+     */
+    CachedResignations(
+        final Resignations origin,
+        final CachedStorage storage
+    ) {
+        this.origin = origin;
+        this.storage = storage;
+    }
+
+    @Override
+    public Resignations ofTask(final Task task) {
+        return new CachedResignations(this.origin.ofTask(task), this.storage);
+    }
+
+    @Override
+    public Resignation register(final Task task, final String reason) {
+        final Resignation registered = this.origin.register(task, reason);
+        this.storage.evictTask(task);
+        return registered;
+    }
+
+    @Override
+    public Iterator<Resignation> iterator() {
+        return this.origin.iterator();
+    }
+}
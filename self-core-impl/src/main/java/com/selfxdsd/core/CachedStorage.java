@@ -0,0 +1,469 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.*;
+import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.api.storage.UnitOfWork;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Storage which caches the views read most often: the Contracts,
+ * Contributors, Tasks and Wallets of a Project and the Contracts and
+ * Tasks of a Contributor. Every collection has its own
+ * {@link StorageCache}, with its own bounds and statistics.<br><br>
+ *
+ * Every write (register, assign, unassign, update, markForRemoval,
+ * remove, invoicing, payments, resignations etc) made through this Storage
+ * evicts whatever is cached about the Project and the Contributor it
+ * touches.<br><br>
+ *
+ * The Stored objects (e.g. StoredProject) read and write through the
+ * Storage which built them, so build the origin around this cache
+ * (see {@link #CachedStorage(Function)}); otherwise, only the calls made
+ * directly on this Storage are cached.<br><br>
+ *
+ * The mutations of a {@link UnitOfWork} are written only when it is
+ * committed, so whatever they touch is not cached while it is open: the
+ * reads go to the origin (which should see the collected mutations) and
+ * the views are cached again once the unit of work is closed.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class CachedStorage implements Storage {
+
+    /**
+     * Original Storage.
+     */
+    private final Storage origin;
+
+    /**
+     * Cached Contracts.
+     */
+    private final StorageCache<Contract> contracts;
+
+    /**
+     * Cached Contributors.
+     */
+    private final StorageCache<Contributor> contributors;
+
+    /**
+     * Cached Tasks.
+     */
+    private final StorageCache<Task> tasks;
+
+    /**
+     * Cached Wallets.
+     */
+    private final StorageCache<Wallet> wallets;
+
+    /**
+     * Open units of work.
+     */
+    private final Set<Work> open;
+
+    /**
+     * Ctor.
+     * @param origin Original Storage.
+     */
+    public CachedStorage(final Storage origin) {
+        this(self -> origin);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Builds the original Storage around this cache.
+     */
+    public CachedStorage(final Function<Storage, Storage> origin) {
+        this(
+            origin,
+            new StorageCache<>(),
+            new StorageCache<>(),
+            new StorageCache<>(),
+            new StorageCache<>()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param origin Builds the original Storage around this cache.
+     * @param contracts Cache of the Contracts.
+     * @param contributors Cache of the Contributors.
+     * @param tasks Cache of the Tasks.
+     * @param wallets Cache of the Wallets.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    public CachedStorage(
+        final Function<Storage, Storage> origin,
+        final StorageCache<Contract> contracts,
+        final StorageCache<Contributor> contributors,
+        final StorageCache<Task> tasks,
+        final StorageCache<Wallet> wallets
+    ) {
+        this.contracts = contracts;
+        this.contributors = contributors;
+        this.tasks = tasks;
+        this.wallets = wallets;
+        this.open = ConcurrentHashMap.newKeySet();
+        this.origin = origin.apply(this);
+    }
+
+    @Override
+    public Users users() {
+        return this.origin.users();
+    }
+
+    @Override
+    public ProjectManagers projectManagers() {
+        return this.origin.projectManagers();
+    }
+
+    @Override
+    public Projects projects() {
+        return new CachedProjects(this.origin.projects(), this);
+    }
+
+    @Override
+    public Wallets wallets() {
+        return new CachedWallets(this.origin.wallets(), this.wallets, this);
+    }
+
+    @Override
+    public Contracts contracts() {
+        return new CachedContracts(
+            this.origin.contracts(), this.contracts, this
+        );
+    }
+
+    @Override
+    public Invoices invoices() {
+        return new CachedInvoices(this.origin.invoices(), this);
+    }
+
+    @Override
+    public InvoicedTasks invoicedTasks() {
+        return new CachedInvoicedTasks(this.origin.invoicedTasks(), this);
+    }
+
+    @Override
+    public Contributors contributors() {
+        return new CachedContributors(
+            this.origin.contributors(), this.contributors
+        );
+    }
+
+    @Override
+    public Tasks tasks() {
+        return new CachedTasks(this.origin.tasks(), this.tasks, this);
+    }
+
+    @Override
+    public Resignations resignations() {
+        return new CachedResignations(this.origin.resignations(), this);
+    }
+
+    @Override
+    public PayoutMethods payoutMethods() {
+        return this.origin.payoutMethods();
+    }
+
+    @Override
+    public PaymentMethods paymentMethods() {
+        return this.origin.paymentMethods();
+    }
+
+    @Override
+    public PlatformInvoices platformInvoices() {
+        return this.origin.platformInvoices();
+    }
+
+    @Override
+    public ApiTokens apiTokens() {
+        return this.origin.apiTokens();
+    }
+
+    @Override
+    public Payments payments() {
+        return new CachedPayments(this.origin.payments(), this);
+    }
+
+    @Override
+    public UnitOfWork begin() {
+        UnitOfWork begun = this.origin.begin();
+        if(begun == null) {
+            begun = new UnitOfWork.Immediate();
+        }
+        final Work work = new Work(begun, this);
+        this.open.add(work);
+        return work;
+    }
+
+    @Override
+    public void close() throws Exception {
+        this.origin.close();
+    }
+
+    /**
+     * How many reads were answered from the cache, in all the collections.
+     * @return Long.
+     */
+    public long hits() {
+        return this.contracts.hits() + this.contributors.hits()
+            + this.tasks.hits() + this.wallets.hits();
+    }
+
+    /**
+     * How many reads went to the origin, in all the collections.
+     * @return Long.
+     */
+    public long misses() {
+        return this.contracts.misses() + this.contributors.misses()
+            + this.tasks.misses() + this.wallets.misses();
+    }
+
+    /**
+     * Evict everything cached about a Project.
+     * @param repoFullName Full name of the Project's repo.
+     * @param provider Provider.
+     */
+    void evictProject(final String repoFullName, final String provider) {
+        final String key = CachedStorage.project(repoFullName, provider);
+        this.evictProject(key);
+        for(final Work work : this.open) {
+            work.project(key);
+        }
+    }
+
+    /**
+     * Evict everything cached about a Contributor.
+     * @param username Contributor's username.
+     * @param provider Provider.
+     */
+    void evictContributor(final String username, final String provider) {
+        final String key = CachedStorage.contributor(username, provider);
+        this.evictContributor(key);
+        for(final Work work : this.open) {
+            work.contributor(key);
+        }
+    }
+
+    /**
+     * Evict everything cached about a Contract: its Project
+     * and its Contributor.
+     * @param id Contract id.
+     */
+    void evictContract(final Contract.Id id) {
+        this.evictProject(id.getRepoFullName(), id.getProvider());
+        this.evictContributor(id.getContributorUsername(), id.getProvider());
+    }
+
+    /**
+     * Evict everything cached about the Contract of an Invoice.
+     * @param invoice Invoice.
+     */
+    void evictInvoice(final Invoice invoice) {
+        this.evictContract(invoice.contract().contractId());
+    }
+
+    /**
+     * Evict everything cached about a Task: its Project and, if it's
+     * assigned, its Contract.
+     * @param task Task.
+     */
+    void evictTask(final Task task) {
+        final Project project = task.project();
+        this.evictProject(project.repoFullName(), project.provider());
+        final Contract contract = task.contract();
+        if(contract != null) {
+            this.evictContract(contract.contractId());
+        }
+    }
+
+    /**
+     * Evict the views of a Project.
+     * @param key Project key.
+     */
+    private void evictProject(final String key) {
+        this.contracts.evict(key);
+        this.contributors.evict(key);
+        this.tasks.evict(key);
+        this.wallets.evict(key);
+    }
+
+    /**
+     * Evict the views of a Contributor.
+     * @param key Contributor key.
+     */
+    private void evictContributor(final String key) {
+        this.contracts.evict(key);
+        this.tasks.evict(key);
+    }
+
+    /**
+     * Cache key of a Project's view.
+     * @param repoFullName Full name of the Project's repo.
+     * @param provider Provider.
+     * @return String.
+     */
+    static String project(final String repoFullName, final String provider) {
+        return ("project\n" + repoFullName + "\n" + provider)
+            .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Cache key of a Contributor's view.
+     * @param username Contributor's username.
+     * @param provider Provider.
+     * @return String.
+     */
+    static String contributor(final String username, final String provider) {
+        return ("contributor\n" + username + "\n" + provider)
+            .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Unit of work of the origin. The views it touches are not cached
+     * until it is closed and they are evicted again when it is committed
+     * or closed.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Work implements UnitOfWork {
+
+        /**
+         * Unit of work of the origin.
+         */
+        private final UnitOfWork origin;
+
+        /**
+         * Caching Storage.
+         */
+        private final CachedStorage storage;
+
+        /**
+         * Keys of the Projects touched (and held) while it was open.
+         */
+        private final Set<String> projects;
+
+        /**
+         * Keys of the Contributors touched (and held) while it was open.
+         */
+        private final Set<String> contributors;
+
+        /**
+         * Was it closed?
+         */
+        private boolean closed;
+
+        /**
+         * Ctor.
+         * @param origin Unit of work of the origin.
+         * @param storage Caching Storage.
+         */
+        private Work(final UnitOfWork origin, final CachedStorage storage) {
+            this.origin = origin;
+            this.storage = storage;
+            this.projects = ConcurrentHashMap.newKeySet();
+            this.contributors = ConcurrentHashMap.newKeySet();
+        }
+
+        @Override
+        public void commit() {
+            try {
+                this.origin.commit();
+            } finally {
+                this.evict();
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.origin.close();
+            } finally {
+                this.storage.open.remove(this);
+                this.release();
+                this.evict();
+            }
+        }
+
+        /**
+         * Evict again whatever was evicted while it was open.
+         */
+        private void evict() {
+            for(final String key : this.projects) {
+                this.storage.evictProject(key);
+            }
+            for(final String key : this.contributors) {
+                this.storage.evictContributor(key);
+            }
+        }
+
+        /**
+         * A Project was touched while it was open: hold its views.
+         * @param key Project key.
+         */
+        private synchronized void project(final String key) {
+            if(!this.closed && this.projects.add(key)) {
+                this.storage.contracts.hold(key);
+                this.storage.contributors.hold(key);
+                this.storage.tasks.hold(key);
+                this.storage.wallets.hold(key);
+            }
+        }
+
+        /**
+         * A Contributor was touched while it was open: hold its views.
+         * @param key Contributor key.
+         */
+        private synchronized void contributor(final String key) {
+            if(!this.closed && this.contributors.add(key)) {
+                this.storage.contracts.hold(key);
+                this.storage.tasks.hold(key);
+            }
+        }
+
+        /**
+         * Release whatever it held, so it is cached again.
+         */
+        private synchronized void release() {
+            this.closed = true;
+            for(final String key : this.projects) {
+                this.storage.contracts.release(key);
+                this.storage.contributors.release(key);
+                this.storage.tasks.release(key);
+                this.storage.wallets.release(key);
+            }
+            for(final String key : this.contributors) {
+                this.storage.contracts.release(key);
+                this.storage.tasks.release(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Contract;
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Task;
+import com.selfxdsd.api.Tasks;
+import com.selfxdsd.core.tasks.ContributorTasks;
+import com.selfxdsd.core.tasks.ProjectTasks;
+
+import java.util.Iterator;
+
+/**
+ * Tasks of a {@link CachedStorage}. The Tasks of a Project and the Tasks
+ * of a Contributor are read from the cache.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CachedTasks implements Tasks {
+
+    /**
+     * Original Tasks.
+     */
+    private final Tasks origin;
+
+    /**
+     * Cache.
+     */
+    private final StorageCache<Task> cache;
+
+    /**
+     * Caching Storage.
+     */
+    private final CachedStorage storage;
+
+    /**
+     * Ctor.
+     * @param origin Original Tasks.
+     * @param cache Cache.
+     * @param storage Caching Storage.
+     */
+    CachedTasks(
+        final Tasks origin,
+        final StorageCache<Task> cache,
+        final CachedStorage storage
+    ) {
+        this.origin = origin;
+        this.cache = cache;
+        this.storage = storage;
+    }
+
+    @Override
+    public int count() {
+        return this.origin.count();
+    }
+
+    @Override
+    public Task getById(
+        final String issueId,
+        final String repoFullName,
+        final String provider,
+        final boolean isPullRequest
+    ) {
+        return this.origin.getById(
+            issueId, repoFullName, provider, isPullRequest
+        );
+    }
+
+    @Override
+    public Task register(final Issue issue) {
+        final Task registered = this.origin.register(issue);
+        this.storage.evictProject(issue.repoFullName(), issue.provider());
+        return registered;
+    }
+
+    @Override
+    public Task assign(
+        final Task task,
+        final Contract contract,
+        final int days
+    ) {
+        final Task assigned = this.origin.assign(task, contract, days);
+        this.storage.evictTask(task);
+        this.storage.evictContract(contract.contractId());
+        return assigned;
+    }
+
+    @Override
+    public Task unassign(final Task task) {
+        final Task unassigned = this.origin.unassign(task);
+        this.storage.evictTask(task);
+        return unassigned;
+    }
+
+    @Override
+    public Tasks ofProject(
+        final String repoFullName,
+        final String repoProvider
+    ) {
+        return new ProjectTasks(
+            repoFullName,
+            repoProvider,
+            () -> this.cache.get(
+                CachedStorage.project(repoFullName, repoProvider),
+                () -> this.origin.ofProject(repoFullName, repoProvider)
+            ).stream(),
+            this.storage
+        );
+    }
+
+    @Override
+    public Tasks ofContributor(
+        final String username,
+        final String provider
+    ) {
+        return new ContributorTasks(
+            username,
+            provider,
+            () -> this.cache.get(
+                CachedStorage.contributor(username, provider),
+                () -> this.origin.ofContributor(username, provider)
+            ).stream(),
+            this.storage
+        );
+    }
+
+    @Override
+    public Tasks ofContract(final Contract.Id id) {
+        return this.origin.ofContract(id);
+    }
+
+    @Override
+    public Tasks unassigned() {
+        return this.origin.unassigned();
+    }
+
+    @Override
+    public boolean remove(final Task task) {
+        final boolean removed = this.origin.remove(task);
+        this.storage.evictTask(task);
+        return removed;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return this.origin.iterator();
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.Wallet;
+import com.selfxdsd.api.Wallets;
+import com.selfxdsd.core.projects.ProjectWallets;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+
+/**
+ * Wallets of a {@link CachedStorage}. The Wallets of a Project are read
+ * from the cache.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CachedWallets implements Wallets {
+
+    /**
+     * Original Wallets.
+     */
+    private final Wallets origin;
+
+    /**
+     * Cache.
+     */
+    private final StorageCache<Wallet> cache;
+
+    /**
+     * Caching Storage.
+     */
+    private final CachedStorage storage;
+
+    /**
+     * Ctor.
+     * @param origin Original Wallets.
+     * @param cache Cache.
+     * @param storage Caching Storage.
+     */
+    CachedWallets(
+        final Wallets origin,
+        final StorageCache<Wallet> cache,
+        final CachedStorage storage
+    ) {
+        this.origin = origin;
+        this.cache = cache;
+        this.storage = storage;
+    }
+
+    @Override
+    public Wallet register(
+        final Project project,
+        final String type,
+        final BigDecimal cash,
+        final String identifier
+    ) {
+        final Wallet registered = this.origin.register(
+            project, type, cash, identifier
+        );
+        this.storage.evictProject(project.repoFullName(), project.provider());
+        return registered;
+    }
+
+    @Override
+    public Wallets ofProject(final Project project) {
+        return new ProjectWallets(
+            project,
+            this.cache.get(
+                CachedStorage.project(
+                    project.repoFullName(), project.provider()
+                ),
+                () -> this.origin.ofProject(project)
+            ),
+            this.storage
+        );
+    }
+
+    @Override
+    public Wallet active() {
+        return this.origin.active();
+    }
+
+    @Override
+    public Wallet activate(final Wallet wallet) {
+        final Wallet active = this.origin.activate(wallet);
+        this.evict(wallet);
+        return active;
+    }
+
+    @Override
+    public Wallet updateCash(final Wallet wallet, final BigDecimal cash) {
+        final Wallet updated = this.origin.updateCash(wallet, cash);
+        this.evict(wallet);
+        return updated;
+    }
+
+    @Override
+    public boolean remove(final Wallet wallet) {
+        final boolean removed = this.origin.remove(wallet);
+        this.evict(wallet);
+        return removed;
+    }
+
+    @Override
+    public Iterator<Wallet> iterator() {
+        return this.origin.iterator();
+    }
+
+    /**
+     * Evict everything cached about the Project of a Wallet.
+     * @param wallet Wallet.
+     */
+    private void evict(final Wallet wallet) {
+        final Project project = wallet.project();
+        this.storage.evictProject(project.repoFullName(), project.provider());
+    }
+}
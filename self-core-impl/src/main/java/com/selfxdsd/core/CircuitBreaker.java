@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Circuit breaker of a provider host. It opens after a number of failures
+ * within a time window; while open, requests fail fast. After a cool-down
+ * period, it lets a few probe requests through (half-open): if one of
+ * them succeeds the circuit closes, if one of them fails it opens again.
+ * Only the probes can close the circuit: a request which was already in
+ * flight before the circuit opened may succeed late, while the host is
+ * still failing.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CircuitBreaker {
+
+    /**
+     * Number of failures, within the window, which open the circuit.
+     */
+    private final int threshold;
+
+    /**
+     * Failures window.
+     */
+    private final Duration window;
+
+    /**
+     * How long the circuit stays open before letting probes through.
+     */
+    private final Duration cooldown;
+
+    /**
+     * Number of probe requests allowed while half-open.
+     */
+    private final int probes;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Moments of the recent failures.
+     */
+    private final Deque<Instant> failures;
+
+    /**
+     * Current state.
+     */
+    private CircuitBreakers.State state;
+
+    /**
+     * When the circuit was opened.
+     */
+    private Instant openedAt;
+
+    /**
+     * Probes in flight while half-open.
+     */
+    private int probing;
+
+    /**
+     * Incremented every time the circuit opens or becomes half-open, so
+     * we know whether a probe belongs to the current half-open period.
+     */
+    private long epoch;
+
+    /**
+     * Ctor.
+     * @param threshold Number of failures which open the circuit.
+     * @param window Failures window.
+     * @param cooldown How long the circuit stays open.
+     * @param probes Number of probe requests allowed while half-open.
+     * @param clock Clock.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    CircuitBreaker(
+        final int threshold,
+        final Duration window,
+        final Duration cooldown,
+        final int probes,
+        final Clock clock
+    ) {
+        this.threshold = threshold;
+        this.window = window;
+        this.cooldown = cooldown;
+        this.probes = probes;
+        this.clock = clock;
+        this.failures = new ArrayDeque<>();
+        this.state = CircuitBreakers.State.CLOSED;
+        this.openedAt = Instant.EPOCH;
+    }
+
+    /**
+     * Can a request go through?
+     * @return The Call to report the outcome of the request to, or null if
+     *  the request should fail fast.
+     */
+    synchronized Call allow() {
+        final Call call;
+        if(this.state() == CircuitBreakers.State.CLOSED) {
+            call = new Call(this, false, this.epoch);
+        } else if(this.state == CircuitBreakers.State.HALF_OPEN
+            && this.probing < this.probes) {
+            this.probing = this.probing + 1;
+            call = new Call(this, true, this.epoch);
+        } else {
+            call = null;
+        }
+        return call;
+    }
+
+    /**
+     * A request went through fine. Only a probe of the current half-open
+     * period closes the circuit.
+     * @param call The request.
+     */
+    synchronized void success(final Call call) {
+        if(this.state == CircuitBreakers.State.HALF_OPEN
+            && call.probe && call.epoch == this.epoch) {
+            this.state = CircuitBreakers.State.CLOSED;
+            this.probing = 0;
+            this.failures.clear();
+        }
+    }
+
+    /**
+     * A request failed.
+     */
+    synchronized void failure() {
+        final Instant now = this.clock.instant();
+        if(this.state == CircuitBreakers.State.HALF_OPEN) {
+            this.open(now);
+        } else if(this.state == CircuitBreakers.State.CLOSED) {
+            this.failures.addLast(now);
+            final Instant start = now.minus(this.window);
+            while(!this.failures.isEmpty()
+                && this.failures.peekFirst().isBefore(start)) {
+                this.failures.removeFirst();
+            }
+            if(this.failures.size() >= this.threshold) {
+                this.open(now);
+            }
+        }
+    }
+
+    /**
+     * Current state. An open circuit becomes half-open once the cool-down
+     * period is over.
+     * @return State.
+     */
+    synchronized CircuitBreakers.State state() {
+        if(this.state == CircuitBreakers.State.OPEN
+            && !this.clock.instant().isBefore(
+                this.openedAt.plus(this.cooldown)
+            )
+        ) {
+            this.state = CircuitBreakers.State.HALF_OPEN;
+            this.probing = 0;
+            this.epoch = this.epoch + 1;
+        }
+        return this.state;
+    }
+
+    /**
+     * Open the circuit.
+     * @param now Current moment.
+     */
+    private void open(final Instant now) {
+        this.state = CircuitBreakers.State.OPEN;
+        this.openedAt = now;
+        this.probing = 0;
+        this.epoch = this.epoch + 1;
+        this.failures.clear();
+    }
+
+    /**
+     * A request let through by the circuit breaker.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    static final class Call {
+
+        /**
+         * The circuit breaker.
+         */
+        private final CircuitBreaker breaker;
+
+        /**
+         * Is it a probe of a half-open circuit?
+         */
+        private final boolean probe;
+
+        /**
+         * Epoch of the circuit breaker when it was let through.
+         */
+        private final long epoch;
+
+        /**
+         * Ctor.
+         * @param breaker The circuit breaker.
+         * @param probe Is it a probe of a half-open circuit?
+         * @param epoch Epoch of the circuit breaker.
+         */
+        private Call(
+            final CircuitBreaker breaker,
+            final boolean probe,
+            final long epoch
+        ) {
+            this.breaker = breaker;
+            this.probe = probe;
+            this.epoch = epoch;
+        }
+
+        /**
+         * The request went through fine.
+         */
+        void success() {
+            this.breaker.success(this);
+        }
+
+        /**
+         * The request failed.
+         */
+        void failure() {
+            this.breaker.failure();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Provider;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breakers of the provider hosts, used by
+ * {@link GuardedJsonResources}. Query them before starting work which
+ * can be deferred, instead of tying up threads in requests which will
+ * fail anyway.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class CircuitBreakers {
+
+    /**
+     * Number of failures, within the window, which open a circuit.
+     */
+    private final int threshold;
+
+    /**
+     * Failures window.
+     */
+    private final Duration window;
+
+    /**
+     * How long a circuit stays open before letting probes through.
+     */
+    private final Duration cooldown;
+
+    /**
+     * Number of probe requests allowed while half-open.
+     */
+    private final int probes;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * API host of each Provider, by lowercase Provider name.
+     */
+    private final Map<String, String> apis;
+
+    /**
+     * Breakers of each host.
+     */
+    private final Map<String, CircuitBreaker> hosts;
+
+    /**
+     * Ctor. A circuit opens after 5 failures within a minute and stays
+     * open for 30 seconds, then one probe request is let through.
+     */
+    public CircuitBreakers() {
+        this(5, Duration.ofMinutes(1), Duration.ofSeconds(30), 1);
+    }
+
+    /**
+     * Ctor. The Providers use their public API hosts.
+     * @param threshold Number of failures which open a circuit.
+     * @param window Failures window.
+     * @param cooldown How long a circuit stays open.
+     * @param probes Number of probe requests allowed while half-open.
+     */
+    public CircuitBreakers(
+        final int threshold,
+        final Duration window,
+        final Duration cooldown,
+        final int probes
+    ) {
+        this(
+            Map.of(
+                Provider.Names.GITHUB, "api.github.com",
+                Provider.Names.GITLAB, "gitlab.com",
+                Provider.Names.BITBUCKET, "api.bitbucket.org"
+            ),
+            threshold, window, cooldown, probes
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param apis API host of each Provider, by Provider name
+     *  (see {@link Provider.Names}).
+     * @param threshold Number of failures which open a circuit.
+     * @param window Failures window.
+     * @param cooldown How long a circuit stays open.
+     * @param probes Number of probe requests allowed while half-open.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    public CircuitBreakers(
+        final Map<String, String> apis,
+        final int threshold,
+        final Duration window,
+        final Duration cooldown,
+        final int probes
+    ) {
+        this(apis, threshold, window, cooldown, probes, Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     * @param apis API host of each Provider, by Provider name.
+     * @param threshold Number of failures which open a circuit.
+     * @param window Failures window.
+     * @param cooldown How long a circuit stays open.
+     * @param probes Number of probe requests allowed while half-open.
+     * @param clock Clock.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    CircuitBreakers(
+        final Map<String, String> apis,
+        final int threshold,
+        final Duration window,
+        final Duration cooldown,
+        final int probes,
+        final Clock clock
+    ) {
+        this.apis = new HashMap<>();
+        apis.forEach(
+            (provider, host) -> this.apis.put(
+                provider.toLowerCase(Locale.ENGLISH),
+                host.toLowerCase(Locale.ENGLISH)
+            )
+        );
+        this.threshold = threshold;
+        this.window = window;
+        this.cooldown = cooldown;
+        this.probes = probes;
+        this.clock = clock;
+        this.hosts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * State of the circuit of the given host.
+     * @param host Host (e.g. api.github.com).
+     * @return State.
+     */
+    public State state(final String host) {
+        final CircuitBreaker breaker = this.hosts.get(
+            host.toLowerCase(Locale.ENGLISH)
+        );
+        final State state;
+        if(breaker == null) {
+            state = State.CLOSED;
+        } else {
+            state = breaker.state();
+        }
+        return state;
+    }
+
+    /**
+     * Is the given Provider available? It is not available while the
+     * circuit of its API host is open. A Provider without a known API host
+     * is looked up as a host itself.
+     * @param provider Provider name (see {@link Provider.Names}).
+     * @return True or false.
+     */
+    public boolean available(final String provider) {
+        final String host = this.apis.getOrDefault(
+            provider.toLowerCase(Locale.ENGLISH), provider
+        );
+        return this.state(host) != State.OPEN;
+    }
+
+    /**
+     * Circuit breaker of the given URI's host.
+     * @param uri URI.
+     * @return CircuitBreaker.
+     */
+    CircuitBreaker breaker(final URI uri) {
+        return this.hosts.computeIfAbsent(
+            uri.getHost().toLowerCase(Locale.ENGLISH),
+            host -> new CircuitBreaker(
+                this.threshold,
+                this.window,
+                this.cooldown,
+                this.probes,
+                this.clock
+            )
+        );
+    }
+
+    /**
+     * State of a circuit.
+     */
+    public enum State {
+
+        /**
+         * Requests go through.
+         */
+        CLOSED,
+
+        /**
+         * Requests fail fast.
+         */
+        OPEN,
+
+        /**
+         * Some probe requests go through, to check if the host recovered.
+         */
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,315 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * JsonResources which coalesce identical concurrent GETs (single-flight):
+ * while a GET of some URI is in flight, other GETs of the same URI, made
+ * with the same access token and headers, don't reach the provider; they
+ * wait for the same response instead.<br><br>
+ *
+ * Nothing is kept after the response arrives, so there is no risk of
+ * serving stale data. Writes are not coalesced.
+ * Authenticated instances share the in-flight requests of their origin.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class CoalescedJsonResources implements JsonResources {
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Access token value, empty for anonymous requests.
+     */
+    private final String token;
+
+    /**
+     * GETs in flight.
+     */
+    private final Flights flights;
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     */
+    public CoalescedJsonResources(final JsonResources origin) {
+        this(origin, "", new Flights());
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param token Access token value, empty for anonymous requests.
+     * @param flights GETs in flight.
+     */
+    private CoalescedJsonResources(
+        final JsonResources origin,
+        final String token,
+        final Flights flights
+    ) {
+        this.origin = origin;
+        this.token = token;
+        this.flights = flights;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new CoalescedJsonResources(
+            this.origin.authenticated(accessToken),
+            accessToken.value(),
+            this.flights
+        );
+    }
+
+    @Override
+    public JsonResources prioritized(
+        final RateLimitedJsonResources.Priority priority
+    ) {
+        return new CoalescedJsonResources(
+            this.origin.prioritized(priority),
+            this.token,
+            this.flights
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.get(uri, Map.of());
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        final String key = this.key(uri, headers);
+        final CompletableFuture<Resource> mine = new CompletableFuture<>();
+        final CompletableFuture<Resource> flight = this.flights.inFlight
+            .putIfAbsent(key, mine);
+        final Resource resource;
+        if(flight == null) {
+            try {
+                resource = this.origin.get(uri, headers);
+                mine.complete(resource);
+            } catch (final IllegalStateException ex) {
+                mine.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                this.flights.inFlight.remove(key, mine);
+                mine.completeExceptionally(
+                    new IllegalStateException("Couldn't GET [" + uri + "]")
+                );
+            }
+        } else {
+            this.flights.coalesced.incrementAndGet();
+            try {
+                resource = flight.join();
+            } catch (final CompletionException ex) {
+                throw CoalescedJsonResources.unwrapped(ex);
+            }
+        }
+        return resource;
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.getAsync(uri, Map.of());
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        final String key = this.key(uri, headers);
+        final CompletableFuture<Resource> mine = new CompletableFuture<>();
+        final CompletableFuture<Resource> flight = this.flights.inFlight
+            .putIfAbsent(key, mine);
+        final CompletableFuture<Resource> resource;
+        if(flight == null) {
+            this.fly(key, mine, () -> this.origin.getAsync(uri, headers));
+            resource = mine.copy();
+        } else {
+            this.flights.coalesced.incrementAndGet();
+            resource = flight.copy();
+        }
+        return resource;
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.origin.post(uri, body);
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.origin.patch(uri, body);
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.origin.put(uri, body);
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.origin.delete(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.postAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.patchAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.putAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.deleteAsync(uri, body);
+    }
+
+    /**
+     * How many GETs were served by joining a request already in flight.
+     * @return Long.
+     */
+    public long coalesced() {
+        return this.flights.coalesced.get();
+    }
+
+    /**
+     * Key of a GET: same token, URI and headers means same response.
+     * @param uri URI.
+     * @param headers Request headers.
+     * @return String.
+     */
+    private String key(final URI uri, final Map<String, String> headers) {
+        return this.token + " " + uri + " " + new TreeMap<>(headers);
+    }
+
+    /**
+     * Start the asynchronous GET which the others join. Once it is done,
+     * or if it fails to start, it is no longer in flight.
+     * @param key Key of the GET.
+     * @param mine Future which the joined GETs get.
+     * @param request The GET to make.
+     * @checkstyle IllegalCatch (30 lines)
+     */
+    private void fly(
+        final String key,
+        final CompletableFuture<Resource> mine,
+        final Supplier<CompletableFuture<Resource>> request
+    ) {
+        try {
+            request.get().whenComplete(
+                (received, ex) -> {
+                    this.flights.inFlight.remove(key, mine);
+                    if(ex == null) {
+                        mine.complete(received);
+                    } else {
+                        mine.completeExceptionally(ex);
+                    }
+                }
+            );
+        } catch (final RuntimeException ex) {
+            this.flights.inFlight.remove(key, mine);
+            mine.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * The exception which failed the GET we joined. The original
+     * IllegalStateException is rethrown, so decorators which look at its
+     * cause (e.g. retries) behave as if the GET was made by us.
+     * @param ex CompletionException.
+     * @return IllegalStateException.
+     */
+    private static IllegalStateException unwrapped(
+        final CompletionException ex
+    ) {
+        final IllegalStateException unwrapped;
+        if(ex.getCause() instanceof IllegalStateException) {
+            unwrapped = (IllegalStateException) ex.getCause();
+        } else {
+            unwrapped = new IllegalStateException(ex.getCause());
+        }
+        return unwrapped;
+    }
+
+    /**
+     * GETs in flight, shared by the authenticated instances.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Flights {
+
+        /**
+         * Responses in flight, by key.
+         */
+        private final Map<String, CompletableFuture<Resource>> inFlight;
+
+        /**
+         * How many GETs joined a request already in flight.
+         */
+        private final AtomicLong coalesced;
+
+        /**
+         * Ctor.
+         */
+        private Flights() {
+            this.inFlight = new ConcurrentHashMap<>();
+            this.coalesced = new AtomicLong();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Comment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the comments of Issues, by the fingerprint of their body
+ * (a hash of the lowercase text). It is used by {@link DoNotRepeat} to
+ * recognise duplicates without fetching all the comments of the Issue
+ * before every post.<br><br>
+ *
+ * The index is updated with every comment we post or receive
+ * (issue_comment webhooks), but comments may also be posted by other
+ * clients while we don't get the webhook. So only a hit is trusted: on
+ * a miss, all the comments of the Issue are fetched and compared, as if
+ * there were no index, and the Issue is indexed again. A body matches
+ * a comment if they are equal, ignoring case. An Issue's index also
+ * expires after the TTL, which catches edited or deleted comments.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class CommentIndex {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        CommentIndex.class
+    );
+
+    /**
+     * Indexed Issues, least recently used first.
+     */
+    private final Map<String, Indexed> issues;
+
+    /**
+     * How long the comments of an Issue are indexed.
+     */
+    private final Duration ttl;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Ctor.
+     * @param maxEntries Maximum number of Issues indexed.
+     * @param ttl How long the comments of an Issue are indexed.
+     * @param clock Clock.
+     */
+    CommentIndex(
+        final int maxEntries,
+        final Duration ttl,
+        final Clock clock
+    ) {
+        this.issues = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<String, Indexed> eldest
+            ) {
+                return this.size() > maxEntries;
+            }
+        };
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Find a comment with the given body. If it's not in the index,
+     * the comments of the Issue are iterated and indexed again.
+     * @param issue Issue key (e.g. its URI).
+     * @param body Body of the comment.
+     * @param comments All the comments of the Issue.
+     * @return The comment or null, if there's no such comment.
+     */
+    Comment find(
+        final String issue,
+        final String body,
+        final Iterable<Comment> comments
+    ) {
+        Comment found = null;
+        final Indexed indexed = this.indexed(issue);
+        if(indexed != null) {
+            final Comment hit = indexed.comments.get(
+                CommentIndex.fingerprint(body)
+            );
+            if(hit != null && hit.body().equalsIgnoreCase(body)) {
+                found = hit;
+            }
+        }
+        if(found == null) {
+            LOG.debug("Indexing the comments of Issue [" + issue + "]...");
+            final Indexed fresh = new Indexed(
+                this.clock.instant().plus(this.ttl)
+            );
+            for(final Comment comment : comments) {
+                fresh.add(comment);
+                if(found == null && comment.body().equalsIgnoreCase(body)) {
+                    found = comment;
+                }
+            }
+            synchronized (this.issues) {
+                this.issues.put(issue, fresh);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Add a comment to the index of the Issue, if the Issue is indexed.
+     * @param issue Issue key (e.g. its URI).
+     * @param comment Comment which was posted or received.
+     */
+    void add(final String issue, final Comment comment) {
+        final Indexed indexed = this.indexed(issue);
+        if(indexed != null) {
+            indexed.add(comment);
+        }
+    }
+
+    /**
+     * Fingerprint of a comment's body: hash of the lowercase text.
+     * @param body Body.
+     * @return String.
+     */
+    static String fingerprint(final String body) {
+        try {
+            return Base64.getEncoder().encodeToString(
+                MessageDigest.getInstance("SHA-256").digest(
+                    body.toLowerCase(Locale.ENGLISH).getBytes(
+                        StandardCharsets.UTF_8
+                    )
+                )
+            );
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(
+                "SHA-256 is not available.", ex
+            );
+        }
+    }
+
+    /**
+     * The indexed comments of an Issue, if they are not expired.
+     * @param issue Issue key.
+     * @return Indexed or null.
+     */
+    private Indexed indexed(final String issue) {
+        final Indexed indexed;
+        synchronized (this.issues) {
+            final Indexed found = this.issues.get(issue);
+            if(found == null) {
+                indexed = null;
+            } else if(found.expires.isBefore(this.clock.instant())) {
+                this.issues.remove(issue);
+                indexed = null;
+            } else {
+                indexed = found;
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * Indexed comments of an Issue.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Indexed {
+
+        /**
+         * Comments, by fingerprint.
+         */
+        private final Map<String, Comment> comments;
+
+        /**
+         * When the index expires.
+         */
+        private final Instant expires;
+
+        /**
+         * Ctor.
+         * @param expires When the index expires.
+         */
+        Indexed(final Instant expires) {
+            this.comments = new ConcurrentHashMap<>();
+            this.expires = expires;
+        }
+
+        /**
+         * Index a comment. The first comment with a given body is kept.
+         * @param comment Comment.
+         */
+        void add(final Comment comment) {
+            this.comments.putIfAbsent(
+                CommentIndex.fingerprint(comment.body()), comment
+            );
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Response body handler which transparently decompresses gzip or deflate
+ * encoded bodies (see the Content-Encoding response header). It also
+ * counts the bytes received on the wire and the bytes they decoded to,
+ * so we can see how much compression saves.<br><br>
+ *
+ * A body which cannot be decoded fails with an IllegalStateException.
+ * The HttpClient wraps it in an IOException, so use
+ * {@link #undecodable(Throwable)} to tell it apart from a connection
+ * problem: it should not be retried.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class DecodedBodies implements HttpResponse.BodyHandler<byte[]> {
+
+    /**
+     * Value of the Accept-Encoding request header, advertising the
+     * encodings we can decode.
+     */
+    static final String ACCEPTED = "gzip, deflate";
+
+    /**
+     * Bytes received on the wire.
+     */
+    private final AtomicLong wire;
+
+    /**
+     * Bytes after decoding.
+     */
+    private final AtomicLong decoded;
+
+    /**
+     * Ctor.
+     */
+    public DecodedBodies() {
+        this.wire = new AtomicLong();
+        this.decoded = new AtomicLong();
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<byte[]> apply(
+        final HttpResponse.ResponseInfo info
+    ) {
+        final String encoding = info.headers()
+            .firstValue("Content-Encoding")
+            .orElse("identity");
+        return HttpResponse.BodySubscribers.mapping(
+            HttpResponse.BodySubscribers.ofByteArray(),
+            body -> this.decode(encoding, body)
+        );
+    }
+
+    /**
+     * Total bytes received on the wire, for the bodies handled so far.
+     * @return Long.
+     */
+    public long wire() {
+        return this.wire.get();
+    }
+
+    /**
+     * Total bytes of the bodies handled so far, after decoding.
+     * @return Long.
+     */
+    public long decoded() {
+        return this.decoded.get();
+    }
+
+    /**
+     * Decode the given body.
+     * @param encoding Content encoding.
+     * @param body Body, as received on the wire.
+     * @return Decoded body.
+     */
+    byte[] decode(final String encoding, final byte[] body) {
+        final String name = encoding.trim().toLowerCase(Locale.ROOT);
+        final byte[] decoded;
+        try {
+            if("gzip".equals(name) || "x-gzip".equals(name)) {
+                decoded = DecodedBodies.read(
+                    new GZIPInputStream(new ByteArrayInputStream(body))
+                );
+            } else if("deflate".equals(name)) {
+                decoded = DecodedBodies.inflate(body);
+            } else {
+                decoded = body;
+            }
+        } catch (final IOException ex) {
+            throw new Undecodable(encoding, ex);
+        }
+        this.wire.addAndGet(body.length);
+        this.decoded.addAndGet(decoded.length);
+        return decoded;
+    }
+
+    /**
+     * Did the request fail because its response body could not be
+     * decoded? The cause chain is checked.
+     * @param error Failure of the request.
+     * @return True or false.
+     */
+    static boolean undecodable(final Throwable error) {
+        Throwable cause = error;
+        while(cause != null && !(cause instanceof Undecodable)) {
+            cause = cause.getCause();
+        }
+        return cause != null;
+    }
+
+    /**
+     * Inflate a deflate body. The spec says it should be zlib-wrapped,
+     * but some servers send it raw, so we try both.
+     * @param body Body.
+     * @return Inflated body.
+     * @throws IOException If the body is not valid.
+     */
+    private static byte[] inflate(final byte[] body) throws IOException {
+        byte[] inflated;
+        try {
+            inflated = DecodedBodies.read(
+                new InflaterInputStream(new ByteArrayInputStream(body))
+            );
+        } catch (final ZipException ex) {
+            final Inflater raw = new Inflater(true);
+            try {
+                inflated = DecodedBodies.read(
+                    new InflaterInputStream(new ByteArrayInputStream(body), raw)
+                );
+            } finally {
+                raw.end();
+            }
+        }
+        return inflated;
+    }
+
+    /**
+     * Read the whole stream and close it.
+     * @param stream InputStream.
+     * @return Bytes read.
+     * @throws IOException If something goes wrong.
+     */
+    private static byte[] read(final InputStream stream) throws IOException {
+        try (stream) {
+            return stream.readAllBytes();
+        }
+    }
+
+    /**
+     * A response body could not be decoded.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Undecodable extends IllegalStateException {
+
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Ctor.
+         * @param encoding Content encoding.
+         * @param cause Why the body could not be decoded.
+         */
+        Undecodable(final String encoding, final IOException cause) {
+            super("Could not decode " + encoding + " response body.", cause);
+        }
+    }
+}
@@ -26,11 +26,15 @@ import com.selfxdsd.api.Comment;
 import com.selfxdsd.api.Comments;
 
 import javax.json.JsonObject;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Iterator;
 
 /**
  * Comments decorator which makes sure a comment is not posted
- * if it already exists.
+ * if it already exists. The comments are first looked up in a
+ * {@link CommentIndex}, so a comment which was already posted is found
+ * without fetching all the comments again.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.8
@@ -43,31 +47,58 @@ final class DoNotRepeat implements Comments {
     private final Comments origin;
 
     /**
-     * Ctor.
+     * Index of the comments.
+     */
+    private final CommentIndex index;
+
+    /**
+     * Key of the Issue in the index.
+     */
+    private final String issue;
+
+    /**
+     * Ctor. The comments are indexed only for this instance.
      * @param origin Original comments.
      */
     DoNotRepeat(final Comments origin) {
+        this(
+            origin,
+            new CommentIndex(1, Duration.ofHours(1), Clock.systemUTC()),
+            ""
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original comments.
+     * @param index Index of the comments.
+     * @param issue Key of the Issue in the index.
+     */
+    DoNotRepeat(
+        final Comments origin,
+        final CommentIndex index,
+        final String issue
+    ) {
         this.origin = origin;
+        this.index = index;
+        this.issue = issue;
     }
 
     @Override
     public Comment post(final String body) {
-        Comment posted = null;
-        for(final Comment comment : this.origin) {
-            if(comment.body().equalsIgnoreCase(body)) {
-                posted = comment;
-                break;
-            }
-        }
+        Comment posted = this.index.find(this.issue, body, this.origin);
         if(posted == null) {
             posted = this.origin.post(body);
+            this.index.add(this.issue, posted);
         }
         return posted;
     }
 
     @Override
     public Comment received(final JsonObject comment) {
-        return this.origin.received(comment);
+        final Comment received = this.origin.received(comment);
+        this.index.add(this.issue, received);
+        return received;
     }
 
     @Override
@@ -96,4 +96,18 @@ public final class Env {
      */
     public static final String PDD_PRIVATE_KEY = "self_pdd_privatekey";
 
+    /**
+     * Set to true to scan only the Tasks whose Issues were updated since
+     * the previous scan (plus the ones with deadline-driven work).
+     */
+    public static final String INCREMENTAL_SCANS = "self_incremental_scans";
+
+    /**
+     * Set to true to resolve the units of work of the scans (e.g. the
+     * Tasks of each contract) concurrently, see
+     * {@link Workers#configured()}.
+     */
+    public static final String CONCURRENT_PROCESSING =
+        "self_concurrent_processing";
+
 }
@@ -55,6 +55,11 @@ public final class Github implements Provider {
      */
     private final Storage storage;
 
+    /**
+     * What we remember between requests.
+     */
+    private final ProviderCaches caches;
+
     /**
      * Constructor.
      * @param user Authenticated user.
@@ -74,7 +79,23 @@ public final class Github implements Provider {
         final User user, final Storage storage,
         final JsonResources resources
     ) {
-        this(user, storage, resources, "");
+        this(user, storage, resources, new ProviderCaches());
+    }
+
+    /**
+     * Constructor.
+     * @param user Authenticated user.
+     * @param storage Storage where we might save some stuff.
+     * @param resources Github's JSON resources.
+     * @param caches What we remember between requests.
+     */
+    Github(
+        final User user,
+        final Storage storage,
+        final JsonResources resources,
+        final ProviderCaches caches
+    ) {
+        this(user, storage, resources, caches, "");
     }
 
     /**
@@ -83,16 +104,20 @@ public final class Github implements Provider {
      * @param user User.
      * @param storage Self Storage
      * @param resources Github's JSON Resources.
+     * @param caches What we remember between requests.
      * @param accessToken Access token.
+     * @checkstyle ParameterNumber (10 lines)
      */
     private Github(
         final User user,
         final Storage storage,
         final JsonResources resources,
+        final ProviderCaches caches,
         final String accessToken
     ) {
         this.user = user;
         this.storage = storage;
+        this.caches = caches;
         if (accessToken == null || accessToken.isBlank()) {
             this.resources = resources;
         } else {
@@ -112,7 +137,7 @@ public final class Github implements Provider {
             this.uri.toString() + "/repos/" + owner + "/" + name
         );
         return new GithubRepo(
-            this.resources, repo, this.user, this.storage
+            this.resources, repo, this.user, this.storage, this.caches
         );
     }
 
@@ -142,6 +167,7 @@ public final class Github implements Provider {
             new BaseSelf.Authenticated(this.user, accessToken),
             this.storage,
             this.resources,
+            this.caches,
             accessToken
         );
     }
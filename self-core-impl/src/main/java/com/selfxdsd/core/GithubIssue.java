@@ -69,7 +69,12 @@ final class GithubIssue implements Issue {
     private final JsonResources resources;
 
     /**
-     * Ctor.
+     * Indexed comments of the Issues.
+     */
+    private final CommentIndex index;
+
+    /**
+     * Ctor. The comments are indexed only for this Issue.
      * @param issueUri Issues base URI.
      * @param json Json Issue as returned by Github's API.
      * @param storage Storage.
@@ -80,11 +85,34 @@ final class GithubIssue implements Issue {
         final JsonObject json,
         final Storage storage,
         final JsonResources resources
+    ) {
+        this(
+            issueUri, json, storage, resources,
+            new ProviderCaches().comments()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param issueUri Issues base URI.
+     * @param json Json Issue as returned by Github's API.
+     * @param storage Storage.
+     * @param resources Github's JSON Resources.
+     * @param index Indexed comments of the Issues.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    GithubIssue(
+        final URI issueUri,
+        final JsonObject json,
+        final Storage storage,
+        final JsonResources resources,
+        final CommentIndex index
     ) {
         this.issueUri = issueUri;
         this.json = json;
         this.storage = storage;
         this.resources = resources;
+        this.index = index;
     }
 
     @Override
@@ -206,7 +234,14 @@ final class GithubIssue implements Issue {
     @Override
     public Comments comments() {
         return new DoNotRepeat(
-            new GithubIssueComments(this.issueUri, this.resources)
+            new GithubIssueComments(
+                this.issueUri,
+                this.resources.prioritized(
+                    RateLimitedJsonResources.Priority.HIGH
+                )
+            ),
+            this.index,
+            this.issueUri.toString()
         );
     }
 
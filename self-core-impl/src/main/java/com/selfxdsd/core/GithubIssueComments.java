@@ -7,11 +7,11 @@ import org.slf4j.LoggerFactory;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.util.Iterator;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Github Issue Comments.
@@ -19,9 +19,6 @@ import java.util.stream.Collectors;
  * @author criske
  * @version $Id$
  * @since 0.0.8
- * @todo #100:30min Provide a pagination solution in iterator() using
- *  Github response headers, when {@link Resource} API has access to http
- *  response headers (issue #241).
  */
 final class GithubIssueComments implements Comments {
 
@@ -87,19 +84,28 @@ final class GithubIssueComments implements Comments {
         return new GithubComment(comment);
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * All the comments are iterated, page by page. The next page is
+     * prefetched while the current one is being iterated.
+     */
     @Override
     public Iterator<Comment> iterator() {
-        final Resource resource = resources.get(this.commentsUri);
-        final List<Comment> comments;
-        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-            comments = resource.asJsonArray()
-                .stream()
-                .map(JsonObject.class::cast)
-                .map(GithubComment::new)
-                .collect(Collectors.toList());
-        } else {
-            comments = List.of();
-        }
-        return comments.iterator();
+        return new Paginated<Comment>(
+            this.resources,
+            URI.create(this.commentsUri + "?per_page=100"),
+            resource -> {
+                final Stream<JsonValue> comments;
+                if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
+                    comments = resource.elements();
+                } else {
+                    comments = Stream.empty();
+                }
+                return comments;
+            },
+            comment -> new GithubComment((JsonObject) comment),
+            true
+        ).iterator();
     }
 }
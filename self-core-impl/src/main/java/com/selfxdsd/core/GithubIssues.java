@@ -34,9 +34,15 @@ import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Issues in a Github repository.
@@ -75,7 +81,12 @@ final class GithubIssues implements Issues {
     private final Storage storage;
 
     /**
-     * Ctor.
+     * What the Provider remembers between requests.
+     */
+    private final ProviderCaches caches;
+
+    /**
+     * Ctor. Nothing is remembered beyond these Issues.
      *
      * @param resources Github's JSON Resources.
      * @param issuesUri Issues base URI.
@@ -87,11 +98,31 @@ final class GithubIssues implements Issues {
         final URI issuesUri,
         final Repo repo,
         final Storage storage
+    ) {
+        this(resources, issuesUri, repo, storage, new ProviderCaches());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param resources Github's JSON Resources.
+     * @param issuesUri Issues base URI.
+     * @param repo Parent Repo.
+     * @param storage Storage.
+     * @param caches What the Provider remembers between requests.
+     */
+    GithubIssues(
+        final JsonResources resources,
+        final URI issuesUri,
+        final Repo repo,
+        final Storage storage,
+        final ProviderCaches caches
     ) {
         this.resources = resources;
         this.issuesUri = issuesUri;
         this.repo = repo;
         this.storage = storage;
+        this.caches = caches;
     }
 
     @Override
@@ -122,7 +153,8 @@ final class GithubIssues implements Issues {
                     issueUri,
                     jsonObject,
                     this.storage,
-                    this.resources
+                    this.resources,
+                    this.caches.comments()
                 )
             );
         }
@@ -138,7 +170,8 @@ final class GithubIssues implements Issues {
                 ),
                 issue,
                 this.storage,
-                this.resources
+                this.resources,
+                this.caches.comments()
             )
         );
     }
@@ -151,6 +184,8 @@ final class GithubIssues implements Issues {
      *
      * Since we cannot specify the labels' color when opening an Issue,
      * we first add them to the repository (where we can specify the color).
+     * Only the labels which do not exist yet are created, see
+     * {@link KnownLabels}.
      */
     @Override
     public Issue open(
@@ -158,7 +193,9 @@ final class GithubIssues implements Issues {
         final String body,
         final String... labels
     ) {
-        this.repo.labels().add(labels);
+        new KnownLabels(
+            this.repo.labels(), this.issuesUri, this.caches.labels()
+        ).add(labels);
         final JsonArrayBuilder labelsArray = Json.createArrayBuilder();
         for(final String label : labels) {
             labelsArray.add(label);
@@ -194,7 +231,8 @@ final class GithubIssues implements Issues {
                     ),
                     jsonObject,
                     this.storage,
-                    this.resources
+                    this.resources,
+                    this.caches.comments()
                 )
             );
         }
@@ -226,32 +264,82 @@ final class GithubIssues implements Issues {
             );
 
         LOG.debug("Searching for Github Issues at: " + search);
-        final Resource resource = this.resources.get(search);
-
-        JsonArray results;
-        switch (resource.statusCode()) {
-            case HttpURLConnection.HTTP_OK:
-                LOG.debug("Search returned status 200 OK.");
-                results = resource.asJsonObject().getJsonArray("items");
-                break;
-            default:
-                LOG.error(
-                    "Search returned status: " + resource.statusCode() + ". "
-                    + "Was expecting 200 OK! Returning 0 found issues..."
-                );
-                results = Json.createArrayBuilder().build();
-                break;
-        }
-
+        final Iterable<Issue> results = new Paginated<>(
+            this.resources,
+            search,
+            resource -> {
+                final Stream<JsonValue> items;
+                switch (resource.statusCode()) {
+                    case HttpURLConnection.HTTP_OK:
+                        LOG.debug("Search returned status 200 OK.");
+                        items = resource.elements("items");
+                        break;
+                    default:
+                        LOG.error(
+                            "Search returned status: " + resource.statusCode()
+                            + ". Was expecting 200 OK! Returning 0 found "
+                            + "issues..."
+                        );
+                        items = Stream.empty();
+                        break;
+                }
+                return items;
+            },
+            issue -> this.received((JsonObject) issue)
+        );
         final List<Issue> found = new ArrayList<>();
-        for(final JsonValue issue : results) {
-            found.add(
-                this.received((JsonObject) issue)
-            );
-        }
+        results.forEach(found::add);
         return new FoundIssues(this, found);
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The Issues are read with GraphQL, at most 100 per query.
+     */
+    @Override
+    public Map<String, Issue> prefetch(final Collection<String> issueIds) {
+        return new GithubIssuesBatch(
+            this.resources,
+            this.issuesUri,
+            this.storage,
+            this.caches.comments()
+        ).fetch(issueIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The list includes the PullRequests, since Github considers them
+     * Issues as well.
+     */
+    @Override
+    public Map<String, Issue> updatedSince(final Instant since) {
+        final URI updated = URI.create(
+            this.issuesUri.toString() + "?state=all&since="
+            + since.truncatedTo(ChronoUnit.SECONDS)
+            + "&sort=updated&direction=asc&per_page=100"
+        );
+        LOG.debug("Fetching the Github Issues updated at: " + updated);
+        final Map<String, Issue> issues = new HashMap<>();
+        new Paginated<>(
+            this.resources,
+            updated,
+            resource -> {
+                if(resource.statusCode() != HttpURLConnection.HTTP_OK) {
+                    throw new IllegalStateException(
+                        "Could not fetch the updated Issues from ["
+                        + updated + "]. Received status code: "
+                        + resource.statusCode()
+                    );
+                }
+                return resource.elements();
+            },
+            issue -> this.received((JsonObject) issue)
+        ).forEach(issue -> issues.put(issue.issueId(), issue));
+        return issues;
+    }
+
     @Override
     public Iterator<Issue> iterator() {
         throw new IllegalStateException(
@@ -0,0 +1,280 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.storage.Storage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Several Github Issues (or PullRequests) of a repo, read with one GraphQL
+ * query for every 100 of them, instead of one REST call each. The GraphQL
+ * results are turned into the JSON format of the REST API, so we get the
+ * same {@link GithubIssue} objects as {@link GithubIssues#getById(String)}.
+ * They carry the state, author, assignee, labels and the number of
+ * comments.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class GithubIssuesBatch {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        GithubIssuesBatch.class
+    );
+
+    /**
+     * Maximum number of Issues read with one query.
+     */
+    private static final int MAX_PER_QUERY = 100;
+
+    /**
+     * Fields of an Issue or PullRequest which we read.
+     */
+    private static final String FIELDS = "number state url body "
+        + "author { login } assignees(first: 1) { nodes { login } } "
+        + "labels(first: 100) { nodes { name color } } "
+        + "comments { totalCount }";
+
+    /**
+     * Github repo Issues base uri.
+     */
+    private final URI issuesUri;
+
+    /**
+     * Github's JSON Resources.
+     */
+    private final JsonResources resources;
+
+    /**
+     * Self storage, in case we want to store something.
+     */
+    private final Storage storage;
+
+    /**
+     * Indexed comments of the Issues.
+     */
+    private final CommentIndex index;
+
+    /**
+     * Ctor. The comments of the fetched Issues are indexed only for them.
+     * @param resources Github's JSON Resources.
+     * @param issuesUri Issues base URI (e.g.
+     *  https://api.github.com/repos/owner/name/issues).
+     * @param storage Storage.
+     */
+    GithubIssuesBatch(
+        final JsonResources resources,
+        final URI issuesUri,
+        final Storage storage
+    ) {
+        this(resources, issuesUri, storage, new ProviderCaches().comments());
+    }
+
+    /**
+     * Ctor.
+     * @param resources Github's JSON Resources.
+     * @param issuesUri Issues base URI (e.g.
+     *  https://api.github.com/repos/owner/name/issues).
+     * @param storage Storage.
+     * @param index Indexed comments of the Issues.
+     */
+    GithubIssuesBatch(
+        final JsonResources resources,
+        final URI issuesUri,
+        final Storage storage,
+        final CommentIndex index
+    ) {
+        this.resources = resources;
+        this.issuesUri = issuesUri;
+        this.storage = storage;
+        this.index = index;
+    }
+
+    /**
+     * Fetch the given Issues. Invalid or missing IDs are left out, as are
+     * all the Issues of a query which failed.
+     * @param issueIds IDs of the Issues.
+     * @return Fetched Issues, by ID.
+     */
+    Map<String, Issue> fetch(final Collection<String> issueIds) {
+        final Map<String, Issue> fetched = new HashMap<>();
+        final List<String> numbers = new ArrayList<>();
+        for(final String issueId : issueIds) {
+            if(issueId.matches("\\d+") && !numbers.contains(issueId)) {
+                numbers.add(issueId);
+            }
+        }
+        for(int idx = 0; idx < numbers.size(); idx += MAX_PER_QUERY) {
+            fetched.putAll(
+                this.query(
+                    numbers.subList(
+                        idx, Math.min(idx + MAX_PER_QUERY, numbers.size())
+                    )
+                )
+            );
+        }
+        return fetched;
+    }
+
+    /**
+     * Read at most 100 Issues with one GraphQL query.
+     * @param numbers Numbers of the Issues.
+     * @return Fetched Issues, by ID.
+     */
+    private Map<String, Issue> query(final List<String> numbers) {
+        final String[] parts = this.issuesUri.getRawPath().split("/");
+        final StringBuilder query = new StringBuilder()
+            .append("query { repository(owner: \"").append(parts[2])
+            .append("\", name: \"").append(parts[3]).append("\") {");
+        for(final String number : numbers) {
+            query.append(" i").append(number)
+                .append(": issueOrPullRequest(number: ").append(number)
+                .append(") { ...issue ...pull }");
+        }
+        query.append(" } } fragment issue on Issue { ").append(FIELDS)
+            .append(" } fragment pull on PullRequest { ").append(FIELDS)
+            .append(" }");
+        final URI graphql = URI.create(
+            this.issuesUri.getScheme() + "://"
+            + this.issuesUri.getRawAuthority() + "/graphql"
+        );
+        LOG.debug(
+            "Fetching " + numbers.size() + " Issues of " + parts[2] + "/"
+            + parts[3] + " from [" + graphql + "]..."
+        );
+        final Resource resource = this.resources.post(
+            graphql,
+            Json.createObjectBuilder().add("query", query.toString()).build()
+        );
+        final Map<String, Issue> fetched = new HashMap<>();
+        final JsonObject repository = this.repository(resource);
+        for(final String number : numbers) {
+            final JsonValue found = repository.get("i" + number);
+            if(found instanceof JsonObject) {
+                final URI issueUri = URI.create(
+                    this.issuesUri.toString() + "/" + number
+                );
+                fetched.put(
+                    number,
+                    new WithContributorLabel(
+                        new GithubIssue(
+                            issueUri,
+                            this.rest(issueUri, (JsonObject) found),
+                            this.storage,
+                            this.resources,
+                            this.index
+                        )
+                    )
+                );
+            }
+        }
+        LOG.debug("Fetched " + fetched.size() + " Issues.");
+        return fetched;
+    }
+
+    /**
+     * The repository object of a GraphQL response.
+     * @param resource GraphQL response.
+     * @return JsonObject, empty if the query failed.
+     */
+    private JsonObject repository(final Resource resource) {
+        JsonObject repository = JsonValue.EMPTY_JSON_OBJECT;
+        if(resource.statusCode() == HttpURLConnection.HTTP_OK) {
+            final JsonValue data = resource.asJsonObject().get("data");
+            if(data instanceof JsonObject) {
+                final JsonValue repo = ((JsonObject) data).get("repository");
+                if(repo instanceof JsonObject) {
+                    repository = (JsonObject) repo;
+                }
+            }
+        } else {
+            LOG.warn(
+                "GraphQL query failed with status " + resource.statusCode()
+                + ". The Issues will be read one by one."
+            );
+        }
+        return repository;
+    }
+
+    /**
+     * Turn a GraphQL Issue or PullRequest into the REST API's format.
+     * @param issueUri URI of the Issue.
+     * @param node GraphQL Issue or PullRequest.
+     * @return JsonObject.
+     */
+    private JsonObject rest(final URI issueUri, final JsonObject node) {
+        final JsonObjectBuilder issue = Json.createObjectBuilder()
+            .add("number", node.getInt("number"))
+            .add("url", issueUri.toString())
+            .add("html_url", node.getString("url"))
+            .add("body", node.getString("body", ""))
+            .add("comments", node.getJsonObject("comments")
+                .getInt("totalCount"));
+        if("OPEN".equals(node.getString("state"))) {
+            issue.add("state", "open");
+        } else {
+            issue.add("state", "closed");
+        }
+        final JsonValue author = node.get("author");
+        if(author instanceof JsonObject) {
+            issue.add(
+                "user",
+                Json.createObjectBuilder()
+                    .add("login", ((JsonObject) author).getString("login"))
+            );
+        } else {
+            issue.add("user", Json.createObjectBuilder().add("login", "ghost"));
+        }
+        final List<JsonObject> assignees = node.getJsonObject("assignees")
+            .getJsonArray("nodes").getValuesAs(JsonObject.class);
+        if(assignees.isEmpty()) {
+            issue.add("assignee", JsonValue.NULL);
+        } else {
+            issue.add("assignee", assignees.get(0));
+        }
+        final JsonArrayBuilder labels = Json.createArrayBuilder();
+        for(final JsonObject label : node.getJsonObject("labels")
+            .getJsonArray("nodes").getValuesAs(JsonObject.class)) {
+            labels.add(label);
+        }
+        return issue.add("labels", labels).build();
+    }
+}
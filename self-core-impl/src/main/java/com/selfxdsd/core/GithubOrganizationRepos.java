@@ -5,12 +5,12 @@ import com.selfxdsd.api.Repos;
 import com.selfxdsd.api.User;
 import com.selfxdsd.api.storage.Storage;
 
-import javax.json.JsonArray;
 import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.util.Iterator;
+import java.util.stream.StreamSupport;
 
 /**
  * A Github Provider Organization Repos.
@@ -59,19 +59,30 @@ final class GithubOrganizationRepos implements Repos {
     }
 
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * All the organization's repos are iterated, page by page. The next
+     * page is prefetched while the current one is being iterated.
+     */
     @Override
     public Iterator<Repo> iterator() {
-        final Resource resource = resources.get(this.uri);
-        final JsonArray repos;
-        final int statusCode = resource.statusCode();
-        if (statusCode == HttpURLConnection.HTTP_OK) {
-            repos = resource.asJsonArray();
-        } else {
-            throw new IllegalStateException("Unable to fetch Github "
-                + "organization Repos for current User. Expected 200 OK, "
-                + "but got: " + statusCode);
-        }
-        return repos.stream()
+        final Iterable<JsonValue> repos = new Paginated<>(
+            this.resources,
+            URI.create(this.uri + "?per_page=100"),
+            resource -> {
+                final int statusCode = resource.statusCode();
+                if (statusCode != HttpURLConnection.HTTP_OK) {
+                    throw new IllegalStateException("Unable to fetch Github "
+                        + "organization Repos for current User. Expected "
+                        + "200 OK, but got: " + statusCode);
+                }
+                return resource.elements();
+            },
+            repo -> repo,
+            true
+        );
+        return StreamSupport.stream(repos.spliterator(), false)
             .filter(this::isAdmin)
             .map(this::buildRepo)
             .iterator();
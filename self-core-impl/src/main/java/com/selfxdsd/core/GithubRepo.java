@@ -37,7 +37,12 @@ import java.net.URI;
 final class GithubRepo extends BaseRepo {
 
     /**
-     * Constructor.
+     * What the Provider remembers between requests.
+     */
+    private final ProviderCaches caches;
+
+    /**
+     * Constructor. Nothing is remembered beyond this repo.
      * @param resources The provider's JSON Resources.
      * @param uri URI Pointing to this repo.
      * @param owner Owner of this repo.
@@ -49,8 +54,28 @@ final class GithubRepo extends BaseRepo {
         final URI uri,
         final User owner,
         final Storage storage
+    ) {
+        this(resources, uri, owner, storage, new ProviderCaches());
+    }
+
+    /**
+     * Constructor.
+     * @param resources The provider's JSON Resources.
+     * @param uri URI Pointing to this repo.
+     * @param owner Owner of this repo.
+     * @param storage Storage used to save the Project when
+     *  this repo is activated.
+     * @param caches What the Provider remembers between requests.
+     */
+    GithubRepo(
+        final JsonResources resources,
+        final URI uri,
+        final User owner,
+        final Storage storage,
+        final ProviderCaches caches
     ) {
         super(resources, uri, owner, storage);
+        this.caches = caches;
     }
 
     @Override
@@ -105,7 +130,8 @@ final class GithubRepo extends BaseRepo {
             this.resources(),
             URI.create(this.repoUri().toString() + "/issues"),
             this,
-            this.storage()
+            this.storage(),
+            this.caches
         );
     }
 
@@ -122,7 +148,8 @@ final class GithubRepo extends BaseRepo {
             this.resources(),
             URI.create(this.repoUri().toString() + "/issues"),
             this,
-            this.storage()
+            this.storage(),
+            this.caches
         );
     }
 
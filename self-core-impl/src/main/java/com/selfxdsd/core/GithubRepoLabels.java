@@ -29,12 +29,16 @@ import org.slf4j.LoggerFactory;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 /**
  * All the labels in a Github repository.
@@ -71,15 +75,33 @@ final class GithubRepoLabels implements Labels {
         this.repoLabelsUri = repoLabelsUri;
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The labels are created in parallel.
+     */
     @Override
     public boolean add(final String... names) {
+        final List<CompletableFuture<Resource>> added = new ArrayList<>();
         for(final String name : names) {
-            this.resources.post(
-                this.repoLabelsUri,
-                Json.createObjectBuilder()
-                    .add("name", name)
-                    .add("color", this.randomColor())
-                    .build()
+            added.add(
+                this.resources.postAsync(
+                    this.repoLabelsUri,
+                    Json.createObjectBuilder()
+                        .add("name", name)
+                        .add("color", this.randomColor())
+                        .build()
+                )
+            );
+        }
+        try {
+            CompletableFuture.allOf(
+                added.toArray(new CompletableFuture[0])
+            ).join();
+        } catch (final CompletionException ex) {
+            throw new IllegalStateException(
+                "Could not add labels to [" + this.repoLabelsUri + "].",
+                ex.getCause()
             );
         }
         return true;
@@ -113,18 +135,20 @@ final class GithubRepoLabels implements Labels {
 
     @Override
     public Iterator<Label> iterator() {
-        final Resource resource = this.resources.get(this.repoLabelsUri);
-        final List<Label> repoLabels;
-        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-            repoLabels = resource.asJsonArray()
-                .stream()
-                .map(JsonObject.class::cast)
-                .map(GithubLabel::new)
-                .collect(Collectors.toList());
-        } else {
-            repoLabels = List.of();
-        }
-        return repoLabels.iterator();
+        return new Paginated<Label>(
+            this.resources,
+            URI.create(this.repoLabelsUri.toString() + "?per_page=100"),
+            response -> {
+                final Stream<JsonValue> labels;
+                if(response.statusCode() == HttpURLConnection.HTTP_OK) {
+                    labels = response.elements();
+                } else {
+                    labels = Stream.empty();
+                }
+                return labels;
+            },
+            label -> new GithubLabel((JsonObject) label)
+        ).iterator();
     }
 
     /**
@@ -85,6 +85,13 @@ final class GithubWebhooks implements Webhooks {
         this.storage = storage;
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The "label" event is only subscribed by the hooks added since it
+     * was introduced; the existing hooks are not migrated, so the known
+     * labels of their repos (see {@link KnownLabels}) simply expire.
+     */
     @Override
     public boolean add(final Project project) {
         LOG.debug(
@@ -101,6 +108,7 @@ final class GithubWebhooks implements Webhooks {
                         .add("issue_comment")
                         .add("pull_request")
                         .add("push")
+                        .add("label")
                 )
                 .add(
                     "config",
@@ -56,6 +56,11 @@ public final class Gitlab implements Provider {
      */
     private final Storage storage;
 
+    /**
+     * What we remember between requests.
+     */
+    private final ProviderCaches caches;
+
     /**
      * Constructor.
      * @param user Authenticated user.
@@ -76,7 +81,23 @@ public final class Gitlab implements Provider {
         final Storage storage,
         final JsonResources resources
     ) {
-        this(user, storage, resources, "");
+        this(user, storage, resources, new ProviderCaches());
+    }
+
+    /**
+     * Constructor.
+     * @param user Authenticated user.
+     * @param storage Storage where we might save some stuff.
+     * @param resources Gitlab's JSON resources.
+     * @param caches What we remember between requests.
+     */
+    Gitlab(
+        final User user,
+        final Storage storage,
+        final JsonResources resources,
+        final ProviderCaches caches
+    ) {
+        this(user, storage, resources, caches, "");
     }
 
     /**
@@ -85,16 +106,20 @@ public final class Gitlab implements Provider {
      * @param user Authenticated user.
      * @param storage Storage where we might save some stuff.
      * @param resources Gitlab's JSON Resources.
+     * @param caches What we remember between requests.
      * @param accessToken Access token.
+     * @checkstyle ParameterNumber (10 lines)
      */
     private Gitlab(
         final User user,
         final Storage storage,
         final JsonResources resources,
+        final ProviderCaches caches,
         final String accessToken
     ) {
         this.user = user;
         this.storage = storage;
+        this.caches = caches;
         if (accessToken == null || accessToken.isBlank()) {
             this.resources = resources;
         } else {
@@ -115,7 +140,8 @@ public final class Gitlab implements Provider {
             name,
             this.resources,
             this.user,
-            this.storage);
+            this.storage,
+            this.caches);
     }
 
     @Override
@@ -138,6 +164,7 @@ public final class Gitlab implements Provider {
             new BaseSelf.Authenticated(this.user, accessToken),
             this.storage,
             this.resources,
+            this.caches,
             accessToken
         );
     }
@@ -76,7 +76,17 @@ final class GitlabIssue implements Issue {
     private final JsonResources resources;
 
     /**
-     * Ctor.
+     * Ids of the Gitlab users, by username.
+     */
+    private final GitlabUserIds userIds;
+
+    /**
+     * Indexed comments of the Issues.
+     */
+    private final CommentIndex index;
+
+    /**
+     * Ctor. Nothing is remembered beyond this Issue.
      * @param issueUri Issues base URI.
      * @param json Json Issue as returned by Gitlab's API.
      * @param storage Storage.
@@ -87,11 +97,56 @@ final class GitlabIssue implements Issue {
         final JsonObject json,
         final Storage storage,
         final JsonResources resources
+    ) {
+        this(issueUri, json, storage, resources, new ProviderCaches());
+    }
+
+    /**
+     * Ctor.
+     * @param issueUri Issues base URI.
+     * @param json Json Issue as returned by Gitlab's API.
+     * @param storage Storage.
+     * @param resources Gitlab's JSON Resources.
+     * @param caches What the Provider remembers between requests.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    GitlabIssue(
+        final URI issueUri,
+        final JsonObject json,
+        final Storage storage,
+        final JsonResources resources,
+        final ProviderCaches caches
+    ) {
+        this(
+            issueUri, json, storage, resources,
+            caches.gitlabUsers(), caches.comments()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param issueUri Issues base URI.
+     * @param json Json Issue as returned by Gitlab's API.
+     * @param storage Storage.
+     * @param resources Gitlab's JSON Resources.
+     * @param userIds Ids of the Gitlab users, by username.
+     * @param index Indexed comments of the Issues.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    GitlabIssue(
+        final URI issueUri,
+        final JsonObject json,
+        final Storage storage,
+        final JsonResources resources,
+        final GitlabUserIds userIds,
+        final CommentIndex index
     ) {
         this.issueUri = issueUri;
         this.json = json;
         this.storage = storage;
         this.resources = resources;
+        this.userIds = userIds;
+        this.index = index;
     }
 
     @Override
@@ -235,10 +290,16 @@ final class GitlabIssue implements Issue {
      */
     @Override
     public Comments comments() {
-        return new DoNotRepeat(new GitlabIssueComments(
-            URI.create(this.issueUri + "/notes"),
-            this.resources
-        ));
+        return new DoNotRepeat(
+            new GitlabIssueComments(
+                URI.create(this.issueUri + "/notes"),
+                this.resources.prioritized(
+                    RateLimitedJsonResources.Priority.HIGH
+                )
+            ),
+            this.index,
+            this.issueUri.toString()
+        );
     }
 
     /**
@@ -331,45 +392,17 @@ final class GitlabIssue implements Issue {
      */
     private Integer findUserId(final String username) {
         final String[] path = this.issueUri.getRawPath().split("/");
-        final String projectPrefix = String
-            .format("%s://%s/%s/%s/%s/%s",
+        final URI projectUri = URI.create(
+            String.format("%s://%s/%s/%s/%s/%s",
                 this.issueUri.getScheme(),
                 this.issueUri.getAuthority(),
                 path[1],
                 path[2],
                 path[3],
                 path[4]
-            );
-        final URI projectMembersUri = URI.create(projectPrefix
-            + "/search?scope=users&search=" + username);
-        final Resource resource = this.resources.get(projectMembersUri);
-        LOG.debug(
-            "Searching for user \"" + username + "\" id in project members ["
-                + projectMembersUri + "]..."
+            )
         );
-        final Integer userId;
-        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-            userId = resource.asJsonArray().stream()
-                .filter(o -> o.asJsonObject()
-                    .getString("username")
-                    .equals(username))
-                .map(o -> o.asJsonObject().getInt("id"))
-                .findFirst()
-                .orElse(null);
-            if (userId == null) {
-                LOG.debug(
-                    "User id for \"" + username + "\" was not found. Make sure "
-                        + "they are part of the Issue's Project."
-                );
-            }
-        } else {
-            LOG.debug(
-                "Could not get id for \"" + username + "\". Status code: "
-                    + resource.statusCode()
-            );
-            userId = null;
-        }
-        return userId;
+        return this.userIds.id(this.resources, projectUri, username);
     }
 
 }
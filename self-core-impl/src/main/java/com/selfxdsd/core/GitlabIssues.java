@@ -37,10 +37,14 @@ import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -79,7 +83,12 @@ final class GitlabIssues implements Issues {
     private final Storage storage;
 
     /**
-     * Ctor.
+     * What the Provider remembers between requests.
+     */
+    private final ProviderCaches caches;
+
+    /**
+     * Ctor. Nothing is remembered beyond these Issues.
      *
      * @param resources Gitlab's JSON Resources.
      * @param issuesUri Issues base URI.
@@ -91,11 +100,31 @@ final class GitlabIssues implements Issues {
         final URI issuesUri,
         final Repo repo,
         final Storage storage
+    ) {
+        this(resources, issuesUri, repo, storage, new ProviderCaches());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param resources Gitlab's JSON Resources.
+     * @param issuesUri Issues base URI.
+     * @param repo Parent repo.
+     * @param storage Storage.
+     * @param caches What the Provider remembers between requests.
+     */
+    GitlabIssues(
+        final JsonResources resources,
+        final URI issuesUri,
+        final Repo repo,
+        final Storage storage,
+        final ProviderCaches caches
     ) {
         this.resources = resources;
         this.issuesUri = issuesUri;
         this.repo = repo;
         this.storage = storage;
+        this.caches = caches;
     }
 
     @Override
@@ -127,7 +156,8 @@ final class GitlabIssues implements Issues {
                     issueUri,
                     jsonObject,
                     this.storage,
-                    this.resources
+                    this.resources,
+                    this.caches
                 )
             );
         }
@@ -143,7 +173,8 @@ final class GitlabIssues implements Issues {
                 ),
                 issue,
                 this.storage,
-                this.resources
+                this.resources,
+                this.caches
             )
         );
     }
@@ -156,6 +187,8 @@ final class GitlabIssues implements Issues {
      *
      * Since we cannot specify the labels' color when opening an Issue,
      * we first add them to the repository (where we can specify the color).
+     * Only the labels which do not exist yet are created, see
+     * {@link KnownLabels}.
      */
     @Override
     public Issue open(
@@ -163,7 +196,9 @@ final class GitlabIssues implements Issues {
         final String body,
         final String... labels
     ) {
-        this.repo.labels().add(labels);
+        new KnownLabels(
+            this.repo.labels(), this.issuesUri, this.caches.labels()
+        ).add(labels);
         final Resource resource = this.resources.post(
             this.issuesUri,
             Json.createObjectBuilder()
@@ -199,7 +234,8 @@ final class GitlabIssues implements Issues {
                     ),
                     jsonObject,
                     this.storage,
-                    this.resources
+                    this.resources,
+                    this.caches
                 )
             );
         }
@@ -261,6 +297,38 @@ final class GitlabIssues implements Issues {
         return new FoundIssues(this, found);
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Depending on the URI, these are the Issues or the Merge Requests.
+     */
+    @Override
+    public Map<String, Issue> updatedSince(final Instant since) {
+        final URI updated = URI.create(
+            this.issuesUri.toString() + "?updated_after="
+            + since.truncatedTo(ChronoUnit.SECONDS)
+            + "&order_by=updated_at&sort=asc&per_page=100"
+        );
+        LOG.debug("Fetching the Gitlab Issues updated at: " + updated);
+        final Map<String, Issue> issues = new HashMap<>();
+        new Paginated<>(
+            this.resources,
+            updated,
+            resource -> {
+                if(resource.statusCode() != HttpURLConnection.HTTP_OK) {
+                    throw new IllegalStateException(
+                        "Could not fetch the updated Issues from ["
+                        + updated + "]. Received status code: "
+                        + resource.statusCode()
+                    );
+                }
+                return resource.elements();
+            },
+            issue -> this.received((JsonObject) issue)
+        ).forEach(issue -> issues.put(issue.issueId(), issue));
+        return issues;
+    }
+
     @Override
     public Iterator<Issue> iterator() {
         throw new IllegalStateException(
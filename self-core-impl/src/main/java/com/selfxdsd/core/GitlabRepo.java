@@ -37,7 +37,12 @@ import java.net.URI;
 final class GitlabRepo extends BaseRepo {
 
     /**
-     * Constructor.
+     * What the Provider remembers between requests.
+     */
+    private final ProviderCaches caches;
+
+    /**
+     * Constructor. Nothing is remembered beyond this repo.
      * @param resources Gitlab's JSON Resources.
      * @param uri URI Pointing to this repo.
      * @param owner Owner of this repo.
@@ -49,8 +54,28 @@ final class GitlabRepo extends BaseRepo {
         final URI uri,
         final User owner,
         final Storage storage
+    ) {
+        this(resources, uri, owner, storage, new ProviderCaches());
+    }
+
+    /**
+     * Constructor.
+     * @param resources Gitlab's JSON Resources.
+     * @param uri URI Pointing to this repo.
+     * @param owner Owner of this repo.
+     * @param storage Storage used to save the Project when
+     *  this repo is activated.
+     * @param caches What the Provider remembers between requests.
+     */
+    GitlabRepo(
+        final JsonResources resources,
+        final URI uri,
+        final User owner,
+        final Storage storage,
+        final ProviderCaches caches
     ) {
         super(resources, uri, owner, storage);
+        this.caches = caches;
     }
 
     /**
@@ -61,18 +86,21 @@ final class GitlabRepo extends BaseRepo {
      * @param owner Owner of this repo.
      * @param storage Storage used to save the Project when
      *  this repo is activated.
+     * @param caches What the Provider remembers between requests.
      * @return GitlabRepo.
+     * @checkstyle ParameterNumber (10 lines)
      */
     static GitlabRepo createFromName(
         final String login,
         final String repoName,
         final JsonResources resources,
         final User owner,
-        final Storage storage
+        final Storage storage,
+        final ProviderCaches caches
     ) {
         final URI repo = URI.create("https://gitlab.com/api/v4/projects/"
             + login + "%2F"+repoName);
-        return new GitlabRepo(resources, repo, owner, storage);
+        return new GitlabRepo(resources, repo, owner, storage, caches);
     }
 
     @Override
@@ -127,7 +155,8 @@ final class GitlabRepo extends BaseRepo {
             this.resources(),
             URI.create(this.repoUri().toString() +"/issues"),
             this,
-            this.storage()
+            this.storage(),
+            this.caches
         );
     }
 
@@ -144,7 +173,8 @@ final class GitlabRepo extends BaseRepo {
             this.resources(),
             URI.create(this.repoUri().toString() +"/merge_requests"),
             this,
-            this.storage()
+            this.storage(),
+            this.caches
         );
     }
 
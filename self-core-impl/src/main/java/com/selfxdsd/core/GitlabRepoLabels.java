@@ -29,12 +29,16 @@ import org.slf4j.LoggerFactory;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 /**
  * All the Labels in a GitLab repository.
@@ -74,21 +78,40 @@ final class GitlabRepoLabels implements Labels {
         this.repoLabelsUri = repoLabelsUri;
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The labels are created in parallel.
+     */
     @Override
     public boolean add(final String... names) {
-        boolean added = true;
+        final List<CompletableFuture<Resource>> posted = new ArrayList<>();
         for(final String name : names) {
             LOG.debug(
                 "Adding Label [" + name + "] to GitLab repo "
                 + "["  + this.repoLabelsUri + "]... "
             );
-            final Resource resource = this.resources.post(
-                this.repoLabelsUri,
-                Json.createObjectBuilder()
-                    .add("name", name)
-                    .add("color", "#" + this.randomColor())
-                    .build()
+            posted.add(
+                this.resources.postAsync(
+                    this.repoLabelsUri,
+                    Json.createObjectBuilder()
+                        .add("name", name)
+                        .add("color", "#" + this.randomColor())
+                        .build()
+                )
             );
+        }
+        boolean added = true;
+        for(final CompletableFuture<Resource> response : posted) {
+            final Resource resource;
+            try {
+                resource = response.join();
+            } catch (final CompletionException ex) {
+                throw new IllegalStateException(
+                    "Could not add labels to [" + this.repoLabelsUri + "].",
+                    ex.getCause()
+                );
+            }
             final int status = resource.statusCode();
             if(status == HttpURLConnection.HTTP_CREATED) {
                 LOG.debug("Label successfully added!");
@@ -144,22 +167,20 @@ final class GitlabRepoLabels implements Labels {
 
     @Override
     public Iterator<Label> iterator() {
-        final Resource resource = this.resources.get(
-            URI.create(
-                this.repoLabelsUri.toString() + "?per_page=100"
-            )
-        );
-        final List<Label> labels;
-        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-            labels = resource.asJsonArray()
-                .stream()
-                .map(JsonObject.class::cast)
-                .map(GitlabLabel::new)
-                .collect(Collectors.toList());
-        } else {
-            labels = List.of();
-        }
-        return labels.iterator();
+        return new Paginated<Label>(
+            this.resources,
+            URI.create(this.repoLabelsUri.toString() + "?per_page=100"),
+            response -> {
+                final Stream<JsonValue> labels;
+                if(response.statusCode() == HttpURLConnection.HTTP_OK) {
+                    labels = response.elements();
+                } else {
+                    labels = Stream.empty();
+                }
+                return labels;
+            },
+            label -> new GitlabLabel((JsonObject) label)
+        ).iterator();
     }
 
     /**
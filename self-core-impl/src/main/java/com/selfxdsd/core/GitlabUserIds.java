@@ -0,0 +1,317 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Gitlab user ids, by username. Assigning an Issue in Gitlab needs the
+ * id of the assignee, but usernames map to stable ids, so we remember
+ * them for a while instead of looking them up every time.<br><br>
+ *
+ * On a miss, all the members of the Issue's project are fetched in bulk
+ * and remembered, so the next assignments in that project need no lookup
+ * at all. If the user is still not found, we fall back to searching the
+ * project's users. The ids are remembered per project, since a user may
+ * be a member of one project and not of another. A user who is not found
+ * is also remembered, for a shorter while, so repeated assignments of
+ * a non-member don't repeat the lookups.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class GitlabUserIds {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        GitlabUserIds.class
+    );
+
+    /**
+     * Remembered ids, by project and username, least recently used first.
+     */
+    private final Map<String, Remembered> ids;
+
+    /**
+     * How long an id is remembered.
+     */
+    private final Duration ttl;
+
+    /**
+     * How long a user who was not found is remembered.
+     */
+    private final Duration missTtl;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Ctor. A user who was not found is remembered for 5 minutes.
+     * @param maxEntries Maximum number of ids remembered.
+     * @param ttl How long an id is remembered.
+     * @param clock Clock.
+     */
+    GitlabUserIds(
+        final int maxEntries,
+        final Duration ttl,
+        final Clock clock
+    ) {
+        this(maxEntries, ttl, Duration.ofMinutes(5), clock);
+    }
+
+    /**
+     * Ctor.
+     * @param maxEntries Maximum number of ids remembered.
+     * @param ttl How long an id is remembered.
+     * @param missTtl How long a user who was not found is remembered.
+     * @param clock Clock.
+     */
+    GitlabUserIds(
+        final int maxEntries,
+        final Duration ttl,
+        final Duration missTtl,
+        final Clock clock
+    ) {
+        this.ids = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<String, Remembered> eldest
+            ) {
+                return this.size() > maxEntries;
+            }
+        };
+        this.ttl = ttl;
+        this.missTtl = missTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * The id of the given user.
+     * @param resources Gitlab's JSON Resources.
+     * @param project URI of the project where the user should be a member
+     *  (e.g. https://gitlab.com/api/v4/projects/john%2Ftest).
+     * @param username Username.
+     * @return Id or null if the user is not found.
+     */
+    Integer id(
+        final JsonResources resources,
+        final URI project,
+        final String username
+    ) {
+        Remembered remembered = this.remembered(project, username);
+        if(remembered == null) {
+            this.members(resources, project);
+            remembered = this.remembered(project, username);
+        }
+        final Integer id;
+        if(remembered == null) {
+            id = this.search(resources, project, username);
+        } else {
+            id = remembered.id;
+        }
+        return id;
+    }
+
+    /**
+     * Remembered id of the given user, if it's not expired.
+     * @param project Project URI.
+     * @param username Username.
+     * @return Remembered (with a null id if the user was not found) or
+     *  null if nothing is remembered.
+     */
+    private Remembered remembered(final URI project, final String username) {
+        Remembered remembered;
+        synchronized (this.ids) {
+            final String key = GitlabUserIds.key(project, username);
+            remembered = this.ids.get(key);
+            if(remembered != null
+                && remembered.expires.isBefore(this.clock.instant())) {
+                this.ids.remove(key);
+                remembered = null;
+            }
+        }
+        return remembered;
+    }
+
+    /**
+     * Remember the id of a user.
+     * @param project Project URI.
+     * @param username Username.
+     * @param id Id or null if the user was not found.
+     */
+    private void remember(
+        final URI project,
+        final String username,
+        final Integer id
+    ) {
+        final Duration lifetime;
+        if(id == null) {
+            lifetime = this.missTtl;
+        } else {
+            lifetime = this.ttl;
+        }
+        synchronized (this.ids) {
+            this.ids.put(
+                GitlabUserIds.key(project, username),
+                new Remembered(id, this.clock.instant().plus(lifetime))
+            );
+        }
+    }
+
+    /**
+     * Fetch and remember all the members of the project,
+     * including the inherited ones.
+     * @param resources Gitlab's JSON Resources.
+     * @param project Project URI.
+     */
+    private void members(final JsonResources resources, final URI project) {
+        final URI membersUri = URI.create(
+            project + "/members/all?per_page=100"
+        );
+        LOG.debug("Fetching the members of [" + membersUri + "]...");
+        final Iterable<JsonObject> members = new Paginated<>(
+            resources,
+            membersUri,
+            response -> {
+                final Stream<JsonValue> page;
+                if(response.statusCode() == HttpURLConnection.HTTP_OK) {
+                    page = response.elements();
+                } else {
+                    LOG.debug(
+                        "Could not fetch the members of [" + membersUri
+                        + "]. Status code: " + response.statusCode()
+                    );
+                    page = Stream.empty();
+                }
+                return page;
+            },
+            JsonValue::asJsonObject
+        );
+        for(final JsonObject member : members) {
+            this.remember(
+                project, member.getString("username"), member.getInt("id")
+            );
+        }
+    }
+
+    /**
+     * Search the user among the project's users and remember their id.
+     * @param resources Gitlab's JSON Resources.
+     * @param project Project URI.
+     * @param username Username.
+     * @return Id or null if not found.
+     */
+    private Integer search(
+        final JsonResources resources,
+        final URI project,
+        final String username
+    ) {
+        final URI searchUri = URI.create(
+            project + "/search?scope=users&search=" + username
+        );
+        LOG.debug(
+            "Searching for user \"" + username + "\" id in project members ["
+            + searchUri + "]..."
+        );
+        final Resource resource = resources.get(searchUri);
+        final Integer id;
+        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
+            id = resource.asJsonArray().stream()
+                .filter(o -> o.asJsonObject()
+                    .getString("username")
+                    .equals(username))
+                .map(o -> o.asJsonObject().getInt("id"))
+                .findFirst()
+                .orElse(null);
+            if (id == null) {
+                LOG.debug(
+                    "User id for \"" + username + "\" was not found. Make sure "
+                    + "they are part of the Issue's Project."
+                );
+            }
+            this.remember(project, username, id);
+        } else {
+            LOG.debug(
+                "Could not get id for \"" + username + "\". Status code: "
+                + resource.statusCode()
+            );
+            id = null;
+        }
+        return id;
+    }
+
+    /**
+     * Key of a remembered id: the project and the username.
+     * @param project Project URI.
+     * @param username Username.
+     * @return String.
+     */
+    private static String key(final URI project, final String username) {
+        return project + " " + username;
+    }
+
+    /**
+     * A remembered id.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Remembered {
+
+        /**
+         * User id, null if the user was not found.
+         */
+        private final Integer id;
+
+        /**
+         * When it expires.
+         */
+        private final Instant expires;
+
+        /**
+         * Ctor.
+         * @param id User id, null if the user was not found.
+         * @param expires When it expires.
+         */
+        Remembered(final Integer id, final Instant expires) {
+            this.id = id;
+            this.expires = expires;
+        }
+    }
+}
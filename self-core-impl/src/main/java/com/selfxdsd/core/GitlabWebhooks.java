@@ -37,6 +37,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Gitlab repo webhooks.
@@ -121,10 +122,18 @@ final class GitlabWebhooks implements Webhooks {
         return added;
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * All the webhooks are read before removing any of them, since a
+     * removal would shift the pages.
+     */
     @Override
     public boolean remove() {
+        final List<Webhook> hooks = new ArrayList<>();
+        this.forEach(hooks::add);
         boolean removed = true;
-        for(final Webhook hook : this) {
+        for(final Webhook hook : hooks) {
             if(hook.url().contains("//self-xdsd.")) {
                 LOG.debug(
                     "Removing Self XDSD Webhook from ["
@@ -152,47 +161,50 @@ final class GitlabWebhooks implements Webhooks {
         return removed;
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * All the webhooks are iterated, page by page.
+     */
     @Override
     public Iterator<Webhook> iterator() {
-        final Iterator<Webhook> iterator;
         LOG.debug(
             "Fetching GitLab webhooks [" + this.hooksUri + "]..."
         );
-        final Resource response = this.resources.get(
-            URI.create(this.hooksUri.toString() + "?per_page=100")
-        );
-        if(response.statusCode() == HttpURLConnection.HTTP_OK) {
-            LOG.debug("Webhooks fetched successfully!");
-            final List<Webhook> list = new ArrayList<>();
-            for(final JsonValue hook : response.asJsonArray()) {
-                list.add(
-                    new Webhook() {
-                        /**
-                         * Hook in JSON.
-                         */
-                        private final JsonObject json = (JsonObject) hook;
+        return new Paginated<Webhook>(
+            this.resources,
+            URI.create(this.hooksUri.toString() + "?per_page=100"),
+            response -> {
+                final Stream<JsonValue> hooks;
+                if(response.statusCode() == HttpURLConnection.HTTP_OK) {
+                    LOG.debug("Webhooks fetched successfully!");
+                    hooks = response.elements();
+                } else {
+                    LOG.error(
+                        "Problem when fetching webhooks. Expected 200 OK, "
+                        + " but got " + response.statusCode()
+                        + ". Returning empty iterable."
+                    );
+                    hooks = Stream.empty();
+                }
+                return hooks;
+            },
+            hook -> new Webhook() {
+                /**
+                 * Hook in JSON.
+                 */
+                private final JsonObject json = (JsonObject) hook;
 
-                        @Override
-                        public String id() {
-                            return String.valueOf(this.json.getInt("id"));
-                        }
+                @Override
+                public String id() {
+                    return String.valueOf(this.json.getInt("id"));
+                }
 
-                        @Override
-                        public String url() {
-                            return this.json.getString("url");
-                        }
-                    }
-                );
+                @Override
+                public String url() {
+                    return this.json.getString("url");
+                }
             }
-            iterator = list.iterator();
-        } else {
-            LOG.error(
-                "Problem when fetching webhooks. Expected 200 OK, "
-                + " but got " + response.statusCode()
-                + ". Returning empty iterable."
-            );
-            iterator = new ArrayList<Webhook>().iterator();
-        }
-        return iterator;
+        ).iterator();
     }
 }
@@ -0,0 +1,381 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * JsonResources guarded by a circuit breaker and a bulkhead per provider
+ * host.<br><br>
+ *
+ * The bulkhead limits the requests in flight towards a host: when it is
+ * full, a request waits a little and then fails fast, so a degraded
+ * provider cannot tie up all the threads. The circuit breaker opens after
+ * a number of failures (IOExceptions or 5xx responses) and, while open,
+ * requests fail fast with IllegalStateException. See
+ * {@link CircuitBreakers}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class GuardedJsonResources implements JsonResources {
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Circuit breakers.
+     */
+    private final CircuitBreakers breakers;
+
+    /**
+     * Bulkheads of each host.
+     */
+    private final Map<String, Semaphore> bulkheads;
+
+    /**
+     * Maximum requests in flight towards a host.
+     */
+    private final int concurrency;
+
+    /**
+     * How long a blocking request waits for room in the bulkhead.
+     */
+    private final Duration wait;
+
+    /**
+     * Ctor. It uses its own circuit breakers, at most 32 requests
+     * in flight per host and waits at most 5 seconds for room in
+     * the bulkhead.
+     * @param origin Original JsonResources.
+     */
+    public GuardedJsonResources(final JsonResources origin) {
+        this(origin, new CircuitBreakers(), 32, Duration.ofSeconds(5));
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param breakers Circuit breakers.
+     * @param concurrency Maximum requests in flight towards a host.
+     * @param wait How long a blocking request waits for room in
+     *  the bulkhead.
+     */
+    public GuardedJsonResources(
+        final JsonResources origin,
+        final CircuitBreakers breakers,
+        final int concurrency,
+        final Duration wait
+    ) {
+        this(origin, breakers, new ConcurrentHashMap<>(), concurrency, wait);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param breakers Circuit breakers.
+     * @param bulkheads Bulkheads of each host.
+     * @param concurrency Maximum requests in flight towards a host.
+     * @param wait How long a blocking request waits for room in
+     *  the bulkhead.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    private GuardedJsonResources(
+        final JsonResources origin,
+        final CircuitBreakers breakers,
+        final Map<String, Semaphore> bulkheads,
+        final int concurrency,
+        final Duration wait
+    ) {
+        this.origin = origin;
+        this.breakers = breakers;
+        this.bulkheads = bulkheads;
+        this.concurrency = concurrency;
+        this.wait = wait;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new GuardedJsonResources(
+            this.origin.authenticated(accessToken),
+            this.breakers,
+            this.bulkheads,
+            this.concurrency,
+            this.wait
+        );
+    }
+
+    @Override
+    public JsonResources prioritized(
+        final RateLimitedJsonResources.Priority priority
+    ) {
+        return new GuardedJsonResources(
+            this.origin.prioritized(priority),
+            this.breakers,
+            this.bulkheads,
+            this.concurrency,
+            this.wait
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.blocking(uri, () -> this.origin.get(uri));
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        return this.blocking(uri, () -> this.origin.get(uri, headers));
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.blocking(uri, () -> this.origin.post(uri, body));
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.blocking(uri, () -> this.origin.patch(uri, body));
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.blocking(uri, () -> this.origin.put(uri, body));
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.blocking(uri, () -> this.origin.delete(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.async(uri, () -> this.origin.getAsync(uri));
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return this.async(uri, () -> this.origin.getAsync(uri, headers));
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(uri, () -> this.origin.postAsync(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(uri, () -> this.origin.patchAsync(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(uri, () -> this.origin.putAsync(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(uri, () -> this.origin.deleteAsync(uri, body));
+    }
+
+    /**
+     * Make the request if the bulkhead has room and the circuit allows it.
+     * Whatever the request throws is recorded as a failure, so a half-open
+     * circuit never keeps its probe.
+     * @param uri URI.
+     * @param request Request.
+     * @return Resource.
+     */
+    private Resource blocking(
+        final URI uri,
+        final Supplier<Resource> request
+    ) {
+        final Semaphore bulkhead = this.bulkhead(uri);
+        final boolean room;
+        try {
+            room = bulkhead.tryAcquire(
+                this.wait.toMillis(), TimeUnit.MILLISECONDS
+            );
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while waiting for the bulkhead of ["
+                + uri.getHost() + "].",
+                ex
+            );
+        }
+        if(!room) {
+            throw new IllegalStateException(
+                "Too many requests in flight towards [" + uri.getHost()
+                + "], failing fast."
+            );
+        }
+        try {
+            final CircuitBreaker.Call call = this.allowed(uri);
+            boolean recorded = false;
+            try {
+                final Resource resource = request.get();
+                this.record(call, resource);
+                recorded = true;
+                return resource;
+            } finally {
+                if(!recorded) {
+                    call.failure();
+                }
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Make the request asynchronously if the bulkhead has room and the
+     * circuit allows it. Otherwise, the returned future fails right away.
+     * Any exception thrown while starting the request is recorded as a
+     * failure, so a half-open circuit never keeps its probe.
+     * @param uri URI.
+     * @param request Request.
+     * @return Future Resource.
+     * @checkstyle IllegalCatch (40 lines)
+     */
+    private CompletableFuture<Resource> async(
+        final URI uri,
+        final Supplier<CompletableFuture<Resource>> request
+    ) {
+        final Semaphore bulkhead = this.bulkhead(uri);
+        CompletableFuture<Resource> sent;
+        if(bulkhead.tryAcquire()) {
+            final CircuitBreaker.Call call =
+                this.breakers.breaker(uri).allow();
+            if(call != null) {
+                try {
+                    sent = request.get().whenComplete(
+                        (resource, error) -> {
+                            bulkhead.release();
+                            if(error == null) {
+                                this.record(call, resource);
+                            } else {
+                                call.failure();
+                            }
+                        }
+                    );
+                } catch (final RuntimeException ex) {
+                    bulkhead.release();
+                    call.failure();
+                    sent = CompletableFuture.failedFuture(ex);
+                }
+            } else {
+                bulkhead.release();
+                sent = CompletableFuture.failedFuture(this.open(uri));
+            }
+        } else {
+            sent = CompletableFuture.failedFuture(
+                new IllegalStateException(
+                    "Too many requests in flight towards [" + uri.getHost()
+                    + "], failing fast."
+                )
+            );
+        }
+        return sent;
+    }
+
+    /**
+     * Check that the circuit of the URI's host allows the request.
+     * @param uri URI.
+     * @return The Call to report the outcome of the request to.
+     * @throws IllegalStateException If the circuit is open.
+     */
+    private CircuitBreaker.Call allowed(final URI uri) {
+        final CircuitBreaker.Call call = this.breakers.breaker(uri).allow();
+        if(call == null) {
+            throw this.open(uri);
+        }
+        return call;
+    }
+
+    /**
+     * Exception for a request which fails fast because the circuit
+     * is open.
+     * @param uri URI of the request.
+     * @return IllegalStateException.
+     */
+    private IllegalStateException open(final URI uri) {
+        return new IllegalStateException(
+            "Circuit of [" + uri.getHost() + "] is open, failing fast."
+        );
+    }
+
+    /**
+     * Record the outcome of a request: 5xx responses are failures.
+     * @param call The request, let through by the CircuitBreaker.
+     * @param resource Received Resource.
+     */
+    private void record(
+        final CircuitBreaker.Call call,
+        final Resource resource
+    ) {
+        if(resource.statusCode() >= 500) {
+            call.failure();
+        } else {
+            call.success();
+        }
+    }
+
+    /**
+     * Bulkhead of the URI's host.
+     * @param uri URI.
+     * @return Semaphore.
+     */
+    private Semaphore bulkhead(final URI uri) {
+        return this.bulkheads.computeIfAbsent(
+            uri.getHost().toLowerCase(Locale.ENGLISH),
+            host -> new Semaphore(this.concurrency)
+        );
+    }
+}
@@ -0,0 +1,336 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Long-lived HTTP transport used by {@link JsonResources.JdkHttp}.<br><br>
+ *
+ * It keeps one {@link HttpClient} per provider host (e.g. api.github.com),
+ * so connections are kept alive and reused (HTTP/2 is negotiated where
+ * the server supports it) instead of paying a new TLS handshake, connection
+ * pool and selector thread for every request. The number of connections
+ * in use towards a host is bounded, as is the number of requests in flight
+ * made with the same access token.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class HttpTransport {
+
+    /**
+     * How many access tokens we keep permits for before evicting the
+     * idle ones.
+     */
+    private static final int MAX_TOKENS = 1000;
+
+    /**
+     * Process-wide transport, with the default settings.
+     */
+    private static final HttpTransport SHARED = new HttpTransport();
+
+    /**
+     * Timeout for establishing a connection.
+     */
+    private final Duration connectTimeout;
+
+    /**
+     * Timeout for receiving the response of a request.
+     */
+    private final Duration readTimeout;
+
+    /**
+     * Maximum number of requests in flight towards the same host.
+     */
+    private final int maxConnections;
+
+    /**
+     * Maximum number of requests in flight made with the same token.
+     */
+    private final int maxPerToken;
+
+    /**
+     * Hosts we talk to, keyed by scheme and authority.
+     */
+    private final Map<String, Host> hosts;
+
+    /**
+     * Permits of each access token, keyed by the token's hash (we don't
+     * keep the secret values). Bounded: the idle ones are evicted when
+     * there are {@link #MAX_TOKENS}, before adding a new one. New tokens
+     * are added under the map's lock, so concurrent inserts can't push
+     * it past the bound.
+     */
+    private final Map<String, Permits> tokens;
+
+    /**
+     * Handler of the response bodies, which decompresses them.
+     */
+    private final DecodedBodies bodies;
+
+    /**
+     * Ctor with default settings: 10 seconds connect timeout, 60 seconds
+     * read timeout, at most 64 connections per host and
+     * 16 concurrent requests per access token.
+     */
+    public HttpTransport() {
+        this(Duration.ofSeconds(10), Duration.ofSeconds(60), 64, 16);
+    }
+
+    /**
+     * Ctor with at most 16 concurrent requests per access token.
+     * @param connectTimeout Timeout for establishing a connection.
+     * @param readTimeout Timeout for receiving the response of a request.
+     * @param maxConnections Maximum number of requests in flight towards
+     *  the same host.
+     */
+    public HttpTransport(
+        final Duration connectTimeout,
+        final Duration readTimeout,
+        final int maxConnections
+    ) {
+        this(connectTimeout, readTimeout, maxConnections, 16);
+    }
+
+    /**
+     * Ctor.
+     * @param connectTimeout Timeout for establishing a connection.
+     * @param readTimeout Timeout for receiving the response of a request.
+     * @param maxConnections Maximum number of requests in flight towards
+     *  the same host.
+     * @param maxPerToken Maximum number of requests in flight made with
+     *  the same access token.
+     */
+    public HttpTransport(
+        final Duration connectTimeout,
+        final Duration readTimeout,
+        final int maxConnections,
+        final int maxPerToken
+    ) {
+        if(maxConnections <= 0 || maxPerToken <= 0) {
+            throw new IllegalArgumentException(
+                "Max connections per host and max requests per token "
+                + "must be positive, got " + maxConnections + " and "
+                + maxPerToken + "."
+            );
+        }
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.maxConnections = maxConnections;
+        this.maxPerToken = maxPerToken;
+        this.hosts = new ConcurrentHashMap<>();
+        this.tokens = new ConcurrentHashMap<>();
+        this.bodies = new DecodedBodies();
+    }
+
+    /**
+     * The process-wide transport, with the default settings. The
+     * {@link JsonResources.JdkHttp} and {@link Providers} which are not
+     * given a transport share it, so they share its connections.
+     * @return HttpTransport.
+     */
+    public static HttpTransport shared() {
+        return SHARED;
+    }
+
+    /**
+     * Handler of the response bodies. It decompresses gzip and deflate
+     * bodies and counts the bytes on the wire vs the decoded bytes.
+     * @return DecodedBodies.
+     */
+    public DecodedBodies bodies() {
+        return this.bodies;
+    }
+
+    /**
+     * Send the request, blocking until the response is received.
+     * @param token Access token value, empty if the request is anonymous.
+     * @param request Request to be sent, without the timeout.
+     * @param handler Response body handler.
+     * @param <T> Type of the response body.
+     * @return HttpResponse.
+     * @throws IOException If something goes wrong while sending.
+     * @throws InterruptedException If the thread is interrupted while
+     *  waiting for a free connection or for the response.
+     */
+    <T> HttpResponse<T> send(
+        final String token,
+        final HttpRequest.Builder request,
+        final HttpResponse.BodyHandler<T> handler
+    ) throws IOException, InterruptedException {
+        final HttpRequest built = request.timeout(this.readTimeout).build();
+        final Host host = this.host(built.uri());
+        final Permits permits = this.permits(token);
+        permits.acquire();
+        try {
+            host.connections.acquire();
+            try {
+                return host.client.send(built, handler);
+            } finally {
+                host.connections.release();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Send the request asynchronously. If there are no free connections
+     * or the token has too many requests in flight, the request is queued
+     * without blocking the caller.
+     * @param token Access token value, empty if the request is anonymous.
+     * @param request Request to be sent, without the timeout.
+     * @param handler Response body handler.
+     * @param <T> Type of the response body.
+     * @return Future HttpResponse.
+     */
+    <T> CompletableFuture<HttpResponse<T>> sendAsync(
+        final String token,
+        final HttpRequest.Builder request,
+        final HttpResponse.BodyHandler<T> handler
+    ) {
+        final HttpRequest built = request.timeout(this.readTimeout).build();
+        final Host host = this.host(built.uri());
+        return this.permits(token).async(
+            () -> host.connections.async(
+                () -> host.client.sendAsync(built, handler)
+            )
+        );
+    }
+
+    /**
+     * The HttpClient used for the given URI's host.
+     * @param uri URI.
+     * @return HttpClient.
+     */
+    HttpClient client(final URI uri) {
+        return this.host(uri).client;
+    }
+
+    /**
+     * Permits of the given access token.
+     * @param token Access token value.
+     * @return Permits.
+     */
+    private Permits permits(final String token) {
+        final String key = HttpTransport.hash(token);
+        Permits permits = this.tokens.get(key);
+        if(permits == null) {
+            synchronized (this.tokens) {
+                if(this.tokens.size() >= MAX_TOKENS) {
+                    this.tokens.values().removeIf(Permits::idle);
+                }
+                permits = this.tokens.computeIfAbsent(
+                    key, hash -> new Permits(this.maxPerToken)
+                );
+            }
+        }
+        return permits;
+    }
+
+    /**
+     * Hash of an access token, so we don't keep the secret as a key.
+     * @param token Access token value, empty if anonymous.
+     * @return Base64 SHA-256 of the token, empty if the token is empty.
+     */
+    static String hash(final String token) {
+        final String hash;
+        if(token.isEmpty()) {
+            hash = token;
+        } else {
+            try {
+                hash = Base64.getEncoder().encodeToString(
+                    MessageDigest.getInstance("SHA-256").digest(
+                        token.getBytes(StandardCharsets.UTF_8)
+                    )
+                );
+            } catch (final NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(
+                    "SHA-256 is not available.", ex
+                );
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Find the Host of the given URI, create it if it's the first time
+     * we talk to it.
+     * @param uri URI.
+     * @return Host.
+     */
+    private Host host(final URI uri) {
+        return this.hosts.computeIfAbsent(
+            uri.getScheme() + "://" + uri.getRawAuthority(),
+            key -> new Host(
+                HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(this.connectTimeout)
+                    .build(),
+                new Permits(this.maxConnections)
+            )
+        );
+    }
+
+    /**
+     * A host we talk to.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Host {
+
+        /**
+         * Client which keeps the connections to this host.
+         */
+        private final HttpClient client;
+
+        /**
+         * Available connections.
+         */
+        private final Permits connections;
+
+        /**
+         * Ctor.
+         * @param client Client which keeps the connections to this host.
+         * @param connections Available connections.
+         */
+        private Host(final HttpClient client, final Permits connections) {
+            this.client = client;
+            this.connections = connections;
+        }
+    }
+}
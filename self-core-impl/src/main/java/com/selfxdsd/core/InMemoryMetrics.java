@@ -0,0 +1,290 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metrics kept in memory, per endpoint (provider, HTTP method and URI
+ * template). Use {@link #endpoints()} to find the hot endpoints.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class InMemoryMetrics implements Metrics {
+
+    /**
+     * Upper bounds of the latency histogram buckets, in milliseconds.
+     * The last bucket counts everything slower.
+     */
+    private static final long[] BUCKETS = {
+        10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, Long.MAX_VALUE,
+    };
+
+    /**
+     * Endpoints, by provider, method and template.
+     */
+    private final Map<String, Endpoint> endpoints;
+
+    /**
+     * Remaining requests of the rate limit, last reported by each provider.
+     */
+    private final Map<String, Integer> headroom;
+
+    /**
+     * Ctor.
+     */
+    public InMemoryMetrics() {
+        this.endpoints = new ConcurrentHashMap<>();
+        this.headroom = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void record(final Call call) {
+        this.endpoints.computeIfAbsent(
+            call.provider() + " " + call.method() + " " + call.template(),
+            key -> new Endpoint(
+                call.provider(), call.method(), call.template()
+            )
+        ).add(call);
+        if(call.remaining() >= 0) {
+            this.headroom.put(call.provider(), call.remaining());
+        }
+    }
+
+    /**
+     * The endpoints called so far, the ones where we spent the most
+     * time first.
+     * @return List of Endpoint.
+     */
+    public List<Endpoint> endpoints() {
+        final List<Endpoint> hot = new ArrayList<>(this.endpoints.values());
+        hot.sort(Comparator.comparing(Endpoint::total).reversed());
+        return hot;
+    }
+
+    /**
+     * Remaining requests of the rate limit, last reported by the
+     * given provider.
+     * @param provider Provider name.
+     * @return Integer, -1 if unknown.
+     */
+    public int headroom(final String provider) {
+        return this.headroom.getOrDefault(provider, -1);
+    }
+
+    /**
+     * Metrics of one endpoint.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    public static final class Endpoint {
+
+        /**
+         * Provider name.
+         */
+        private final String provider;
+
+        /**
+         * HTTP method.
+         */
+        private final String method;
+
+        /**
+         * URI template.
+         */
+        private final String template;
+
+        /**
+         * Calls per status code.
+         */
+        private final Map<Integer, Long> statuses;
+
+        /**
+         * Calls per latency bucket.
+         */
+        private final long[] latencies;
+
+        /**
+         * Number of calls.
+         */
+        private long count;
+
+        /**
+         * Number of conditional calls.
+         */
+        private long conditional;
+
+        /**
+         * Total time spent, in nanoseconds.
+         */
+        private long total;
+
+        /**
+         * Bytes sent.
+         */
+        private long sent;
+
+        /**
+         * Bytes received.
+         */
+        private long received;
+
+        /**
+         * Ctor.
+         * @param provider Provider name.
+         * @param method HTTP method.
+         * @param template URI template.
+         */
+        Endpoint(
+            final String provider,
+            final String method,
+            final String template
+        ) {
+            this.provider = provider;
+            this.method = method;
+            this.template = template;
+            this.statuses = new TreeMap<>();
+            this.latencies = new long[BUCKETS.length];
+        }
+
+        /**
+         * Provider name.
+         * @return String.
+         */
+        public String provider() {
+            return this.provider;
+        }
+
+        /**
+         * HTTP method.
+         * @return String.
+         */
+        public String method() {
+            return this.method;
+        }
+
+        /**
+         * URI template.
+         * @return String.
+         */
+        public String template() {
+            return this.template;
+        }
+
+        /**
+         * Number of calls.
+         * @return Long.
+         */
+        public synchronized long count() {
+            return this.count;
+        }
+
+        /**
+         * Number of conditional calls. Their 304 responses are in
+         * {@link #statuses()}.
+         * @return Long.
+         */
+        public synchronized long conditional() {
+            return this.conditional;
+        }
+
+        /**
+         * Calls per status code, {@link Call#FAILED} for the calls
+         * without a response.
+         * @return Map of status codes and number of calls.
+         */
+        public synchronized Map<Integer, Long> statuses() {
+            return Collections.unmodifiableMap(new TreeMap<>(this.statuses));
+        }
+
+        /**
+         * Latency histogram.
+         * @return Map of bucket upper bounds, in milliseconds, and number
+         *  of calls. The last bucket is Long.MAX_VALUE.
+         */
+        public synchronized SortedMap<Long, Long> latencies() {
+            final SortedMap<Long, Long> histogram = new TreeMap<>();
+            for(int idx = 0; idx < BUCKETS.length; ++idx) {
+                histogram.put(BUCKETS[idx], this.latencies[idx]);
+            }
+            return Collections.unmodifiableSortedMap(histogram);
+        }
+
+        /**
+         * Total time spent calling this endpoint.
+         * @return Duration.
+         */
+        public synchronized Duration total() {
+            return Duration.ofNanos(this.total);
+        }
+
+        /**
+         * Bytes sent.
+         * @return Long.
+         */
+        public synchronized long sent() {
+            return this.sent;
+        }
+
+        /**
+         * Bytes received (only the known sizes are counted).
+         * @return Long.
+         */
+        public synchronized long received() {
+            return this.received;
+        }
+
+        /**
+         * Add a call.
+         * @param call Finished call.
+         */
+        synchronized void add(final Call call) {
+            this.count = this.count + 1;
+            if(call.conditional()) {
+                this.conditional = this.conditional + 1;
+            }
+            this.statuses.merge(call.status(), 1L, Long::sum);
+            final long millis = call.latency().toMillis();
+            int bucket = 0;
+            while(millis > BUCKETS[bucket]) {
+                bucket = bucket + 1;
+            }
+            this.latencies[bucket] = this.latencies[bucket] + 1;
+            this.total = this.total + call.latency().toNanos();
+            this.sent = this.sent + call.sent();
+            if(call.received() > 0) {
+                this.received = this.received + call.received();
+            }
+        }
+    }
+}
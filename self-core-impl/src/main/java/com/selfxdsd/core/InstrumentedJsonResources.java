@@ -0,0 +1,403 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * JsonResources which record every call in the given {@link Metrics}:
+ * latency, status code, bytes sent and received and the rate limit
+ * headroom, labelled by provider, HTTP method and normalised URI
+ * template (e.g. /repos/{o}/{r}/issues/{n}/comments).<br><br>
+ *
+ * Put it right over {@link JsonResources.JdkHttp} to see the calls which
+ * actually reach the provider (cache hits and coalesced GETs are not
+ * sent), or on top of the stack to see all the calls we make.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class InstrumentedJsonResources implements JsonResources {
+
+    /**
+     * Path segments which are followed by parameters, and the
+     * placeholders of those parameters.
+     */
+    private static final Map<String, List<String>> PARAMETERS = Map.of(
+        "repos", List.of("{o}", "{r}"),
+        "repositories", List.of("{o}", "{r}"),
+        "projects", List.of("{p}"),
+        "users", List.of("{u}"),
+        "orgs", List.of("{o}"),
+        "groups", List.of("{g}"),
+        "collaborators", List.of("{u}"),
+        "labels", List.of("{l}"),
+        "commits", List.of("{sha}")
+    );
+
+    /**
+     * Numeric path segments (ids) are parameters too.
+     */
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Provider name.
+     */
+    private final String provider;
+
+    /**
+     * Where the calls are recorded.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param provider Provider name.
+     * @param metrics Where the calls are recorded.
+     */
+    public InstrumentedJsonResources(
+        final JsonResources origin,
+        final String provider,
+        final Metrics metrics
+    ) {
+        this.origin = origin;
+        this.provider = provider;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new InstrumentedJsonResources(
+            this.origin.authenticated(accessToken),
+            this.provider,
+            this.metrics
+        );
+    }
+
+    @Override
+    public JsonResources prioritized(
+        final RateLimitedJsonResources.Priority priority
+    ) {
+        return new InstrumentedJsonResources(
+            this.origin.prioritized(priority),
+            this.provider,
+            this.metrics
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.blocking(
+            "GET", uri, JsonValue.NULL, false, () -> this.origin.get(uri)
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        return this.blocking(
+            "GET", uri, JsonValue.NULL,
+            InstrumentedJsonResources.conditional(headers),
+            () -> this.origin.get(uri, headers)
+        );
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.blocking(
+            "POST", uri, body, false, () -> this.origin.post(uri, body)
+        );
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.blocking(
+            "PATCH", uri, body, false, () -> this.origin.patch(uri, body)
+        );
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.blocking(
+            "PUT", uri, body, false, () -> this.origin.put(uri, body)
+        );
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.blocking(
+            "DELETE", uri, body, false, () -> this.origin.delete(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.async(
+            "GET", uri, JsonValue.NULL, false,
+            () -> this.origin.getAsync(uri)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return this.async(
+            "GET", uri, JsonValue.NULL,
+            InstrumentedJsonResources.conditional(headers),
+            () -> this.origin.getAsync(uri, headers)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            "POST", uri, body, false, () -> this.origin.postAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            "PATCH", uri, body, false,
+            () -> this.origin.patchAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            "PUT", uri, body, false, () -> this.origin.putAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            "DELETE", uri, body, false,
+            () -> this.origin.deleteAsync(uri, body)
+        );
+    }
+
+    /**
+     * Normalised template of the given URI: the query is dropped and the
+     * parameters of the path (owner, repo, ids etc) are replaced with
+     * placeholders, e.g. /repos/{o}/{r}/issues/{n}/comments.
+     * @param uri URI.
+     * @return String.
+     */
+    static String template(final URI uri) {
+        final StringBuilder template = new StringBuilder();
+        List<String> pending = List.of();
+        int next = 0;
+        for(final String segment : uri.getRawPath().split("/")) {
+            if(!segment.isEmpty()) {
+                template.append('/');
+                if(next < pending.size()) {
+                    template.append(pending.get(next));
+                    next = next + 1;
+                } else if(NUMBER.matcher(segment).matches()) {
+                    template.append("{n}");
+                } else {
+                    template.append(segment);
+                    pending = PARAMETERS.getOrDefault(segment, List.of());
+                    next = 0;
+                }
+            }
+        }
+        if(template.length() == 0) {
+            template.append('/');
+        }
+        return template.toString();
+    }
+
+    /**
+     * Make the request and record it.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @param body Request body.
+     * @param conditional Is it a conditional request?
+     * @param request Request to make.
+     * @return Resource.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    private Resource blocking(
+        final String method,
+        final URI uri,
+        final JsonValue body,
+        final boolean conditional,
+        final Supplier<Resource> request
+    ) {
+        final long start = System.nanoTime();
+        final Resource resource;
+        try {
+            resource = request.get();
+        } catch (final IllegalStateException ex) {
+            this.record(method, uri, body, conditional, start, null);
+            throw ex;
+        }
+        this.record(method, uri, body, conditional, start, resource);
+        return resource;
+    }
+
+    /**
+     * Make the request asynchronously and record it when it's done.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @param body Request body.
+     * @param conditional Is it a conditional request?
+     * @param request Request to make.
+     * @return Future Resource.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    private CompletableFuture<Resource> async(
+        final String method,
+        final URI uri,
+        final JsonValue body,
+        final boolean conditional,
+        final Supplier<CompletableFuture<Resource>> request
+    ) {
+        final long start = System.nanoTime();
+        return request.get().whenComplete(
+            (resource, error) -> this.record(
+                method, uri, body, conditional, start, resource
+            )
+        );
+    }
+
+    /**
+     * Record a finished call.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @param body Request body.
+     * @param conditional Was it a conditional request?
+     * @param start When the call started, in nanoseconds.
+     * @param resource Received Resource, null if the call failed.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    private void record(
+        final String method,
+        final URI uri,
+        final JsonValue body,
+        final boolean conditional,
+        final long start,
+        final Resource resource
+    ) {
+        final Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        final long sent;
+        if(body == null || JsonValue.NULL.equals(body)) {
+            sent = 0;
+        } else {
+            sent = body.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        final int status;
+        final long received;
+        final int remaining;
+        if(resource == null) {
+            status = Metrics.Call.FAILED;
+            received = -1;
+            remaining = -1;
+        } else {
+            status = resource.statusCode();
+            received = resource.size();
+            remaining = InstrumentedJsonResources.remaining(resource);
+        }
+        this.metrics.record(
+            new Metrics.Call(
+                this.provider,
+                method,
+                InstrumentedJsonResources.template(uri),
+                status,
+                latency,
+                sent,
+                received,
+                remaining,
+                conditional
+            )
+        );
+    }
+
+    /**
+     * Is it a conditional request?
+     * @param headers Request headers.
+     * @return True or false.
+     */
+    private static boolean conditional(final Map<String, String> headers) {
+        boolean conditional = false;
+        for(final String name : headers.keySet()) {
+            if("If-None-Match".equalsIgnoreCase(name)
+                || "If-Modified-Since".equalsIgnoreCase(name)) {
+                conditional = true;
+            }
+        }
+        return conditional;
+    }
+
+    /**
+     * Remaining requests of the rate limit, as reported by the provider
+     * (X-RateLimit-Remaining on Github, RateLimit-Remaining on Gitlab).
+     * @param resource Received Resource.
+     * @return Integer, -1 if unknown.
+     */
+    private static int remaining(final Resource resource) {
+        List<String> values = resource.headers().get("X-RateLimit-Remaining");
+        if(values == null || values.isEmpty()) {
+            values = resource.headers().get("RateLimit-Remaining");
+        }
+        int remaining = -1;
+        if(values != null && !values.isEmpty()) {
+            try {
+                remaining = Integer.parseInt(values.get(0).trim());
+            } catch (final NumberFormatException ex) {
+                remaining = -1;
+            }
+        }
+        return remaining;
+    }
+}
@@ -25,13 +25,22 @@ package com.selfxdsd.core;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonStructure;
 import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.StringReader;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * JSON Resources used by the Provider.
@@ -52,6 +61,21 @@ public interface JsonResources {
      */
     JsonResources authenticated(final AccessToken accessToken);
 
+    /**
+     * Return an instance whose requests (all of them, not only the GETs)
+     * have the given rate limit priority. The priority is not a request
+     * header: every decorator passes it on to its origin, until it
+     * reaches the {@link RateLimitedJsonResources}. By default, there is
+     * no rate limiting, so the priority is ignored.
+     * @param priority Priority of the requests.
+     * @return JsonResources.
+     */
+    default JsonResources prioritized(
+        final RateLimitedJsonResources.Priority priority
+    ) {
+        return this;
+    }
+
     /**
      * Get the Resource at the specified URI.
      * @param uri Resource location.
@@ -61,6 +85,21 @@ public interface JsonResources {
      */
     Resource get(final URI uri);
 
+    /**
+     * Get the Resource at the specified URI, sending the given
+     * request headers (e.g. for conditional requests).<br><br>
+     *
+     * By default, the headers are ignored.
+     * @param uri Resource location.
+     * @param headers Request headers.
+     * @return Resource.
+     * @throws IllegalStateException If IOException or InterruptedException
+     *  occur while making the HTTP request.
+     */
+    default Resource get(final URI uri, final Map<String, String> headers) {
+        return this.get(uri);
+    }
+
     /**
      * Post a JsonObject to the specified URI.
      * @param uri URI.
@@ -113,6 +152,107 @@ public interface JsonResources {
         final JsonValue body
     );
 
+    /**
+     * Get the Resource at the specified URI, asynchronously.<br><br>
+     *
+     * By default, the blocking {@link #get(URI)} is called in the caller's
+     * thread. Implementations which can do better should override it.
+     * @param uri Resource location.
+     * @return Future Resource. It completes exceptionally with
+     *  IllegalStateException if the HTTP request fails.
+     */
+    default CompletableFuture<Resource> getAsync(final URI uri) {
+        return CompletableFuture.supplyAsync(
+            () -> this.get(uri), Runnable::run
+        );
+    }
+
+    /**
+     * Get the Resource at the specified URI, asynchronously, sending the
+     * given request headers.
+     * @param uri Resource location.
+     * @param headers Request headers.
+     * @return Future Resource. It completes exceptionally with
+     *  IllegalStateException if the HTTP request fails.
+     * @see #getAsync(URI)
+     */
+    default CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return CompletableFuture.supplyAsync(
+            () -> this.get(uri, headers), Runnable::run
+        );
+    }
+
+    /**
+     * Post a JsonObject to the specified URI, asynchronously.
+     * @param uri URI.
+     * @param body JSON body of the request.
+     * @return Future Resource. It completes exceptionally with
+     *  IllegalStateException if the HTTP request fails.
+     * @see #getAsync(URI)
+     */
+    default CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return CompletableFuture.supplyAsync(
+            () -> this.post(uri, body), Runnable::run
+        );
+    }
+
+    /**
+     * Patch a JsonObject at the specified URI, asynchronously.
+     * @param uri URI.
+     * @param body JSON body of the request.
+     * @return Future Resource. It completes exceptionally with
+     *  IllegalStateException if the HTTP request fails.
+     * @see #getAsync(URI)
+     */
+    default CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return CompletableFuture.supplyAsync(
+            () -> this.patch(uri, body), Runnable::run
+        );
+    }
+
+    /**
+     * Put a JsonObject at the specified URI, asynchronously.
+     * @param uri URI.
+     * @param body JSON body of the request.
+     * @return Future Resource. It completes exceptionally with
+     *  IllegalStateException if the HTTP request fails.
+     * @see #getAsync(URI)
+     */
+    default CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return CompletableFuture.supplyAsync(
+            () -> this.put(uri, body), Runnable::run
+        );
+    }
+
+    /**
+     * DELETE the specified resource, asynchronously.
+     * @param uri URI.
+     * @param body JSON body of the request.
+     * @return Future Resource. It completes exceptionally with
+     *  IllegalStateException if the HTTP request fails.
+     * @see #getAsync(URI)
+     */
+    default CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return CompletableFuture.supplyAsync(
+            () -> this.delete(uri, body), Runnable::run
+        );
+    }
+
     /**
      * JSON Resources obtained by making HTTP calls, using
      * the JDK.
@@ -128,40 +268,66 @@ public interface JsonResources {
         private final AccessToken accessToken;
 
         /**
-         * Ctor.
+         * HTTP transport.
+         */
+        private final HttpTransport transport;
+
+        /**
+         * Ctor. The instance uses the process-wide transport (see
+         * {@link HttpTransport#shared()}).
          */
         JdkHttp() {
-            this(null);
+            this(HttpTransport.shared());
+        }
+
+        /**
+         * Ctor.
+         * @param transport HTTP transport.
+         */
+        public JdkHttp(final HttpTransport transport) {
+            this(null, transport);
         }
 
         /**
          * Ctor.
          * @param accessToken Access token for authenticated requests.
+         * @param transport HTTP transport.
          */
-        private JdkHttp(final AccessToken accessToken) {
+        private JdkHttp(
+            final AccessToken accessToken,
+            final HttpTransport transport
+        ) {
             this.accessToken = accessToken;
+            this.transport = transport;
         }
 
         @Override
         public JsonResources authenticated(final AccessToken accessToken) {
-            return new JsonResources.JdkHttp(accessToken);
+            return new JsonResources.JdkHttp(accessToken, this.transport);
         }
 
         @Override
         public Resource get(final URI uri) {
+            return this.get(uri, Map.of());
+        }
+
+        @Override
+        public Resource get(
+            final URI uri,
+            final Map<String, String> headers
+        ) {
             try {
-                final HttpResponse<String> response = HttpClient.newHttpClient()
-                    .send(
-                        this.request(
-                            uri,
-                            "GET",
-                            HttpRequest.BodyPublishers.noBody()
-                        ),
-                        HttpResponse.BodyHandlers.ofString()
-                    );
-                return new JsonResponse(
-                    response.statusCode(), response.body()
+                final HttpResponse<byte[]> response = this.transport.send(
+                    this.token(),
+                    this.request(
+                        uri,
+                        "GET",
+                        HttpRequest.BodyPublishers.noBody(),
+                        headers
+                    ),
+                    this.transport.bodies()
                 );
+                return new JsonResponse(response);
             } catch (final IOException | InterruptedException ex) {
                 throw new IllegalStateException(
                     "Couldn't GET [" + uri.toString() +"]",
@@ -176,20 +342,18 @@ public interface JsonResources {
             final JsonValue body
         ) {
             try {
-                final HttpResponse<String> response = HttpClient.newHttpClient()
-                    .send(
-                        this.request(
-                            uri,
-                            "POST",
-                            HttpRequest.BodyPublishers.ofString(
-                                body.toString()
-                            )
-                        ),
-                        HttpResponse.BodyHandlers.ofString()
-                    );
-                return new JsonResponse(
-                    response.statusCode(), response.body()
+                final HttpResponse<byte[]> response = this.transport.send(
+                    this.token(),
+                    this.request(
+                        uri,
+                        "POST",
+                        HttpRequest.BodyPublishers.ofString(
+                            body.toString()
+                        )
+                    ),
+                    this.transport.bodies()
                 );
+                return new JsonResponse(response);
             } catch (final IOException | InterruptedException ex) {
                 throw new IllegalStateException(
                     "Couldn't POST " + body.toString()
@@ -205,20 +369,18 @@ public interface JsonResources {
             final JsonValue body
         ) {
             try {
-                final HttpResponse<String> response = HttpClient.newHttpClient()
-                    .send(
-                        this.request(
-                            uri,
-                            "PATCH",
-                            HttpRequest.BodyPublishers.ofString(
-                                body.toString()
-                            )
-                        ),
-                        HttpResponse.BodyHandlers.ofString()
-                    );
-                return new JsonResponse(
-                    response.statusCode(), response.body()
+                final HttpResponse<byte[]> response = this.transport.send(
+                    this.token(),
+                    this.request(
+                        uri,
+                        "PATCH",
+                        HttpRequest.BodyPublishers.ofString(
+                            body.toString()
+                        )
+                    ),
+                    this.transport.bodies()
                 );
+                return new JsonResponse(response);
             } catch (final IOException | InterruptedException ex) {
                 throw new IllegalStateException(
                     "Couldn't PATCH " + body.toString()
@@ -231,20 +393,18 @@ public interface JsonResources {
         @Override
         public Resource put(final URI uri, final JsonValue body) {
             try {
-                final HttpResponse<String> response = HttpClient.newHttpClient()
-                    .send(
-                        this.request(
-                            uri,
-                            "PUT",
-                            HttpRequest.BodyPublishers.ofString(
-                                body.toString()
-                            )
-                        ),
-                        HttpResponse.BodyHandlers.ofString()
-                    );
-                return new JsonResponse(
-                    response.statusCode(), response.body()
+                final HttpResponse<byte[]> response = this.transport.send(
+                    this.token(),
+                    this.request(
+                        uri,
+                        "PUT",
+                        HttpRequest.BodyPublishers.ofString(
+                            body.toString()
+                        )
+                    ),
+                    this.transport.bodies()
                 );
+                return new JsonResponse(response);
             } catch (final IOException | InterruptedException ex) {
                 throw new IllegalStateException(
                     "Couldn't PUT " + body.toString()
@@ -257,20 +417,18 @@ public interface JsonResources {
         @Override
         public Resource delete(final URI uri, final JsonValue body) {
             try {
-                final HttpResponse<String> response = HttpClient.newHttpClient()
-                    .send(
-                        this.request(
-                            uri,
-                            "DELETE",
-                            HttpRequest.BodyPublishers.ofString(
-                                body.toString()
-                            )
-                        ),
-                        HttpResponse.BodyHandlers.ofString()
-                    );
-                return new JsonResponse(
-                    response.statusCode(), response.body()
+                final HttpResponse<byte[]> response = this.transport.send(
+                    this.token(),
+                    this.request(
+                        uri,
+                        "DELETE",
+                        HttpRequest.BodyPublishers.ofString(
+                            body.toString()
+                        )
+                    ),
+                    this.transport.bodies()
                 );
+                return new JsonResponse(response);
             } catch (final IOException | InterruptedException ex) {
                 throw new IllegalStateException(
                     "Couldn't DELETE " + body.toString()
@@ -280,33 +438,186 @@ public interface JsonResources {
             }
         }
 
+        @Override
+        public CompletableFuture<Resource> getAsync(final URI uri) {
+            return this.getAsync(uri, Map.of());
+        }
+
+        @Override
+        public CompletableFuture<Resource> getAsync(
+            final URI uri,
+            final Map<String, String> headers
+        ) {
+            return this.async(
+                this.request(
+                    uri,
+                    "GET",
+                    HttpRequest.BodyPublishers.noBody(),
+                    headers
+                ),
+                "Couldn't GET [" + uri.toString() + "]"
+            );
+        }
+
+        @Override
+        public CompletableFuture<Resource> postAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.async(
+                this.request(
+                    uri,
+                    "POST",
+                    HttpRequest.BodyPublishers.ofString(body.toString())
+                ),
+                "Couldn't POST " + body.toString()
+                + " to [" + uri.toString() + "]"
+            );
+        }
+
+        @Override
+        public CompletableFuture<Resource> patchAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.async(
+                this.request(
+                    uri,
+                    "PATCH",
+                    HttpRequest.BodyPublishers.ofString(body.toString())
+                ),
+                "Couldn't PATCH " + body.toString()
+                + " at [" + uri.toString() + "]"
+            );
+        }
+
+        @Override
+        public CompletableFuture<Resource> putAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.async(
+                this.request(
+                    uri,
+                    "PUT",
+                    HttpRequest.BodyPublishers.ofString(body.toString())
+                ),
+                "Couldn't PUT " + body.toString()
+                + " at [" + uri.toString() + "]"
+            );
+        }
+
+        @Override
+        public CompletableFuture<Resource> deleteAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.async(
+                this.request(
+                    uri,
+                    "DELETE",
+                    HttpRequest.BodyPublishers.ofString(body.toString())
+                ),
+                "Couldn't DELETE " + body.toString()
+                + " at [" + uri.toString() + "]"
+            );
+        }
+
+        /**
+         * Send the request asynchronously.
+         * @param request Request.
+         * @param error Error message, in case the request fails.
+         * @return Future Resource.
+         */
+        private CompletableFuture<Resource> async(
+            final HttpRequest.Builder request,
+            final String error
+        ) {
+            final CompletableFuture<Resource> resource =
+                new CompletableFuture<>();
+            this.transport.sendAsync(
+                this.token(),
+                request,
+                this.transport.bodies()
+            ).whenComplete(
+                (response, ex) -> {
+                    if(ex == null) {
+                        resource.complete(
+                            new JsonResponse(response)
+                        );
+                    } else {
+                        resource.completeExceptionally(
+                            new IllegalStateException(error, ex)
+                        );
+                    }
+                }
+            );
+            return resource;
+        }
+
+        /**
+         * Value of the access token, used by the transport to limit the
+         * number of concurrent requests per token.
+         * @return String, empty if this instance is not authenticated.
+         */
+        private String token() {
+            final String token;
+            if(this.accessToken != null) {
+                token = this.accessToken.value();
+            } else {
+                token = "";
+            }
+            return token;
+        }
+
         /**
-         * Build and return the HTTP Request.
+         * Build the HTTP Request. The transport will set the timeout.
          * @param uri URI.
          * @param method Method.
          * @param body Body.
-         * @return HttpRequest.
+         * @return HttpRequest.Builder.
          */
-        private HttpRequest request(
+        private HttpRequest.Builder request(
             final URI uri,
             final String method,
             final HttpRequest.BodyPublisher body
         ) {
-            final HttpRequest request;
+            return this.request(uri, method, body, Map.of());
+        }
+
+        /**
+         * Build the HTTP Request, with extra headers. The transport will set
+         * the timeout.
+         * @param uri URI.
+         * @param method Method.
+         * @param body Body.
+         * @param headers Extra request headers.
+         * @return HttpRequest.Builder.
+         */
+        private HttpRequest.Builder request(
+            final URI uri,
+            final String method,
+            final HttpRequest.BodyPublisher body,
+            final Map<String, String> headers
+        ) {
+            final HttpRequest.Builder request;
             if(this.accessToken != null) {
                 request = HttpRequest.newBuilder()
                     .uri(uri)
                     .method(method, body)
                     .header("Content-Type", "application/json")
-                    .header(this.accessToken.header(), this.accessToken.value())
-                    .build();
+                    .header("Accept-Encoding", DecodedBodies.ACCEPTED)
+                    .header(
+                        this.accessToken.header(), this.accessToken.value()
+                    );
             } else {
                 request = HttpRequest.newBuilder()
                     .uri(uri)
                     .method(method, body)
                     .header("Content-Type", "application/json")
-                    .build();
+                    .header("Accept-Encoding", DecodedBodies.ACCEPTED);
             }
+            headers.forEach(request::header);
             return request;
         }
     }
@@ -327,7 +638,30 @@ public interface JsonResources {
         /**
          * Response body (expected to be a JSON).
          */
-        final String body;
+        final byte[] body;
+
+        /**
+         * Response headers.
+         */
+        final Map<String, List<String>> headers;
+
+        /**
+         * The body, parsed. It is read at most once, when it's
+         * first needed.
+         */
+        private volatile JsonStructure tree;
+
+        /**
+         * Ctor.
+         * @param response HTTP Response.
+         */
+        JsonResponse(final HttpResponse<byte[]> response) {
+            this(
+                response.statusCode(),
+                response.body(),
+                response.headers().map()
+            );
+        }
 
         /**
          * Ctor.
@@ -335,8 +669,41 @@ public interface JsonResources {
          * @param body Response Body.
          */
         JsonResponse(final int statusCode, final String body) {
+            this(statusCode, body, Map.of());
+        }
+
+        /**
+         * Ctor.
+         * @param statusCode Status code.
+         * @param body Response Body.
+         * @param headers Response headers.
+         */
+        JsonResponse(
+            final int statusCode,
+            final String body,
+            final Map<String, List<String>> headers
+        ) {
+            this(statusCode, body.getBytes(StandardCharsets.UTF_8), headers);
+        }
+
+        /**
+         * Ctor.
+         * @param statusCode Status code.
+         * @param body Response Body.
+         * @param headers Response headers.
+         */
+        JsonResponse(
+            final int statusCode,
+            final byte[] body,
+            final Map<String, List<String>> headers
+        ) {
             this.statusCode = statusCode;
             this.body = body;
+            final Map<String, List<String>> names = new TreeMap<>(
+                String.CASE_INSENSITIVE_ORDER
+            );
+            names.putAll(headers);
+            this.headers = Collections.unmodifiableMap(names);
         }
 
         @Override
@@ -344,18 +711,149 @@ public interface JsonResources {
             return this.statusCode;
         }
 
+        @Override
+        public Map<String, List<String>> headers() {
+            return this.headers;
+        }
+
+        @Override
+        public long size() {
+            return this.body.length;
+        }
+
         @Override
         public JsonObject asJsonObject() {
-            return Json.createReader(
-                new StringReader(this.body)
-            ).readObject();
+            return this.tree().asJsonObject();
         }
 
         @Override
         public JsonArray asJsonArray() {
-            return Json.createReader(
-                new StringReader(this.body)
-            ).readArray();
+            return this.tree().asJsonArray();
+        }
+
+        /**
+         * {@inheritDoc}
+         * <br>
+         * If the body was not parsed already, the elements are streamed
+         * from it, one at a time. If the body is not a JSON array (e.g.
+         * an error object), the stream is empty.
+         */
+        @Override
+        public Stream<JsonValue> elements() {
+            final JsonStructure parsed = this.tree;
+            final Stream<JsonValue> elements;
+            if(parsed == null) {
+                final JsonParser parser = this.parser();
+                if(JsonResponse.starts(parser, JsonParser.Event.START_ARRAY)) {
+                    elements = parser.getArrayStream().onClose(parser::close);
+                } else {
+                    parser.close();
+                    elements = Stream.empty();
+                }
+            } else if(parsed instanceof JsonArray) {
+                elements = parsed.asJsonArray().stream();
+            } else {
+                elements = Stream.empty();
+            }
+            return elements;
+        }
+
+        /**
+         * {@inheritDoc}
+         * <br>
+         * If the body was not parsed already, the other keys are skipped
+         * and the elements are streamed from it, one at a time. If the body
+         * is not a JSON object, the stream is empty.
+         */
+        @Override
+        public Stream<JsonValue> elements(final String key) {
+            final JsonStructure parsed = this.tree;
+            final Stream<JsonValue> elements;
+            if(parsed == null) {
+                final JsonParser parser = this.parser();
+                Stream<JsonValue> found = Stream.empty();
+                final boolean object = JsonResponse.starts(
+                    parser, JsonParser.Event.START_OBJECT
+                );
+                while(object && parser.hasNext()) {
+                    final JsonParser.Event event = parser.next();
+                    if(event == JsonParser.Event.KEY_NAME) {
+                        final String name = parser.getString();
+                        final JsonParser.Event value = parser.next();
+                        if(value == JsonParser.Event.START_ARRAY
+                            && key.equals(name)) {
+                            found = parser.getArrayStream();
+                            break;
+                        } else if(value == JsonParser.Event.START_ARRAY
+                            || value == JsonParser.Event.START_OBJECT) {
+                            JsonResponse.skip(parser);
+                        }
+                    }
+                }
+                elements = found.onClose(parser::close);
+            } else if(parsed instanceof JsonObject) {
+                elements = Resource.super.elements(key);
+            } else {
+                elements = Stream.empty();
+            }
+            return elements;
+        }
+
+        /**
+         * Does the body read by this parser start with the given event?
+         * @param parser JsonParser, before its first event.
+         * @param event Expected first event.
+         * @return True or false.
+         */
+        private static boolean starts(
+            final JsonParser parser, final JsonParser.Event event
+        ) {
+            return parser.hasNext() && parser.next() == event;
+        }
+
+        /**
+         * Skip the array or object which the parser just started.
+         * @param parser JsonParser.
+         */
+        private static void skip(final JsonParser parser) {
+            int depth = 1;
+            while(depth > 0) {
+                final JsonParser.Event event = parser.next();
+                if(event == JsonParser.Event.START_ARRAY
+                    || event == JsonParser.Event.START_OBJECT) {
+                    depth = depth + 1;
+                } else if(event == JsonParser.Event.END_ARRAY
+                    || event == JsonParser.Event.END_OBJECT) {
+                    depth = depth - 1;
+                }
+            }
+        }
+
+        /**
+         * The parsed body.
+         * @return JsonStructure.
+         */
+        private JsonStructure tree() {
+            JsonStructure parsed = this.tree;
+            if(parsed == null) {
+                try (
+                    final JsonReader reader = Json.createReader(
+                        new ByteArrayInputStream(this.body)
+                    )
+                ) {
+                    parsed = reader.read();
+                }
+                this.tree = parsed;
+            }
+            return parsed;
+        }
+
+        /**
+         * Streaming parser over the body.
+         * @return JsonParser.
+         */
+        private JsonParser parser() {
+            return Json.createParser(new ByteArrayInputStream(this.body));
         }
     }
 }
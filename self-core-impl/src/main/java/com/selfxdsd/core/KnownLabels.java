@@ -0,0 +1,374 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Label;
+import com.selfxdsd.api.Labels;
+import com.selfxdsd.api.Provider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Labels of a repo which only create the missing labels. The existing
+ * labels are loaded once (all the pages) and remembered for a while, per
+ * repo, in the given {@link Cache}, so opening an Issue doesn't POST
+ * every one of its labels every time.<br><br>
+ *
+ * At most the given number of repos are remembered: the expired ones are
+ * forgotten first, then the ones loaded the longest ago. The remembered
+ * labels are also forgotten when they expire or when the repo's
+ * labels change (see {@link Cache#invalidate(String, String)}). Only the
+ * Github webhooks created since the "label" event was added to
+ * {@link GithubWebhooks} are subscribed to it: the hooks of the repos
+ * activated before (and Gitlab, which has no label hook) rely on the
+ * expiration only.<br><br>
+ *
+ * The labels of a repo are loaded by one thread at a time, without
+ * holding any lock: the others wait for the same load.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class KnownLabels implements Labels {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        KnownLabels.class
+    );
+
+    /**
+     * Original Labels.
+     */
+    private final Labels origin;
+
+    /**
+     * URI of the repo's Issues, identifying the repo.
+     */
+    private final URI issues;
+
+    /**
+     * Remembered labels of the repos.
+     */
+    private final Cache cache;
+
+    /**
+     * Ctor.
+     * @param origin Original Labels.
+     * @param issues URI of the repo's Issues.
+     * @param cache Remembered labels of the repos.
+     */
+    KnownLabels(
+        final Labels origin,
+        final URI issues,
+        final Cache cache
+    ) {
+        this.origin = origin;
+        this.issues = issues;
+        this.cache = cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Only the labels which don't exist yet are created.
+     */
+    @Override
+    public boolean add(final String... names) {
+        boolean added = true;
+        if(names.length > 0) {
+            final Set<String> known = this.known();
+            final List<String> missing = new ArrayList<>();
+            for(final String name : names) {
+                if(!known.contains(name.toLowerCase(Locale.ENGLISH))) {
+                    missing.add(name);
+                }
+            }
+            this.cache.saved.addAndGet(names.length - missing.size());
+            if(!missing.isEmpty()) {
+                added = this.origin.add(missing.toArray(new String[0]));
+                if(added) {
+                    for(final String name : missing) {
+                        known.add(name.toLowerCase(Locale.ENGLISH));
+                    }
+                }
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public boolean remove(final String name) {
+        final boolean removed = this.origin.remove(name);
+        final String key = this.key();
+        final CompletableFuture<Known> known = this.cache.known.get(key);
+        if(known != null) {
+            if(known.isDone() && !known.isCompletedExceptionally()) {
+                known.join().names.remove(name.toLowerCase(Locale.ENGLISH));
+            } else {
+                this.cache.known.remove(key, known);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public Iterator<Label> iterator() {
+        return this.origin.iterator();
+    }
+
+    /**
+     * The names (lowercase) of the repo's labels. They are loaded if
+     * they are not remembered or expired; if another thread is already
+     * loading them, we wait for its load.
+     * @return Set of names.
+     * @checkstyle IllegalCatch (50 lines)
+     */
+    private Set<String> known() {
+        final String key = this.key();
+        final CompletableFuture<Known> mine = new CompletableFuture<>();
+        final CompletableFuture<Known> known = this.cache.known.compute(
+            key,
+            (repo, current) -> {
+                final CompletableFuture<Known> kept;
+                if(current == null || this.cache.expired(current)) {
+                    kept = mine;
+                } else {
+                    kept = current;
+                }
+                return kept;
+            }
+        );
+        if(known == mine) {
+            LOG.debug("Loading the labels of [" + this.issues + "]...");
+            try {
+                final Known loaded = new Known(this.cache.clock.instant());
+                for(final Label label : this.origin) {
+                    loaded.names.add(
+                        label.name().toLowerCase(Locale.ENGLISH)
+                    );
+                }
+                mine.complete(loaded);
+            } catch (final RuntimeException ex) {
+                this.cache.known.remove(key, mine);
+                mine.completeExceptionally(ex);
+            }
+            this.cache.sweep();
+        }
+        try {
+            return known.join().names;
+        } catch (final CompletionException ex) {
+            if(ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Key of the repo.
+     * @return String.
+     */
+    private String key() {
+        return this.issues.toString().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Labels remembered for each repo.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    static final class Cache {
+
+        /**
+         * For how long the labels of a repo are remembered.
+         */
+        private final Duration ttl;
+
+        /**
+         * Maximum number of repos remembered.
+         */
+        private final int maxEntries;
+
+        /**
+         * Clock.
+         */
+        private final Clock clock;
+
+        /**
+         * Remembered labels (or their load in progress), by repo Issues
+         * URI (lowercase).
+         */
+        private final Map<String, CompletableFuture<Known>> known;
+
+        /**
+         * Number of label requests saved so far.
+         */
+        private final AtomicLong saved;
+
+        /**
+         * Ctor. At most 1000 repos are remembered.
+         * @param ttl For how long the labels of a repo are remembered.
+         */
+        Cache(final Duration ttl) {
+            this(ttl, 1000, Clock.systemUTC());
+        }
+
+        /**
+         * Ctor.
+         * @param ttl For how long the labels of a repo are remembered.
+         * @param maxEntries Maximum number of repos remembered.
+         * @param clock Clock.
+         */
+        Cache(final Duration ttl, final int maxEntries, final Clock clock) {
+            this.ttl = ttl;
+            this.maxEntries = maxEntries;
+            this.clock = clock;
+            this.known = new ConcurrentHashMap<>();
+            this.saved = new AtomicLong();
+        }
+
+        /**
+         * Forget the labels of a repo (e.g. a label webhook was received).
+         * @param provider Provider name.
+         * @param repoFullName Full name of the repo.
+         */
+        void invalidate(final String provider, final String repoFullName) {
+            final String path;
+            if(Provider.Names.GITLAB.equalsIgnoreCase(provider)) {
+                path = "/projects/" + repoFullName.replace("/", "%2F")
+                    + "/issues";
+            } else {
+                path = "/repos/" + repoFullName + "/issues";
+            }
+            this.known.keySet().removeIf(
+                uri -> uri.endsWith(path.toLowerCase(Locale.ENGLISH))
+            );
+        }
+
+        /**
+         * How many label requests were saved so far, because the
+         * labels already existed.
+         * @return Long.
+         */
+        long saved() {
+            return this.saved.get();
+        }
+
+        /**
+         * How many repos are remembered (or being loaded).
+         * @return Integer.
+         */
+        int size() {
+            return this.known.size();
+        }
+
+        /**
+         * Are these remembered labels expired? A load in progress is not.
+         * @param known Remembered labels or their load in progress.
+         * @return True or false.
+         */
+        private boolean expired(final CompletableFuture<Known> known) {
+            return known.isDone() && (known.isCompletedExceptionally()
+                || known.join().loaded.plus(this.ttl)
+                    .isBefore(this.clock.instant()));
+        }
+
+        /**
+         * If too many repos are remembered, forget the expired ones and
+         * then, if needed, the ones loaded the longest ago. The loads in
+         * progress are kept.
+         */
+        private void sweep() {
+            if(this.known.size() > this.maxEntries) {
+                this.known.values().removeIf(this::expired);
+                final List<Map.Entry<String, CompletableFuture<Known>>> done =
+                    new ArrayList<>();
+                for(final Map.Entry<String, CompletableFuture<Known>> entry
+                    : this.known.entrySet()) {
+                    if(entry.getValue().isDone()
+                        && !entry.getValue().isCompletedExceptionally()) {
+                        done.add(entry);
+                    }
+                }
+                done.sort(
+                    Comparator.comparing(
+                        entry -> entry.getValue().join().loaded
+                    )
+                );
+                final int extra = this.known.size() - this.maxEntries;
+                for(int idx = 0; idx < extra && idx < done.size(); ++idx) {
+                    this.known.remove(
+                        done.get(idx).getKey(), done.get(idx).getValue()
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Labels known at some point.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Known {
+
+        /**
+         * Names of the labels, lowercase.
+         */
+        private final Set<String> names;
+
+        /**
+         * When they were loaded.
+         */
+        private final Instant loaded;
+
+        /**
+         * Ctor.
+         * @param loaded When they were loaded.
+         */
+        Known(final Instant loaded) {
+            this.names = ConcurrentHashMap.newKeySet();
+            this.loaded = loaded;
+        }
+    }
+}
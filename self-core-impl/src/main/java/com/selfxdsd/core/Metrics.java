@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import java.time.Duration;
+
+/**
+ * Metrics of the HTTP calls made to the Providers. It is the SPI of
+ * {@link InstrumentedJsonResources}: implement it to send the calls to
+ * the monitoring system of your choice, or use {@link InMemoryMetrics}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public interface Metrics {
+
+    /**
+     * Record a finished HTTP call. It is called on the thread which
+     * finished the call, so it should be fast and thread-safe.
+     * @param call Finished call.
+     */
+    void record(Call call);
+
+    /**
+     * A finished HTTP call.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    final class Call {
+
+        /**
+         * Status code of the calls which failed without a response
+         * (e.g. connection refused).
+         */
+        public static final int FAILED = -1;
+
+        /**
+         * Provider name.
+         */
+        private final String provider;
+
+        /**
+         * HTTP method.
+         */
+        private final String method;
+
+        /**
+         * Normalised URI template (e.g. /repos/{o}/{r}/issues/{n}).
+         */
+        private final String template;
+
+        /**
+         * Response status code.
+         */
+        private final int status;
+
+        /**
+         * How long the call took.
+         */
+        private final Duration latency;
+
+        /**
+         * Bytes sent.
+         */
+        private final long sent;
+
+        /**
+         * Bytes received.
+         */
+        private final long received;
+
+        /**
+         * Remaining requests of the rate limit, as reported by the provider.
+         */
+        private final int remaining;
+
+        /**
+         * Was it a conditional request (If-None-Match/If-Modified-Since)?
+         */
+        private final boolean conditional;
+
+        /**
+         * Ctor.
+         * @param provider Provider name.
+         * @param method HTTP method.
+         * @param template Normalised URI template.
+         * @param status Response status code, {@link #FAILED} if there was
+         *  no response.
+         * @param latency How long the call took.
+         * @param sent Bytes sent.
+         * @param received Bytes received, -1 if unknown.
+         * @param remaining Remaining requests of the rate limit, -1 if
+         *  unknown.
+         * @param conditional Was it a conditional request?
+         * @checkstyle ParameterNumber (20 lines)
+         */
+        public Call(
+            final String provider,
+            final String method,
+            final String template,
+            final int status,
+            final Duration latency,
+            final long sent,
+            final long received,
+            final int remaining,
+            final boolean conditional
+        ) {
+            this.provider = provider;
+            this.method = method;
+            this.template = template;
+            this.status = status;
+            this.latency = latency;
+            this.sent = sent;
+            this.received = received;
+            this.remaining = remaining;
+            this.conditional = conditional;
+        }
+
+        /**
+         * Provider name.
+         * @return String.
+         */
+        public String provider() {
+            return this.provider;
+        }
+
+        /**
+         * HTTP method.
+         * @return String.
+         */
+        public String method() {
+            return this.method;
+        }
+
+        /**
+         * Normalised URI template (e.g. /repos/{o}/{r}/issues/{n}).
+         * @return String.
+         */
+        public String template() {
+            return this.template;
+        }
+
+        /**
+         * Response status code.
+         * @return Integer, {@link #FAILED} if there was no response.
+         */
+        public int status() {
+            return this.status;
+        }
+
+        /**
+         * How long the call took.
+         * @return Duration.
+         */
+        public Duration latency() {
+            return this.latency;
+        }
+
+        /**
+         * Bytes sent.
+         * @return Long.
+         */
+        public long sent() {
+            return this.sent;
+        }
+
+        /**
+         * Bytes received.
+         * @return Long, -1 if unknown.
+         */
+        public long received() {
+            return this.received;
+        }
+
+        /**
+         * Remaining requests of the rate limit, as reported by the provider.
+         * @return Integer, -1 if unknown.
+         */
+        public int remaining() {
+            return this.remaining;
+        }
+
+        /**
+         * Was it a conditional request (If-None-Match/If-Modified-Since)?
+         * @return True or false.
+         */
+        public boolean conditional() {
+            return this.conditional;
+        }
+    }
+}
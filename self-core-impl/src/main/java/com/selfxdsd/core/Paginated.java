@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Paginated collection of a Provider. The pages are fetched lazily, as the
+ * iteration advances, following the <b>Link: rel="next"</b> header (Github
+ * and Gitlab) or the <b>X-Next-Page</b> header (Gitlab). Only the current
+ * page (and, optionally, the next one) is kept in memory.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ * @param <T> Type of the elements.
+ */
+final class Paginated<T> implements Iterable<T> {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        Paginated.class
+    );
+
+    /**
+     * Next link in the Link header.
+     */
+    private static final Pattern NEXT = Pattern.compile(
+        "<([^>]+)>\\s*;\\s*rel=\"?next\"?"
+    );
+
+    /**
+     * Page query parameter.
+     */
+    private static final Pattern PAGE = Pattern.compile("([?&])page=[^&]*");
+
+    /**
+     * JSON Resources.
+     */
+    private final JsonResources resources;
+
+    /**
+     * URI of the first page.
+     */
+    private final URI first;
+
+    /**
+     * Items of a fetched page, preferably streamed with
+     * {@link Resource#elements()}. It also decides what happens if the
+     * page could not be fetched (return an empty stream or throw).
+     */
+    private final Function<Resource, Stream<JsonValue>> items;
+
+    /**
+     * Mapping of each item.
+     */
+    private final Function<JsonValue, T> mapping;
+
+    /**
+     * Should the next page be fetched in the background, while the
+     * current one is iterated?
+     */
+    private final boolean prefetch;
+
+    /**
+     * Ctor.
+     * @param resources JSON Resources.
+     * @param first URI of the first page.
+     * @param items Items of a fetched page.
+     * @param mapping Mapping of each item.
+     */
+    Paginated(
+        final JsonResources resources,
+        final URI first,
+        final Function<Resource, Stream<JsonValue>> items,
+        final Function<JsonValue, T> mapping
+    ) {
+        this(resources, first, items, mapping, false);
+    }
+
+    /**
+     * Ctor.
+     * @param resources JSON Resources.
+     * @param first URI of the first page.
+     * @param items Items of a fetched page.
+     * @param mapping Mapping of each item.
+     * @param prefetch Fetch the next page in the background?
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    Paginated(
+        final JsonResources resources,
+        final URI first,
+        final Function<Resource, Stream<JsonValue>> items,
+        final Function<JsonValue, T> mapping,
+        final boolean prefetch
+    ) {
+        this.resources = resources;
+        this.first = first;
+        this.items = items;
+        this.mapping = mapping;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Pages();
+    }
+
+    /**
+     * URI of the page following the given one, read from the
+     * response headers.
+     * @param current URI of the current page.
+     * @param resource Current page.
+     * @return URI or null if this is the last page.
+     */
+    static URI next(final URI current, final Resource resource) {
+        URI next = null;
+        final String link = Paginated.header(resource, "Link");
+        if(link != null) {
+            final Matcher matcher = NEXT.matcher(link);
+            if(matcher.find()) {
+                next = URI.create(matcher.group(1));
+            }
+        }
+        if(next == null) {
+            final String page = Paginated.header(resource, "X-Next-Page");
+            if(page != null && !page.trim().isEmpty()) {
+                next = Paginated.page(current, page.trim());
+            }
+        }
+        return next;
+    }
+
+    /**
+     * The given URI, pointing to another page.
+     * @param uri URI.
+     * @param page Page number.
+     * @return URI.
+     */
+    static URI page(final URI uri, final String page) {
+        final String str = uri.toString();
+        final Matcher matcher = PAGE.matcher(str);
+        final String paged;
+        if(matcher.find()) {
+            paged = matcher.replaceFirst("$1page=" + page);
+        } else if(uri.getRawQuery() == null) {
+            paged = str + "?page=" + page;
+        } else {
+            paged = str + "&page=" + page;
+        }
+        return URI.create(paged);
+    }
+
+    /**
+     * First value of a response header, ignoring the case of its name.
+     * @param resource Resource.
+     * @param name Header name.
+     * @return String or null if the header is missing.
+     */
+    private static String header(final Resource resource, final String name) {
+        String value = null;
+        for(final Map.Entry<String, List<String>> header
+            : resource.headers().entrySet()) {
+            if(name.equalsIgnoreCase(header.getKey())
+                && !header.getValue().isEmpty()) {
+                value = header.getValue().get(0);
+                break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Iterator over the pages, one item at a time.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private final class Pages implements Iterator<T> {
+
+        /**
+         * Items of the current page.
+         */
+        private Iterator<JsonValue> current;
+
+        /**
+         * URI of the next page, null if there is none.
+         */
+        private URI next;
+
+        /**
+         * Next page, if it is being prefetched.
+         */
+        private CompletableFuture<Resource> fetching;
+
+        /**
+         * Ctor. The first page is fetched right away, so problems
+         * surface when the iteration begins.
+         */
+        Pages() {
+            this.current = List.<JsonValue>of().iterator();
+            this.next = Paginated.this.first;
+            this.fetch();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while(!this.current.hasNext() && this.next != null) {
+                this.fetch();
+            }
+            return this.current.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if(!this.hasNext()) {
+                throw new NoSuchElementException("No more items.");
+            }
+            return Paginated.this.mapping.apply(this.current.next());
+        }
+
+        /**
+         * Fetch the next page and, if required, start prefetching the one
+         * after it.
+         */
+        private void fetch() {
+            final URI uri = this.next;
+            LOG.debug("Fetching page [" + uri + "]...");
+            final Resource page;
+            if(this.fetching == null) {
+                page = Paginated.this.resources.get(uri);
+            } else {
+                try {
+                    page = this.fetching.join();
+                } catch (final CompletionException ex) {
+                    throw new IllegalStateException(
+                        "Could not fetch page [" + uri + "].",
+                        ex.getCause()
+                    );
+                } finally {
+                    this.fetching = null;
+                }
+            }
+            this.current = Paginated.this.items.apply(page).iterator();
+            this.next = Paginated.next(uri, page);
+            if(this.next != null && Paginated.this.prefetch) {
+                this.fetching = Paginated.this.resources.getAsync(this.next);
+            }
+        }
+    }
+}
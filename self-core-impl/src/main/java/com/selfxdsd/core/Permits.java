@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A bounded number of permits for concurrent work (e.g. HTTP requests).
+ * Blocking work waits for a permit, while asynchronous work is queued
+ * and started as soon as a permit is released, without blocking the
+ * caller's thread.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class Permits {
+
+    /**
+     * Available permits.
+     */
+    private final Semaphore available;
+
+    /**
+     * Asynchronous work waiting for a permit.
+     */
+    private final Queue<Runnable> waiting;
+
+    /**
+     * Maximum number of permits.
+     */
+    private final int max;
+
+    /**
+     * Number of pending drain requests. Only the thread which makes it
+     * go from 0 to 1 drains, the others only ask it to drain once more.
+     */
+    private final AtomicInteger draining;
+
+    /**
+     * Ctor.
+     * @param permits Maximum number of permits.
+     */
+    Permits(final int permits) {
+        this.available = new Semaphore(permits, true);
+        this.waiting = new ConcurrentLinkedQueue<>();
+        this.max = permits;
+        this.draining = new AtomicInteger();
+    }
+
+    /**
+     * Is nobody holding or waiting for a permit?
+     * @return True or false.
+     */
+    boolean idle() {
+        return this.waiting.isEmpty()
+            && this.available.availablePermits() == this.max;
+    }
+
+    /**
+     * Block until a permit is available. Don't forget to
+     * {@link #release()} it.
+     * @throws InterruptedException If the thread is interrupted while
+     *  waiting.
+     */
+    void acquire() throws InterruptedException {
+        this.available.acquire();
+    }
+
+    /**
+     * Release a permit.
+     */
+    void release() {
+        this.available.release();
+        this.drain();
+    }
+
+    /**
+     * Start the asynchronous work when a permit is available. The permit
+     * is released when the work completes.
+     * @param work Work to start.
+     * @param <T> Type of the result.
+     * @return Future result of the work.
+     * @checkstyle IllegalCatch (20 lines)
+     */
+    <T> CompletableFuture<T> async(
+        final Supplier<CompletableFuture<T>> work
+    ) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        this.waiting.add(
+            () -> {
+                CompletableFuture<T> started;
+                try {
+                    started = work.get();
+                } catch (final RuntimeException ex) {
+                    started = CompletableFuture.failedFuture(ex);
+                }
+                started.whenComplete(
+                    (value, error) -> {
+                        this.release();
+                        if(error == null) {
+                            result.complete(value);
+                        } else {
+                            result.completeExceptionally(error);
+                        }
+                    }
+                );
+            }
+        );
+        this.drain();
+        return result;
+    }
+
+    /**
+     * Start waiting work, as long as there are permits available. It
+     * loops instead of recursing: work which completes right away
+     * releases its permit and asks for another drain, which is done by
+     * the loop already running, so the stack doesn't grow with the queue.
+     */
+    private void drain() {
+        if(this.draining.getAndIncrement() == 0) {
+            do {
+                while(!this.waiting.isEmpty() && this.available.tryAcquire()) {
+                    final Runnable next = this.waiting.poll();
+                    if(next == null) {
+                        this.available.release();
+                    } else {
+                        next.run();
+                    }
+                }
+            } while(this.draining.decrementAndGet() != 0);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * What the Provider objects remember between requests: the indexed
+ * comments of the Issues, the Gitlab user ids and the known labels of
+ * the repos. One instance is kept by each {@link Providers} registry and
+ * it is passed down to the Repos, Issues etc. it builds, so nothing is
+ * remembered in static state.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class ProviderCaches {
+
+    /**
+     * Indexed comments of the Issues.
+     */
+    private final CommentIndex comments;
+
+    /**
+     * Gitlab user ids.
+     */
+    private final GitlabUserIds gitlabUsers;
+
+    /**
+     * Known labels of the repos.
+     */
+    private final KnownLabels.Cache labels;
+
+    /**
+     * Ctor. At most 1000 Issues are indexed, each for an hour, at most
+     * 10000 Gitlab user ids are remembered for a day (the users who are not
+     * found for 5 minutes) and the labels of a repo are remembered for
+     * an hour.
+     */
+    ProviderCaches() {
+        this(
+            new CommentIndex(1000, Duration.ofHours(1), Clock.systemUTC()),
+            new GitlabUserIds(
+                10000, Duration.ofDays(1),
+                Duration.ofMinutes(5), Clock.systemUTC()
+            ),
+            new KnownLabels.Cache(Duration.ofHours(1))
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param comments Indexed comments of the Issues.
+     * @param gitlabUsers Gitlab user ids.
+     * @param labels Known labels of the repos.
+     */
+    ProviderCaches(
+        final CommentIndex comments,
+        final GitlabUserIds gitlabUsers,
+        final KnownLabels.Cache labels
+    ) {
+        this.comments = comments;
+        this.gitlabUsers = gitlabUsers;
+        this.labels = labels;
+    }
+
+    /**
+     * Indexed comments of the Issues.
+     * @return CommentIndex.
+     */
+    CommentIndex comments() {
+        return this.comments;
+    }
+
+    /**
+     * Gitlab user ids.
+     * @return GitlabUserIds.
+     */
+    GitlabUserIds gitlabUsers() {
+        return this.gitlabUsers;
+    }
+
+    /**
+     * Known labels of the repos.
+     * @return KnownLabels.Cache.
+     */
+    KnownLabels.Cache labels() {
+        return this.labels;
+    }
+}
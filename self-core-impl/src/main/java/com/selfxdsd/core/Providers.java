@@ -0,0 +1,534 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Provider;
+import com.selfxdsd.api.User;
+import com.selfxdsd.api.storage.Storage;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Registry of Providers. Provider objects are cheap, but the
+ * JsonResources behind them are not: they keep the caches, rate limits,
+ * circuit breakers etc. So the registry builds the JsonResources stack
+ * of each Provider once and keeps one authenticated stack for each
+ * (provider, access token), instead of building them again every time
+ * a Provider is needed. All of them send their requests through the same
+ * {@link HttpTransport}, so the requests made with the same token are
+ * multiplexed over the same HTTP/2 connections.<br><br>
+ *
+ * The registry also keeps the {@link CircuitBreakers} of the providers, the
+ * {@link Workers} which handle the Events and scans and whatever the
+ * Provider objects remember between requests (indexed comments, known
+ * labels etc.). Create one registry at startup and give it to the Users,
+ * Projects and PMs which need it. Those built without one use the
+ * process-wide registry (see {@link #shared()}).<br><br>
+ *
+ * At most the given number of stacks are kept, the least recently
+ * used are evicted first. When a token is revoked or refreshed, its stack
+ * can be evicted right away with {@link #evict(String, String)}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class Providers {
+
+    /**
+     * Builds the JsonResources stack of a Provider, by its name.
+     */
+    private final Function<String, JsonResources> stacks;
+
+    /**
+     * JsonResources stacks, keyed by provider name and access token. The
+     * same instance is returned for the same key, so whatever is cached
+     * per JsonResources (e.g. conditional GETs) is shared per token.
+     */
+    private final Map<String, Registered> registered;
+
+    /**
+     * How many stacks were built.
+     */
+    private final AtomicLong created;
+
+    /**
+     * How many times a stack was reused.
+     */
+    private final AtomicLong reused;
+
+    /**
+     * How many stacks were evicted.
+     */
+    private final AtomicLong evicted;
+
+    /**
+     * Time spent building the stacks, in nanoseconds.
+     */
+    private final AtomicLong building;
+
+    /**
+     * Circuit breakers of the providers.
+     */
+    private final CircuitBreakers breakers;
+
+    /**
+     * What the Provider objects remember between requests.
+     */
+    private final ProviderCaches caches;
+
+    /**
+     * Workers handling the Events and the scans.
+     */
+    private final Workers workers;
+
+    /**
+     * Ctor. Every Provider gets the default stack (see
+     * {@link #Providers(int, Metrics, HttpTransport, CircuitBreakers,
+     * Workers)}) over the process-wide {@link HttpTransport} (see
+     * {@link HttpTransport#shared()}), with new
+     * {@link CircuitBreakers} and the Workers configured by the
+     * environment (see {@link Workers#configured()}).
+     * @param maxEntries Maximum number of stacks kept.
+     * @param metrics Where the calls are recorded.
+     */
+    public Providers(final int maxEntries, final Metrics metrics) {
+        this(
+            maxEntries, metrics, HttpTransport.shared(),
+            new CircuitBreakers(), Workers.configured()
+        );
+    }
+
+    /**
+     * Ctor. Every Provider gets the default stack: coalesced GETs,
+     * conditional GET cache, retries, rate limiting and circuit breaker
+     * over a {@link JsonResources.JdkHttp} with the given transport. The
+     * calls which reach the provider are recorded in the given Metrics.
+     * @param maxEntries Maximum number of stacks kept.
+     * @param metrics Where the calls are recorded.
+     * @param transport HTTP transport of all the stacks.
+     * @param breakers Circuit breakers of the providers.
+     * @param workers Workers handling the Events and the scans.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    public Providers(
+        final int maxEntries,
+        final Metrics metrics,
+        final HttpTransport transport,
+        final CircuitBreakers breakers,
+        final Workers workers
+    ) {
+        this(
+            name -> new CoalescedJsonResources(
+                new CachedJsonResources(
+                    new RetryingJsonResources(
+                        new RateLimitedJsonResources(
+                            new GuardedJsonResources(
+                                new InstrumentedJsonResources(
+                                    new JsonResources.JdkHttp(transport),
+                                    name,
+                                    metrics
+                                ),
+                                breakers,
+                                32,
+                                Duration.ofSeconds(5)
+                            )
+                        )
+                    )
+                )
+            ),
+            maxEntries,
+            breakers,
+            workers
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param stacks Builds the JsonResources stack of a Provider,
+     *  by its name.
+     * @param maxEntries Maximum number of stacks kept.
+     */
+    public Providers(
+        final Function<String, JsonResources> stacks,
+        final int maxEntries
+    ) {
+        this(stacks, maxEntries, new CircuitBreakers(), Workers.SAME_THREAD);
+    }
+
+    /**
+     * Ctor.
+     * @param stacks Builds the JsonResources stack of a Provider,
+     *  by its name.
+     * @param maxEntries Maximum number of stacks kept.
+     * @param breakers Circuit breakers of the providers.
+     * @param workers Workers handling the Events and the scans.
+     */
+    public Providers(
+        final Function<String, JsonResources> stacks,
+        final int maxEntries,
+        final CircuitBreakers breakers,
+        final Workers workers
+    ) {
+        this.stacks = stacks;
+        this.breakers = breakers;
+        this.workers = workers;
+        this.caches = new ProviderCaches();
+        this.evicted = new AtomicLong();
+        this.registered = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<String, Registered> eldest
+            ) {
+                final boolean remove = this.size() > maxEntries;
+                if(remove) {
+                    Providers.this.evicted.incrementAndGet();
+                }
+                return remove;
+            }
+        };
+        this.created = new AtomicLong();
+        this.reused = new AtomicLong();
+        this.building = new AtomicLong();
+    }
+
+    /**
+     * The process-wide registry: at most 1000 stacks with the default
+     * stack (see {@link #Providers(int, Metrics)}), over the shared
+     * {@link HttpTransport}, recording the calls in memory. It is built
+     * the first time it is needed.
+     * @return Providers.
+     */
+    public static Providers shared() {
+        return Shared.REGISTRY;
+    }
+
+    /**
+     * The Provider with the given name. Call
+     * {@link Provider#withToken(String)} on it to get the registered
+     * stack of that token.
+     * @param name Provider name (see {@link Provider.Names}).
+     * @param user User.
+     * @param storage Storage.
+     * @return Provider.
+     * @throws IllegalStateException If the Provider is unknown.
+     */
+    public Provider provider(
+        final String name,
+        final User user,
+        final Storage storage
+    ) {
+        final Provider provider;
+        if(Provider.Names.GITHUB.equalsIgnoreCase(name)) {
+            provider = new Github(
+                user, storage, this.stack(name, null), this.caches
+            );
+        } else if(Provider.Names.GITLAB.equalsIgnoreCase(name)) {
+            provider = new Gitlab(
+                user, storage, this.stack(name, null), this.caches
+            );
+        } else if(Provider.Names.BITBUCKET.equalsIgnoreCase(name)) {
+            provider = new Bitbucket(user, storage, this.stack(name, null));
+        } else {
+            throw new IllegalStateException(
+                "Unknown Provider: [" + name + "]."
+            );
+        }
+        return provider;
+    }
+
+    /**
+     * Circuit breakers of the providers, to check whether a provider is
+     * available before starting work which needs it.
+     * @return CircuitBreakers.
+     */
+    public CircuitBreakers breakers() {
+        return this.breakers;
+    }
+
+    /**
+     * Workers handling the Events and the scans.
+     * @return Workers.
+     */
+    public Workers workers() {
+        return this.workers;
+    }
+
+    /**
+     * Forget what is remembered about the labels of a repo, e.g. because
+     * a label webhook was received.
+     * @param provider Provider name.
+     * @param repoFullName Full name of the repo.
+     */
+    public void labelsChanged(
+        final String provider,
+        final String repoFullName
+    ) {
+        this.caches.labels().invalidate(provider, repoFullName);
+    }
+
+    /**
+     * Evict the stack of an access token, e.g. when it was revoked or
+     * refreshed.
+     * @param name Provider name.
+     * @param token Access token value.
+     */
+    public void evict(final String name, final String token) {
+        synchronized (this.registered) {
+            if(this.registered.remove(Providers.key(name, token)) != null) {
+                this.evicted.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * How many label requests were saved so far, because the labels
+     * already existed (see {@link KnownLabels}).
+     * @return Long.
+     */
+    public long labelsSaved() {
+        return this.caches.labels().saved();
+    }
+
+    /**
+     * How many JsonResources stacks were built (startup cost).
+     * @return Long.
+     */
+    public long created() {
+        return this.created.get();
+    }
+
+    /**
+     * How many times a JsonResources stack was reused (steady state).
+     * @return Long.
+     */
+    public long reused() {
+        return this.reused.get();
+    }
+
+    /**
+     * How many JsonResources stacks were evicted.
+     * @return Long.
+     */
+    public long evicted() {
+        return this.evicted.get();
+    }
+
+    /**
+     * Total time spent building JsonResources stacks.
+     * @return Duration.
+     */
+    public Duration building() {
+        return Duration.ofNanos(this.building.get());
+    }
+
+    /**
+     * The registered stack of the given Provider and token. It is built
+     * if it's the first time we see them.
+     * @param name Provider name.
+     * @param token Access token, null for anonymous requests.
+     * @return JsonResources.
+     */
+    private Registered stack(final String name, final AccessToken token) {
+        final String key;
+        if(token == null) {
+            key = Providers.key(name, "");
+        } else {
+            key = Providers.key(name, token.value());
+        }
+        synchronized (this.registered) {
+            Registered stack = this.registered.get(key);
+            if(stack == null) {
+                final long start = System.nanoTime();
+                if(token == null) {
+                    stack = new Registered(
+                        name, this.stacks.apply(name.toLowerCase())
+                    );
+                } else {
+                    stack = new Registered(
+                        name, this.stack(name, null).stack.authenticated(token)
+                    );
+                }
+                this.building.addAndGet(System.nanoTime() - start);
+                this.created.incrementAndGet();
+                this.registered.put(key, stack);
+            } else {
+                this.reused.incrementAndGet();
+            }
+            return stack;
+        }
+    }
+
+    /**
+     * Key of a stack.
+     * @param name Provider name.
+     * @param token Access token value, empty for anonymous requests.
+     * @return String.
+     */
+    private static String key(final String name, final String token) {
+        return name.toLowerCase() + " " + token;
+    }
+
+    /**
+     * Holder of the process-wide registry, so it is built only when it
+     * is first needed.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Shared {
+
+        /**
+         * The process-wide registry.
+         */
+        private static final Providers REGISTRY = new Providers(
+            1000, new InMemoryMetrics()
+        );
+    }
+
+    /**
+     * JsonResources of a Provider, taken from the registry. Authenticating
+     * them also takes the stack of the token from the registry.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private final class Registered implements JsonResources {
+
+        /**
+         * Provider name.
+         */
+        private final String name;
+
+        /**
+         * Registered stack.
+         */
+        private final JsonResources stack;
+
+        /**
+         * Ctor.
+         * @param name Provider name.
+         * @param stack Registered stack.
+         */
+        Registered(final String name, final JsonResources stack) {
+            this.name = name;
+            this.stack = stack;
+        }
+
+        @Override
+        public JsonResources authenticated(final AccessToken accessToken) {
+            return Providers.this.stack(this.name, accessToken);
+        }
+
+        @Override
+        public JsonResources prioritized(
+            final RateLimitedJsonResources.Priority priority
+        ) {
+            return this.stack.prioritized(priority);
+        }
+
+        @Override
+        public Resource get(final URI uri) {
+            return this.stack.get(uri);
+        }
+
+        @Override
+        public Resource get(
+            final URI uri,
+            final Map<String, String> headers
+        ) {
+            return this.stack.get(uri, headers);
+        }
+
+        @Override
+        public Resource post(final URI uri, final JsonValue body) {
+            return this.stack.post(uri, body);
+        }
+
+        @Override
+        public Resource patch(final URI uri, final JsonValue body) {
+            return this.stack.patch(uri, body);
+        }
+
+        @Override
+        public Resource put(final URI uri, final JsonValue body) {
+            return this.stack.put(uri, body);
+        }
+
+        @Override
+        public Resource delete(final URI uri, final JsonValue body) {
+            return this.stack.delete(uri, body);
+        }
+
+        @Override
+        public CompletableFuture<Resource> getAsync(final URI uri) {
+            return this.stack.getAsync(uri);
+        }
+
+        @Override
+        public CompletableFuture<Resource> getAsync(
+            final URI uri,
+            final Map<String, String> headers
+        ) {
+            return this.stack.getAsync(uri, headers);
+        }
+
+        @Override
+        public CompletableFuture<Resource> postAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.stack.postAsync(uri, body);
+        }
+
+        @Override
+        public CompletableFuture<Resource> patchAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.stack.patchAsync(uri, body);
+        }
+
+        @Override
+        public CompletableFuture<Resource> putAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.stack.putAsync(uri, body);
+        }
+
+        @Override
+        public CompletableFuture<Resource> deleteAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.stack.deleteAsync(uri, body);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Rate limit budget of an access token, as reported by the provider
+ * in the response headers: X-RateLimit-Remaining/X-RateLimit-Reset
+ * (Github), RateLimit-Remaining/RateLimit-Reset (GitLab) and Retry-After
+ * (both).<br><br>
+ *
+ * High priority requests only wait if the budget is exhausted or the
+ * provider asked us to retry later. Low priority requests leave a reserve
+ * for the high priority ones and, once the budget is close to running
+ * out, they are spread evenly until the reset time. While there is plenty
+ * of budget, nothing waits.<br><br>
+ *
+ * A request is only reserved if it doesn't have to wait longer than the
+ * given maximum: we never block the caller until the reset.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+final class RateLimit {
+
+    /**
+     * Number of requests kept for the high priority requests.
+     */
+    private final int reserve;
+
+    /**
+     * Low priority requests are spread out once there are fewer than
+     * this many requests left above the reserve.
+     */
+    private final int slowdown;
+
+    /**
+     * Remaining requests, -1 if unknown.
+     */
+    private int remaining;
+
+    /**
+     * When the budget is reset.
+     */
+    private Instant reset;
+
+    /**
+     * No request should be made before this moment (Retry-After).
+     */
+    private Instant blockedUntil;
+
+    /**
+     * Next slot for a low priority request.
+     */
+    private Instant nextSlot;
+
+    /**
+     * Ctor. Low priority requests are spread out once there are fewer than
+     * 4 * reserve requests left above the reserve.
+     * @param reserve Number of requests kept for the high priority
+     *  requests.
+     */
+    RateLimit(final int reserve) {
+        this(reserve, 4 * reserve);
+    }
+
+    /**
+     * Ctor.
+     * @param reserve Number of requests kept for the high priority
+     *  requests.
+     * @param slowdown Low priority requests are spread out once there are
+     *  fewer than this many requests left above the reserve.
+     */
+    RateLimit(final int reserve, final int slowdown) {
+        this.reserve = reserve;
+        this.slowdown = slowdown;
+        this.remaining = -1;
+        this.reset = Instant.EPOCH;
+        this.blockedUntil = Instant.EPOCH;
+        this.nextSlot = Instant.EPOCH;
+    }
+
+    /**
+     * Reserve one request from the budget, however long it has to wait.
+     * @param priority Priority of the request.
+     * @param now Current moment.
+     * @return How long the request should wait before it is sent.
+     */
+    synchronized Duration reserve(
+        final RateLimitedJsonResources.Priority priority,
+        final Instant now
+    ) {
+        return this.reserve(priority, now, ChronoUnit.FOREVER.getDuration());
+    }
+
+    /**
+     * Reserve one request from the budget, if it doesn't have to wait
+     * longer than the given maximum.
+     * @param priority Priority of the request.
+     * @param now Current moment.
+     * @param max Maximum wait.
+     * @return How long the request should wait before it is sent or null
+     *  if it would have to wait longer than max (nothing is reserved).
+     */
+    synchronized Duration reserve(
+        final RateLimitedJsonResources.Priority priority,
+        final Instant now,
+        final Duration max
+    ) {
+        Instant start = now;
+        boolean counted = false;
+        boolean paced = false;
+        if(this.blockedUntil.isAfter(now)) {
+            start = this.blockedUntil;
+        } else if(this.remaining >= 0 && this.reset.isAfter(now)) {
+            counted = true;
+            if(this.remaining == 0) {
+                start = this.reset;
+            } else if(
+                priority == RateLimitedJsonResources.Priority.LOW
+            ) {
+                if(this.remaining <= this.reserve) {
+                    start = this.reset;
+                } else if(this.remaining - this.reserve <= this.slowdown) {
+                    paced = true;
+                    if(this.nextSlot.isAfter(now)) {
+                        start = this.nextSlot;
+                    }
+                }
+            }
+        }
+        final Duration wait = Duration.between(now, start);
+        final Duration reserved;
+        if(wait.compareTo(max) > 0) {
+            reserved = null;
+        } else {
+            if(paced) {
+                this.nextSlot = start.plus(
+                    Duration.between(now, this.reset)
+                        .dividedBy(this.remaining - this.reserve)
+                );
+            }
+            if(counted && this.remaining > 0 && start.isBefore(this.reset)) {
+                this.remaining = this.remaining - 1;
+            }
+            reserved = wait;
+        }
+        return reserved;
+    }
+
+    /**
+     * Update the budget with what the provider reported.
+     * @param resource Received Resource.
+     * @param now Current moment.
+     */
+    synchronized void update(final Resource resource, final Instant now) {
+        final String remainingHeader = this.header(
+            resource, "X-RateLimit-Remaining", "RateLimit-Remaining"
+        );
+        final String resetHeader = this.header(
+            resource, "X-RateLimit-Reset", "RateLimit-Reset"
+        );
+        if(remainingHeader != null && resetHeader != null) {
+            try {
+                this.remaining = Integer.parseInt(remainingHeader.trim());
+                this.reset = Instant.ofEpochSecond(
+                    Long.parseLong(resetHeader.trim())
+                );
+            } catch (final NumberFormatException ex) {
+                this.remaining = -1;
+            }
+        }
+        final String retryAfter = this.header(
+            resource, "Retry-After", "Retry-After"
+        );
+        if(retryAfter != null) {
+            try {
+                this.blockedUntil = now.plusSeconds(
+                    Long.parseLong(retryAfter.trim())
+                );
+            } catch (final NumberFormatException ex) {
+                this.blockedUntil = now.plusSeconds(60);
+            }
+        } else if(this.remaining == 0
+            && (resource.statusCode() == HttpURLConnection.HTTP_FORBIDDEN
+            || resource.statusCode() == 429)) {
+            this.blockedUntil = this.reset;
+        }
+    }
+
+    /**
+     * Remaining requests, as last reported by the provider and
+     * minus the requests reserved since.
+     * @return Integer, -1 if unknown.
+     */
+    synchronized int remaining() {
+        return this.remaining;
+    }
+
+    /**
+     * First value of one of the given headers.
+     * @param resource Resource.
+     * @param name Header name.
+     * @param alternative Alternative header name.
+     * @return String or null if none of the headers is present.
+     */
+    private String header(
+        final Resource resource,
+        final String name,
+        final String alternative
+    ) {
+        List<String> values = resource.headers().get(name);
+        if(values == null || values.isEmpty()) {
+            values = resource.headers().get(alternative);
+        }
+        final String value;
+        if(values == null || values.isEmpty()) {
+            value = null;
+        } else {
+            value = values.get(0);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,456 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * JsonResources which respect the rate limit of each access token.
+ * Before a request is sent, it waits if the token's budget is exhausted or
+ * if the provider asked us to retry later. Low priority requests are also
+ * spread out until the budget is reset and they never use the last
+ * requests of the budget, which are kept for the high priority ones.
+ * A request never waits longer than the given maximum: if the budget
+ * doesn't allow it sooner, it fails with an IllegalStateException instead
+ * of blocking the caller until the reset.<br><br>
+ *
+ * By default, GET requests (e.g. background scans) have low priority and
+ * all the other requests (e.g. comment replies) have high priority. An
+ * instance whose requests all have another priority is obtained with
+ * {@link #prioritized(Priority)}: nothing is added to the requests sent
+ * to the provider.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class RateLimitedJsonResources implements JsonResources {
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Access token value, empty for anonymous requests.
+     */
+    private final String token;
+
+    /**
+     * Priority of each HTTP method.
+     */
+    private final Function<String, Priority> priority;
+
+    /**
+     * Rate limits of the access tokens.
+     */
+    private final Map<String, RateLimit> limits;
+
+    /**
+     * Number of requests kept for the high priority requests.
+     */
+    private final int reserve;
+
+    /**
+     * Maximum time a request waits for the rate limit.
+     */
+    private final Duration maxWait;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Ctor. The last 100 requests of each budget are kept for the high
+     * priority requests.
+     * @param origin Original JsonResources.
+     */
+    public RateLimitedJsonResources(final JsonResources origin) {
+        this(origin, 100);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param reserve Number of requests kept for the high priority requests.
+     */
+    public RateLimitedJsonResources(
+        final JsonResources origin,
+        final int reserve
+    ) {
+        this(origin, reserve, Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param reserve Number of requests kept for the high priority requests.
+     * @param clock Clock.
+     */
+    RateLimitedJsonResources(
+        final JsonResources origin,
+        final int reserve,
+        final Clock clock
+    ) {
+        this(origin, reserve, Duration.ofSeconds(10), clock);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param reserve Number of requests kept for the high priority requests.
+     * @param maxWait Maximum time a request waits for the rate limit.
+     * @param clock Clock.
+     */
+    RateLimitedJsonResources(
+        final JsonResources origin,
+        final int reserve,
+        final Duration maxWait,
+        final Clock clock
+    ) {
+        this(
+            origin,
+            "",
+            method -> {
+                final Priority byMethod;
+                if("GET".equals(method)) {
+                    byMethod = Priority.LOW;
+                } else {
+                    byMethod = Priority.HIGH;
+                }
+                return byMethod;
+            },
+            new ConcurrentHashMap<>(),
+            reserve,
+            maxWait,
+            clock
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param token Access token value, empty for anonymous requests.
+     * @param priority Priority of each HTTP method.
+     * @param limits Rate limits of the access tokens.
+     * @param reserve Number of requests kept for the high priority requests.
+     * @param maxWait Maximum time a request waits for the rate limit.
+     * @param clock Clock.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    private RateLimitedJsonResources(
+        final JsonResources origin,
+        final String token,
+        final Function<String, Priority> priority,
+        final Map<String, RateLimit> limits,
+        final int reserve,
+        final Duration maxWait,
+        final Clock clock
+    ) {
+        this.origin = origin;
+        this.token = token;
+        this.priority = priority;
+        this.limits = limits;
+        this.reserve = reserve;
+        this.maxWait = maxWait;
+        this.clock = clock;
+    }
+
+    /**
+     * Remaining REST requests of the current access token, as reported
+     * by the provider and minus the requests sent since.
+     * @return Integer, -1 if unknown.
+     */
+    public int remaining() {
+        return this.limits.computeIfAbsent(
+            this.token, key -> new RateLimit(this.reserve)
+        ).remaining();
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new RateLimitedJsonResources(
+            this.origin.authenticated(accessToken),
+            accessToken.value(),
+            this.priority,
+            this.limits,
+            this.reserve,
+            this.maxWait,
+            this.clock
+        );
+    }
+
+    @Override
+    public JsonResources prioritized(final Priority priority) {
+        return new RateLimitedJsonResources(
+            this.origin.prioritized(priority),
+            this.token,
+            method -> priority,
+            this.limits,
+            this.reserve,
+            this.maxWait,
+            this.clock
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.blocking(
+            uri,
+            this.priority.apply("GET"), () -> this.origin.get(uri)
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        return this.blocking(
+            uri,
+            this.priority.apply("GET"), () -> this.origin.get(uri, headers)
+        );
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.blocking(
+            uri,
+            this.priority.apply("POST"), () -> this.origin.post(uri, body)
+        );
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.blocking(
+            uri,
+            this.priority.apply("PATCH"), () -> this.origin.patch(uri, body)
+        );
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.blocking(
+            uri,
+            this.priority.apply("PUT"), () -> this.origin.put(uri, body)
+        );
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.blocking(
+            uri,
+            this.priority.apply("DELETE"), () -> this.origin.delete(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.async(
+            uri,
+            this.priority.apply("GET"), () -> this.origin.getAsync(uri)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return this.async(
+            uri,
+            this.priority.apply("GET"),
+            () -> this.origin.getAsync(uri, headers)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            uri,
+            this.priority.apply("POST"), () -> this.origin.postAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            uri,
+            this.priority.apply("PATCH"),
+            () -> this.origin.patchAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            uri,
+            this.priority.apply("PUT"), () -> this.origin.putAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            uri,
+            this.priority.apply("DELETE"),
+            () -> this.origin.deleteAsync(uri, body)
+        );
+    }
+
+    /**
+     * Wait for the rate limit, then make the request.
+     * @param uri URI of the request.
+     * @param requested Priority of the request.
+     * @param request Request to make.
+     * @return Resource.
+     */
+    private Resource blocking(
+        final URI uri,
+        final Priority requested,
+        final Supplier<Resource> request
+    ) {
+        final RateLimit limit = this.limit(uri);
+        final Duration wait = limit.reserve(
+            requested, this.clock.instant(), this.maxWait
+        );
+        if(wait == null) {
+            throw new IllegalStateException(
+                "Rate limit exhausted, the request would wait longer than "
+                + this.maxWait + "."
+            );
+        }
+        if(!wait.isZero() && !wait.isNegative()) {
+            try {
+                Thread.sleep(wait.toMillis());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                    "Interrupted while waiting for the rate limit.", ex
+                );
+            }
+        }
+        final Resource resource = request.get();
+        limit.update(resource, this.clock.instant());
+        return resource;
+    }
+
+    /**
+     * Make the request asynchronously, after the rate limit allows it.
+     * The caller's thread is not blocked.
+     * @param uri URI of the request.
+     * @param requested Priority of the request.
+     * @param request Request to make.
+     * @return Future Resource.
+     */
+    private CompletableFuture<Resource> async(
+        final URI uri,
+        final Priority requested,
+        final Supplier<CompletableFuture<Resource>> request
+    ) {
+        final RateLimit limit = this.limit(uri);
+        final Duration wait = limit.reserve(
+            requested, this.clock.instant(), this.maxWait
+        );
+        final CompletableFuture<Resource> sent;
+        if(wait == null) {
+            sent = CompletableFuture.failedFuture(
+                new IllegalStateException(
+                    "Rate limit exhausted, the request would wait longer than "
+                    + this.maxWait + "."
+                )
+            );
+        } else if(wait.isZero() || wait.isNegative()) {
+            sent = request.get();
+        } else {
+            sent = CompletableFuture.runAsync(
+                () -> { },
+                CompletableFuture.delayedExecutor(
+                    wait.toMillis(), TimeUnit.MILLISECONDS
+                )
+            ).thenCompose(ignored -> request.get());
+        }
+        return sent.thenApply(
+            resource -> {
+                limit.update(resource, this.clock.instant());
+                return resource;
+            }
+        );
+    }
+
+    /**
+     * Rate limit of the current access token for the given URI. The
+     * GraphQL API has its own budget (points, not requests), so the
+     * requests to /graphql have their own RateLimit and don't touch the
+     * REST one.
+     * @param uri URI of the request.
+     * @return RateLimit.
+     */
+    private RateLimit limit(final URI uri) {
+        final String key;
+        final String path = uri.getPath();
+        if(path != null && path.endsWith("/graphql")) {
+            key = this.token + " graphql";
+        } else {
+            key = this.token;
+        }
+        return this.limits.computeIfAbsent(
+            key, ignored -> new RateLimit(this.reserve)
+        );
+    }
+
+    /**
+     * Priority of a request.
+     */
+    public enum Priority {
+
+        /**
+         * Requests which should be made as soon as possible
+         * (e.g. replies to comments).
+         */
+        HIGH,
+
+        /**
+         * Requests which can be delayed (e.g. background scans).
+         */
+        LOW
+    }
+}
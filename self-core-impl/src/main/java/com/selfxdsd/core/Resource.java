@@ -24,6 +24,10 @@ package com.selfxdsd.core;
 
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Resource returned by the Provider.
@@ -39,6 +43,22 @@ public interface Resource {
      */
     int statusCode();
 
+    /**
+     * Response headers. Header names are case-insensitive.
+     * @return Map of header names and their values. Empty by default.
+     */
+    default Map<String, List<String>> headers() {
+        return Map.of();
+    }
+
+    /**
+     * Size of the body, in bytes.
+     * @return Long, -1 if unknown.
+     */
+    default long size() {
+        return -1;
+    }
+
     /**
      * This resource as JsonObject.
      * @return JsonObject.
@@ -51,4 +71,33 @@ public interface Resource {
      */
     JsonArray asJsonArray();
 
+    /**
+     * The elements of this resource, which should be a JSON array.
+     * Implementations may parse them one at a time from the body,
+     * without building the whole JsonArray.
+     * @return Stream of JsonValue.
+     */
+    default Stream<JsonValue> elements() {
+        return this.asJsonArray().stream();
+    }
+
+    /**
+     * The elements of the array found at the given key of this resource,
+     * which should be a JSON object (e.g. the "items" of a search result).
+     * Implementations may parse them one at a time from the body,
+     * without building the whole JsonObject.
+     * @param key Key of the array.
+     * @return Stream of JsonValue, empty if the key is missing.
+     */
+    default Stream<JsonValue> elements(final String key) {
+        final JsonArray array = this.asJsonObject().getJsonArray(key);
+        final Stream<JsonValue> elements;
+        if(array == null) {
+            elements = Stream.empty();
+        } else {
+            elements = array.stream();
+        }
+        return elements;
+    }
+
 }
@@ -0,0 +1,460 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * JsonResources which retry the requests that failed because of a
+ * transient problem: an IOException (e.g. connection refused or reset)
+ * or a 5xx/429 response. A response body which cannot be decoded is not
+ * a transient problem, even though the HttpClient reports it as an
+ * IOException. Between attempts we wait exponentially more
+ * (with random jitter), as long as the total deadline is not exceeded.
+ * <br><br>
+ * The number of attempts is configured per HTTP method. By default, only
+ * the idempotent methods (GET, PUT, DELETE) are retried, up to 3 attempts.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class RetryingJsonResources implements JsonResources {
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Maximum attempts per HTTP method. Methods which are not in the map
+     * are not retried.
+     */
+    private final Map<String, Integer> attempts;
+
+    /**
+     * Delay before the first retry.
+     */
+    private final Duration delay;
+
+    /**
+     * Maximum time spent on a request, including all the attempts.
+     */
+    private final Duration deadline;
+
+    /**
+     * Retry counters.
+     */
+    private final Counters counters;
+
+    /**
+     * Ctor. GET, PUT and DELETE are attempted 3 times, starting with a
+     * 200 milliseconds delay, within at most 10 seconds.
+     * @param origin Original JsonResources.
+     */
+    public RetryingJsonResources(final JsonResources origin) {
+        this(
+            origin,
+            Map.of("GET", 3, "PUT", 3, "DELETE", 3),
+            Duration.ofMillis(200),
+            Duration.ofSeconds(10)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param attempts Maximum attempts per HTTP method.
+     * @param delay Delay before the first retry.
+     * @param deadline Maximum time spent on a request, including all
+     *  the attempts.
+     */
+    public RetryingJsonResources(
+        final JsonResources origin,
+        final Map<String, Integer> attempts,
+        final Duration delay,
+        final Duration deadline
+    ) {
+        this(origin, attempts, delay, deadline, new Counters());
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param attempts Maximum attempts per HTTP method.
+     * @param delay Delay before the first retry.
+     * @param deadline Maximum time spent on a request.
+     * @param counters Retry counters, shared by the authenticated instances.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    private RetryingJsonResources(
+        final JsonResources origin,
+        final Map<String, Integer> attempts,
+        final Duration delay,
+        final Duration deadline,
+        final Counters counters
+    ) {
+        this.origin = origin;
+        this.attempts = attempts;
+        this.delay = delay;
+        this.deadline = deadline;
+        this.counters = counters;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new RetryingJsonResources(
+            this.origin.authenticated(accessToken),
+            this.attempts,
+            this.delay,
+            this.deadline,
+            this.counters
+        );
+    }
+
+    @Override
+    public JsonResources prioritized(
+        final RateLimitedJsonResources.Priority priority
+    ) {
+        return new RetryingJsonResources(
+            this.origin.prioritized(priority),
+            this.attempts,
+            this.delay,
+            this.deadline,
+            this.counters
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.blocking("GET", () -> this.origin.get(uri));
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        return this.blocking("GET", () -> this.origin.get(uri, headers));
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.blocking("POST", () -> this.origin.post(uri, body));
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.blocking("PATCH", () -> this.origin.patch(uri, body));
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.blocking("PUT", () -> this.origin.put(uri, body));
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.blocking("DELETE", () -> this.origin.delete(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.async(
+            "GET", () -> this.origin.getAsync(uri), 1, System.nanoTime()
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return this.async(
+            "GET",
+            () -> this.origin.getAsync(uri, headers),
+            1,
+            System.nanoTime()
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            "POST",
+            () -> this.origin.postAsync(uri, body),
+            1,
+            System.nanoTime()
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            "PATCH",
+            () -> this.origin.patchAsync(uri, body),
+            1,
+            System.nanoTime()
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            "PUT",
+            () -> this.origin.putAsync(uri, body),
+            1,
+            System.nanoTime()
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.async(
+            "DELETE",
+            () -> this.origin.deleteAsync(uri, body),
+            1,
+            System.nanoTime()
+        );
+    }
+
+    /**
+     * Total number of attempts made (first attempts and retries).
+     * @return Long.
+     */
+    public long attempts() {
+        return this.counters.attempts.get();
+    }
+
+    /**
+     * Number of retries made.
+     * @return Long.
+     */
+    public long retries() {
+        return this.counters.retries.get();
+    }
+
+    /**
+     * Number of requests which still failed after all the attempts.
+     * @return Long.
+     */
+    public long exhausted() {
+        return this.counters.exhausted.get();
+    }
+
+    /**
+     * Make the request, retrying if needed.
+     * @param method HTTP method.
+     * @param request Request.
+     * @return Resource.
+     */
+    private Resource blocking(
+        final String method,
+        final Supplier<Resource> request
+    ) {
+        final long start = System.nanoTime();
+        Resource resource = null;
+        IllegalStateException failure;
+        int attempt = 0;
+        boolean retry = true;
+        while(retry) {
+            attempt = attempt + 1;
+            this.counters.attempts.incrementAndGet();
+            failure = null;
+            try {
+                resource = request.get();
+            } catch (final IllegalStateException ex) {
+                if(!(ex.getCause() instanceof IOException)
+                    || DecodedBodies.undecodable(ex)) {
+                    throw ex;
+                }
+                failure = ex;
+            }
+            final boolean failed = failure != null
+                || this.isTransient(resource);
+            final Duration wait = this.backoff(attempt);
+            retry = failed && this.retryable(method, attempt, start, wait);
+            if(retry) {
+                this.counters.retries.incrementAndGet();
+                try {
+                    Thread.sleep(wait.toMillis());
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(
+                        "Interrupted while waiting to retry " + method, ex
+                    );
+                }
+            } else if(failed) {
+                this.counters.exhausted.incrementAndGet();
+                if(failure != null) {
+                    throw failure;
+                }
+            }
+        }
+        return resource;
+    }
+
+    /**
+     * Make the request asynchronously, retrying if needed.
+     * @param method HTTP method.
+     * @param request Request.
+     * @param attempt Number of the attempt.
+     * @param start When the first attempt started (nanos).
+     * @return Future Resource.
+     */
+    private CompletableFuture<Resource> async(
+        final String method,
+        final Supplier<CompletableFuture<Resource>> request,
+        final int attempt,
+        final long start
+    ) {
+        this.counters.attempts.incrementAndGet();
+        return request.get().handle(
+            (resource, error) -> {
+                Throwable cause = error;
+                if(cause instanceof CompletionException
+                    && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                final boolean failed;
+                if(cause == null) {
+                    failed = this.isTransient(resource);
+                } else {
+                    failed = cause instanceof IllegalStateException
+                        && cause.getCause() instanceof IOException
+                        && !DecodedBodies.undecodable(cause);
+                }
+                final Duration wait = this.backoff(attempt);
+                final CompletableFuture<Resource> next;
+                if(failed && this.retryable(method, attempt, start, wait)) {
+                    this.counters.retries.incrementAndGet();
+                    next = CompletableFuture.runAsync(
+                        () -> { },
+                        CompletableFuture.delayedExecutor(
+                            wait.toMillis(), TimeUnit.MILLISECONDS
+                        )
+                    ).thenCompose(
+                        ignored -> this.async(
+                            method, request, attempt + 1, start
+                        )
+                    );
+                } else {
+                    if(failed) {
+                        this.counters.exhausted.incrementAndGet();
+                    }
+                    if(cause == null) {
+                        next = CompletableFuture.completedFuture(resource);
+                    } else {
+                        next = CompletableFuture.failedFuture(cause);
+                    }
+                }
+                return next;
+            }
+        ).thenCompose(next -> next);
+    }
+
+    /**
+     * Should we make another attempt?
+     * @param method HTTP method.
+     * @param attempt Number of the attempt which just failed.
+     * @param start When the first attempt started (nanos).
+     * @param wait How long we would wait before the next attempt.
+     * @return True or false.
+     */
+    private boolean retryable(
+        final String method,
+        final int attempt,
+        final long start,
+        final Duration wait
+    ) {
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return attempt < this.attempts.getOrDefault(method, 1)
+            && elapsed.plus(wait).compareTo(this.deadline) < 0;
+    }
+
+    /**
+     * Is the received Resource a transient error (5xx or 429)?
+     * @param resource Resource.
+     * @return True or false.
+     */
+    private boolean isTransient(final Resource resource) {
+        final int status = resource.statusCode();
+        return status >= 500 || status == 429;
+    }
+
+    /**
+     * Exponential backoff with jitter: a random delay between half
+     * and all of delay * 2^(attempt - 1).
+     * @param attempt Number of the attempt which just failed.
+     * @return Duration.
+     */
+    private Duration backoff(final int attempt) {
+        final long max = this.delay.toMillis()
+            * (1L << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(
+            max / 2 + ThreadLocalRandom.current().nextLong(max / 2 + 1)
+        );
+    }
+
+    /**
+     * Retry counters, shared by the authenticated instances.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Counters {
+
+        /**
+         * Attempts counter.
+         */
+        private final AtomicLong attempts = new AtomicLong();
+
+        /**
+         * Retries counter.
+         */
+        private final AtomicLong retries = new AtomicLong();
+
+        /**
+         * Counter of requests which failed after all the attempts.
+         */
+        private final AtomicLong exhausted = new AtomicLong();
+    }
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of one collection of a {@link CachedStorage} (e.g. the Contracts).
+ * It holds snapshots of the collection's views (e.g. the Contracts of a
+ * Project), each for a limited time; the least recently used snapshots
+ * are evicted first when the cache is full.<br><br>
+ *
+ * A snapshot which was being read from the Storage while the cache was
+ * invalidated is returned, but not cached, since it may be stale. Neither
+ * are the snapshots of the keys which are held (see {@link #hold(String)}),
+ * e.g. because they have uncommitted mutations.
+ * @param <T> Type of the cached elements.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class StorageCache<T> {
+
+    /**
+     * Cached snapshots, least recently used first.
+     */
+    private final Map<String, Snapshot<T>> snapshots;
+
+    /**
+     * How long a snapshot is cached.
+     */
+    private final Duration ttl;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Hits counter.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * Misses counter.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * Held keys, with the number of holds of each.
+     */
+    private final Map<String, Integer> held;
+
+    /**
+     * Incremented with every eviction, so we know whether a snapshot
+     * read from the Storage is still fresh.
+     */
+    private long generation;
+
+    /**
+     * Ctor. At most 500 snapshots, each cached for a minute.
+     */
+    public StorageCache() {
+        this(500, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Ctor.
+     * @param maxEntries Maximum number of cached snapshots.
+     * @param ttl How long a snapshot is cached.
+     */
+    public StorageCache(final int maxEntries, final Duration ttl) {
+        this(maxEntries, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     * @param maxEntries Maximum number of cached snapshots.
+     * @param ttl How long a snapshot is cached.
+     * @param clock Clock.
+     */
+    StorageCache(final int maxEntries, final Duration ttl, final Clock clock) {
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<String, Snapshot<T>> eldest
+            ) {
+                return this.size() > maxEntries;
+            }
+        };
+        this.held = new HashMap<>();
+        this.ttl = ttl;
+        this.clock = clock;
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * Get a cached snapshot, reading it from the Storage if it is missing
+     * or expired.
+     * @param key Key.
+     * @param origin Elements in the Storage.
+     * @return Unmodifiable List of elements.
+     */
+    public List<T> get(
+        final String key,
+        final Supplier<? extends Iterable<T>> origin
+    ) {
+        final long read;
+        Snapshot<T> snapshot;
+        synchronized (this.snapshots) {
+            snapshot = this.snapshots.get(key);
+            if(snapshot != null
+                && snapshot.expires.isBefore(this.clock.instant())) {
+                this.snapshots.remove(key);
+                snapshot = null;
+            }
+            read = this.generation;
+        }
+        if(snapshot == null) {
+            this.misses.incrementAndGet();
+            final List<T> elements = new ArrayList<>();
+            origin.get().forEach(elements::add);
+            snapshot = new Snapshot<>(
+                Collections.unmodifiableList(elements),
+                this.clock.instant().plus(this.ttl)
+            );
+            synchronized (this.snapshots) {
+                if(read == this.generation && !this.held.containsKey(key)) {
+                    this.snapshots.put(key, snapshot);
+                }
+            }
+        } else {
+            this.hits.incrementAndGet();
+        }
+        return snapshot.elements;
+    }
+
+    /**
+     * Evict a snapshot.
+     * @param key Key.
+     */
+    public void evict(final String key) {
+        synchronized (this.snapshots) {
+            this.snapshots.remove(key);
+            this.generation = this.generation + 1;
+        }
+    }
+
+    /**
+     * Evict a snapshot and stop caching it until it is released: its
+     * reads go to the Storage.
+     * @param key Key.
+     */
+    public void hold(final String key) {
+        synchronized (this.snapshots) {
+            this.held.merge(key, 1, Integer::sum);
+            this.snapshots.remove(key);
+            this.generation = this.generation + 1;
+        }
+    }
+
+    /**
+     * Release a held snapshot and evict it: it is cached again with
+     * the next read, once it's no longer held.
+     * @param key Key.
+     */
+    public void release(final String key) {
+        synchronized (this.snapshots) {
+            this.held.computeIfPresent(
+                key, (held, holds) -> {
+                    final Integer left;
+                    if(holds > 1) {
+                        left = holds - 1;
+                    } else {
+                        left = null;
+                    }
+                    return left;
+                }
+            );
+            this.snapshots.remove(key);
+            this.generation = this.generation + 1;
+        }
+    }
+
+    /**
+     * How many snapshots are cached (some of them may be expired).
+     * @return Integer.
+     */
+    public int size() {
+        synchronized (this.snapshots) {
+            return this.snapshots.size();
+        }
+    }
+
+    /**
+     * How many reads were answered from the cache.
+     * @return Long.
+     */
+    public long hits() {
+        return this.hits.get();
+    }
+
+    /**
+     * How many reads went to the Storage.
+     * @return Long.
+     */
+    public long misses() {
+        return this.misses.get();
+    }
+
+    /**
+     * A cached snapshot.
+     * @param <T> Type of the elements.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Snapshot<T> {
+
+        /**
+         * Elements.
+         */
+        private final List<T> elements;
+
+        /**
+         * When it expires.
+         */
+        private final Instant expires;
+
+        /**
+         * Ctor.
+         * @param elements Elements.
+         * @param expires When it expires.
+         */
+        private Snapshot(final List<T> elements, final Instant expires) {
+            this.elements = elements;
+            this.expires = expires;
+        }
+    }
+}
@@ -61,6 +61,11 @@ public final class StoredUser implements User {
      */
     private final Storage storage;
 
+    /**
+     * Registry of the Providers.
+     */
+    private final Providers providers;
+
     /**
      * Ctor.
      * @param username Username.
@@ -75,12 +80,34 @@ public final class StoredUser implements User {
         final String role,
         final String provider,
         final Storage storage
+    ) {
+        this(username, email, role, provider, storage, Providers.shared());
+    }
+
+    /**
+     * Ctor.
+     * @param username Username.
+     * @param email E-Mail.
+     * @param role User's role in Self (simple user, admin etc).
+     * @param provider Provider's name (github, gitlab etc).
+     * @param storage Self's Storage.
+     * @param providers Registry of the Providers.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    public StoredUser(
+        final String username,
+        final String email,
+        final String role,
+        final String provider,
+        final Storage storage,
+        final Providers providers
     ) {
         this.username = username;
         this.email = email;
         this.role = role;
         this.provider = provider;
         this.storage = storage;
+        this.providers = providers;
     }
 
     @Override
@@ -100,13 +127,7 @@ public final class StoredUser implements User {
 
     @Override
     public Provider provider() {
-        final Provider provider;
-        if(this.provider.equalsIgnoreCase(Provider.Names.GITHUB)) {
-            provider = new Github(this, this.storage);
-        } else {
-            provider = new Gitlab(this, this.storage);
-        }
-        return provider;
+        return this.providers.provider(this.provider, this, this.storage);
     }
 
     @Override
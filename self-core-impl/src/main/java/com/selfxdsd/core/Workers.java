@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Event;
+import com.selfxdsd.api.Project;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Workers which run Events and the units of work of the scans (e.g. the
+ * Tasks of a contract) concurrently. Each unit runs on its own thread:
+ * a virtual thread if the JVM has them (JDK 21+) or a platform thread from
+ * an unbounded pool otherwise. The concurrency is not limited by the
+ * number of threads, but by the permits of each key (e.g. the provider and
+ * the PM, whose token is used): units waiting for a permit are queued
+ * and don't hold a thread.<br><br>
+ *
+ * Events and units of work take permits of different keys, so an Event
+ * waiting for the units of its scan never holds the permits they need.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class Workers {
+
+    /**
+     * Workers which run everything on the caller's thread, one unit after
+     * the other, as if there were no Workers at all: the exception of
+     * a failed unit is thrown right away to the caller, it is not deferred
+     * to the returned future.
+     */
+    public static final Workers SAME_THREAD = new Workers(
+        Runnable::run, Integer.MAX_VALUE, true
+    );
+
+    /**
+     * Threads running the units of work.
+     */
+    private final Executor threads;
+
+    /**
+     * Maximum concurrent units per key.
+     */
+    private final int permits;
+
+    /**
+     * Permits of each key.
+     */
+    private final Map<String, Permits> keys;
+
+    /**
+     * Are the units run right away, on the caller's thread?
+     */
+    private final boolean inline;
+
+    /**
+     * Ctor.
+     * @param threads Threads running the units of work.
+     * @param permits Maximum concurrent units per key.
+     */
+    public Workers(final Executor threads, final int permits) {
+        this(threads, permits, false);
+    }
+
+    /**
+     * Ctor.
+     * @param threads Threads running the units of work.
+     * @param permits Maximum concurrent units per key.
+     * @param inline Are the units run right away, on the caller's thread?
+     */
+    private Workers(
+        final Executor threads,
+        final int permits,
+        final boolean inline
+    ) {
+        this.threads = threads;
+        this.permits = permits;
+        this.keys = new ConcurrentHashMap<>();
+        this.inline = inline;
+    }
+
+    /**
+     * The Workers configured by the environment: new Workers with at most
+     * 16 concurrent units per key if {@link Env#CONCURRENT_PROCESSING} is
+     * true, {@link #SAME_THREAD} otherwise. The permits are only enforced
+     * among the users of the same instance, so call this once at startup.
+     * @return Workers.
+     */
+    public static Workers configured() {
+        final Workers configured;
+        if(Boolean.parseBoolean(System.getenv(Env.CONCURRENT_PROCESSING))) {
+            configured = new Workers(Workers.threads(), 16);
+        } else {
+            configured = SAME_THREAD;
+        }
+        return configured;
+    }
+
+    /**
+     * Resolve the Event on a worker. At most {@link #permits} Events of the
+     * same provider and PM are resolved at the same time.
+     * @param project Project.
+     * @param event Event.
+     * @return Future which completes when the Event is resolved.
+     */
+    public CompletableFuture<Void> resolve(
+        final Project project,
+        final Event event
+    ) {
+        return this.handle(project, () -> project.resolve(event));
+    }
+
+    /**
+     * Handle an Event of the Project on a worker (e.g. the Project itself
+     * dispatching the Event to its PM). At most {@link #permits} Events of
+     * the same provider and PM are handled at the same time.
+     * @param project Project.
+     * @param handling Handling of the Event.
+     * @return Future which completes when the Event is handled.
+     */
+    public CompletableFuture<Void> handle(
+        final Project project,
+        final Runnable handling
+    ) {
+        final CompletableFuture<Void> done;
+        if(this.inline) {
+            done = this.run("", handling);
+        } else {
+            done = this.run(
+                "events/" + project.provider()
+                + "/" + project.projectManager().id(),
+                handling
+            );
+        }
+        return done;
+    }
+
+    /**
+     * Run a unit of work, as soon as a permit of the given key
+     * is available.
+     * @param key Key (e.g. provider and PM).
+     * @param unit Unit of work.
+     * @return Future which completes when the unit is done.
+     */
+    public CompletableFuture<Void> run(final String key, final Runnable unit) {
+        final CompletableFuture<Void> done;
+        if(this.inline) {
+            unit.run();
+            done = CompletableFuture.completedFuture(null);
+        } else {
+            done = this.keys.computeIfAbsent(
+                key, k -> new Permits(this.permits)
+            ).async(() -> CompletableFuture.runAsync(unit, this.threads));
+        }
+        return done;
+    }
+
+    /**
+     * Virtual threads if the JVM has them, an unbounded pool of daemon
+     * platform threads otherwise.
+     * @return Executor.
+     */
+    private static Executor threads() {
+        Executor threads;
+        try {
+            threads = (Executor) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (final ReflectiveOperationException ex) {
+            threads = Executors.newCachedThreadPool(
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "self-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        }
+        return threads;
+    }
+}
@@ -162,6 +162,16 @@ public final class ContributorContracts implements Contracts {
             .markForRemoval(contract, time);
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The contracts are counted without iterating over them.
+     */
+    @Override
+    public int count() {
+        return (int) this.contracts.get().count();
+    }
+
     @Override
     public Iterator<Contract> iterator() {
         return this.contracts.get().iterator();
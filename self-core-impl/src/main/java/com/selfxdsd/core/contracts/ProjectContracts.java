@@ -26,6 +26,8 @@ import com.selfxdsd.api.Contract;
 import com.selfxdsd.api.Contracts;
 import com.selfxdsd.api.Contributor;
 import com.selfxdsd.api.exceptions.ContractsException;
+import com.selfxdsd.api.storage.Query;
+import com.selfxdsd.api.storage.Queryable;
 import com.selfxdsd.api.storage.Storage;
 
 import java.math.BigDecimal;
@@ -60,7 +62,7 @@ public final class ProjectContracts implements Contracts {
     /**
      * The project's contracts.
      */
-    private final Supplier<Stream<Contract>> contracts;
+    private final Queryable<Contract> contracts;
 
     /**
      * Self storage, to save new contracts.
@@ -79,6 +81,24 @@ public final class ProjectContracts implements Contracts {
         final String provider,
         final Supplier<Stream<Contract>> contracts,
         final Storage storage
+    ) {
+        this(
+            repoFullName, provider, new Queryable.InMemory<>(contracts), storage
+        );
+    }
+
+    /**
+     * Constructor. The counting is pushed down to the Storage.
+     * @param repoFullName Full name of the Repo represented by the Project.
+     * @param provider Provider of the Repo represented by the Project.
+     * @param contracts Project's contracts.
+     * @param storage Self's storage, to save new contracts.
+     */
+    public ProjectContracts(
+        final String repoFullName,
+        final String provider,
+        final Queryable<Contract> contracts,
+        final Storage storage
     ) {
         this.repoFullName = repoFullName;
         this.provider = provider;
@@ -103,7 +123,7 @@ public final class ProjectContracts implements Contracts {
     @Override
     public Contracts ofContributor(final Contributor contributor) {
         final List<Contract> ofContributor = this.contracts
-            .get()
+            .find(Query.all())
             .filter(contract -> contract
                 .contributor()
                 .username()
@@ -145,7 +165,7 @@ public final class ProjectContracts implements Contracts {
 
     @Override
     public Contract findById(final Contract.Id id) {
-        return this.contracts.get()
+        return this.contracts.find(Query.all())
             .filter(c -> new Contract.Id(c.project().repoFullName(),
                 c.contributor().username(),
                 c.project().provider(),
@@ -190,9 +210,19 @@ public final class ProjectContracts implements Contracts {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The contracts are counted by the Storage.
+     */
+    @Override
+    public int count() {
+        return (int) this.contracts.count(Query.all());
+    }
+
     @Override
     public Iterator<Contract> iterator() {
-        return this.contracts.get().iterator();
+        return this.contracts.find(Query.all()).iterator();
     }
 
     @Override
@@ -26,10 +26,11 @@ import com.selfxdsd.api.Contract;
 import com.selfxdsd.api.Invoice;
 import com.selfxdsd.api.Invoices;
 import com.selfxdsd.api.Payment;
+import com.selfxdsd.api.storage.Query;
+import com.selfxdsd.api.storage.Queryable;
 import com.selfxdsd.api.storage.Storage;
 
 import java.math.BigDecimal;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -53,14 +54,11 @@ public final class ContractInvoices implements Invoices {
     private final Storage storage;
 
     /**
-     * Stored invoices for this contract.
-     * We use a stream because we don't want to load in
-     * memory all the contract invoices.
-     * <br>
-     * In order to "reuse" them, since streams are one time use only,
-     * we wrap the stream in a supplier, .
+     * Stored invoices for this contract. They are queried, so the
+     * Storage can filter, order and limit them in the database,
+     * instead of loading all the contract invoices in memory.
      */
-    private final Supplier<Stream<Invoice>> invoices;
+    private final Queryable<Invoice> invoices;
 
     /**
      * Ctor.
@@ -73,6 +71,21 @@ public final class ContractInvoices implements Invoices {
         final Contract.Id contractId,
         final Supplier<Stream<Invoice>> invoices,
         final Storage storage
+    ) {
+        this(contractId, new Queryable.InMemory<>(invoices), storage);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param contractId Contract id
+     * @param invoices Queryable invoices.
+     * @param storage Storage.
+     */
+    public ContractInvoices(
+        final Contract.Id contractId,
+        final Queryable<Invoice> invoices,
+        final Storage storage
     ) {
         this.contractId = contractId;
         this.storage = storage;
@@ -131,19 +144,30 @@ public final class ContractInvoices implements Invoices {
 
     @Override
     public Invoice active() {
-        Invoice active = this.invoices.get()
-            .filter(invoice -> !invoice.isPaid())
-            .sorted(Comparator.comparing(Invoice::createdAt))
-            .findFirst()
-            .orElse(null);
+        Invoice active = this.invoices.find(
+            Query.<Invoice>all()
+                .where("paid", false, Invoice::isPaid)
+                .orderBy("createdAt", Invoice::createdAt)
+                .limit(1)
+        ).findFirst().orElse(null);
         if(active == null) {
             active = this.createNewInvoice(this.contractId);
         }
         return active;
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The invoices are counted by the Storage.
+     */
+    @Override
+    public int count() {
+        return (int) this.invoices.count(Query.all());
+    }
+
     @Override
     public Iterator<Invoice> iterator() {
-        return this.invoices.get().iterator();
+        return this.invoices.find(Query.all()).iterator();
     }
 }
@@ -24,6 +24,8 @@ package com.selfxdsd.core.contributors;
 
 import com.selfxdsd.api.*;
 import com.selfxdsd.api.exceptions.ContributorsException;
+import com.selfxdsd.api.storage.Query;
+import com.selfxdsd.api.storage.Queryable;
 import com.selfxdsd.api.storage.Storage;
 import com.selfxdsd.core.BasePaged;
 
@@ -65,7 +67,7 @@ public final class ProjectContributors extends BasePaged
     /**
      * The project's contributors.
      */
-    private final Supplier<Stream<Contributor>> contributors;
+    private final Queryable<Contributor> contributors;
 
     /**
      * Self storage, to save new contributors.
@@ -82,6 +84,25 @@ public final class ProjectContributors extends BasePaged
         final Project project,
         final Supplier<Stream<Contributor>> contributors,
         final Storage storage
+    ) {
+        this(
+            project,
+            new Queryable.InMemory<>(contributors),
+            storage,
+            Page.all()
+        );
+    }
+
+    /**
+     * Constructor. The paging is pushed down to the Storage.
+     * @param project The project.
+     * @param contributors Project's contributors.
+     * @param storage Self's storage, to save new contracts.
+     */
+    public ProjectContributors(
+        final Project project,
+        final Queryable<Contributor> contributors,
+        final Storage storage
     ) {
         this(project, contributors, storage, Page.all());
     }
@@ -96,10 +117,10 @@ public final class ProjectContributors extends BasePaged
      * @checkstyle LineLength (5 lines)
      */
     private ProjectContributors(final Project project,
-                                final Supplier<Stream<Contributor>> contributors,
+                                final Queryable<Contributor> contributors,
                                 final Storage storage,
                                 final Page page){
-        super(page, () -> (int) contributors.get().count());
+        super(page, () -> (int) contributors.count(Query.all()));
         this.project = project;
         this.repoFullName = project.repoFullName();
         this.provider = project.owner().provider().name();
@@ -143,9 +164,8 @@ public final class ProjectContributors extends BasePaged
         final String provider
     ) {
         final Page page = super.current();
-        return this.contributors.get()
-            .skip((page.getNumber() - 1) * page.getSize())
-            .limit(page.getSize())
+        return this.contributors
+            .find(Query.<Contributor>all().page(page))
             .filter(c -> c.username().equalsIgnoreCase(username)
                 && c.provider().equalsIgnoreCase(provider))
             .findFirst()
@@ -207,9 +227,8 @@ public final class ProjectContributors extends BasePaged
         final List<Resignation> resignations = StreamSupport
             .stream(task.resignations().spliterator(), false)
             .collect(Collectors.toList());
-        final List<Contributor> eligible = this.contributors.get()
-            .skip((page.getNumber() - 1) * page.getSize())
-            .limit(page.getSize())
+        final List<Contributor> eligible = this.contributors
+            .find(Query.<Contributor>all().page(page))
             .filter(
                 contributor -> {
                     if(task.assignee() != null) {
@@ -255,12 +274,21 @@ public final class ProjectContributors extends BasePaged
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The contributors are counted by the Storage.
+     */
+    @Override
+    public int count() {
+        return (int) this.contributors.count(Query.all());
+    }
+
     @Override
     public Iterator<Contributor> iterator() {
         final Page page = super.current();
-        return this.contributors.get()
-            .skip((page.getNumber() - 1) * page.getSize())
-            .limit(page.getSize())
+        return this.contributors
+            .find(Query.<Contributor>all().page(page))
             .iterator();
     }
 }
@@ -164,6 +164,16 @@ public final class ProviderContributors extends BasePaged
         throw new ContributorsException.Election();
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The contributors are counted without iterating over them.
+     */
+    @Override
+    public int count() {
+        return (int) this.contributors.get().count();
+    }
+
     @Override
     public Iterator<Contributor> iterator() {
         final Page page = super.current();
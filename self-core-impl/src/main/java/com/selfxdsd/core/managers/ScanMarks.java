@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core.managers;
+
+import com.selfxdsd.core.Env;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * High-water marks of the tasks scans: when did the last complete scan of
+ * each Project start. The next scan only has to look at the Issues updated
+ * since then. The marks are kept in memory, so the first scan after a
+ * restart is always a full one.<br><br>
+ *
+ * Incremental scans are enabled with the env variable
+ * {@link Env#INCREMENTAL_SCANS} set to true. The marks are only useful if
+ * the same instance is given to all the PMs, so create it once at startup.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class ScanMarks {
+
+    /**
+     * Are the incremental scans enabled?
+     */
+    private final boolean enabled;
+
+    /**
+     * The Issues updated this long before the mark are also considered,
+     * in case our clock and the Provider's are not in sync.
+     */
+    private final Duration overlap;
+
+    /**
+     * Start of the last complete scan, by Project.
+     */
+    private final Map<String, Instant> marks;
+
+    /**
+     * Ctor.
+     * @param enabled Are the incremental scans enabled?
+     * @param overlap Overlap with the previous scan.
+     */
+    public ScanMarks(final boolean enabled, final Duration overlap) {
+        this.enabled = enabled;
+        this.overlap = overlap;
+        this.marks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * New marks, as configured in the environment: enabled with one minute
+     * of overlap or disabled (every scan is a full one).
+     * @return ScanMarks.
+     */
+    public static ScanMarks configured() {
+        final ScanMarks configured;
+        if("true".equalsIgnoreCase(System.getenv(Env.INCREMENTAL_SCANS))) {
+            configured = new ScanMarks(true, Duration.ofMinutes(1));
+        } else {
+            configured = new ScanMarks(false, Duration.ZERO);
+        }
+        return configured;
+    }
+
+    /**
+     * Since when should we look for updated Issues?
+     * @param project Project key (provider and repo full name).
+     * @return Instant or null if the Project should be fully scanned.
+     */
+    Instant since(final String project) {
+        Instant since = null;
+        if(this.enabled) {
+            final Instant mark = this.marks.get(project);
+            if(mark != null) {
+                since = mark.minus(this.overlap);
+            }
+        }
+        return since;
+    }
+
+    /**
+     * Record a complete scan.
+     * @param project Project key (provider and repo full name).
+     * @param start When did the scan start.
+     */
+    void mark(final String project, final Instant start) {
+        if(this.enabled) {
+            this.marks.put(project, start);
+        }
+    }
+}
@@ -26,17 +26,28 @@ import com.selfxdsd.api.*;
 import com.selfxdsd.api.pm.Conversation;
 import com.selfxdsd.api.pm.Step;
 import com.selfxdsd.api.storage.Storage;
-import com.selfxdsd.core.Github;
-import com.selfxdsd.core.Gitlab;
+import com.selfxdsd.api.storage.UnitOfWork;
+import com.selfxdsd.core.Providers;
+import com.selfxdsd.core.Workers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.Period;
+import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Supplier;
 
 /**
@@ -99,7 +110,23 @@ public final class StoredProjectManager implements ProjectManager {
     private final Supplier<LocalDateTime> dateTimeSupplier;
 
     /**
-     * Constructor.
+     * High-water marks of the assigned tasks scans.
+     */
+    private final ScanMarks marks;
+
+    /**
+     * Workers checking the assigned tasks of each contract.
+     */
+    private final Workers workers;
+
+    /**
+     * Registry of the Providers.
+     */
+    private final Providers providers;
+
+    /**
+     * Constructor. Every scan is a full one and the tasks are checked on
+     * the caller's thread.
      * @param id PM's id.
      * @param userId PM's user ID.
      * @param username PM's username.
@@ -128,6 +155,44 @@ public final class StoredProjectManager implements ProjectManager {
             LocalDateTime::now);
     }
 
+    /**
+     * Constructor. The assigned tasks of each contract are checked on the
+     * Workers of the Providers registry.
+     * @param id PM's id.
+     * @param userId PM's user ID.
+     * @param username PM's username.
+     * @param provider The provider's name (Gitlab, Github etc).
+     * @param accessToken API Access token.
+     * @param percentage Commission percentage.
+     * @param storage Self's storage.
+     * @param providers Registry of the Providers.
+     * @param marks High-water marks of the assigned tasks scans.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    public StoredProjectManager(
+        final int id,
+        final String userId,
+        final String username,
+        final String provider,
+        final String accessToken,
+        final double percentage,
+        final Storage storage,
+        final Providers providers,
+        final ScanMarks marks
+    ) {
+        this(id,
+            userId,
+            username,
+            provider,
+            accessToken,
+            percentage,
+            storage,
+            LocalDateTime::now,
+            providers,
+            marks,
+            providers.workers());
+    }
+
     /**
      * Constructor.
      * @param id PM's id.
@@ -149,6 +214,85 @@ public final class StoredProjectManager implements ProjectManager {
         final double percentage,
         final Storage storage,
         final Supplier<LocalDateTime> dateTimeSupplier
+    ) {
+        this(id,
+            userId,
+            username,
+            provider,
+            accessToken,
+            percentage,
+            storage,
+            dateTimeSupplier,
+            new ScanMarks(false, Duration.ZERO),
+            Workers.SAME_THREAD);
+    }
+
+    /**
+     * Constructor.
+     * @param id PM's id.
+     * @param userId PM's user ID.
+     * @param username PM's username.
+     * @param provider The provider's name (Gitlab, Github etc).
+     * @param accessToken API Access token.
+     * @param percentage Commission percentage.
+     * @param storage Self's storage.
+     * @param dateTimeSupplier Current date time. Used in testing deadlines.
+     * @param marks High-water marks of the assigned tasks scans.
+     * @param workers Workers checking the assigned tasks of each contract.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    StoredProjectManager(
+        final int id,
+        final String userId,
+        final String username,
+        final String provider,
+        final String accessToken,
+        final double percentage,
+        final Storage storage,
+        final Supplier<LocalDateTime> dateTimeSupplier,
+        final ScanMarks marks,
+        final Workers workers
+    ) {
+        this(id,
+            userId,
+            username,
+            provider,
+            accessToken,
+            percentage,
+            storage,
+            dateTimeSupplier,
+            Providers.shared(),
+            marks,
+            workers);
+    }
+
+    /**
+     * Constructor.
+     * @param id PM's id.
+     * @param userId PM's user ID.
+     * @param username PM's username.
+     * @param provider The provider's name (Gitlab, Github etc).
+     * @param accessToken API Access token.
+     * @param percentage Commission percentage.
+     * @param storage Self's storage.
+     * @param dateTimeSupplier Current date time. Used in testing deadlines.
+     * @param providers Registry of the Providers.
+     * @param marks High-water marks of the assigned tasks scans.
+     * @param workers Workers checking the assigned tasks of each contract.
+     * @checkstyle ParameterNumber (15 lines)
+     */
+    private StoredProjectManager(
+        final int id,
+        final String userId,
+        final String username,
+        final String provider,
+        final String accessToken,
+        final double percentage,
+        final Storage storage,
+        final Supplier<LocalDateTime> dateTimeSupplier,
+        final Providers providers,
+        final ScanMarks marks,
+        final Workers workers
     ) {
         this.id = id;
         this.userId = userId;
@@ -158,6 +302,9 @@ public final class StoredProjectManager implements ProjectManager {
         this.percentage = percentage;
         this.storage = storage;
         this.dateTimeSupplier = dateTimeSupplier;
+        this.marks = marks;
+        this.workers = workers;
+        this.providers = providers;
     }
 
     @Override
@@ -177,13 +324,9 @@ public final class StoredProjectManager implements ProjectManager {
 
     @Override
     public Provider provider() {
-        final Provider provider;
-        if (this.provider.equalsIgnoreCase(Provider.Names.GITHUB)) {
-            provider = new Github(new PmUser(this), this.storage);
-        } else {
-            provider = new Gitlab(new PmUser(this), this.storage);
-        }
-        return provider.withToken(this.accessToken);
+        return this.providers.provider(
+            this.provider, new PmUser(this), this.storage
+        ).withToken(this.accessToken);
     }
 
     @Override
@@ -355,13 +498,34 @@ public final class StoredProjectManager implements ProjectManager {
         );
         final Tasks projectTasks = project.tasks();
         for(final Task task : projectTasks.unassigned()) {
-            final Issue issue = task.issue();
-            if (issue.isClosed()) {
-                LOG.debug("Issue associated with task #" + issue.issueId()
-                    + " is closed. Removing task...");
-                projectTasks.remove(task);
-                continue;
-            }
+            this.inUnitOfWork(
+                () -> this.checkUnassigned(project, projectTasks, task)
+            );
+        }
+        LOG.debug(
+            "Finished checking the unassigned tasks of project "
+            + project.repoFullName() + " at " + project.provider()
+        );
+    }
+
+    /**
+     * Check an unassigned Task: remove it if its Issue is closed,
+     * assign it otherwise.
+     * @param project Project.
+     * @param projectTasks Tasks of the Project.
+     * @param task Unassigned Task.
+     */
+    private void checkUnassigned(
+        final Project project,
+        final Tasks projectTasks,
+        final Task task
+    ) {
+        final Issue issue = task.issue();
+        if (issue.isClosed()) {
+            LOG.debug("Issue associated with task #" + issue.issueId()
+                + " is closed. Removing task...");
+            projectTasks.remove(task);
+        } else {
             final String issueAssignee = issue.assignee();
             if (issueAssignee != null) {
                 final Contract contract = project.contracts().findById(
@@ -401,10 +565,6 @@ public final class StoredProjectManager implements ProjectManager {
                 this.assignTask(project, task, issue, elected);
             }
         }
-        LOG.debug(
-            "Finished checking the unassigned tasks of project "
-            + project.repoFullName() + " at " + project.provider()
-        );
     }
 
     /**
@@ -464,85 +624,379 @@ public final class StoredProjectManager implements ProjectManager {
             "Checking the assigned tasks of project "
             + project.repoFullName() + " at " + project.provider()
         );
+        final LocalDateTime start = this.dateTimeSupplier.get();
+        final String key = project.provider() + "/" + project.repoFullName();
+        final List<Task> tasks = new ArrayList<>();
+        final List<Contributor> assignees = new ArrayList<>();
         for(final Task task : project.tasks()) {
             final Contributor assignee = task.assignee();
             if(assignee != null) {
-                final Issue issue = task.issue();
-                if(issue.isClosed()) {
-                    LOG.debug(
-                        "Task #" + issue.issueId()
-                        + " of Contributor " + assignee.username()
-                        + " is closed. Invoicing... "
-                    );
-                    final InvoicedTask invoiced = task.contract()
-                        .invoices()
-                        .active()
-                        .register(task, this.commission(task.value()));
-                    if(invoiced != null) {
-                        issue.comments().post(
-                            String.format(
-                                project.language().reply(
-                                    "taskInvoiced.comment"
-                                ),
-                                assignee.username()
-                            )
-                        );
-                        if(issue.assignee() != null) {
-                            issue.unassign(issue.assignee());
-                        }
-                        LOG.debug(
-                            "Task #" + issue.issueId() + " successfully"
-                            + " invoiced and taken out of scope."
-                        );
-                    }
-                } else {
-                    final LocalDateTime now = this.dateTimeSupplier.get();
-                    if (now.until(task.deadline(), ChronoUnit.MINUTES) < 0) {
-                        task.resignations()
-                            .register(task, Resignations.Reason.DEADLINE);
-                        task.unassign();
-                        if(issue.assignee() != null) {
-                            issue.unassign(issue.assignee());
-                        }
-                        issue.comments().post(
-                            String.format(
-                                project.language().reply(
-                                    "taskDeadlineMissed.comment"
-                                ),
-                                assignee.username(),
-                                task.deadline()
-                            )
-                        );
-                    } else {
-                        final int time = Period.between(
-                            task.assignmentDate().toLocalDate(),
-                            task.deadline().toLocalDate()
-                        ).getDays();
-                        final int left = Period.between(
-                            now.toLocalDate(),
-                            task.deadline().toLocalDate()
-                        ).getDays();
-                        if (left <= time / 2) {
-                            issue.comments().post(
-                                String.format(
-                                    project.language().reply(
-                                        "taskDeadlineReminder.comment"
-                                    ),
-                                    assignee.username(),
-                                    task.deadline()
-                                )
+                tasks.add(task);
+                assignees.add(assignee);
+            }
+        }
+        final Map<String, Issue> updated = this.updated(
+            project, tasks, this.marks.since(key)
+        );
+        final List<Task> due = new ArrayList<>();
+        final List<Contributor> dueAssignees = new ArrayList<>();
+        final List<Task> toFetch = new ArrayList<>();
+        for(int idx = 0; idx < tasks.size(); ++idx) {
+            final Task task = tasks.get(idx);
+            if(updated == null) {
+                due.add(task);
+                dueAssignees.add(assignees.get(idx));
+                toFetch.add(task);
+            } else if(updated.containsKey(this.updatedKey(task))) {
+                due.add(task);
+                dueAssignees.add(assignees.get(idx));
+            } else if(this.deadlineWork(task, start)) {
+                due.add(task);
+                dueAssignees.add(assignees.get(idx));
+                toFetch.add(task);
+            }
+        }
+        if(updated != null) {
+            LOG.debug(
+                "Incremental scan: " + due.size() + " out of " + tasks.size()
+                + " assigned tasks need checking."
+            );
+        }
+        final Map<String, Issue> prefetched = this.prefetch(project, toFetch);
+        final Map<String, List<Integer>> contracts = new TreeMap<>();
+        for(int idx = 0; idx < due.size(); ++idx) {
+            contracts.computeIfAbsent(
+                dueAssignees.get(idx).username() + "/" + due.get(idx).role(),
+                contract -> new ArrayList<>()
+            ).add(idx);
+        }
+        final List<CompletableFuture<Void>> checked = new ArrayList<>();
+        for(final List<Integer> contract : contracts.values()) {
+            checked.add(
+                this.workers.run(
+                    project.provider() + "/" + this.id,
+                    () -> {
+                        for(final int idx : contract) {
+                            final Task task = due.get(idx);
+                            this.inUnitOfWork(
+                                () -> {
+                                    Issue issue = null;
+                                    if(updated != null) {
+                                        issue = updated.get(
+                                            this.updatedKey(task)
+                                        );
+                                    }
+                                    if(issue == null) {
+                                        issue = this.issue(task, prefetched);
+                                    }
+                                    this.check(
+                                        project, task,
+                                        dueAssignees.get(idx), issue
+                                    );
+                                }
                             );
                         }
                     }
-                }
+                )
+            );
+        }
+        try {
+            CompletableFuture.allOf(
+                checked.toArray(new CompletableFuture[0])
+            ).join();
+        } catch (final CompletionException ex) {
+            if(ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
             }
+            throw new IllegalStateException(
+                "Could not check the assigned tasks of project "
+                + project.repoFullName(),
+                ex.getCause()
+            );
         }
+        this.marks.mark(
+            key, start.atZone(ZoneId.systemDefault()).toInstant()
+        );
         LOG.debug(
             "Finished checking the assigned tasks of project "
             + project.repoFullName() + " at " + project.provider()
         );
     }
 
+    /**
+     * Check a Task in its own unit of work. The unit of work is committed
+     * even if the check fails: the Provider calls made along with its
+     * mutations (comments, assignments etc) can't be rolled back, so
+     * neither are the mutations. If the Storage doesn't begin a unit of
+     * work (e.g. a mock, which returns null), the mutations are written
+     * immediately.
+     * @param check Check of the Task.
+     */
+    private void inUnitOfWork(final Runnable check) {
+        UnitOfWork begun = this.storage.begin();
+        if(begun == null) {
+            begun = new UnitOfWork.Immediate();
+        }
+        try (UnitOfWork work = begun) {
+            try {
+                check.run();
+            } finally {
+                work.commit();
+            }
+        }
+    }
+
+    /**
+     * Check an assigned Task: invoice it if its Issue is closed,
+     * take it away if the deadline was missed or remind the
+     * assignee of the deadline.
+     * @param project Project.
+     * @param task Assigned Task.
+     * @param assignee Assignee of the Task.
+     * @param issue Issue of the Task.
+     */
+    private void check(
+        final Project project,
+        final Task task,
+        final Contributor assignee,
+        final Issue issue
+    ) {
+        if(issue.isClosed()) {
+            LOG.debug(
+                "Task #" + issue.issueId()
+                + " of Contributor " + assignee.username()
+                + " is closed. Invoicing... "
+            );
+            final InvoicedTask invoiced = task.contract()
+                .invoices()
+                .active()
+                .register(task, this.commission(task.value()));
+            if(invoiced != null) {
+                issue.comments().post(
+                    String.format(
+                        project.language().reply(
+                            "taskInvoiced.comment"
+                        ),
+                        assignee.username()
+                    )
+                );
+                if(issue.assignee() != null) {
+                    issue.unassign(issue.assignee());
+                }
+                LOG.debug(
+                    "Task #" + issue.issueId() + " successfully"
+                    + " invoiced and taken out of scope."
+                );
+            }
+        } else {
+            final LocalDateTime now = this.dateTimeSupplier.get();
+            if (now.until(task.deadline(), ChronoUnit.MINUTES) < 0) {
+                task.resignations()
+                    .register(task, Resignations.Reason.DEADLINE);
+                task.unassign();
+                if(issue.assignee() != null) {
+                    issue.unassign(issue.assignee());
+                }
+                issue.comments().post(
+                    String.format(
+                        project.language().reply(
+                            "taskDeadlineMissed.comment"
+                        ),
+                        assignee.username(),
+                        task.deadline()
+                    )
+                );
+            } else {
+                final int time = Period.between(
+                    task.assignmentDate().toLocalDate(),
+                    task.deadline().toLocalDate()
+                ).getDays();
+                final int left = Period.between(
+                    now.toLocalDate(),
+                    task.deadline().toLocalDate()
+                ).getDays();
+                if (left <= time / 2) {
+                    issue.comments().post(
+                        String.format(
+                            project.language().reply(
+                                "taskDeadlineReminder.comment"
+                            ),
+                            assignee.username(),
+                            task.deadline()
+                        )
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * The Issues of the Project which were updated since the last
+     * complete scan. Github lists the PullRequests together with the
+     * Issues, so they are picked out of the same listing; the other
+     * Providers list them separately.
+     * @param project Project.
+     * @param tasks Assigned Tasks.
+     * @param since Start of the last complete scan, null if there is none.
+     * @return Updated Issues and PullRequests (see
+     *  {@link #updatedKey(Task)}) or null if every Task should be checked.
+     */
+    private Map<String, Issue> updated(
+        final Project project,
+        final List<Task> tasks,
+        final Instant since
+    ) {
+        Map<String, Issue> updated = null;
+        if(since != null && !tasks.isEmpty()) {
+            final String repoFullName = project.repoFullName();
+            try {
+                final Repo repo = this.provider().repo(
+                    repoFullName.substring(0, repoFullName.indexOf("/")),
+                    repoFullName.substring(repoFullName.indexOf("/") + 1)
+                );
+                updated = this.updated(repo.issues(), null, since);
+                if(!Provider.Names.GITHUB.equalsIgnoreCase(project.provider())
+                    && tasks.stream().anyMatch(Task::isPullRequest)) {
+                    updated = this.updated(
+                        repo.pullRequests(), updated, since
+                    );
+                }
+            } catch (final IllegalStateException ex) {
+                LOG.warn(
+                    "Could not fetch the updated Issues of " + repoFullName
+                    + ", checking all the Tasks.", ex
+                );
+                updated = null;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Add the Issues updated since the given moment to the ones we have.
+     * They are keyed like in {@link #updatedKey(Task)}.
+     * @param issues Issues or PullRequests.
+     * @param found Updated Issues found so far (null at the beginning).
+     * @param since Since when.
+     * @return All the updated Issues or null if the Provider cannot
+     *  list them.
+     */
+    private Map<String, Issue> updated(
+        final Issues issues,
+        final Map<String, Issue> found,
+        final Instant since
+    ) {
+        final Map<String, Issue> listed = issues.updatedSince(since);
+        Map<String, Issue> updated = null;
+        if(listed != null) {
+            updated = new HashMap<>();
+            if(found != null) {
+                updated.putAll(found);
+            }
+            for(final Issue issue : listed.values()) {
+                final String prefix;
+                if(issue.isPullRequest()) {
+                    prefix = "pull#";
+                } else {
+                    prefix = "issue#";
+                }
+                updated.put(prefix + issue.issueId(), issue);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Key of the Task's Issue in the map of updated Issues. Issues and
+     * PullRequests might have the same IDs (e.g. in Gitlab).
+     * @param task Task.
+     * @return String.
+     */
+    private String updatedKey(final Task task) {
+        final String key;
+        if(task.isPullRequest()) {
+            key = "pull#" + task.issueId();
+        } else {
+            key = "issue#" + task.issueId();
+        }
+        return key;
+    }
+
+    /**
+     * Does the Task have deadline-driven work (missed deadline or
+     * reminder), even if its Issue did not change?
+     * @param task Task.
+     * @param now Current time.
+     * @return True or false.
+     */
+    private boolean deadlineWork(final Task task, final LocalDateTime now) {
+        final boolean work;
+        if (now.until(task.deadline(), ChronoUnit.MINUTES) < 0) {
+            work = true;
+        } else {
+            final int time = Period.between(
+                task.assignmentDate().toLocalDate(),
+                task.deadline().toLocalDate()
+            ).getDays();
+            final int left = Period.between(
+                now.toLocalDate(),
+                task.deadline().toLocalDate()
+            ).getDays();
+            work = left <= time / 2;
+        }
+        return work;
+    }
+
+    /**
+     * Fetch the Issues of the given Tasks at once, if the Provider supports
+     * it, so we don't read them one by one while checking the Tasks.
+     * @param project Project.
+     * @param tasks Tasks.
+     * @return Prefetched Issues, by ID (may be empty or incomplete).
+     */
+    private Map<String, Issue> prefetch(
+        final Project project,
+        final List<Task> tasks
+    ) {
+        Map<String, Issue> prefetched = Map.of();
+        if(tasks.size() > 1) {
+            final String repoFullName = project.repoFullName();
+            final List<String> ids = new ArrayList<>();
+            for(final Task task : tasks) {
+                ids.add(task.issueId());
+            }
+            try {
+                prefetched = this.provider().repo(
+                    repoFullName.substring(0, repoFullName.indexOf("/")),
+                    repoFullName.substring(repoFullName.indexOf("/") + 1)
+                ).issues().prefetch(ids);
+            } catch (final IllegalStateException ex) {
+                LOG.warn(
+                    "Could not prefetch the Issues of " + repoFullName
+                    + ", they will be read one by one.", ex
+                );
+            }
+        }
+        return prefetched;
+    }
+
+    /**
+     * The Issue of a Task, prefetched if possible.
+     * @param task Task.
+     * @param prefetched Prefetched Issues, by ID.
+     * @return Issue.
+     */
+    private Issue issue(final Task task, final Map<String, Issue> prefetched) {
+        Issue issue = null;
+        if(!prefetched.isEmpty()) {
+            issue = prefetched.get(task.issueId());
+        }
+        if(issue == null) {
+            issue = task.issue();
+        }
+        return issue;
+    }
+
     @Override
     public void comment(final Event event) {
         final Comment comment = event.comment();
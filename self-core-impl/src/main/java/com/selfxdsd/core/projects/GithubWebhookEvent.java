@@ -30,7 +30,10 @@ import java.io.StringReader;
 
 /**
  * Webhook event coming from Github. This is the event which triggers
- * everything (conversations, steps etc).
+ * everything (conversations, steps etc).<br><br>
+ *
+ * The type, Issue, Comment and Commit are materialised lazily and at most
+ * once, since the Steps ask for them many times while handling the event.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.61
@@ -52,6 +55,31 @@ final class GithubWebhookEvent implements Event {
      */
     private final JsonObject event;
 
+    /**
+     * Resolved type, cached.
+     */
+    private String resolved;
+
+    /**
+     * Repo where the event happened, cached.
+     */
+    private Repo repo;
+
+    /**
+     * Issue or PR of the event, cached.
+     */
+    private Issue issue;
+
+    /**
+     * Comment of the event, cached.
+     */
+    private Comment comment;
+
+    /**
+     * Commit of the event, cached.
+     */
+    private Commit commit;
+
     /**
      * Ctor.
      * @param project Project where the event happened.
@@ -72,66 +100,78 @@ final class GithubWebhookEvent implements Event {
 
     @Override
     public String type() {
-        final String resolved;
-        if ("issues".equalsIgnoreCase(type)
-            || "pull_request".equalsIgnoreCase(type)) {
-            final String act = event.getString("action");
-            if ("opened".equalsIgnoreCase(act)) {
-                resolved = Type.NEW_ISSUE;
-            } else if ("reopened".equalsIgnoreCase(act)) {
-                resolved = Type.REOPENED_ISSUE;
+        if(this.resolved == null) {
+            if ("issues".equalsIgnoreCase(this.type)
+                || "pull_request".equalsIgnoreCase(this.type)) {
+                final String act = this.event.getString("action");
+                if ("opened".equalsIgnoreCase(act)) {
+                    this.resolved = Type.NEW_ISSUE;
+                } else if ("reopened".equalsIgnoreCase(act)) {
+                    this.resolved = Type.REOPENED_ISSUE;
+                } else {
+                    this.resolved = this.type;
+                }
             } else {
-                resolved = type;
+                this.resolved = this.type;
             }
-        } else {
-            resolved = type;
         }
-        return resolved;
+        return this.resolved;
     }
 
     @Override
     public Issue issue() {
-        final JsonObject jsn;
-        if ("pull_request".equalsIgnoreCase(type)) {
-            jsn = this.event.getJsonObject("pull_request");
-        } else {
-            jsn = this.event.getJsonObject("issue");
+        if(this.issue == null) {
+            final JsonObject jsn;
+            if ("pull_request".equalsIgnoreCase(this.type)) {
+                jsn = this.event.getJsonObject("pull_request");
+            } else {
+                jsn = this.event.getJsonObject("issue");
+            }
+            this.issue = this.repo().issues().received(jsn);
         }
-        final String repoFullName = project.repoFullName();
-        return this.project.projectManager().provider().repo(
-            repoFullName.split("/")[0],
-            repoFullName.split("/")[1]
-        ).issues().received(jsn);
+        return this.issue;
     }
 
     @Override
     public Comment comment() {
-        return this.issue().comments().received(
-            this.event.getJsonObject("comment")
-        );
+        if(this.comment == null) {
+            this.comment = this.issue().comments().received(
+                this.event.getJsonObject("comment")
+            );
+        }
+        return this.comment;
     }
 
     @Override
     public Commit commit() {
-        final Commit commit;
-        if("push".equalsIgnoreCase(this.type)) {
+        if(this.commit == null && "push".equalsIgnoreCase(this.type)) {
             final JsonObject latest = this.event.getJsonArray(
                 "commits"
             ).getJsonObject(0);
-            final String repoFullName = this.project.repoFullName();
-            commit = this.project.projectManager().provider().repo(
-                repoFullName.split("/")[0],
-                repoFullName.split("/")[1]
-            ).commits().getCommit(latest.getString("id"));
-        } else {
-            commit = null;
+            this.commit = this.repo().commits().getCommit(
+                latest.getString("id")
+            );
         }
-        return commit;
+        return this.commit;
     }
 
     @Override
     public Project project() {
-        return project;
+        return this.project;
     }
 
+    /**
+     * The Repo where the event happened.
+     * @return Repo.
+     */
+    private Repo repo() {
+        if(this.repo == null) {
+            final String repoFullName = this.project.repoFullName();
+            this.repo = this.project.projectManager().provider().repo(
+                repoFullName.split("/")[0],
+                repoFullName.split("/")[1]
+            );
+        }
+        return this.repo;
+    }
 }
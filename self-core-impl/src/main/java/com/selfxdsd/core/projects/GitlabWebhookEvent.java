@@ -30,7 +30,10 @@ import java.io.StringReader;
 
 /**
  * Webhook event coming from GitLab. This is the event which triggers
- * everything (conversations, steps etc).
+ * everything (conversations, steps etc).<br><br>
+ *
+ * The type, Issue, Comment and Commit are materialised lazily and at most
+ * once, since the Steps ask for them many times while handling the event.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.61
@@ -53,12 +56,32 @@ final class GitlabWebhookEvent implements Event {
      */
     private final JsonObject event;
 
+    /**
+     * Resolved type, cached.
+     */
+    private String resolved;
+
+    /**
+     * Repo where the event happened, cached.
+     */
+    private Repo repo;
+
     /**
      * Cached Issue. We need this until we will be able to "receive"
      * Issues from this event via GitlabIssues.receive (ticket self-core/961).
      */
     private Issue issue;
 
+    /**
+     * Comment of the event, cached.
+     */
+    private Comment comment;
+
+    /**
+     * Commit of the event, cached.
+     */
+    private Commit commit;
+
     /**
      * Ctor.
      * @param project Project where the event happened.
@@ -79,33 +102,10 @@ final class GitlabWebhookEvent implements Event {
 
     @Override
     public String type() {
-        final String resolved;
-        if("Issue Hook".equalsIgnoreCase(this.type)
-            || "Merge Request Hook".equalsIgnoreCase(this.type)) {
-            final String action = this.event.getJsonObject(
-                "object_attributes"
-            ).getString("action", "");
-            if("open".equalsIgnoreCase(action)) {
-                resolved = Type.NEW_ISSUE;
-            } else if ("reopen".equalsIgnoreCase(action)) {
-                resolved = Type.REOPENED_ISSUE;
-            } else {
-                resolved = this.type;
-            }
-        } else if("Note Hook".equalsIgnoreCase(this.type)) {
-            final String noteableType = this.event.getJsonObject(
-                "object_attributes"
-            ).getString("noteable_type", "");
-            if("Issue".equalsIgnoreCase(noteableType)
-                || "MergeRequest".equalsIgnoreCase(noteableType)) {
-                resolved = Type.ISSUE_COMMENT;
-            } else {
-                resolved = this.type;
-            }
-        } else {
-            resolved = this.type;
+        if(this.resolved == null) {
+            this.resolved = this.resolveType();
         }
-        return resolved;
+        return this.resolved;
     }
 
     @Override
@@ -144,17 +144,10 @@ final class GitlabWebhookEvent implements Event {
                 iid = null;
             }
             if (iid != null) {
-                final String repoFullName = this.project.repoFullName();
                 if (mergeRequest) {
-                    this.issue = this.project.projectManager().provider().repo(
-                        repoFullName.split("/")[0],
-                        repoFullName.split("/")[1]
-                    ).pullRequests().getById(iid);
+                    this.issue = this.repo().pullRequests().getById(iid);
                 } else {
-                    this.issue = this.project.projectManager().provider().repo(
-                        repoFullName.split("/")[0],
-                        repoFullName.split("/")[1]
-                    ).issues().getById(iid);
+                    this.issue = this.repo().issues().getById(iid);
                 }
             } else {
                 this.issue = null;
@@ -165,6 +158,70 @@ final class GitlabWebhookEvent implements Event {
 
     @Override
     public Comment comment() {
+        if(this.comment == null) {
+            this.comment = this.receiveComment();
+        }
+        return this.comment;
+    }
+
+    @Override
+    public Commit commit() {
+        if(this.commit == null && "Push Hook".equalsIgnoreCase(this.type)) {
+            final JsonObject latest = this.event.getJsonArray(
+                "commits"
+            ).getJsonObject(0);
+            this.commit = this.repo().commits().getCommit(
+                latest.getString("id")
+            );
+        }
+        return this.commit;
+    }
+
+    @Override
+    public Project project() {
+        return this.project;
+    }
+
+    /**
+     * Resolve the type of this event.
+     * @return String.
+     */
+    private String resolveType() {
+        final String resolvedType;
+        if("Issue Hook".equalsIgnoreCase(this.type)
+            || "Merge Request Hook".equalsIgnoreCase(this.type)) {
+            final String action = this.event.getJsonObject(
+                "object_attributes"
+            ).getString("action", "");
+            if("open".equalsIgnoreCase(action)) {
+                resolvedType = Type.NEW_ISSUE;
+            } else if ("reopen".equalsIgnoreCase(action)) {
+                resolvedType = Type.REOPENED_ISSUE;
+            } else {
+                resolvedType = this.type;
+            }
+        } else if("Note Hook".equalsIgnoreCase(this.type)) {
+            final String noteableType = this.event.getJsonObject(
+                "object_attributes"
+            ).getString("noteable_type", "");
+            if("Issue".equalsIgnoreCase(noteableType)
+                || "MergeRequest".equalsIgnoreCase(noteableType)) {
+                resolvedType = Type.ISSUE_COMMENT;
+            } else {
+                resolvedType = this.type;
+            }
+        } else {
+            resolvedType = this.type;
+        }
+        return resolvedType;
+    }
+
+    /**
+     * Receive the Comment of this event, if it's a comment (note) on
+     * an Issue or Merge Request.
+     * @return Comment or null.
+     */
+    private Comment receiveComment() {
         final JsonObject jsonComment;
         if("Note Hook".equalsIgnoreCase(this.type)) {
             final JsonObject attributes = this.event.getJsonObject(
@@ -193,35 +250,27 @@ final class GitlabWebhookEvent implements Event {
         } else {
             jsonComment = null;
         }
-        final Comment comment;
+        final Comment received;
         if(jsonComment != null) {
-            comment = this.issue().comments().received(jsonComment);
+            received = this.issue().comments().received(jsonComment);
         } else {
-            comment = null;
+            received = null;
         }
-        return comment;
+        return received;
     }
 
-    @Override
-    public Commit commit() {
-        final Commit commit;
-        if("Push Hook".equalsIgnoreCase(this.type)) {
-            final JsonObject latest = this.event.getJsonArray(
-                "commits"
-            ).getJsonObject(0);
+    /**
+     * The Repo where the event happened.
+     * @return Repo.
+     */
+    private Repo repo() {
+        if(this.repo == null) {
             final String repoFullName = this.project.repoFullName();
-            commit = this.project.projectManager().provider().repo(
+            this.repo = this.project.projectManager().provider().repo(
                 repoFullName.split("/")[0],
                 repoFullName.split("/")[1]
-            ).commits().getCommit(latest.getString("id"));
-        } else {
-            commit = null;
+            );
         }
-        return commit;
-    }
-
-    @Override
-    public Project project() {
-        return this.project;
+        return this.repo;
     }
 }
\ No newline at end of file
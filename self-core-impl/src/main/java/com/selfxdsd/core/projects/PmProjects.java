@@ -159,6 +159,16 @@ public final class PmProjects extends BasePaged implements Projects {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The projects are counted without iterating over them.
+     */
+    @Override
+    public int count() {
+        return (int) this.projects.get().count();
+    }
+
     @Override
     public Iterator<Project> iterator() {
         final Page page = super.current();
@@ -26,6 +26,8 @@ import com.selfxdsd.api.*;
 import com.selfxdsd.api.exceptions.WalletAlreadyExistsException;
 import com.selfxdsd.api.storage.Storage;
 import com.selfxdsd.core.Env;
+import com.selfxdsd.core.KnownLabels;
+import com.selfxdsd.core.Providers;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Customer;
@@ -84,6 +86,11 @@ public final class StoredProject implements Project {
      */
     private final Storage storage;
 
+    /**
+     * Registry of the Providers.
+     */
+    private final Providers providers;
+
     /**
      * Constructor.
      * @param owner Owner of the project/repo.
@@ -99,12 +106,41 @@ public final class StoredProject implements Project {
         final String webHookToken,
         final ProjectManager projectManager,
         final Storage storage
+    ) {
+        this(
+            owner,
+            repoFullName,
+            webHookToken,
+            projectManager,
+            storage,
+            Providers.shared()
+        );
+    }
+
+    /**
+     * Constructor.
+     * @param owner Owner of the project/repo.
+     * @param repoFullName Repo full name.
+     * @param webHookToken Webhook token.
+     * @param projectManager Manager in charge.
+     * @param storage Storage of Self.
+     * @param providers Registry of the Providers.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    public StoredProject(
+        final User owner,
+        final String repoFullName,
+        final String webHookToken,
+        final ProjectManager projectManager,
+        final Storage storage,
+        final Providers providers
     ) {
         this.owner = owner;
         this.repoFullName = repoFullName;
         this.webHookToken = webHookToken;
         this.projectManager = projectManager;
         this.storage = storage;
+        this.providers = providers;
     }
 
     @Override
@@ -171,30 +207,77 @@ public final class StoredProject implements Project {
         return new English();
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The tasks scans are skipped while the Provider is unavailable
+     * (its circuit is open). They are triggered periodically,
+     * so they will simply run at the next scan.<br><br>
+     *
+     * A label event only makes us forget the repo's known labels
+     * (see {@link KnownLabels}) in the registry of the Providers.<br><br>
+     *
+     * The Event is handled on the Workers of the registry. If they are
+     * concurrent (see {@link Env#CONCURRENT_PROCESSING}), this method
+     * returns right away and a failure of the handling is only logged.
+     */
     @Override
     public void resolve(final Event event) {
+        this.providers.workers().handle(
+            this, () -> this.dispatch(event)
+        ).exceptionally(
+            ex -> {
+                LOG.error(
+                    "Could not resolve " + event.type() + " of project "
+                    + this.repoFullName + ".",
+                    ex
+                );
+                return null;
+            }
+        );
+    }
+
+    /**
+     * Dispatch the Event to the PM.
+     * @param event Event.
+     */
+    private void dispatch(final Event event) {
         final String type = event.type();
-        switch (type) {
-            case Event.Type.ACTIVATE:
-                this.projectManager.newProject(event);
-                break;
-            case Event.Type.NEW_ISSUE:
-                this.projectManager.newIssue(event);
-                break;
-            case Event.Type.REOPENED_ISSUE:
-                this.projectManager.reopenedIssue(event);
-                break;
-            case Event.Type.UNASSIGNED_TASKS:
-                this.projectManager.unassignedTasks(event);
-                break;
-            case Event.Type.ASSIGNED_TASKS:
-                this.projectManager.assignedTasks(event);
-                break;
-            case Event.Type.ISSUE_COMMENT:
-                this.projectManager.comment(event);
-                break;
-            default:
-                break;
+        if((Event.Type.UNASSIGNED_TASKS.equals(type)
+            || Event.Type.ASSIGNED_TASKS.equals(type))
+            && !this.providers.breakers().available(this.provider())) {
+            LOG.warn(
+                "Provider " + this.provider() + " is unavailable, deferring "
+                + type + " of project " + this.repoFullName + "."
+            );
+        } else {
+            switch (type) {
+                case Event.Type.ACTIVATE:
+                    this.projectManager.newProject(event);
+                    break;
+                case Event.Type.NEW_ISSUE:
+                    this.projectManager.newIssue(event);
+                    break;
+                case Event.Type.REOPENED_ISSUE:
+                    this.projectManager.reopenedIssue(event);
+                    break;
+                case Event.Type.UNASSIGNED_TASKS:
+                    this.projectManager.unassignedTasks(event);
+                    break;
+                case Event.Type.ASSIGNED_TASKS:
+                    this.projectManager.assignedTasks(event);
+                    break;
+                case Event.Type.ISSUE_COMMENT:
+                    this.projectManager.comment(event);
+                    break;
+                case Event.Type.LABEL:
+                    this.providers.labelsChanged(
+                        this.provider(), this.repoFullName
+                    );
+                    break;
+                default:
+                    break;
+            }
         }
     }
 
@@ -24,6 +24,8 @@ package com.selfxdsd.core.projects;
 
 import com.selfxdsd.api.*;
 import com.selfxdsd.api.storage.Paged;
+import com.selfxdsd.api.storage.Query;
+import com.selfxdsd.api.storage.Queryable;
 import com.selfxdsd.api.storage.Storage;
 import com.selfxdsd.core.BasePaged;
 
@@ -51,7 +53,7 @@ public final class UserProjects extends BasePaged implements Projects {
     /**
      * The projects.
      */
-    private final Supplier<Stream<Project>> projects;
+    private final Queryable<Project> projects;
 
     /**
      * Self Storage.
@@ -85,7 +87,23 @@ public final class UserProjects extends BasePaged implements Projects {
         final Storage storage,
         final Page page
     ) {
-        super(page, () -> (int) projects.get().count());
+        this(user, new Queryable.InMemory<>(projects), storage, page);
+    }
+
+    /**
+     * Constructor. The paging is pushed down to the Storage.
+     * @param user The user.
+     * @param projects The user's projects.
+     * @param storage Self Storage.
+     * @param page Current page.
+     */
+    public UserProjects(
+        final User user,
+        final Queryable<Project> projects,
+        final Storage storage,
+        final Page page
+    ) {
+        super(page, () -> (int) projects.count(Query.all()));
         this.user = user;
         this.projects = projects;
         this.storage = storage;
@@ -107,9 +125,8 @@ public final class UserProjects extends BasePaged implements Projects {
     @Override
     public Projects assignedTo(final int projectManagerId) {
         final Page page = super.current();
-        final Supplier<Stream<Project>> assigned = () -> this.projects.get()
-            .skip((page.getNumber() - 1) * page.getSize())
-            .limit(page.getSize())
+        final Supplier<Stream<Project>> assigned = () -> this.projects
+            .find(Query.<Project>all().page(page))
             .filter(p -> p.projectManager().id() == projectManagerId);
         return new PmProjects(projectManagerId, assigned, this.storage);
     }
@@ -174,12 +191,19 @@ public final class UserProjects extends BasePaged implements Projects {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The projects are counted by the Storage.
+     */
+    @Override
+    public int count() {
+        return (int) this.projects.count(Query.all());
+    }
+
     @Override
     public Iterator<Project> iterator() {
         final Page page = super.current();
-        return this.projects.get()
-            .skip((page.getNumber() - 1) * page.getSize())
-            .limit(page.getSize())
-            .iterator();
+        return this.projects.find(Query.<Project>all().page(page)).iterator();
     }
 }
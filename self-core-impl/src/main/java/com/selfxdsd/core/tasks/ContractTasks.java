@@ -140,6 +140,16 @@ public final class ContractTasks implements Tasks {
         return this.storage.tasks().remove(task);
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The tasks are counted without iterating over them.
+     */
+    @Override
+    public int count() {
+        return (int) this.tasks.get().count();
+    }
+
     @Override
     public Iterator<Task> iterator() {
         return this.tasks.get().iterator();
@@ -0,0 +1,506 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core.tasks;
+
+import com.selfxdsd.api.Contract;
+import com.selfxdsd.api.Contributor;
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Task;
+import com.selfxdsd.api.Tasks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Tasks indexed in memory, by pre-normalised keys. The original Tasks are
+ * read once, when first needed, and then {@link #getById} is a hash lookup
+ * instead of a scan of all the tasks. There are also secondary indexes by
+ * assignee and contract: once the index is built,
+ * {@link #ofContributor(String, String)}, {@link #ofContract(Contract.Id)}
+ * and {@link #unassigned()} are read from them, without reading the
+ * original Tasks again.<br><br>
+ *
+ * The index is a snapshot: the changes made through this object are
+ * reflected in it, but not the changes made elsewhere (e.g. via
+ * {@link Task#assign(Contributor)}). Use it where the same Tasks are
+ * looked up many times, not as a long-lived cache.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class IndexedTasks implements Tasks {
+
+    /**
+     * Original Tasks, which do the validations and the writes.
+     */
+    private final Tasks origin;
+
+    /**
+     * Where the index is read from.
+     */
+    private final Supplier<Stream<Task>> source;
+
+    /**
+     * The index, built when first needed.
+     */
+    private Index index;
+
+    /**
+     * Ctor.
+     * @param origin Original Tasks.
+     */
+    public IndexedTasks(final Tasks origin) {
+        this(
+            origin,
+            () -> StreamSupport.stream(origin.spliterator(), false)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original Tasks, which do the validations and the writes.
+     * @param source Where the index is read from.
+     */
+    IndexedTasks(final Tasks origin, final Supplier<Stream<Task>> source) {
+        this.origin = origin;
+        this.source = source;
+    }
+
+    @Override
+    public Task getById(
+        final String issueId,
+        final String repoFullName,
+        final String provider,
+        final boolean isPullRequest
+    ) {
+        return this.index().get(
+            IndexedTasks.key(issueId, repoFullName, provider, isPullRequest)
+        );
+    }
+
+    @Override
+    public Task register(final Issue issue) {
+        final Task registered = this.origin.register(issue);
+        final Index idx = this.built();
+        if(idx != null) {
+            idx.put(registered);
+        }
+        return registered;
+    }
+
+    @Override
+    public Task assign(
+        final Task task,
+        final Contract contract,
+        final int days
+    ) {
+        final Task assigned = this.origin.assign(task, contract, days);
+        final Index idx = this.built();
+        if(idx != null) {
+            idx.put(assigned);
+        }
+        return assigned;
+    }
+
+    @Override
+    public Task unassign(final Task task) {
+        final Task unassigned = this.origin.unassign(task);
+        final Index idx = this.built();
+        if(idx != null) {
+            idx.put(unassigned);
+        }
+        return unassigned;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * If this index is already built, the returned Tasks are read from it.
+     * Otherwise, they are read from the original Tasks of the Project.
+     */
+    @Override
+    public Tasks ofProject(
+        final String repoFullName,
+        final String repoProvider
+    ) {
+        final Tasks ofProject = this.origin.ofProject(
+            repoFullName, repoProvider
+        );
+        final Index idx = this.built();
+        final Tasks tasks;
+        if(idx == null) {
+            tasks = new IndexedTasks(ofProject);
+        } else {
+            final String project = IndexedTasks.key(
+                repoFullName, repoProvider
+            );
+            tasks = new IndexedTasks(
+                ofProject,
+                () -> idx.all().stream().filter(
+                    task -> IndexedTasks.key(
+                        task.project().repoFullName(),
+                        task.project().provider()
+                    ).equals(project)
+                )
+            );
+        }
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * If this index is already built, the returned Tasks are read from
+     * its assignee index. Otherwise, they are read from the original
+     * Tasks of the Contributor.
+     */
+    @Override
+    public Tasks ofContributor(final String username, final String provider) {
+        final Tasks ofContributor = this.origin.ofContributor(
+            username, provider
+        );
+        final Index idx = this.built();
+        final Tasks tasks;
+        if(idx == null) {
+            tasks = new IndexedTasks(ofContributor);
+        } else {
+            final String assignee = IndexedTasks.key(username, provider);
+            tasks = new IndexedTasks(
+                ofContributor,
+                () -> idx.assigned(assignee).stream()
+            );
+        }
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * If this index is already built, the returned Tasks are read from
+     * its contract index. Otherwise, they are read from the original
+     * Tasks of the Contract.
+     */
+    @Override
+    public Tasks ofContract(final Contract.Id id) {
+        final Tasks ofContract = this.origin.ofContract(id);
+        final Index idx = this.built();
+        final Tasks tasks;
+        if(idx == null) {
+            tasks = new IndexedTasks(ofContract);
+        } else {
+            final String contract = IndexedTasks.key(
+                IndexedTasks.key(id.getRepoFullName(), id.getProvider()),
+                IndexedTasks.key(id.getContributorUsername(), id.getRole())
+            );
+            tasks = new IndexedTasks(
+                ofContract,
+                () -> idx.contracted(contract).stream()
+            );
+        }
+        return tasks;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * If this index is already built, the returned Tasks are read from it.
+     * Otherwise, they are read from the original unassigned Tasks.
+     */
+    @Override
+    public Tasks unassigned() {
+        final Tasks unassigned = this.origin.unassigned();
+        final Index idx = this.built();
+        final Tasks tasks;
+        if(idx == null) {
+            tasks = new IndexedTasks(unassigned);
+        } else {
+            tasks = new IndexedTasks(
+                unassigned,
+                () -> idx.unassigned().stream()
+            );
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean remove(final Task task) {
+        final boolean removed = this.origin.remove(task);
+        final Index idx = this.built();
+        if(removed && idx != null) {
+            idx.remove(task);
+        }
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Answered by the index if it is built, by the origin otherwise.
+     * @return Number of Tasks.
+     */
+    @Override
+    public int count() {
+        final Index idx = this.built();
+        final int count;
+        if(idx == null) {
+            count = this.origin.count();
+        } else {
+            count = idx.size();
+        }
+        return count;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return this.index().all().iterator();
+    }
+
+    /**
+     * The index, if it was built already.
+     * @return Index or null.
+     */
+    private synchronized Index built() {
+        return this.index;
+    }
+
+    /**
+     * The index, built on first use.
+     * @return Index.
+     */
+    private synchronized Index index() {
+        if(this.index == null) {
+            this.index = new Index(this.source.get());
+        }
+        return this.index;
+    }
+
+    /**
+     * Key of a Task.
+     * @param issueId Issue ID.
+     * @param repoFullName Repo full name.
+     * @param provider Provider.
+     * @param isPullRequest Is it a PR?
+     * @return String.
+     */
+    private static String key(
+        final String issueId,
+        final String repoFullName,
+        final String provider,
+        final boolean isPullRequest
+    ) {
+        return IndexedTasks.key(
+            IndexedTasks.key(issueId, repoFullName),
+            IndexedTasks.key(provider, String.valueOf(isPullRequest))
+        );
+    }
+
+    /**
+     * Normalised key made of two parts.
+     * @param first First part.
+     * @param second Second part.
+     * @return String.
+     */
+    private static String key(final String first, final String second) {
+        return first.toLowerCase(Locale.ENGLISH) + "\n"
+            + second.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Key of the given Task.
+     * @param task Task.
+     * @return String.
+     */
+    private static String key(final Task task) {
+        return IndexedTasks.key(
+            task.issueId(),
+            task.project().repoFullName(),
+            task.project().provider(),
+            task.isPullRequest()
+        );
+    }
+
+    /**
+     * Index of some Tasks.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    private static final class Index {
+
+        /**
+         * Tasks by key, in the original order.
+         */
+        private final Map<String, Task> tasks;
+
+        /**
+         * Assigned tasks by assignee (username and provider). Derived from
+         * the tasks when first needed after a change.
+         */
+        private Map<String, List<Task>> assignees;
+
+        /**
+         * Assigned tasks by contract (project, username and role). Derived
+         * from the tasks when first needed after a change.
+         */
+        private Map<String, List<Task>> contracts;
+
+        /**
+         * Ctor.
+         * @param tasks Tasks to index.
+         */
+        Index(final Stream<Task> tasks) {
+            this.tasks = tasks.collect(
+                Collectors.toMap(
+                    IndexedTasks::key,
+                    task -> task,
+                    (first, second) -> first,
+                    LinkedHashMap::new
+                )
+            );
+        }
+
+        /**
+         * Task by key.
+         * @param key Key.
+         * @return Task or null.
+         */
+        synchronized Task get(final String key) {
+            return this.tasks.get(key);
+        }
+
+        /**
+         * Add or replace a Task.
+         * @param task Task.
+         */
+        synchronized void put(final Task task) {
+            this.tasks.put(IndexedTasks.key(task), task);
+            this.assignees = null;
+            this.contracts = null;
+        }
+
+        /**
+         * Remove a Task.
+         * @param task Task.
+         */
+        synchronized void remove(final Task task) {
+            this.tasks.remove(IndexedTasks.key(task));
+            this.assignees = null;
+            this.contracts = null;
+        }
+
+        /**
+         * Number of indexed Tasks.
+         * @return Size.
+         */
+        synchronized int size() {
+            return this.tasks.size();
+        }
+
+        /**
+         * All the Tasks.
+         * @return List.
+         */
+        synchronized List<Task> all() {
+            return new ArrayList<>(this.tasks.values());
+        }
+
+        /**
+         * Tasks of an assignee.
+         * @param assignee Assignee key (username and provider).
+         * @return List.
+         */
+        synchronized List<Task> assigned(final String assignee) {
+            this.derive();
+            return this.assignees.getOrDefault(assignee, List.of());
+        }
+
+        /**
+         * Tasks of a contract.
+         * @param contract Contract key (project, username and role).
+         * @return List.
+         */
+        synchronized List<Task> contracted(final String contract) {
+            this.derive();
+            return this.contracts.getOrDefault(contract, List.of());
+        }
+
+        /**
+         * Tasks without an assignee.
+         * @return List.
+         */
+        synchronized List<Task> unassigned() {
+            this.derive();
+            return this.assignees.getOrDefault("", List.of());
+        }
+
+        /**
+         * Derive the secondary indexes, if they are not up to date.
+         * The unassigned tasks are kept under the empty assignee key.
+         */
+        private void derive() {
+            if(this.assignees == null || this.contracts == null) {
+                final Map<String, List<Task>> byAssignee =
+                    new LinkedHashMap<>();
+                final Map<String, List<Task>> byContract =
+                    new LinkedHashMap<>();
+                for(final Task task : this.tasks.values()) {
+                    final Contributor assignee = task.assignee();
+                    if(assignee == null) {
+                        byAssignee.computeIfAbsent(
+                            "", key -> new ArrayList<>()
+                        ).add(task);
+                    } else {
+                        byAssignee.computeIfAbsent(
+                            IndexedTasks.key(
+                                assignee.username(), assignee.provider()
+                            ),
+                            key -> new ArrayList<>()
+                        ).add(task);
+                        byContract.computeIfAbsent(
+                            IndexedTasks.key(
+                                IndexedTasks.key(
+                                    task.project().repoFullName(),
+                                    task.project().provider()
+                                ),
+                                IndexedTasks.key(
+                                    assignee.username(), task.role()
+                                )
+                            ),
+                            key -> new ArrayList<>()
+                        ).add(task);
+                    }
+                }
+                this.assignees = byAssignee;
+                this.contracts = byContract;
+            }
+        }
+    }
+}
@@ -121,6 +121,16 @@ public final class UnassignedTasks implements Tasks {
         return this.storage.tasks().remove(task);
     }
 
+    /**
+     * {@inheritDoc}
+     * <br>
+     * The tasks are counted without iterating over them.
+     */
+    @Override
+    public int count() {
+        return (int) this.tasks.get().count();
+    }
+
     @Override
     public Iterator<Task> iterator() {
         return this.tasks.get().iterator();
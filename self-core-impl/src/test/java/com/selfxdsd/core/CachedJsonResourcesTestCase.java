@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link CachedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class CachedJsonResourcesTestCase {
+
+    /**
+     * The first GET is a miss, the second GET is a conditional request and,
+     * since the server answers 304, the cached Resource is returned.
+     */
+    @Test
+    public void returnsCachedResourceOnNotModified() {
+        final JsonObject issue = Json.createObjectBuilder()
+            .add("number", 1)
+            .build();
+        final MockJsonResources origin = new MockJsonResources(
+            req -> {
+                final MockResource response;
+                if(req.getHeaders().containsKey("If-None-Match")) {
+                    response = new MockResource(
+                        HttpURLConnection.HTTP_NOT_MODIFIED, JsonValue.NULL
+                    );
+                } else {
+                    response = new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        issue,
+                        Map.of("ETag", List.of("\"abc\""))
+                    );
+                }
+                return response;
+            }
+        );
+        final CachedJsonResources cached = new CachedJsonResources(origin);
+        final URI uri = URI.create("https://api.github.com/issues/1");
+        MatcherAssert.assertThat(
+            cached.get(uri).asJsonObject(),
+            Matchers.equalTo(issue)
+        );
+        final Resource second = cached.get(uri);
+        MatcherAssert.assertThat(
+            second.statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(
+            second.asJsonObject(),
+            Matchers.equalTo(issue)
+        );
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().get("If-None-Match"),
+            Matchers.equalTo("\"abc\"")
+        );
+        MatcherAssert.assertThat(cached.hits(), Matchers.is(1L));
+        MatcherAssert.assertThat(cached.misses(), Matchers.is(1L));
+    }
+
+    /**
+     * Responses without ETag or Last-Modified are not cached.
+     */
+    @Test
+    public void doesNotCacheWithoutValidators() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().build()
+            )
+        );
+        final CachedJsonResources cached = new CachedJsonResources(origin);
+        final URI uri = URI.create("https://api.github.com/issues/1");
+        cached.get(uri);
+        cached.get(uri);
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().isEmpty(),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(cached.hits(), Matchers.is(0L));
+        MatcherAssert.assertThat(cached.misses(), Matchers.is(2L));
+    }
+
+    /**
+     * Last-Modified is sent back as If-Modified-Since.
+     */
+    @Test
+    public void sendsIfModifiedSince() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createArrayBuilder().build(),
+                Map.of(
+                    "Last-Modified",
+                    List.of("Wed, 21 Oct 2015 07:28:00 GMT")
+                )
+            )
+        );
+        final JsonResources cached = new CachedJsonResources(origin);
+        final URI uri = URI.create("https://api.github.com/issues");
+        cached.get(uri);
+        cached.get(uri);
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().get("If-Modified-Since"),
+            Matchers.equalTo("Wed, 21 Oct 2015 07:28:00 GMT")
+        );
+    }
+
+    /**
+     * The least recently used entry is evicted when the cache is full.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().build(),
+                Map.of("ETag", List.of("\"etag\""))
+            )
+        );
+        final JsonResources cached = new CachedJsonResources(origin, 1);
+        final URI first = URI.create("https://api.github.com/issues/1");
+        final URI second = URI.create("https://api.github.com/issues/2");
+        cached.get(first);
+        cached.get(second);
+        cached.get(first);
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().isEmpty(),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * The least recently used entries are evicted when the cached bodies
+     * are too big.
+     */
+    @Test
+    public void evictsWhenBodiesAreTooBig() {
+        final Resource resource = Mockito.mock(Resource.class);
+        Mockito.when(resource.statusCode())
+            .thenReturn(HttpURLConnection.HTTP_OK);
+        Mockito.when(resource.headers())
+            .thenReturn(Map.of("ETag", List.of("\"etag\"")));
+        Mockito.when(resource.size()).thenReturn(600L);
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(
+            origin.get(Mockito.any(URI.class), Mockito.anyMap())
+        ).thenReturn(resource);
+        final JsonResources cached = new CachedJsonResources(
+            origin, 10, 1000L
+        );
+        final URI first = URI.create("https://api.github.com/issues/1");
+        final URI second = URI.create("https://api.github.com/issues/2");
+        cached.get(first);
+        cached.get(second);
+        cached.get(first);
+        Mockito.verify(origin, Mockito.times(2)).get(first, Map.of());
+    }
+
+    /**
+     * The request headers are part of the key, so a GET with other
+     * headers is not answered with a Resource cached for them.
+     */
+    @Test
+    public void keysOnRequestHeaders() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().build(),
+                Map.of("ETag", List.of("\"etag\""))
+            )
+        );
+        final JsonResources cached = new CachedJsonResources(origin);
+        final URI uri = URI.create("https://api.github.com/issues/1");
+        cached.get(uri, Map.of("Accept", "application/vnd.github.v3+json"));
+        cached.get(uri, Map.of("Accept", "application/vnd.github.raw"));
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders(),
+            Matchers.not(Matchers.hasKey("If-None-Match"))
+        );
+        cached.get(uri, Map.of("Accept", "application/vnd.github.raw"));
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders(),
+            Matchers.hasKey("If-None-Match")
+        );
+    }
+
+    /**
+     * Writes are delegated to the origin, untouched.
+     */
+    @Test
+    public void delegatesWrites() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_CREATED, JsonValue.NULL
+            )
+        );
+        final JsonResources cached = new CachedJsonResources(origin);
+        MatcherAssert.assertThat(
+            cached.post(
+                URI.create("https://api.github.com/issues"),
+                Json.createObjectBuilder().build()
+            ).statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_CREATED)
+        );
+        MatcherAssert.assertThat(
+            origin.requests().first().getMethod(),
+            Matchers.equalTo("POST")
+        );
+    }
+}
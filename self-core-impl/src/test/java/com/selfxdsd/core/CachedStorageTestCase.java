@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Contract;
+import com.selfxdsd.api.Contracts;
+import com.selfxdsd.api.Invoice;
+import com.selfxdsd.api.Payments;
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.Resignations;
+import com.selfxdsd.api.Task;
+import com.selfxdsd.api.Tasks;
+import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.api.storage.UnitOfWork;
+import com.selfxdsd.core.contracts.ProjectContracts;
+import com.selfxdsd.core.tasks.ProjectTasks;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for {@link CachedStorage}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class CachedStorageTestCase {
+
+    /**
+     * The Contracts of a Project are read once from the origin.
+     */
+    @Test
+    public void cachesContractsOfProject() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Storage origin = this.storage(reads);
+        final CachedStorage storage = new CachedStorage(origin);
+        for(int idx = 0; idx < 5; ++idx) {
+            MatcherAssert.assertThat(
+                storage.contracts().ofProject("john/test", "github"),
+                Matchers.iterableWithSize(2)
+            );
+        }
+        MatcherAssert.assertThat(reads.get(), Matchers.is(1));
+        MatcherAssert.assertThat(storage.misses(), Matchers.is(1L));
+        MatcherAssert.assertThat(storage.hits(), Matchers.is(4L));
+    }
+
+    /**
+     * Adding a Contract evicts the cached Contracts of its Project.
+     */
+    @Test
+    public void evictsContractsOnWrite() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Storage origin = this.storage(reads);
+        final CachedStorage storage = new CachedStorage(origin);
+        storage.contracts().ofProject("john/test", "github").count();
+        storage.contracts().ofProject("john/test", "github").count();
+        storage.contracts().addContract(
+            "John/Test", "mihai", "github",
+            BigDecimal.TEN, Contract.Roles.DEV
+        );
+        storage.contracts().ofProject("john/test", "github").count();
+        MatcherAssert.assertThat(reads.get(), Matchers.is(2));
+        Mockito.verify(origin.contracts()).addContract(
+            "John/Test", "mihai", "github",
+            BigDecimal.TEN, Contract.Roles.DEV
+        );
+    }
+
+    /**
+     * What a unit of work touches is not cached while it is open, since
+     * its mutations are not committed yet. It is cached again once the
+     * unit of work is closed.
+     */
+    @Test
+    public void doesNotCacheWhileUnitOfWorkIsOpen() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Storage origin = this.storage(reads);
+        Mockito.when(origin.begin()).thenReturn(new UnitOfWork.Immediate());
+        final CachedStorage storage = new CachedStorage(origin);
+        storage.contracts().ofProject("john/test", "github").count();
+        try (UnitOfWork work = storage.begin()) {
+            storage.contracts().addContract(
+                "john/test", "mihai", "github",
+                BigDecimal.TEN, Contract.Roles.DEV
+            );
+            storage.contracts().ofProject("john/test", "github").count();
+            storage.contracts().ofProject("john/test", "github").count();
+            MatcherAssert.assertThat(reads.get(), Matchers.is(2));
+            work.commit();
+        }
+        storage.contracts().ofProject("john/test", "github").count();
+        storage.contracts().ofProject("john/test", "github").count();
+        MatcherAssert.assertThat(reads.get(), Matchers.is(4));
+    }
+
+    /**
+     * Unassigning a Task evicts the cached Tasks of its Project.
+     */
+    @Test
+    public void evictsTasksOnWrite() {
+        final Storage origin = Mockito.mock(Storage.class);
+        final AtomicInteger reads = new AtomicInteger();
+        final Tasks tasks = Mockito.mock(Tasks.class);
+        Mockito.when(tasks.ofProject("john/test", "github")).thenAnswer(
+            invocation -> {
+                reads.incrementAndGet();
+                return new ProjectTasks(
+                    "john/test", "github",
+                    () -> List.of(Mockito.mock(Task.class)).stream(),
+                    origin
+                );
+            }
+        );
+        Mockito.when(origin.tasks()).thenReturn(tasks);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn("john/test");
+        Mockito.when(project.provider()).thenReturn("github");
+        final Task task = Mockito.mock(Task.class);
+        Mockito.when(task.project()).thenReturn(project);
+        final CachedStorage storage = new CachedStorage(origin);
+        storage.tasks().ofProject("john/test", "github").count();
+        storage.tasks().ofProject("john/test", "github").count();
+        MatcherAssert.assertThat(reads.get(), Matchers.is(1));
+        storage.tasks().unassign(task);
+        storage.tasks().ofProject("john/test", "github").count();
+        MatcherAssert.assertThat(reads.get(), Matchers.is(2));
+    }
+
+    /**
+     * Registering a Payment evicts the cached Contracts of the Project
+     * whose Invoice was paid.
+     */
+    @Test
+    public void evictsContractsOnPayment() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Storage origin = this.storage(reads);
+        Mockito.when(origin.payments()).thenReturn(
+            Mockito.mock(Payments.class)
+        );
+        final Contract contract = Mockito.mock(Contract.class);
+        Mockito.when(contract.contractId()).thenReturn(
+            new Contract.Id("john/test", "mihai", "github", Contract.Roles.DEV)
+        );
+        final Invoice invoice = Mockito.mock(Invoice.class);
+        Mockito.when(invoice.contract()).thenReturn(contract);
+        final CachedStorage storage = new CachedStorage(origin);
+        storage.contracts().ofProject("john/test", "github").count();
+        storage.contracts().ofProject("john/test", "github").count();
+        MatcherAssert.assertThat(reads.get(), Matchers.is(1));
+        storage.payments().register(
+            invoice, "tx", LocalDateTime.now(), BigDecimal.TEN, "OK", ""
+        );
+        storage.contracts().ofProject("john/test", "github").count();
+        MatcherAssert.assertThat(reads.get(), Matchers.is(2));
+    }
+
+    /**
+     * Registering a Resignation evicts the cached Contracts of the
+     * Task's Project.
+     */
+    @Test
+    public void evictsContractsOnResignation() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Storage origin = this.storage(reads);
+        Mockito.when(origin.resignations()).thenReturn(
+            Mockito.mock(Resignations.class)
+        );
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn("john/test");
+        Mockito.when(project.provider()).thenReturn("github");
+        final Task task = Mockito.mock(Task.class);
+        Mockito.when(task.project()).thenReturn(project);
+        final CachedStorage storage = new CachedStorage(origin);
+        storage.contracts().ofProject("john/test", "github").count();
+        storage.resignations().register(task, "No ETA.");
+        storage.contracts().ofProject("john/test", "github").count();
+        MatcherAssert.assertThat(reads.get(), Matchers.is(2));
+    }
+
+    /**
+     * What was evicted while a unit of work was open is evicted again
+     * when it is closed without being committed, even if closing fails.
+     */
+    @Test
+    public void evictsAgainAfterClose() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Storage origin = this.storage(reads);
+        final UnitOfWork failing = Mockito.mock(UnitOfWork.class);
+        Mockito.doThrow(new IllegalStateException("Rollback failed."))
+            .when(failing).close();
+        Mockito.when(origin.begin()).thenReturn(failing);
+        final CachedStorage storage = new CachedStorage(origin);
+        final UnitOfWork work = storage.begin();
+        storage.contracts().addContract(
+            "john/test", "mihai", "github",
+            BigDecimal.TEN, Contract.Roles.DEV
+        );
+        storage.contracts().ofProject("john/test", "github").count();
+        MatcherAssert.assertThat(reads.get(), Matchers.is(1));
+        try {
+            work.close();
+            MatcherAssert.assertThat("ISE was expected!", false);
+        } catch (final IllegalStateException ex) {
+            storage.contracts().ofProject("john/test", "github").count();
+            storage.contracts().ofProject("john/test", "github").count();
+            MatcherAssert.assertThat(reads.get(), Matchers.is(2));
+        }
+    }
+
+    /**
+     * A Storage which doesn't begin units of work (e.g. a mock) gets one
+     * which writes every mutation immediately.
+     */
+    @Test
+    public void beginsImmediateUnitOfWorkIfOriginDoesNot() {
+        final AtomicInteger reads = new AtomicInteger();
+        final CachedStorage storage = new CachedStorage(this.storage(reads));
+        try (UnitOfWork work = storage.begin()) {
+            storage.contracts().addContract(
+                "john/test", "mihai", "github",
+                BigDecimal.TEN, Contract.Roles.DEV
+            );
+            work.commit();
+        }
+        storage.contracts().ofProject("john/test", "github").count();
+        storage.contracts().ofProject("john/test", "github").count();
+        MatcherAssert.assertThat(reads.get(), Matchers.is(1));
+    }
+
+    /**
+     * The origin can be built around the cache, so the Stored objects
+     * it creates read and write through the cache.
+     */
+    @Test
+    public void buildsOriginAroundCache() {
+        final AtomicReference<Storage> around = new AtomicReference<>();
+        final Storage origin = Mockito.mock(Storage.class);
+        final CachedStorage storage = new CachedStorage(
+            self -> {
+                around.set(self);
+                return origin;
+            }
+        );
+        MatcherAssert.assertThat(around.get(), Matchers.is(storage));
+    }
+
+    /**
+     * Mock Storage which counts the reads of the Contracts
+     * of Project john/test.
+     * @param reads Reads counter.
+     * @return Storage.
+     */
+    private Storage storage(final AtomicInteger reads) {
+        final Storage storage = Mockito.mock(Storage.class);
+        final Contracts contracts = Mockito.mock(Contracts.class);
+        Mockito.when(contracts.ofProject("john/test", "github")).thenAnswer(
+            invocation -> {
+                reads.incrementAndGet();
+                return new ProjectContracts(
+                    "john/test", "github",
+                    () -> List.of(
+                        Mockito.mock(Contract.class),
+                        Mockito.mock(Contract.class)
+                    ).stream(),
+                    storage
+                );
+            }
+        );
+        Mockito.when(storage.contracts()).thenReturn(contracts);
+        return storage;
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Unit tests for {@link CircuitBreaker}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class CircuitBreakerTestCase {
+
+    /**
+     * The circuit opens after the threshold of failures within the window
+     * and then it fails fast.
+     */
+    @Test
+    public void opensAfterThreshold() {
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochSecond(100));
+        final CircuitBreaker breaker = new CircuitBreaker(
+            2, Duration.ofMinutes(1), Duration.ofSeconds(30), 1, clock
+        );
+        breaker.failure();
+        MatcherAssert.assertThat(breaker.allow(), Matchers.notNullValue());
+        breaker.failure();
+        MatcherAssert.assertThat(
+            breaker.state(),
+            Matchers.is(CircuitBreakers.State.OPEN)
+        );
+        MatcherAssert.assertThat(breaker.allow(), Matchers.nullValue());
+    }
+
+    /**
+     * Failures outside of the window don't count.
+     */
+    @Test
+    public void forgetsOldFailures() {
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenReturn(
+            Instant.ofEpochSecond(100), Instant.ofEpochSecond(200)
+        );
+        final CircuitBreaker breaker = new CircuitBreaker(
+            2, Duration.ofMinutes(1), Duration.ofSeconds(30), 1, clock
+        );
+        breaker.failure();
+        breaker.failure();
+        MatcherAssert.assertThat(
+            breaker.state(),
+            Matchers.is(CircuitBreakers.State.CLOSED)
+        );
+    }
+
+    /**
+     * After the cool-down, the circuit is half-open: it lets one probe
+     * through and closes if the probe succeeds.
+     */
+    @Test
+    public void closesAfterSuccessfulProbe() {
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochSecond(100));
+        final CircuitBreaker breaker = new CircuitBreaker(
+            1, Duration.ofMinutes(1), Duration.ofSeconds(30), 1, clock
+        );
+        breaker.failure();
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochSecond(131));
+        MatcherAssert.assertThat(
+            breaker.state(),
+            Matchers.is(CircuitBreakers.State.HALF_OPEN)
+        );
+        final CircuitBreaker.Call probe = breaker.allow();
+        MatcherAssert.assertThat(probe, Matchers.notNullValue());
+        MatcherAssert.assertThat(breaker.allow(), Matchers.nullValue());
+        probe.success();
+        MatcherAssert.assertThat(
+            breaker.state(),
+            Matchers.is(CircuitBreakers.State.CLOSED)
+        );
+    }
+
+    /**
+     * A failed probe opens the circuit again.
+     */
+    @Test
+    public void reopensAfterFailedProbe() {
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochSecond(100));
+        final CircuitBreaker breaker = new CircuitBreaker(
+            1, Duration.ofMinutes(1), Duration.ofSeconds(30), 1, clock
+        );
+        breaker.failure();
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochSecond(131));
+        MatcherAssert.assertThat(breaker.allow(), Matchers.notNullValue());
+        breaker.failure();
+        MatcherAssert.assertThat(
+            breaker.state(),
+            Matchers.is(CircuitBreakers.State.OPEN)
+        );
+    }
+
+    /**
+     * A request which was in flight before the circuit opened doesn't
+     * close the half-open circuit when it succeeds late: only the probe
+     * does.
+     */
+    @Test
+    public void ignoresLateSuccess() {
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochSecond(100));
+        final CircuitBreaker breaker = new CircuitBreaker(
+            1, Duration.ofMinutes(1), Duration.ofSeconds(30), 1, clock
+        );
+        final CircuitBreaker.Call late = breaker.allow();
+        breaker.failure();
+        Mockito.when(clock.instant()).thenReturn(Instant.ofEpochSecond(131));
+        final CircuitBreaker.Call probe = breaker.allow();
+        late.success();
+        MatcherAssert.assertThat(
+            breaker.state(),
+            Matchers.is(CircuitBreakers.State.HALF_OPEN)
+        );
+        probe.success();
+        MatcherAssert.assertThat(
+            breaker.state(),
+            Matchers.is(CircuitBreakers.State.CLOSED)
+        );
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link CoalescedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class CoalescedJsonResourcesTestCase {
+
+    /**
+     * URI used in the tests.
+     */
+    private static final URI ISSUE = URI.create(
+        "https://api.github.com/repos/amihaiemil/docker-java-api/issues/1"
+    );
+
+    /**
+     * Concurrent async GETs of the same URI share one request.
+     */
+    @Test
+    public void coalescesAsyncGets() {
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        final CompletableFuture<Resource> flight = new CompletableFuture<>();
+        Mockito.when(origin.getAsync(ISSUE, Map.of())).thenReturn(flight);
+        final CoalescedJsonResources resources =
+            new CoalescedJsonResources(origin);
+        final CompletableFuture<Resource> first = resources.getAsync(ISSUE);
+        final CompletableFuture<Resource> second = resources.getAsync(ISSUE);
+        Mockito.verify(origin, Mockito.times(1)).getAsync(ISSUE, Map.of());
+        MatcherAssert.assertThat(resources.coalesced(), Matchers.is(1L));
+        final Resource issue = Mockito.mock(Resource.class);
+        flight.complete(issue);
+        MatcherAssert.assertThat(first.join(), Matchers.is(issue));
+        MatcherAssert.assertThat(second.join(), Matchers.is(issue));
+    }
+
+    /**
+     * After the response arrives, a new GET reaches the provider again.
+     */
+    @Test
+    public void doesNotKeepResponses() {
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(origin.get(ISSUE, Map.of())).thenReturn(
+            Mockito.mock(Resource.class)
+        );
+        final JsonResources resources = new CoalescedJsonResources(origin);
+        resources.get(ISSUE);
+        resources.get(ISSUE);
+        Mockito.verify(origin, Mockito.times(2)).get(ISSUE, Map.of());
+    }
+
+    /**
+     * A blocking GET joins the one already in flight.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void blockingGetJoinsFlight() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Resource issue = Mockito.mock(Resource.class);
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(origin.get(ISSUE, Map.of())).thenAnswer(
+            invocation -> {
+                started.countDown();
+                release.await();
+                return issue;
+            }
+        );
+        final CoalescedJsonResources resources =
+            new CoalescedJsonResources(origin);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Resource> first = executor.submit(
+                () -> resources.get(ISSUE)
+            );
+            started.await(5, TimeUnit.SECONDS);
+            final Future<Resource> second = executor.submit(
+                () -> resources.get(ISSUE)
+            );
+            while(resources.coalesced() == 0L) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            MatcherAssert.assertThat(
+                first.get(5, TimeUnit.SECONDS), Matchers.is(issue)
+            );
+            MatcherAssert.assertThat(
+                second.get(5, TimeUnit.SECONDS), Matchers.is(issue)
+            );
+            Mockito.verify(origin, Mockito.times(1)).get(ISSUE, Map.of());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The GETs which joined a failed request fail with the same
+     * exception.
+     */
+    @Test
+    public void propagatesFailure() {
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        final CompletableFuture<Resource> flight = new CompletableFuture<>();
+        Mockito.when(origin.getAsync(ISSUE, Map.of())).thenReturn(flight);
+        final JsonResources resources = new CoalescedJsonResources(origin);
+        resources.getAsync(ISSUE);
+        final CompletableFuture<Resource> joined = resources.getAsync(ISSUE);
+        final IllegalStateException failure = new IllegalStateException(
+            "Couldn't GET"
+        );
+        flight.completeExceptionally(failure);
+        try {
+            joined.join();
+            MatcherAssert.assertThat("Exception was expected!", false);
+        } catch (final CompletionException ex) {
+            MatcherAssert.assertThat(ex.getCause(), Matchers.is(failure));
+        }
+        resources.getAsync(ISSUE);
+        Mockito.verify(origin, Mockito.times(2)).getAsync(ISSUE, Map.of());
+    }
+
+    /**
+     * If the async GET fails to start, it is not left in flight: the
+     * returned future fails and the next GET reaches the provider again.
+     */
+    @Test
+    public void forgetsGetWhichFailsToStart() {
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        final IllegalStateException failure = new IllegalStateException(
+            "Rejected"
+        );
+        final CompletableFuture<Resource> flight = new CompletableFuture<>();
+        Mockito.when(origin.getAsync(ISSUE, Map.of()))
+            .thenThrow(failure)
+            .thenReturn(flight);
+        final CoalescedJsonResources resources =
+            new CoalescedJsonResources(origin);
+        try {
+            resources.getAsync(ISSUE).join();
+            MatcherAssert.assertThat("Exception was expected!", false);
+        } catch (final CompletionException ex) {
+            MatcherAssert.assertThat(ex.getCause(), Matchers.is(failure));
+        }
+        MatcherAssert.assertThat(
+            resources.getAsync(ISSUE).isDone(), Matchers.is(false)
+        );
+        Mockito.verify(origin, Mockito.times(2)).getAsync(ISSUE, Map.of());
+        MatcherAssert.assertThat(resources.coalesced(), Matchers.is(0L));
+    }
+
+    /**
+     * Writes are never coalesced.
+     */
+    @Test
+    public void doesNotCoalesceWrites() {
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        final JsonResources resources = new CoalescedJsonResources(origin);
+        resources.post(ISSUE, JsonValue.NULL);
+        resources.post(ISSUE, JsonValue.NULL);
+        Mockito.verify(origin, Mockito.times(2)).post(
+            ISSUE, JsonValue.NULL
+        );
+    }
+}
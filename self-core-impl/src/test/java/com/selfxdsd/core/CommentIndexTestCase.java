@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Comment;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link CommentIndex}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class CommentIndexTestCase {
+
+    /**
+     * CommentIndex finds comments regardless of case, but the
+     * whitespace matters.
+     */
+    @Test
+    public void findsBodyIgnoringCase() {
+        final Comment comment = CommentIndexTestCase.comment("Hello World");
+        final CommentIndex index = new CommentIndex(
+            10, Duration.ofHours(1), Clock.systemUTC()
+        );
+        MatcherAssert.assertThat(
+            index.find("issue", "hello WORLD", List.of(comment)),
+            Matchers.is(comment)
+        );
+        MatcherAssert.assertThat(
+            index.find("issue", "  hello world\n", List.of(comment)),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            index.find("issue", "hello", List.of(comment)),
+            Matchers.nullValue()
+        );
+    }
+
+    /**
+     * CommentIndex finds the comments which are not indexed (e.g. posted
+     * by another client) by iterating over all of them again.
+     */
+    @Test
+    public void findsCommentsMissingFromIndex() {
+        final Comment comment = CommentIndexTestCase.comment("by others");
+        final CommentIndex index = new CommentIndex(
+            10, Duration.ofHours(1), Clock.systemUTC()
+        );
+        MatcherAssert.assertThat(
+            index.find("issue", "by others", List.of()),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            index.find("issue", "by others", List.of(comment)),
+            Matchers.is(comment)
+        );
+        MatcherAssert.assertThat(
+            index.find("issue", "By Others", List.of()),
+            Matchers.is(comment)
+        );
+    }
+
+    /**
+     * Comments are only added to Issues which are indexed.
+     */
+    @Test
+    public void addsOnlyToIndexedIssues() {
+        final CommentIndex index = new CommentIndex(
+            10, Duration.ofHours(1), Clock.systemUTC()
+        );
+        final Comment comment = CommentIndexTestCase.comment("added");
+        index.add("issue", comment);
+        MatcherAssert.assertThat(
+            index.find("issue", "added", List.of()),
+            Matchers.nullValue()
+        );
+        index.add("issue", comment);
+        MatcherAssert.assertThat(
+            index.find("issue", "added", List.of()),
+            Matchers.is(comment)
+        );
+    }
+
+    /**
+     * The comments are fetched again once the index expired.
+     */
+    @Test
+    public void fetchesAgainWhenExpired() {
+        final AtomicInteger fetched = new AtomicInteger();
+        final Comment comment = CommentIndexTestCase.comment("body");
+        final Iterable<Comment> comments = () -> {
+            fetched.incrementAndGet();
+            return List.of(comment).iterator();
+        };
+        final CommentIndex index = new CommentIndex(
+            10, Duration.ofSeconds(-1), Clock.systemUTC()
+        );
+        index.find("issue", "body", comments);
+        index.find("issue", "body", comments);
+        MatcherAssert.assertThat(fetched.get(), Matchers.is(2));
+    }
+
+    /**
+     * The least recently used Issue is evicted.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final AtomicInteger fetched = new AtomicInteger();
+        final Comment comment = CommentIndexTestCase.comment("body");
+        final Iterable<Comment> comments = () -> {
+            fetched.incrementAndGet();
+            return List.of(comment).iterator();
+        };
+        final CommentIndex index = new CommentIndex(
+            1, Duration.ofHours(1), Clock.systemUTC()
+        );
+        index.find("first", "body", comments);
+        index.find("first", "body", comments);
+        index.find("second", "body", comments);
+        index.find("first", "body", comments);
+        MatcherAssert.assertThat(fetched.get(), Matchers.is(3));
+    }
+
+    /**
+     * Mock a Comment.
+     * @param body Body.
+     * @return Comment.
+     */
+    private static Comment comment(final String body) {
+        final Comment comment = Mockito.mock(Comment.class);
+        Mockito.when(comment.body()).thenReturn(body);
+        return comment;
+    }
+}
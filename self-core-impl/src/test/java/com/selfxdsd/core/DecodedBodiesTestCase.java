@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Unit tests for {@link DecodedBodies}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class DecodedBodiesTestCase {
+
+    /**
+     * JSON body used in the tests.
+     */
+    private static final byte[] JSON = (
+        "[" + "{\"id\": 1, \"title\": \"Some issue\"},".repeat(50)
+        + "{\"id\": 2}]"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * It can decode a gzip body and it counts the bytes.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void decodesGzip() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DecodedBodiesTestCase.write(new GZIPOutputStream(out));
+        final byte[] gzip = out.toByteArray();
+        final DecodedBodies bodies = new DecodedBodies();
+        MatcherAssert.assertThat(
+            bodies.decode("gzip", gzip),
+            Matchers.equalTo(JSON)
+        );
+        MatcherAssert.assertThat(
+            bodies.wire(), Matchers.is((long) gzip.length)
+        );
+        MatcherAssert.assertThat(
+            bodies.decoded(), Matchers.is((long) JSON.length)
+        );
+        MatcherAssert.assertThat(
+            bodies.wire(), Matchers.lessThan(bodies.decoded())
+        );
+    }
+
+    /**
+     * It can decode a zlib-wrapped deflate body.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void decodesDeflate() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DecodedBodiesTestCase.write(new DeflaterOutputStream(out));
+        MatcherAssert.assertThat(
+            new DecodedBodies().decode("deflate", out.toByteArray()),
+            Matchers.equalTo(JSON)
+        );
+    }
+
+    /**
+     * It can decode a raw deflate body.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void decodesRawDeflate() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DecodedBodiesTestCase.write(
+            new DeflaterOutputStream(
+                out, new Deflater(Deflater.DEFAULT_COMPRESSION, true)
+            )
+        );
+        MatcherAssert.assertThat(
+            new DecodedBodies().decode("deflate", out.toByteArray()),
+            Matchers.equalTo(JSON)
+        );
+    }
+
+    /**
+     * Bodies which are not encoded are left as they are.
+     */
+    @Test
+    public void leavesIdentityAsIs() {
+        final DecodedBodies bodies = new DecodedBodies();
+        MatcherAssert.assertThat(
+            bodies.decode("identity", JSON),
+            Matchers.sameInstance(JSON)
+        );
+        MatcherAssert.assertThat(bodies.wire(), Matchers.is(bodies.decoded()));
+    }
+
+    /**
+     * A corrupt body results in an IllegalStateException.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void complainsOnCorruptBody() {
+        new DecodedBodies().decode("gzip", JSON);
+    }
+
+    /**
+     * A decoding failure is recognized, even when it is wrapped in an
+     * IOException by the HttpClient.
+     */
+    @Test
+    public void recognizesUndecodableBodies() {
+        try {
+            new DecodedBodies().decode("gzip", JSON);
+            MatcherAssert.assertThat("ISE was expected!", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                DecodedBodies.undecodable(
+                    new IllegalStateException(
+                        "Couldn't GET", new IOException("Failed", ex)
+                    )
+                ),
+                Matchers.is(true)
+            );
+        }
+        MatcherAssert.assertThat(
+            DecodedBodies.undecodable(
+                new IllegalStateException(
+                    "Couldn't GET", new IOException("reset")
+                )
+            ),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Write the JSON body and close the stream.
+     * @param out OutputStream.
+     * @throws IOException If something goes wrong.
+     */
+    private static void write(final OutputStream out) throws IOException {
+        try (out) {
+            out.write(JSON);
+        }
+    }
+}
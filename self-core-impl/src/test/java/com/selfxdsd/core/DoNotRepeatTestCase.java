@@ -30,6 +30,8 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import javax.json.JsonObject;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.List;
 
@@ -135,6 +137,95 @@ public final class DoNotRepeatTestCase {
         );
     }
 
+    /**
+     * DoNotRepeat fetches the comments only once, then it checks
+     * for duplicates in the index.
+     */
+    @Test
+    public void fetchesCommentsOnce() {
+        final Comment newComment = this.mockComment("new comment");
+        final Comments origin = Mockito.mock(Comments.class);
+        Mockito.when(origin.iterator()).thenReturn(
+            List.of(this.mockComment("hello world")).iterator()
+        );
+        Mockito.when(origin.post(Mockito.anyString())).thenReturn(
+            newComment
+        );
+        final CommentIndex index = new CommentIndex(
+            10, Duration.ofHours(1), Clock.systemUTC()
+        );
+        MatcherAssert.assertThat(
+            new DoNotRepeat(origin, index, "issue/1").post("new comment"),
+            Matchers.is(newComment)
+        );
+        MatcherAssert.assertThat(
+            new DoNotRepeat(origin, index, "issue/1").post("New Comment"),
+            Matchers.is(newComment)
+        );
+        MatcherAssert.assertThat(
+            new DoNotRepeat(origin, index, "issue/1")
+                .post("hello world")
+                .body(),
+            Matchers.equalTo("hello world")
+        );
+        Mockito.verify(origin, Mockito.times(1)).iterator();
+        Mockito.verify(origin, Mockito.times(1)).post(Mockito.anyString());
+    }
+
+    /**
+     * DoNotRepeat finds the comments which are missing from the index
+     * (e.g. posted by another client), by fetching them again.
+     */
+    @Test
+    public void findsCommentsMissingFromIndex() {
+        final Comment other = this.mockComment("posted elsewhere");
+        final Comments origin = Mockito.mock(Comments.class);
+        Mockito.when(origin.iterator())
+            .thenReturn(List.<Comment>of().iterator())
+            .thenReturn(List.of(other).iterator());
+        Mockito.when(origin.post(Mockito.anyString())).thenReturn(
+            this.mockComment("first")
+        );
+        final CommentIndex index = new CommentIndex(
+            10, Duration.ofHours(1), Clock.systemUTC()
+        );
+        new DoNotRepeat(origin, index, "issue/1").post("first");
+        MatcherAssert.assertThat(
+            new DoNotRepeat(origin, index, "issue/1")
+                .post("Posted Elsewhere"),
+            Matchers.is(other)
+        );
+        Mockito.verify(origin, Mockito.times(2)).iterator();
+        Mockito.verify(origin, Mockito.times(1)).post(Mockito.anyString());
+    }
+
+    /**
+     * DoNotRepeat indexes the received comments, so they are not posted.
+     */
+    @Test
+    public void indexesReceivedComments() {
+        final JsonObject json = Mockito.mock(JsonObject.class);
+        final Comment received = this.mockComment("received");
+        final Comments origin = Mockito.mock(Comments.class);
+        Mockito.when(origin.iterator()).thenReturn(
+            List.<Comment>of().iterator()
+        );
+        Mockito.when(origin.received(json)).thenReturn(received);
+        Mockito.when(origin.post(Mockito.anyString())).thenReturn(
+            this.mockComment("first")
+        );
+        final CommentIndex index = new CommentIndex(
+            10, Duration.ofHours(1), Clock.systemUTC()
+        );
+        new DoNotRepeat(origin, index, "issue/1").post("first");
+        new DoNotRepeat(origin, index, "issue/1").received(json);
+        MatcherAssert.assertThat(
+            new DoNotRepeat(origin, index, "issue/1").post("received"),
+            Matchers.is(received)
+        );
+        Mockito.verify(origin, Mockito.times(1)).post(Mockito.anyString());
+    }
+
     /**
      * Mock a Comment for test.
      * @param body Comment body.
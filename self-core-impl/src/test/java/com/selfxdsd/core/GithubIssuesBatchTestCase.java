@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link GithubIssuesBatch}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class GithubIssuesBatchTestCase {
+
+    /**
+     * Issues URI of the repo.
+     */
+    private static final URI ISSUES = URI.create(
+        "https://api.github.com/repos/amihaiemil/docker-java-api/issues"
+    );
+
+    /**
+     * It reads the Issues and PullRequests with one GraphQL query.
+     */
+    @Test
+    public void fetchesIssuesWithOneQuery() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().add(
+                    "data",
+                    Json.createObjectBuilder().add(
+                        "repository",
+                        Json.createObjectBuilder()
+                            .add("i1", GithubIssuesBatchTestCase.node(
+                                1, "OPEN", "issues", "mihai"
+                            ))
+                            .add("i2", GithubIssuesBatchTestCase.node(
+                                2, "MERGED", "pull", null
+                            ))
+                            .add("i3", JsonValue.NULL)
+                    )
+                ).build()
+            )
+        );
+        final Map<String, Issue> fetched = new GithubIssuesBatch(
+            resources, ISSUES, Mockito.mock(Storage.class)
+        ).fetch(List.of("1", "2", "3", "2", "not-a-number"));
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+        final MockJsonResources.MockRequest request =
+            resources.requests().first();
+        MatcherAssert.assertThat(
+            request.getUri(),
+            Matchers.equalTo(URI.create("https://api.github.com/graphql"))
+        );
+        final String query = ((JsonObject) request.getBody())
+            .getString("query");
+        MatcherAssert.assertThat(
+            query,
+            Matchers.allOf(
+                Matchers.containsString(
+                    "repository(owner: \"amihaiemil\", "
+                    + "name: \"docker-java-api\")"
+                ),
+                Matchers.containsString("i1: issueOrPullRequest(number: 1)"),
+                Matchers.containsString("i3: issueOrPullRequest(number: 3)"),
+                Matchers.not(Matchers.containsString("not-a-number"))
+            )
+        );
+        MatcherAssert.assertThat(fetched.keySet(), Matchers.hasSize(2));
+        final Issue issue = fetched.get("1");
+        MatcherAssert.assertThat(issue.issueId(), Matchers.equalTo("1"));
+        MatcherAssert.assertThat(issue.isClosed(), Matchers.is(false));
+        MatcherAssert.assertThat(issue.isPullRequest(), Matchers.is(false));
+        MatcherAssert.assertThat(issue.assignee(), Matchers.equalTo("mihai"));
+        MatcherAssert.assertThat(issue.author(), Matchers.equalTo("john"));
+        MatcherAssert.assertThat(
+            issue.repoFullName(),
+            Matchers.equalTo("amihaiemil/docker-java-api")
+        );
+        final Issue pull = fetched.get("2");
+        MatcherAssert.assertThat(pull.isClosed(), Matchers.is(true));
+        MatcherAssert.assertThat(pull.isPullRequest(), Matchers.is(true));
+        MatcherAssert.assertThat(pull.assignee(), Matchers.nullValue());
+        MatcherAssert.assertThat(
+            pull.json().getInt("comments"), Matchers.is(4)
+        );
+    }
+
+    /**
+     * It makes one query for every 100 Issues.
+     */
+    @Test
+    public void queriesAtMostOneHundredIssues() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().add(
+                    "data",
+                    Json.createObjectBuilder().add(
+                        "repository", Json.createObjectBuilder()
+                    )
+                ).build()
+            )
+        );
+        final List<String> ids = new ArrayList<>();
+        for(int idx = 1; idx <= 250; ++idx) {
+            ids.add(String.valueOf(idx));
+        }
+        new GithubIssuesBatch(
+            resources, ISSUES, Mockito.mock(Storage.class)
+        ).fetch(ids);
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(3)
+        );
+    }
+
+    /**
+     * If the query fails, nothing is returned and the Issues will
+     * be read one by one.
+     */
+    @Test
+    public void returnsNothingIfQueryFails() {
+        final Map<String, Issue> fetched = new GithubIssuesBatch(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_BAD_GATEWAY, JsonValue.NULL
+                )
+            ),
+            ISSUES,
+            Mockito.mock(Storage.class)
+        ).fetch(List.of("1", "2"));
+        MatcherAssert.assertThat(fetched.isEmpty(), Matchers.is(true));
+    }
+
+    /**
+     * Mock a GraphQL Issue or PullRequest.
+     * @param number Number.
+     * @param state State.
+     * @param type Type in the html url (issues or pull).
+     * @param assignee Assignee, may be null.
+     * @return JsonObjectBuilder.
+     */
+    private static JsonObjectBuilder node(
+        final int number,
+        final String state,
+        final String type,
+        final String assignee
+    ) {
+        final JsonObjectBuilder assignees = Json.createObjectBuilder();
+        if(assignee == null) {
+            assignees.add("nodes", Json.createArrayBuilder());
+        } else {
+            assignees.add(
+                "nodes",
+                Json.createArrayBuilder().add(
+                    Json.createObjectBuilder().add("login", assignee)
+                )
+            );
+        }
+        return Json.createObjectBuilder()
+            .add("number", number)
+            .add("state", state)
+            .add(
+                "url",
+                "https://github.com/amihaiemil/docker-java-api/" + type
+                + "/" + number
+            )
+            .add("body", "Some body")
+            .add("author", Json.createObjectBuilder().add("login", "john"))
+            .add("assignees", assignees)
+            .add(
+                "labels",
+                Json.createObjectBuilder().add(
+                    "nodes",
+                    Json.createArrayBuilder().add(
+                        Json.createObjectBuilder()
+                            .add("name", "bug")
+                            .add("color", "ff0000")
+                    )
+                )
+            )
+            .add("comments", Json.createObjectBuilder().add("totalCount", 4));
+    }
+}
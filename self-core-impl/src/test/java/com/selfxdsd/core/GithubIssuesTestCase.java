@@ -34,6 +34,8 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.time.Instant;
+import java.util.Map;
 
 import static org.mockito.Mockito.mock;
 
@@ -133,10 +135,21 @@ public final class GithubIssuesTestCase {
         final User user = Mockito.mock(User.class);
         Mockito.when(user.username()).thenReturn("amihaiemil");
         final MockJsonResources resources = new MockJsonResources(
-            req -> new MockJsonResources.MockResource(
-                HttpURLConnection.HTTP_OK,
-                Json.createObjectBuilder().add("number", 123).build()
-            )
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if("GET".equals(req.getMethod())) {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder().build()
+                    );
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createObjectBuilder().add("number", 123).build()
+                    );
+                }
+                return resource;
+            }
         );
         final Provider provider = new Github(
             user,
@@ -158,8 +171,22 @@ public final class GithubIssuesTestCase {
             created.issueId(), Matchers.equalTo("123")
         );
 
-        final MockJsonResources.MockRequest bug = resources.requests()
+        final MockJsonResources.MockRequest labels = resources.requests()
             .atIndex(0);
+        MatcherAssert.assertThat(
+            labels.getMethod(),
+            Matchers.equalTo("GET")
+        );
+        MatcherAssert.assertThat(
+            labels.getUri().toString(),
+            Matchers.equalTo(
+                "https://api.github.com/repos/amihaiemil/repo"
+                + "/labels?per_page=100"
+            )
+        );
+
+        final MockJsonResources.MockRequest bug = resources.requests()
+            .atIndex(1);
         MatcherAssert.assertThat(
             bug.getMethod(),
             Matchers.equalTo("POST")
@@ -177,7 +204,7 @@ public final class GithubIssuesTestCase {
         );
 
         final MockJsonResources.MockRequest puzzle = resources.requests()
-            .atIndex(1);
+            .atIndex(2);
         MatcherAssert.assertThat(
             puzzle.getMethod(),
             Matchers.equalTo("POST")
@@ -195,7 +222,7 @@ public final class GithubIssuesTestCase {
         );
 
         final MockJsonResources.MockRequest open = resources.requests()
-            .atIndex(2);
+            .atIndex(3);
         MatcherAssert.assertThat(
             open.getMethod(),
             Matchers.equalTo("POST")
@@ -578,4 +605,58 @@ public final class GithubIssuesTestCase {
             found, Matchers.emptyIterable()
         );
     }
+
+    /**
+     * GithubIssues can list the Issues updated since some moment.
+     */
+    @Test
+    public void listsUpdatedIssues() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createArrayBuilder()
+                    .add(Json.createObjectBuilder().add("number", 1))
+                    .add(Json.createObjectBuilder().add("number", 7))
+                    .build()
+            )
+        );
+        final Map<String, Issue> updated = new GithubIssues(
+            resources,
+            URI.create("https://api.github.com/repos/amihaiemil/repo/issues"),
+            Mockito.mock(Repo.class),
+            Mockito.mock(Storage.class)
+        ).updatedSince(Instant.parse("2021-03-01T10:15:30.123Z"));
+        MatcherAssert.assertThat(
+            updated.keySet(), Matchers.containsInAnyOrder("1", "7")
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(),
+            Matchers.equalTo(
+                URI.create(
+                    "https://api.github.com/repos/amihaiemil/repo/issues"
+                    + "?state=all&since=2021-03-01T10:15:30Z"
+                    + "&sort=updated&direction=asc&per_page=100"
+                )
+            )
+        );
+    }
+
+    /**
+     * GithubIssues.updatedSince(...) complains if the Issues cannot
+     * be listed.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void complainsIfUpdatedIssuesCannotBeListed() {
+        new GithubIssues(
+            new MockJsonResources(
+                req -> new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_INTERNAL_ERROR,
+                    Json.createObjectBuilder().build()
+                )
+            ),
+            URI.create("https://api.github.com/repos/amihaiemil/repo/issues"),
+            Mockito.mock(Repo.class),
+            Mockito.mock(Storage.class)
+        ).updatedSince(Instant.now());
+    }
 }
@@ -67,7 +67,7 @@ public final class GithubRepoLabelsTestCase {
         MatcherAssert.assertThat(iterable,
             Matchers.iterableWithSize(2));
         MatcherAssert.assertThat(resources.requests().first().getUri(),
-            Matchers.equalTo(uri));
+            Matchers.equalTo(URI.create(uri.toString() + "?per_page=100")));
     }
 
     /**
@@ -38,6 +38,8 @@ import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
 
 /**
  * Unit tests for {@link GitlabIssue}.
@@ -335,23 +337,29 @@ public final class GitlabIssueTestCase {
                 + "/john%2Ftest/issues/1"),
             JsonObject.EMPTY_JSON_OBJECT,
             Mockito.mock(Storage.class),
-            resources
+            resources,
+            new GitlabUserIds(10, Duration.ofDays(1), Clock.systemUTC()),
+            new CommentIndex(10, Duration.ofHours(1), Clock.systemUTC())
         ).assign("john");
 
         final MockJsonResources.MockRequests requests = resources.requests();
         //checking GET "members" request
         MatcherAssert.assertThat(requests.first().getUri().toString(),
+            Matchers.equalTo("https://gitlab.com/api/v4/projects"
+                + "/john%2Ftest/members/all?per_page=100"));
+        //john is not among the listed members, so he is searched
+        MatcherAssert.assertThat(requests.atIndex(1).getUri().toString(),
             Matchers.equalTo("https://gitlab.com/api/v4/projects"
                 + "/john%2Ftest/search?scope=users&search=john"));
-        MatcherAssert.assertThat(requests.first().getMethod(), Matchers
+        MatcherAssert.assertThat(requests.atIndex(1).getMethod(), Matchers
             .equalTo("GET"));
         //checking PUT "assign" request
-        MatcherAssert.assertThat(requests.atIndex(1).getUri().toString(),
+        MatcherAssert.assertThat(requests.atIndex(2).getUri().toString(),
             Matchers.equalTo("https://gitlab.com/api/v4/projects"
                 + "/john%2Ftest/issues/1"));
-        MatcherAssert.assertThat(requests.atIndex(1).getMethod(), Matchers
+        MatcherAssert.assertThat(requests.atIndex(2).getMethod(), Matchers
             .equalTo("PUT"));
-        MatcherAssert.assertThat(requests.atIndex(1).getBody(), Matchers
+        MatcherAssert.assertThat(requests.atIndex(2).getBody(), Matchers
             .equalTo(Json.createObjectBuilder()
                 .add("assignee_id", 1)
                 .build()));
@@ -359,6 +367,66 @@ public final class GitlabIssueTestCase {
         MatcherAssert.assertThat(assigned, Matchers.is(true));
     }
 
+    /**
+     * GitlabIssue.assign(...) finds the user among the project members,
+     * which are remembered for the next assignments.
+     */
+    @Test
+    public void assignFindsUserAmongMembers() {
+        final MockJsonResources resources = new MockJsonResources(req -> {
+            final JsonValue body;
+            if (req.getUri().toString().endsWith("members/all?per_page=100")) {
+                body = Json.createArrayBuilder()
+                    .add(Json.createObjectBuilder()
+                        .add("id", 1)
+                        .add("username", "john"))
+                    .add(Json.createObjectBuilder()
+                        .add("id", 2)
+                        .add("username", "dan"))
+                    .build();
+            } else {
+                body = JsonValue.NULL;
+            }
+            return new MockJsonResources.MockResource(200, body);
+        });
+        final GitlabUserIds userIds = new GitlabUserIds(
+            10, Duration.ofDays(1), Clock.systemUTC()
+        );
+        final boolean john = new GitlabIssue(
+            URI.create("https://gitlab.com/api/v4/projects"
+                + "/john%2Ftest/issues/1"),
+            JsonObject.EMPTY_JSON_OBJECT,
+            Mockito.mock(Storage.class),
+            resources,
+            userIds,
+            new CommentIndex(10, Duration.ofHours(1), Clock.systemUTC())
+        ).assign("john");
+        final boolean dan = new GitlabIssue(
+            URI.create("https://gitlab.com/api/v4/projects"
+                + "/john%2Ftest/issues/2"),
+            JsonObject.EMPTY_JSON_OBJECT,
+            Mockito.mock(Storage.class),
+            resources,
+            userIds,
+            new CommentIndex(10, Duration.ofHours(1), Clock.systemUTC())
+        ).assign("dan");
+        MatcherAssert.assertThat(john, Matchers.is(true));
+        MatcherAssert.assertThat(dan, Matchers.is(true));
+        final MockJsonResources.MockRequests requests = resources.requests();
+        MatcherAssert.assertThat(requests, Matchers.iterableWithSize(3));
+        MatcherAssert.assertThat(requests.first().getUri().toString(),
+            Matchers.equalTo("https://gitlab.com/api/v4/projects"
+                + "/john%2Ftest/members/all?per_page=100"));
+        MatcherAssert.assertThat(requests.atIndex(1).getMethod(),
+            Matchers.equalTo("PUT"));
+        MatcherAssert.assertThat(requests.last().getMethod(),
+            Matchers.equalTo("PUT"));
+        MatcherAssert.assertThat(requests.last().getBody(), Matchers
+            .equalTo(Json.createObjectBuilder()
+                .add("assignee_id", 2)
+                .build()));
+    }
+
     /**
      *GitlabIssue.assign(...) is successful when issue is a merge request.
      */
@@ -386,23 +454,29 @@ public final class GitlabIssueTestCase {
                 + "/john%2Ftest/merge_requests/1"),
             JsonObject.EMPTY_JSON_OBJECT,
             Mockito.mock(Storage.class),
-            resources
+            resources,
+            new GitlabUserIds(10, Duration.ofDays(1), Clock.systemUTC()),
+            new CommentIndex(10, Duration.ofHours(1), Clock.systemUTC())
         ).assign("john");
 
         final MockJsonResources.MockRequests requests = resources.requests();
         //checking GET "members" request
         MatcherAssert.assertThat(requests.first().getUri().toString(),
+            Matchers.equalTo("https://gitlab.com/api/v4/projects"
+                + "/john%2Ftest/members/all?per_page=100"));
+        //john is not among the listed members, so he is searched
+        MatcherAssert.assertThat(requests.atIndex(1).getUri().toString(),
             Matchers.equalTo("https://gitlab.com/api/v4/projects"
                 + "/john%2Ftest/search?scope=users&search=john"));
-        MatcherAssert.assertThat(requests.first().getMethod(), Matchers
+        MatcherAssert.assertThat(requests.atIndex(1).getMethod(), Matchers
             .equalTo("GET"));
         //checking PUT "assign" request
-        MatcherAssert.assertThat(requests.atIndex(1).getUri().toString(),
+        MatcherAssert.assertThat(requests.atIndex(2).getUri().toString(),
             Matchers.equalTo("https://gitlab.com/api/v4/projects"
                 + "/john%2Ftest/merge_requests/1"));
-        MatcherAssert.assertThat(requests.atIndex(1).getMethod(), Matchers
+        MatcherAssert.assertThat(requests.atIndex(2).getMethod(), Matchers
             .equalTo("PUT"));
-        MatcherAssert.assertThat(requests.atIndex(1).getBody(), Matchers
+        MatcherAssert.assertThat(requests.atIndex(2).getBody(), Matchers
             .equalTo(Json.createObjectBuilder()
                 .add("assignee_id", 1)
                 .build()));
@@ -437,7 +511,9 @@ public final class GitlabIssueTestCase {
                 + "/john%2Ftest/issues/1"),
             JsonObject.EMPTY_JSON_OBJECT,
             Mockito.mock(Storage.class),
-            resources
+            resources,
+            new GitlabUserIds(10, Duration.ofDays(1), Clock.systemUTC()),
+            new CommentIndex(10, Duration.ofHours(1), Clock.systemUTC())
         ).assign("john");
 
         MatcherAssert.assertThat(assigned, Matchers.is(false));
@@ -463,7 +539,9 @@ public final class GitlabIssueTestCase {
                 + "/john%2Ftest/issues/1"),
             JsonObject.EMPTY_JSON_OBJECT,
             Mockito.mock(Storage.class),
-            resources
+            resources,
+            new GitlabUserIds(10, Duration.ofDays(1), Clock.systemUTC()),
+            new CommentIndex(10, Duration.ofHours(1), Clock.systemUTC())
         ).assign("john");
 
         MatcherAssert.assertThat(assigned, Matchers.is(false));
@@ -495,7 +573,9 @@ public final class GitlabIssueTestCase {
                 + "/john%2Ftest/issues/1"),
             JsonObject.EMPTY_JSON_OBJECT,
             Mockito.mock(Storage.class),
-            resources
+            resources,
+            new GitlabUserIds(10, Duration.ofDays(1), Clock.systemUTC()),
+            new CommentIndex(10, Duration.ofHours(1), Clock.systemUTC())
         ).assign("dan");
 
         MatcherAssert.assertThat(assigned, Matchers.is(false));
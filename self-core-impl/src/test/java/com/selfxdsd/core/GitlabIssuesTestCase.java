@@ -35,6 +35,8 @@ import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.time.Instant;
+import java.util.Map;
 
 /**
  * Unit tests for {@link GitlabIssues}.
@@ -280,8 +282,22 @@ public final class GitlabIssuesTestCase {
             created.issueId(), Matchers.equalTo("123")
         );
 
-        final MockJsonResources.MockRequest bug = resources.requests()
+        final MockJsonResources.MockRequest labels = resources.requests()
             .atIndex(0);
+        MatcherAssert.assertThat(
+            labels.getMethod(),
+            Matchers.equalTo("GET")
+        );
+        MatcherAssert.assertThat(
+            labels.getUri().toString(),
+            Matchers.equalTo(
+                "https://gitlab.com/api/v4/projects/amihaiemil%2Frepo"
+                + "/labels?per_page=100"
+            )
+        );
+
+        final MockJsonResources.MockRequest bug = resources.requests()
+            .atIndex(1);
         MatcherAssert.assertThat(
             bug.getMethod(),
             Matchers.equalTo("POST")
@@ -298,7 +314,7 @@ public final class GitlabIssuesTestCase {
         );
 
         final MockJsonResources.MockRequest puzzle = resources.requests()
-            .atIndex(1);
+            .atIndex(2);
         MatcherAssert.assertThat(
             puzzle.getMethod(),
             Matchers.equalTo("POST")
@@ -315,7 +331,7 @@ public final class GitlabIssuesTestCase {
         );
 
         final MockJsonResources.MockRequest open = resources.requests()
-            .atIndex(2);
+            .atIndex(3);
         MatcherAssert.assertThat(
             open.getMethod(),
             Matchers.equalTo("POST")
@@ -613,4 +629,35 @@ public final class GitlabIssuesTestCase {
             Matchers.instanceOf(FoundIssues.class)
         ));
     }
+
+    /**
+     * GitlabIssues can list the Issues updated since some moment.
+     */
+    @Test
+    public void listsUpdatedIssues() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createArrayBuilder()
+                    .add(Json.createObjectBuilder().add("iid", 3))
+                    .build()
+            )
+        );
+        final Map<String, Issue> updated = new GitlabIssues(
+            resources,
+            URI.create("https://gitlab.com/api/v4/projects/john%2Ftest/issues"),
+            Mockito.mock(Repo.class),
+            Mockito.mock(Storage.class)
+        ).updatedSince(Instant.parse("2021-03-01T10:15:30Z"));
+        MatcherAssert.assertThat(
+            updated.keySet(), Matchers.contains("3")
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri().toString(),
+            Matchers.endsWith(
+                "/issues?updated_after=2021-03-01T10:15:30Z"
+                + "&order_by=updated_at&sort=asc&per_page=100"
+            )
+        );
+    }
 }
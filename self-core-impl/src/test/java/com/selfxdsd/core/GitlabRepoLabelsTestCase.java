@@ -119,6 +119,44 @@ public final class GitlabRepoLabelsTestCase {
         );
     }
 
+    /**
+     * GitlabRepoLabels can add more labels at once and returns false if
+     * one of them could not be created.
+     */
+    @Test
+    public void addsMoreLabels(){
+        final MockJsonResources resources =
+            new MockJsonResources(
+                req -> {
+                    final JsonObject body = (JsonObject) req.getBody();
+                    final int status;
+                    if("duplicate".equals(body.getString("name"))) {
+                        status = HttpURLConnection.HTTP_CONFLICT;
+                    } else {
+                        status = HttpURLConnection.HTTP_CREATED;
+                    }
+                    return new MockJsonResources.MockResource(
+                        status, JsonValue.NULL
+                    );
+                }
+            );
+        final Labels repoLabels = new GitlabRepoLabels(
+            URI.create(
+                "https://gitlab.com/api/v4/projects/"
+                + "/amihaiemil%2Ftestrepo/labels"
+            ),
+            resources
+        );
+        MatcherAssert.assertThat(
+            repoLabels.add("bug", "duplicate", "enhancement"),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            resources.requests(),
+            Matchers.iterableWithSize(3)
+        );
+    }
+
     /**
      * GitlabRepoLabels can remove a label. Here, we expect
      * 2 API calls to be made: 1 for fetching all labels and 1 for
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Unit tests for {@link GitlabUserIds}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class GitlabUserIdsTestCase {
+
+    /**
+     * Project URI.
+     */
+    private static final URI PROJECT = URI.create(
+        "https://gitlab.com/api/v4/projects/john%2Ftest"
+    );
+
+    /**
+     * It remembers the ids of all the project members.
+     */
+    @Test
+    public void remembersMembers() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.members();
+        final GitlabUserIds ids = new GitlabUserIds(
+            10, Duration.ofDays(1), Clock.systemUTC()
+        );
+        MatcherAssert.assertThat(
+            ids.id(resources, PROJECT, "john"), Matchers.is(1)
+        );
+        MatcherAssert.assertThat(
+            ids.id(resources, PROJECT, "dan"), Matchers.is(2)
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+    }
+
+    /**
+     * It forgets the ids after the TTL.
+     */
+    @Test
+    public void forgetsExpiredIds() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.members();
+        final GitlabUserIds ids = new GitlabUserIds(
+            10, Duration.ofSeconds(-1), Clock.systemUTC()
+        );
+        ids.id(resources, PROJECT, "john");
+        ids.id(resources, PROJECT, "john");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(4)
+        );
+    }
+
+    /**
+     * It remembers at most the given number of ids.
+     */
+    @Test
+    public void isBounded() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.members();
+        final GitlabUserIds ids = new GitlabUserIds(
+            1, Duration.ofDays(1), Clock.systemUTC()
+        );
+        MatcherAssert.assertThat(
+            ids.id(resources, PROJECT, "dan"), Matchers.is(2)
+        );
+        MatcherAssert.assertThat(
+            ids.id(resources, PROJECT, "john"), Matchers.is(1)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().last().getUri().toString(),
+            Matchers.endsWith("search?scope=users&search=john")
+        );
+    }
+
+    /**
+     * It returns null if the user is not found.
+     */
+    @Test
+    public void returnsNullIfNotFound() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.members();
+        final GitlabUserIds ids = new GitlabUserIds(
+            10, Duration.ofDays(1), Clock.systemUTC()
+        );
+        MatcherAssert.assertThat(
+            ids.id(resources, PROJECT, "mihai"), Matchers.nullValue()
+        );
+    }
+
+    /**
+     * It remembers, for a while, that a user was not found.
+     */
+    @Test
+    public void remembersMisses() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.members();
+        final GitlabUserIds ids = new GitlabUserIds(
+            10, Duration.ofDays(1), Duration.ofMinutes(5), Clock.systemUTC()
+        );
+        ids.id(resources, PROJECT, "mihai");
+        MatcherAssert.assertThat(
+            ids.id(resources, PROJECT, "mihai"), Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * It looks up a user who was not found again, after the miss TTL.
+     */
+    @Test
+    public void forgetsExpiredMisses() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.members();
+        final GitlabUserIds ids = new GitlabUserIds(
+            10, Duration.ofDays(1), Duration.ofSeconds(-1), Clock.systemUTC()
+        );
+        ids.id(resources, PROJECT, "mihai");
+        ids.id(resources, PROJECT, "mihai");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(4)
+        );
+    }
+
+    /**
+     * The ids are remembered per project: a member of one project is
+     * looked up again in another project.
+     */
+    @Test
+    public void remembersIdsPerProject() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.members();
+        final GitlabUserIds ids = new GitlabUserIds(
+            10, Duration.ofDays(1), Clock.systemUTC()
+        );
+        ids.id(resources, PROJECT, "dan");
+        ids.id(
+            resources,
+            URI.create("https://gitlab.com/api/v4/projects/john%2Fother"),
+            "dan"
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().last().getUri().toString(),
+            Matchers.equalTo(
+                "https://gitlab.com/api/v4/projects/john%2Fother"
+                + "/members/all?per_page=100"
+            )
+        );
+    }
+
+    /**
+     * Resources which list two members, john and dan. The search finds
+     * only john.
+     * @return MockJsonResources.
+     */
+    private static MockJsonResources members() {
+        return new MockJsonResources(
+            req -> {
+                final JsonValue body;
+                if(req.getUri().toString().endsWith("per_page=100")) {
+                    body = Json.createArrayBuilder()
+                        .add(
+                            Json.createObjectBuilder()
+                                .add("id", 1)
+                                .add("username", "john")
+                        )
+                        .add(
+                            Json.createObjectBuilder()
+                                .add("id", 2)
+                                .add("username", "dan")
+                        )
+                        .build();
+                } else {
+                    body = Json.createArrayBuilder()
+                        .add(
+                            Json.createObjectBuilder()
+                                .add("id", 1)
+                                .add("username", "john")
+                        )
+                        .build();
+                }
+                return new MockJsonResources.MockResource(200, body);
+            }
+        );
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Provider;
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Unit tests for {@link GuardedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class GuardedJsonResourcesTestCase {
+
+    /**
+     * URI used in the tests.
+     */
+    private static final URI ISSUE = URI.create(
+        "https://api.github.com/repos/amihaiemil/docker-java-api/issues/1"
+    );
+
+    /**
+     * After 2 server errors the circuit of the host is open and requests
+     * fail fast, without reaching the origin.
+     */
+    @Test
+    public void failsFastWhenCircuitIsOpen() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_UNAVAILABLE, JsonValue.NULL
+            )
+        );
+        final CircuitBreakers breakers = new CircuitBreakers(
+            2, Duration.ofMinutes(1), Duration.ofMinutes(1), 1
+        );
+        final JsonResources guarded = new GuardedJsonResources(
+            origin, breakers, 10, Duration.ofSeconds(1)
+        );
+        guarded.get(ISSUE);
+        guarded.get(ISSUE);
+        MatcherAssert.assertThat(
+            breakers.state("api.github.com"),
+            Matchers.is(CircuitBreakers.State.OPEN)
+        );
+        MatcherAssert.assertThat(
+            breakers.available(Provider.Names.GITHUB),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            breakers.available(Provider.Names.GITLAB),
+            Matchers.is(true)
+        );
+        try {
+            guarded.get(ISSUE);
+            MatcherAssert.assertThat("ISE was expected!", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(),
+                Matchers.containsString("is open")
+            );
+        }
+        MatcherAssert.assertThat(
+            origin.requests(), Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * Client errors do not open the circuit.
+     */
+    @Test
+    public void clientErrorsAreNotFailures() {
+        final CircuitBreakers breakers = new CircuitBreakers(
+            1, Duration.ofMinutes(1), Duration.ofMinutes(1), 1
+        );
+        final JsonResources guarded = new GuardedJsonResources(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_NOT_FOUND, JsonValue.NULL
+                )
+            ),
+            breakers, 10, Duration.ofSeconds(1)
+        );
+        guarded.get(ISSUE);
+        MatcherAssert.assertThat(
+            breakers.state("api.github.com"),
+            Matchers.is(CircuitBreakers.State.CLOSED)
+        );
+    }
+
+    /**
+     * When the bulkhead is full, an asynchronous request fails right away.
+     */
+    @Test
+    public void failsFastWhenBulkheadIsFull() {
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(origin.getAsync(ISSUE)).thenReturn(
+            new CompletableFuture<>()
+        );
+        final JsonResources guarded = new GuardedJsonResources(
+            origin, new CircuitBreakers(), 1, Duration.ofMillis(10)
+        );
+        final CompletableFuture<Resource> pending = guarded.getAsync(ISSUE);
+        MatcherAssert.assertThat(pending.isDone(), Matchers.is(false));
+        try {
+            guarded.getAsync(ISSUE).join();
+            MatcherAssert.assertThat("Exception was expected!", false);
+        } catch (final CompletionException ex) {
+            MatcherAssert.assertThat(
+                ex.getCause().getMessage(),
+                Matchers.containsString("Too many requests in flight")
+            );
+        }
+    }
+
+    /**
+     * A probe which fails with any RuntimeException is recorded as a
+     * failure, so the half-open circuit lets the next probe through.
+     */
+    @Test
+    public void releasesProbeOnAnyException() {
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(origin.get(ISSUE))
+            .thenReturn(
+                new MockResource(
+                    HttpURLConnection.HTTP_UNAVAILABLE, JsonValue.NULL
+                )
+            )
+            .thenThrow(new IllegalArgumentException("Unexpected."))
+            .thenReturn(
+                new MockResource(HttpURLConnection.HTTP_OK, JsonValue.NULL)
+            );
+        final CircuitBreakers breakers = new CircuitBreakers(
+            1, Duration.ofMinutes(1), Duration.ZERO, 1
+        );
+        final JsonResources guarded = new GuardedJsonResources(
+            origin, breakers, 10, Duration.ofSeconds(1)
+        );
+        guarded.get(ISSUE);
+        try {
+            guarded.get(ISSUE);
+            MatcherAssert.assertThat("IAE was expected!", false);
+        } catch (final IllegalArgumentException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), Matchers.equalTo("Unexpected.")
+            );
+        }
+        MatcherAssert.assertThat(
+            guarded.get(ISSUE).statusCode(),
+            Matchers.is(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(
+            breakers.state("api.github.com"),
+            Matchers.is(CircuitBreakers.State.CLOSED)
+        );
+    }
+
+    /**
+     * The API host of each Provider is given to the CircuitBreakers.
+     */
+    @Test
+    public void usesGivenProviderHosts() {
+        final CircuitBreakers breakers = new CircuitBreakers(
+            Map.of(Provider.Names.GITLAB, "gitlab.example.com"),
+            1, Duration.ofMinutes(1), Duration.ofMinutes(1), 1
+        );
+        new GuardedJsonResources(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_INTERNAL_ERROR, JsonValue.NULL
+                )
+            ),
+            breakers, 10, Duration.ofSeconds(1)
+        ).get(URI.create("https://gitlab.example.com/api/v4/projects/1"));
+        MatcherAssert.assertThat(
+            breakers.available(Provider.Names.GITLAB),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            breakers.available(Provider.Names.GITHUB),
+            Matchers.is(true)
+        );
+    }
+}
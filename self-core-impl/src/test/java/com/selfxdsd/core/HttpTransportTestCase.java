@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Unit tests for {@link HttpTransport}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class HttpTransportTestCase {
+
+    /**
+     * The same HttpClient is used for all the requests to the same host.
+     */
+    @Test
+    public void reusesClientForSameHost() {
+        final HttpTransport transport = new HttpTransport();
+        final HttpClient first = transport.client(
+            URI.create("https://api.github.com/repos/amihaiemil/docker-java")
+        );
+        final HttpClient second = transport.client(
+            URI.create("https://api.github.com/user/repository_invitations")
+        );
+        MatcherAssert.assertThat(first, Matchers.sameInstance(second));
+    }
+
+    /**
+     * The shared transport is the same for all the callers, so they
+     * share the HttpClient of each host.
+     */
+    @Test
+    public void sharesClientsProcessWide() {
+        final URI uri = URI.create("https://api.github.com/user");
+        MatcherAssert.assertThat(
+            HttpTransport.shared(),
+            Matchers.sameInstance(HttpTransport.shared())
+        );
+        MatcherAssert.assertThat(
+            HttpTransport.shared().client(uri),
+            Matchers.sameInstance(HttpTransport.shared().client(uri))
+        );
+    }
+
+    /**
+     * Each host has its own HttpClient.
+     */
+    @Test
+    public void differentClientsForDifferentHosts() {
+        final HttpTransport transport = new HttpTransport();
+        MatcherAssert.assertThat(
+            transport.client(URI.create("https://api.github.com/repos")),
+            Matchers.not(
+                Matchers.sameInstance(
+                    transport.client(
+                        URI.create("https://gitlab.com/api/v4/projects")
+                    )
+                )
+            )
+        );
+    }
+
+    /**
+     * The HttpClient is configured with the given connect timeout and
+     * prefers HTTP/2.
+     */
+    @Test
+    public void configuresClient() {
+        final HttpClient client = new HttpTransport(
+            Duration.ofSeconds(3),
+            Duration.ofSeconds(20),
+            10
+        ).client(URI.create("https://api.github.com"));
+        MatcherAssert.assertThat(
+            client.connectTimeout().get(),
+            Matchers.equalTo(Duration.ofSeconds(3))
+        );
+        MatcherAssert.assertThat(
+            client.version(),
+            Matchers.is(HttpClient.Version.HTTP_2)
+        );
+    }
+
+    /**
+     * The number of connections per host must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveConnections() {
+        new HttpTransport(Duration.ofSeconds(1), Duration.ofSeconds(1), 0);
+    }
+}
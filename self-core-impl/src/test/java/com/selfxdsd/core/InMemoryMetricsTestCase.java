@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for {@link InMemoryMetrics}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class InMemoryMetricsTestCase {
+
+    /**
+     * It returns the endpoints where most time was spent first.
+     */
+    @Test
+    public void returnsHotEndpointsFirst() {
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        metrics.record(
+            new Metrics.Call(
+                "github", "GET", "/repos/{o}/{r}", 200,
+                Duration.ofMillis(30), 0, 100, 10, false
+            )
+        );
+        metrics.record(
+            new Metrics.Call(
+                "github", "GET", "/repos/{o}/{r}/issues/{n}", 200,
+                Duration.ofMillis(20), 0, 100, 9, false
+            )
+        );
+        metrics.record(
+            new Metrics.Call(
+                "github", "GET", "/repos/{o}/{r}/issues/{n}", 304,
+                Duration.ofMillis(20), 0, 0, 8, true
+            )
+        );
+        final List<String> hot = metrics.endpoints().stream()
+            .map(InMemoryMetrics.Endpoint::template)
+            .collect(Collectors.toList());
+        MatcherAssert.assertThat(
+            hot,
+            Matchers.contains("/repos/{o}/{r}/issues/{n}", "/repos/{o}/{r}")
+        );
+        MatcherAssert.assertThat(metrics.headroom("github"), Matchers.is(8));
+    }
+
+    /**
+     * It keeps the latency histogram, the status codes and the bytes.
+     */
+    @Test
+    public void keepsEndpointMetrics() {
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        metrics.record(
+            new Metrics.Call(
+                "gitlab", "POST", "/projects/{p}/issues", 201,
+                Duration.ofMillis(5), 50, 200, -1, false
+            )
+        );
+        metrics.record(
+            new Metrics.Call(
+                "gitlab", "POST", "/projects/{p}/issues", 500,
+                Duration.ofMillis(700), 50, -1, -1, false
+            )
+        );
+        metrics.record(
+            new Metrics.Call(
+                "gitlab", "POST", "/projects/{p}/issues",
+                Metrics.Call.FAILED, Duration.ofSeconds(30), 50, -1, -1, false
+            )
+        );
+        final InMemoryMetrics.Endpoint endpoint = metrics.endpoints().get(0);
+        MatcherAssert.assertThat(endpoint.count(), Matchers.is(3L));
+        MatcherAssert.assertThat(endpoint.conditional(), Matchers.is(0L));
+        MatcherAssert.assertThat(endpoint.sent(), Matchers.is(150L));
+        MatcherAssert.assertThat(endpoint.received(), Matchers.is(200L));
+        MatcherAssert.assertThat(
+            endpoint.statuses().keySet(),
+            Matchers.contains(Metrics.Call.FAILED, 201, 500)
+        );
+        MatcherAssert.assertThat(
+            endpoint.latencies().get(10L), Matchers.is(1L)
+        );
+        MatcherAssert.assertThat(
+            endpoint.latencies().get(1000L), Matchers.is(1L)
+        );
+        MatcherAssert.assertThat(
+            endpoint.latencies().get(Long.MAX_VALUE), Matchers.is(1L)
+        );
+        MatcherAssert.assertThat(
+            endpoint.total(), Matchers.is(Duration.ofMillis(30705))
+        );
+        MatcherAssert.assertThat(metrics.headroom("gitlab"), Matchers.is(-1));
+    }
+}
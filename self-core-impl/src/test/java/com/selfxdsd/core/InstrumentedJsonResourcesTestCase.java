@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Unit tests for {@link InstrumentedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class InstrumentedJsonResourcesTestCase {
+
+    /**
+     * It normalises the URIs into templates.
+     */
+    @Test
+    public void normalisesTemplates() {
+        MatcherAssert.assertThat(
+            InstrumentedJsonResources.template(
+                URI.create(
+                    "https://api.github.com/repos/amihaiemil/docker-java-api"
+                    + "/issues/123/comments?per_page=100"
+                )
+            ),
+            Matchers.equalTo("/repos/{o}/{r}/issues/{n}/comments")
+        );
+        MatcherAssert.assertThat(
+            InstrumentedJsonResources.template(
+                URI.create(
+                    "https://gitlab.com/api/v4/projects/amihaiemil%2Frepo"
+                    + "/issues/5/notes"
+                )
+            ),
+            Matchers.equalTo("/api/v4/projects/{p}/issues/{n}/notes")
+        );
+        MatcherAssert.assertThat(
+            InstrumentedJsonResources.template(
+                URI.create("https://api.github.com/users/amihaiemil")
+            ),
+            Matchers.equalTo("/users/{u}")
+        );
+        MatcherAssert.assertThat(
+            InstrumentedJsonResources.template(
+                URI.create("https://api.github.com")
+            ),
+            Matchers.equalTo("/")
+        );
+    }
+
+    /**
+     * It records a GET call.
+     */
+    @Test
+    public void recordsGet() {
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        final JsonResources resources = new InstrumentedJsonResources(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    JsonValue.EMPTY_JSON_OBJECT,
+                    Map.of("X-RateLimit-Remaining", List.of("4999"))
+                )
+            ),
+            "github",
+            metrics
+        );
+        resources.get(
+            URI.create("https://api.github.com/repos/mihai/self/issues/1")
+        );
+        resources.get(
+            URI.create("https://api.github.com/repos/mihai/other/issues/2"),
+            Map.of("If-None-Match", "\"etag\"")
+        );
+        final InMemoryMetrics.Endpoint endpoint = metrics.endpoints().get(0);
+        MatcherAssert.assertThat(
+            metrics.endpoints(), Matchers.iterableWithSize(1)
+        );
+        MatcherAssert.assertThat(endpoint.provider(), Matchers.is("github"));
+        MatcherAssert.assertThat(endpoint.method(), Matchers.is("GET"));
+        MatcherAssert.assertThat(
+            endpoint.template(), Matchers.is("/repos/{o}/{r}/issues/{n}")
+        );
+        MatcherAssert.assertThat(endpoint.count(), Matchers.is(2L));
+        MatcherAssert.assertThat(endpoint.conditional(), Matchers.is(1L));
+        MatcherAssert.assertThat(
+            endpoint.statuses(),
+            Matchers.equalTo(Map.of(HttpURLConnection.HTTP_OK, 2L))
+        );
+        MatcherAssert.assertThat(endpoint.sent(), Matchers.is(0L));
+        MatcherAssert.assertThat(metrics.headroom("github"), Matchers.is(4999));
+        MatcherAssert.assertThat(metrics.headroom("gitlab"), Matchers.is(-1));
+    }
+
+    /**
+     * It records the bytes sent and the async calls.
+     */
+    @Test
+    public void recordsAsyncPost() {
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        final JsonResources resources = new InstrumentedJsonResources(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_CREATED,
+                    JsonValue.EMPTY_JSON_OBJECT
+                )
+            ),
+            "gitlab",
+            metrics
+        );
+        resources.postAsync(
+            URI.create("https://gitlab.com/api/v4/projects/1/issues/2/notes"),
+            Json.createObjectBuilder().add("body", "hi").build()
+        ).join();
+        final InMemoryMetrics.Endpoint endpoint = metrics.endpoints().get(0);
+        MatcherAssert.assertThat(endpoint.method(), Matchers.is("POST"));
+        MatcherAssert.assertThat(
+            endpoint.statuses(),
+            Matchers.equalTo(Map.of(HttpURLConnection.HTTP_CREATED, 1L))
+        );
+        MatcherAssert.assertThat(
+            endpoint.sent(), Matchers.is((long) "{\"body\":\"hi\"}".length())
+        );
+    }
+
+    /**
+     * It records the failed calls and rethrows the failure.
+     */
+    @Test
+    public void recordsFailures() {
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        final JsonResources resources = new InstrumentedJsonResources(
+            new MockJsonResources(
+                req -> {
+                    throw new IllegalStateException("Connection refused");
+                }
+            ),
+            "github",
+            metrics
+        );
+        try {
+            resources.get(URI.create("https://api.github.com/user"));
+            Assert.fail("The failure should have been rethrown.");
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), Matchers.is("Connection refused")
+            );
+        }
+        final CompletableFuture<Resource> async = resources.getAsync(
+            URI.create("https://api.github.com/user")
+        );
+        MatcherAssert.assertThat(
+            async.isCompletedExceptionally(), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            metrics.endpoints().get(0).statuses(),
+            Matchers.equalTo(Map.of(Metrics.Call.FAILED, 2L))
+        );
+    }
+}
@@ -35,6 +35,7 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.time.Duration;
 
 /**
  * Integration tests for {@link com.selfxdsd.core.JsonResources.JdkHttp}.
@@ -254,4 +255,72 @@ public final class JdkHttpITCase {
             );
         }
     }
+
+    /**
+     * An authenticated JdkHttp keeps using the transport it was given,
+     * so two consecutive requests go to the server over the same
+     * HttpTransport.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void authenticatedReusesTransport() throws IOException {
+        final JsonObject json = Json.createObjectBuilder()
+            .add("from", "server")
+            .build();
+        try(
+            final MkContainer container = new MkGrizzlyContainer().next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_OK, json.toString())
+            ).next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_OK, json.toString())
+            ).start(this.resource.port())
+        ) {
+            final HttpTransport transport = new HttpTransport(
+                Duration.ofSeconds(5), Duration.ofSeconds(5), 1
+            );
+            final JsonResources resources = new JsonResources.JdkHttp(
+                transport
+            ).authenticated(new AccessToken.Github("123token456"));
+            MatcherAssert.assertThat(
+                resources.get(container.home()).asJsonObject(),
+                Matchers.equalTo(json)
+            );
+            MatcherAssert.assertThat(
+                resources.get(container.home()).asJsonObject(),
+                Matchers.equalTo(json)
+            );
+            MatcherAssert.assertThat(
+                container.take().headers().get("Authorization").get(0),
+                Matchers.equalTo("token 123token456")
+            );
+        }
+    }
+
+    /**
+     * JdkHttp can GET a JsonObject asynchronously.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void getsJsonObjectAsync() throws IOException {
+        final JsonObject json = Json.createObjectBuilder()
+            .add("from", "server")
+            .build();
+        try(
+            final MkContainer container = new MkGrizzlyContainer().next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_OK, json.toString())
+            ).start(this.resource.port())
+        ) {
+            final Resource response = new JsonResources.JdkHttp()
+                .authenticated(new AccessToken.Github("123token456"))
+                .getAsync(container.home())
+                .join();
+            MatcherAssert.assertThat(
+                response.statusCode(),
+                Matchers.equalTo(HttpURLConnection.HTTP_OK)
+            );
+            MatcherAssert.assertThat(
+                response.asJsonObject(),
+                Matchers.equalTo(json)
+            );
+        }
+    }
 }
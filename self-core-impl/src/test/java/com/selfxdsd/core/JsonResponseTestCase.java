@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for {@link JsonResources.JsonResponse}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class JsonResponseTestCase {
+
+    /**
+     * The body is parsed only once.
+     */
+    @Test
+    public void parsesBodyOnce() {
+        final Resource response = new JsonResources.JsonResponse(
+            200, "{\"id\": 1}"
+        );
+        final JsonObject first = response.asJsonObject();
+        MatcherAssert.assertThat(first.getInt("id"), Matchers.is(1));
+        MatcherAssert.assertThat(
+            response.asJsonObject(),
+            Matchers.sameInstance(first)
+        );
+    }
+
+    /**
+     * The elements of an array body can be streamed.
+     */
+    @Test
+    public void streamsElements() {
+        final Resource response = new JsonResources.JsonResponse(
+            200, "[{\"id\": 1}, {\"id\": 2, \"labels\": [{}]}, {\"id\": 3}]"
+        );
+        MatcherAssert.assertThat(
+            response.elements()
+                .map(JsonValue::asJsonObject)
+                .map(issue -> issue.getInt("id"))
+                .collect(Collectors.toList()),
+            Matchers.contains(1, 2, 3)
+        );
+    }
+
+    /**
+     * The elements of an array found at some key can be streamed,
+     * skipping the other keys.
+     */
+    @Test
+    public void streamsElementsOfKey() {
+        final Resource response = new JsonResources.JsonResponse(
+            200,
+            "{\"total_count\": 2, \"meta\": {\"items\": [0]}, "
+            + "\"other\": [[1], {\"items\": 2}], "
+            + "\"items\": [{\"number\": 5}, {\"number\": 6}], "
+            + "\"incomplete_results\": false}"
+        );
+        MatcherAssert.assertThat(
+            response.elements("items")
+                .map(JsonValue::asJsonObject)
+                .map(issue -> issue.getInt("number"))
+                .collect(Collectors.toList()),
+            Matchers.contains(5, 6)
+        );
+        MatcherAssert.assertThat(
+            response.elements("missing").count(),
+            Matchers.is(0L)
+        );
+    }
+
+    /**
+     * If the body was already parsed, the elements come from the tree.
+     */
+    @Test
+    public void elementsOfParsedBody() {
+        final Resource response = new JsonResources.JsonResponse(
+            200, "{\"items\": [1, 2]}"
+        );
+        response.asJsonObject();
+        MatcherAssert.assertThat(
+            response.elements("items").count(),
+            Matchers.is(2L)
+        );
+    }
+
+    /**
+     * A body which is not of the expected shape has no elements.
+     */
+    @Test
+    public void noElementsOfOtherShape() {
+        final Resource object = new JsonResources.JsonResponse(
+            404, "{\"message\": \"Not Found\"}"
+        );
+        MatcherAssert.assertThat(object.elements().count(), Matchers.is(0L));
+        final Resource array = new JsonResources.JsonResponse(
+            200, "[{\"items\": [1, 2]}]"
+        );
+        MatcherAssert.assertThat(
+            array.elements("items").count(),
+            Matchers.is(0L)
+        );
+        object.asJsonObject();
+        MatcherAssert.assertThat(object.elements().count(), Matchers.is(0L));
+        array.asJsonArray();
+        MatcherAssert.assertThat(
+            array.elements("items").count(),
+            Matchers.is(0L)
+        );
+    }
+}
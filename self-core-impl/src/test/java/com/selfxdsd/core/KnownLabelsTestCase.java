@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Label;
+import com.selfxdsd.api.Labels;
+import com.selfxdsd.api.Provider;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for {@link KnownLabels}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class KnownLabelsTestCase {
+
+    /**
+     * URI of the repo's Issues.
+     */
+    private static final URI ISSUES = URI.create(
+        "https://api.github.com/repos/amihaiemil/repo/issues"
+    );
+
+    /**
+     * KnownLabels loads the labels once and creates only the missing ones.
+     */
+    @Test
+    public void addsOnlyMissingLabels() {
+        final Labels origin = KnownLabelsTestCase.origin("bug", "Puzzle");
+        final KnownLabels.Cache cache = new KnownLabels.Cache(
+            Duration.ofHours(1)
+        );
+        MatcherAssert.assertThat(
+            new KnownLabels(origin, ISSUES, cache)
+                .add("bug", "puzzle", "enhancement"),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new KnownLabels(origin, ISSUES, cache)
+                .add("bug", "enhancement"),
+            Matchers.is(true)
+        );
+        Mockito.verify(origin, Mockito.times(1)).iterator();
+        Mockito.verify(origin, Mockito.times(1)).add("enhancement");
+        Mockito.verify(origin, Mockito.times(1)).add(
+            Mockito.<String>anyVararg()
+        );
+        MatcherAssert.assertThat(
+            cache.saved(),
+            Matchers.is(4L)
+        );
+    }
+
+    /**
+     * KnownLabels doesn't make any request if there is nothing to add.
+     */
+    @Test
+    public void addsNothing() {
+        final Labels origin = KnownLabelsTestCase.origin("bug");
+        MatcherAssert.assertThat(
+            new KnownLabels(
+                origin, ISSUES, new KnownLabels.Cache(Duration.ofHours(1))
+            ).add(),
+            Matchers.is(true)
+        );
+        Mockito.verify(origin, Mockito.never()).iterator();
+        Mockito.verify(origin, Mockito.never()).add(
+            Mockito.<String>anyVararg()
+        );
+    }
+
+    /**
+     * The labels are known per Cache.
+     */
+    @Test
+    public void knowsLabelsPerCache() {
+        final Labels origin = KnownLabelsTestCase.origin("bug");
+        new KnownLabels(
+            origin, ISSUES, new KnownLabels.Cache(Duration.ofHours(1))
+        ).add("bug");
+        new KnownLabels(
+            origin, ISSUES, new KnownLabels.Cache(Duration.ofHours(1))
+        ).add("bug");
+        Mockito.verify(origin, Mockito.times(2)).iterator();
+        Mockito.verify(origin, Mockito.never()).add(
+            Mockito.<String>anyVararg()
+        );
+    }
+
+    /**
+     * The labels are loaded again once they expire, as told by the Clock.
+     */
+    @Test
+    public void reloadsExpiredLabels() {
+        final AtomicReference<Instant> now = new AtomicReference<>(
+            Instant.ofEpochSecond(1_000_000)
+        );
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenAnswer(invocation -> now.get());
+        final Labels origin = KnownLabelsTestCase.origin("bug");
+        final KnownLabels.Cache cache = new KnownLabels.Cache(
+            Duration.ofHours(1), 10, clock
+        );
+        new KnownLabels(origin, ISSUES, cache).add("bug");
+        now.set(now.get().plus(Duration.ofMinutes(59)));
+        new KnownLabels(origin, ISSUES, cache).add("bug");
+        Mockito.verify(origin, Mockito.times(1)).iterator();
+        now.set(now.get().plus(Duration.ofMinutes(2)));
+        new KnownLabels(origin, ISSUES, cache).add("bug");
+        Mockito.verify(origin, Mockito.times(2)).iterator();
+    }
+
+    /**
+     * At most the given number of repos are remembered.
+     */
+    @Test
+    public void remembersBoundedNumberOfRepos() {
+        final Labels origin = KnownLabelsTestCase.origin("bug");
+        final KnownLabels.Cache cache = new KnownLabels.Cache(
+            Duration.ofHours(1), 2, Clock.systemUTC()
+        );
+        for(int idx = 0; idx < 5; ++idx) {
+            new KnownLabels(
+                origin,
+                URI.create(
+                    "https://api.github.com/repos/amihaiemil/repo" + idx
+                    + "/issues"
+                ),
+                cache
+            ).add("bug");
+        }
+        MatcherAssert.assertThat(cache.size(), Matchers.is(2));
+    }
+
+    /**
+     * The labels are loaded again after they are invalidated.
+     */
+    @Test
+    public void reloadsAfterInvalidation() {
+        final Labels origin = KnownLabelsTestCase.origin("bug");
+        final KnownLabels.Cache cache = new KnownLabels.Cache(
+            Duration.ofHours(1)
+        );
+        new KnownLabels(origin, ISSUES, cache).add("bug");
+        cache.invalidate(Provider.Names.GITHUB, "AmihaiEmil/repo");
+        new KnownLabels(origin, ISSUES, cache).add("bug");
+        Mockito.verify(origin, Mockito.times(2)).iterator();
+    }
+
+    /**
+     * Invalidating another repo keeps the known labels.
+     */
+    @Test
+    public void keepsLabelsOfOtherRepos() {
+        final Labels origin = KnownLabelsTestCase.origin("bug");
+        final KnownLabels.Cache cache = new KnownLabels.Cache(
+            Duration.ofHours(1)
+        );
+        new KnownLabels(origin, ISSUES, cache).add("bug");
+        cache.invalidate(Provider.Names.GITHUB, "amihaiemil/other");
+        cache.invalidate(Provider.Names.GITLAB, "amihaiemil/repo");
+        new KnownLabels(origin, ISSUES, cache).add("bug");
+        Mockito.verify(origin, Mockito.times(1)).iterator();
+    }
+
+    /**
+     * A removed label is created again.
+     */
+    @Test
+    public void createsRemovedLabel() {
+        final Labels origin = KnownLabelsTestCase.origin("bug");
+        Mockito.when(origin.remove("bug")).thenReturn(true);
+        final KnownLabels.Cache cache = new KnownLabels.Cache(
+            Duration.ofHours(1)
+        );
+        new KnownLabels(origin, ISSUES, cache).add("bug");
+        MatcherAssert.assertThat(
+            new KnownLabels(origin, ISSUES, cache).remove("bug"),
+            Matchers.is(true)
+        );
+        new KnownLabels(origin, ISSUES, cache).add("bug");
+        Mockito.verify(origin, Mockito.times(1)).add("bug");
+    }
+
+    /**
+     * Concurrent adds to the same repo wait for the same load of
+     * the labels.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void loadsLabelsOnceConcurrently() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Label bug = Mockito.mock(Label.class);
+        Mockito.when(bug.name()).thenReturn("bug");
+        final Labels origin = Mockito.mock(Labels.class);
+        Mockito.when(origin.iterator()).thenAnswer(
+            invocation -> {
+                loading.countDown();
+                release.await(30, TimeUnit.SECONDS);
+                return List.of(bug).iterator();
+            }
+        );
+        final KnownLabels.Cache cache = new KnownLabels.Cache(
+            Duration.ofHours(1)
+        );
+        final CompletableFuture<Boolean> first = CompletableFuture
+            .supplyAsync(
+                () -> new KnownLabels(origin, ISSUES, cache).add("bug")
+            );
+        loading.await(30, TimeUnit.SECONDS);
+        final CompletableFuture<Boolean> second = CompletableFuture
+            .supplyAsync(
+                () -> new KnownLabels(origin, ISSUES, cache).add("bug")
+            );
+        release.countDown();
+        MatcherAssert.assertThat(first.get(), Matchers.is(true));
+        MatcherAssert.assertThat(second.get(), Matchers.is(true));
+        Mockito.verify(origin, Mockito.times(1)).iterator();
+        Mockito.verify(origin, Mockito.never()).add(
+            Mockito.<String>anyVararg()
+        );
+    }
+
+    /**
+     * A load of the labels which fails is not remembered.
+     */
+    @Test
+    public void forgetsFailedLoad() {
+        final Labels origin = KnownLabelsTestCase.origin("bug");
+        Mockito.when(origin.iterator())
+            .thenThrow(new IllegalStateException("Github is down."))
+            .thenAnswer(invocation -> List.<Label>of().iterator());
+        final KnownLabels.Cache cache = new KnownLabels.Cache(
+            Duration.ofHours(1)
+        );
+        try {
+            new KnownLabels(origin, ISSUES, cache).add("bug");
+            MatcherAssert.assertThat("ISE was expected!", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), Matchers.equalTo("Github is down.")
+            );
+        }
+        new KnownLabels(origin, ISSUES, cache).add("bug");
+        Mockito.verify(origin, Mockito.times(2)).iterator();
+        Mockito.verify(origin, Mockito.times(1)).add("bug");
+    }
+
+    /**
+     * Mock Labels, which already contain the given names.
+     * @param names Names of the existing labels.
+     * @return Labels.
+     */
+    private static Labels origin(final String... names) {
+        final Labels labels = Mockito.mock(Labels.class);
+        final Label[] existing = new Label[names.length];
+        for(int idx = 0; idx < names.length; ++idx) {
+            existing[idx] = Mockito.mock(Label.class);
+            Mockito.when(existing[idx].name()).thenReturn(names[idx]);
+        }
+        Mockito.when(labels.iterator()).thenAnswer(
+            invocation -> List.of(existing).iterator()
+        );
+        Mockito.when(
+            labels.add(Mockito.<String>anyVararg())
+        ).thenReturn(true);
+        return labels;
+    }
+}
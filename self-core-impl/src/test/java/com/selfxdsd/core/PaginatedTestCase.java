@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonNumber;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link Paginated}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class PaginatedTestCase {
+
+    /**
+     * Paginated follows the Link rel="next" header until the last page.
+     */
+    @Test
+    public void followsLinkHeader() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final String uri = req.getUri().toString();
+                final MockResource page;
+                if(uri.endsWith("page=2")) {
+                    page = PaginatedTestCase.page(
+                        "<https://api.github.com/items?page=1>; rel=\"prev\"",
+                        3, 4
+                    );
+                } else {
+                    page = PaginatedTestCase.page(
+                        "<https://api.github.com/items?page=2>; rel=\"next\", "
+                        + "<https://api.github.com/items?page=2>; rel=\"last\"",
+                        1, 2
+                    );
+                }
+                return page;
+            }
+        );
+        MatcherAssert.assertThat(
+            PaginatedTestCase.numbers(
+                new Paginated<>(
+                    resources,
+                    URI.create("https://api.github.com/items"),
+                    Resource::elements,
+                    item -> ((JsonNumber) item).intValue()
+                )
+            ),
+            Matchers.contains(1, 2, 3, 4)
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * Paginated follows Gitlab's X-Next-Page header.
+     */
+    @Test
+    public void followsXNextPageHeader() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final String uri = req.getUri().toString();
+                final MockResource page;
+                if(uri.endsWith("page=2")) {
+                    page = new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder().add(2).build(),
+                        Map.of("X-Next-Page", List.of(""))
+                    );
+                } else {
+                    page = new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder().add(1).build(),
+                        Map.of("X-Next-Page", List.of("2"))
+                    );
+                }
+                return page;
+            }
+        );
+        MatcherAssert.assertThat(
+            PaginatedTestCase.numbers(
+                new Paginated<>(
+                    resources,
+                    URI.create("https://gitlab.com/api/v4/hooks?per_page=100"),
+                    Resource::elements,
+                    item -> ((JsonNumber) item).intValue()
+                )
+            ),
+            Matchers.contains(1, 2)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(1).getUri(),
+            Matchers.equalTo(
+                URI.create("https://gitlab.com/api/v4/hooks?per_page=100&page=2")
+            )
+        );
+    }
+
+    /**
+     * The next page is fetched only when the current one is exhausted.
+     */
+    @Test
+    public void fetchesPagesLazily() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> PaginatedTestCase.page(
+                "<" + req.getUri() + "x>; rel=\"next\"", 1, 2
+            )
+        );
+        final Iterator<Integer> iterator = new Paginated<>(
+            resources,
+            URI.create("https://api.github.com/items?page=1"),
+            Resource::elements,
+            item -> ((JsonNumber) item).intValue()
+        ).iterator();
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+        iterator.next();
+        iterator.next();
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+        iterator.next();
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * With prefetching, the next page is requested as soon as the
+     * current one arrives.
+     */
+    @Test
+    public void prefetchesNextPage() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> PaginatedTestCase.page(
+                "<" + req.getUri() + "x>; rel=\"next\"", 1, 2
+            )
+        );
+        final Iterator<Integer> iterator = new Paginated<>(
+            resources,
+            URI.create("https://api.github.com/items?page=1"),
+            Resource::elements,
+            item -> ((JsonNumber) item).intValue(),
+            true
+        ).iterator();
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+        iterator.next();
+        iterator.next();
+        iterator.next();
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(3)
+        );
+    }
+
+    /**
+     * Paginated can point a URI to another page.
+     */
+    @Test
+    public void pointsUriToPage() {
+        MatcherAssert.assertThat(
+            Paginated.page(URI.create("https://gitlab.com/hooks"), "2"),
+            Matchers.equalTo(URI.create("https://gitlab.com/hooks?page=2"))
+        );
+        MatcherAssert.assertThat(
+            Paginated.page(
+                URI.create("https://gitlab.com/hooks?page=2&per_page=100"),
+                "3"
+            ),
+            Matchers.equalTo(
+                URI.create("https://gitlab.com/hooks?page=3&per_page=100")
+            )
+        );
+    }
+
+    /**
+     * Mock a page.
+     * @param link Link header.
+     * @param items Items on the page.
+     * @return MockResource.
+     */
+    private static MockResource page(final String link, final int... items) {
+        final JsonArrayBuilder array = Json.createArrayBuilder();
+        for(final int item : items) {
+            array.add(item);
+        }
+        return new MockResource(
+            HttpURLConnection.HTTP_OK,
+            array.build(),
+            Map.of("Link", List.of(link))
+        );
+    }
+
+    /**
+     * Read the numbers from an Iterable.
+     * @param iterable Iterable.
+     * @return List.
+     */
+    private static List<Integer> numbers(final Iterable<Integer> iterable) {
+        final List<Integer> numbers = new ArrayList<>();
+        iterable.forEach(numbers::add);
+        return numbers;
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Unit tests for {@link Permits}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class PermitsTestCase {
+
+    /**
+     * Asynchronous work is queued while there are no permits and started
+     * once a permit is released.
+     */
+    @Test
+    public void queuesAsyncWorkUntilPermitIsReleased() {
+        final Permits permits = new Permits(1);
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> second = new CompletableFuture<>();
+        final CompletableFuture<String> firstResult = permits.async(
+            () -> first
+        );
+        final boolean[] started = new boolean[1];
+        final CompletableFuture<String> secondResult = permits.async(
+            () -> {
+                started[0] = true;
+                return second;
+            }
+        );
+        MatcherAssert.assertThat(started[0], Matchers.is(false));
+        first.complete("first");
+        MatcherAssert.assertThat(firstResult.join(), Matchers.is("first"));
+        MatcherAssert.assertThat(started[0], Matchers.is(true));
+        second.complete("second");
+        MatcherAssert.assertThat(secondResult.join(), Matchers.is("second"));
+    }
+
+    /**
+     * A permit is released if the asynchronous work fails, and the failure
+     * is propagated.
+     */
+    @Test
+    public void releasesPermitOnFailure() {
+        final Permits permits = new Permits(1);
+        final CompletableFuture<String> failed = permits.async(
+            () -> CompletableFuture.failedFuture(
+                new IllegalStateException("failed")
+            )
+        );
+        try {
+            failed.join();
+        } catch (final CompletionException ex) {
+            MatcherAssert.assertThat(
+                ex.getCause().getMessage(),
+                Matchers.equalTo("failed")
+            );
+        }
+        MatcherAssert.assertThat(
+            permits.async(() -> CompletableFuture.completedFuture("ok"))
+                .join(),
+            Matchers.equalTo("ok")
+        );
+    }
+
+    /**
+     * If starting the asynchronous work throws, whatever the
+     * RuntimeException, the permit is released and the future fails.
+     */
+    @Test
+    public void releasesPermitIfWorkCannotStart() {
+        final Permits permits = new Permits(1);
+        final CompletableFuture<String> failed = permits.async(
+            () -> {
+                throw new IllegalArgumentException("bad request");
+            }
+        );
+        MatcherAssert.assertThat(
+            failed.isCompletedExceptionally(), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(permits.idle(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            permits.async(() -> CompletableFuture.completedFuture("ok"))
+                .join(),
+            Matchers.equalTo("ok")
+        );
+    }
+
+    /**
+     * Blocking acquire/release work together with the asynchronous work.
+     * @throws InterruptedException If something goes wrong.
+     */
+    @Test
+    public void blockingReleaseStartsQueuedWork()
+        throws InterruptedException {
+        final Permits permits = new Permits(1);
+        permits.acquire();
+        final CompletableFuture<String> queued = permits.async(
+            () -> CompletableFuture.completedFuture("queued")
+        );
+        MatcherAssert.assertThat(queued.isDone(), Matchers.is(false));
+        permits.release();
+        MatcherAssert.assertThat(queued.join(), Matchers.is("queued"));
+    }
+
+    /**
+     * A long queue of work which fails right away is drained in a loop,
+     * without overflowing the stack.
+     * @throws InterruptedException If something goes wrong.
+     */
+    @Test
+    public void drainsLongQueueWithoutRecursion()
+        throws InterruptedException {
+        final Permits permits = new Permits(1);
+        permits.acquire();
+        final List<CompletableFuture<String>> queued = new ArrayList<>();
+        for(int idx = 0; idx < 100_000; ++idx) {
+            queued.add(
+                permits.async(
+                    () -> {
+                        throw new IllegalStateException("fails right away");
+                    }
+                )
+            );
+        }
+        permits.release();
+        for(final CompletableFuture<String> work : queued) {
+            MatcherAssert.assertThat(
+                work.isCompletedExceptionally(), Matchers.is(true)
+            );
+        }
+        MatcherAssert.assertThat(permits.idle(), Matchers.is(true));
+    }
+}
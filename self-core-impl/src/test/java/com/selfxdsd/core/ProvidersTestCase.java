@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Provider;
+import com.selfxdsd.api.User;
+import com.selfxdsd.api.storage.Storage;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link Providers}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class ProvidersTestCase {
+
+    /**
+     * It returns the right Provider, by name.
+     */
+    @Test
+    public void returnsProviderByName() {
+        final Providers providers = new Providers(
+            name -> Mockito.mock(JsonResources.class), 10
+        );
+        final User user = Mockito.mock(User.class);
+        final Storage storage = Mockito.mock(Storage.class);
+        MatcherAssert.assertThat(
+            providers.provider(Provider.Names.GITHUB, user, storage),
+            Matchers.instanceOf(Github.class)
+        );
+        MatcherAssert.assertThat(
+            providers.provider(Provider.Names.GITLAB, user, storage),
+            Matchers.instanceOf(Gitlab.class)
+        );
+        MatcherAssert.assertThat(
+            providers.provider(Provider.Names.BITBUCKET, user, storage),
+            Matchers.instanceOf(Bitbucket.class)
+        );
+    }
+
+    /**
+     * The process-wide registry is built once and keeps the stacks it
+     * builds, so they are reused.
+     */
+    @Test
+    public void sharedRegistryKeepsStacks() {
+        final Providers shared = Providers.shared();
+        MatcherAssert.assertThat(
+            shared, Matchers.sameInstance(Providers.shared())
+        );
+        final User user = Mockito.mock(User.class);
+        final Storage storage = Mockito.mock(Storage.class);
+        shared.provider(Provider.Names.GITHUB, user, storage);
+        final long reused = shared.reused();
+        shared.provider(Provider.Names.GITHUB, user, storage);
+        MatcherAssert.assertThat(
+            shared.reused(), Matchers.greaterThan(reused)
+        );
+    }
+
+    /**
+     * It complains if the Provider is unknown, instead of defaulting
+     * to some other Provider.
+     */
+    @Test
+    public void complainsOnUnknownProvider() {
+        final Providers providers = new Providers(
+            name -> Mockito.mock(JsonResources.class), 10
+        );
+        try {
+            providers.provider(
+                "sourceforge",
+                Mockito.mock(User.class),
+                Mockito.mock(Storage.class)
+            );
+            MatcherAssert.assertThat("ISE was expected!", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(),
+                Matchers.equalTo("Unknown Provider: [sourceforge].")
+            );
+        }
+        MatcherAssert.assertThat(providers.created(), Matchers.is(0L));
+    }
+
+    /**
+     * The stack of a token is built once and then reused by all the
+     * Providers with that token.
+     */
+    @Test
+    public void reusesStackOfToken() {
+        final AtomicInteger built = new AtomicInteger();
+        final Resource repo = Mockito.mock(Resource.class);
+        Mockito.when(repo.statusCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        Mockito.when(repo.asJsonObject()).thenReturn(
+            Json.createObjectBuilder().build()
+        );
+        final JsonResources authenticated = Mockito.mock(JsonResources.class);
+        Mockito.when(authenticated.get(Mockito.any(URI.class)))
+            .thenReturn(repo);
+        final Providers providers = new Providers(
+            name -> {
+                built.incrementAndGet();
+                final JsonResources stack = Mockito.mock(JsonResources.class);
+                Mockito.when(stack.authenticated(Mockito.any()))
+                    .thenReturn(authenticated);
+                return stack;
+            },
+            10
+        );
+        final User user = Mockito.mock(User.class);
+        final Storage storage = Mockito.mock(Storage.class);
+        providers.provider(Provider.Names.GITHUB, user, storage)
+            .withToken("token123")
+            .repo("amihaiemil", "docker-java-api")
+            .json();
+        providers.provider(Provider.Names.GITHUB, user, storage)
+            .withToken("token123")
+            .repo("amihaiemil", "docker-java-api")
+            .json();
+        Mockito.verify(authenticated, Mockito.times(2)).get(
+            URI.create(
+                "https://api.github.com/repos/amihaiemil/docker-java-api"
+            )
+        );
+        MatcherAssert.assertThat(built.get(), Matchers.is(1));
+        MatcherAssert.assertThat(providers.created(), Matchers.is(2L));
+        MatcherAssert.assertThat(providers.reused(), Matchers.is(3L));
+        MatcherAssert.assertThat(providers.evicted(), Matchers.is(0L));
+    }
+
+    /**
+     * Different tokens get different stacks.
+     */
+    @Test
+    public void separatesTokens() {
+        final Providers providers = new Providers(
+            name -> {
+                final JsonResources stack = Mockito.mock(JsonResources.class);
+                Mockito.when(stack.authenticated(Mockito.any()))
+                    .thenAnswer(
+                        inv -> Mockito.mock(JsonResources.class)
+                    );
+                return stack;
+            },
+            10
+        );
+        final User user = Mockito.mock(User.class);
+        final Storage storage = Mockito.mock(Storage.class);
+        providers.provider(Provider.Names.GITHUB, user, storage)
+            .withToken("first");
+        providers.provider(Provider.Names.GITHUB, user, storage)
+            .withToken("second");
+        providers.provider(Provider.Names.GITLAB, user, storage)
+            .withToken("first");
+        MatcherAssert.assertThat(providers.created(), Matchers.is(5L));
+    }
+
+    /**
+     * The least recently used stacks are evicted when the registry is full.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final Providers providers = new Providers(
+            name -> {
+                final JsonResources stack = Mockito.mock(JsonResources.class);
+                Mockito.when(stack.authenticated(Mockito.any()))
+                    .thenAnswer(
+                        inv -> Mockito.mock(JsonResources.class)
+                    );
+                return stack;
+            },
+            2
+        );
+        final User user = Mockito.mock(User.class);
+        final Storage storage = Mockito.mock(Storage.class);
+        providers.provider(Provider.Names.GITHUB, user, storage)
+            .withToken("first");
+        providers.provider(Provider.Names.GITHUB, user, storage)
+            .withToken("second");
+        MatcherAssert.assertThat(providers.evicted(), Matchers.is(1L));
+        MatcherAssert.assertThat(providers.created(), Matchers.is(3L));
+    }
+
+    /**
+     * A revoked token's stack can be evicted, it is built again next time.
+     */
+    @Test
+    public void evictsRevokedToken() {
+        final Providers providers = new Providers(
+            name -> {
+                final JsonResources stack = Mockito.mock(JsonResources.class);
+                Mockito.when(stack.authenticated(Mockito.any()))
+                    .thenAnswer(
+                        inv -> Mockito.mock(JsonResources.class)
+                    );
+                return stack;
+            },
+            10
+        );
+        final User user = Mockito.mock(User.class);
+        final Storage storage = Mockito.mock(Storage.class);
+        providers.provider(Provider.Names.GITLAB, user, storage)
+            .withToken("revoked");
+        providers.evict(Provider.Names.GITLAB, "revoked");
+        providers.evict(Provider.Names.GITLAB, "unknown");
+        MatcherAssert.assertThat(providers.evicted(), Matchers.is(1L));
+        providers.provider(Provider.Names.GITLAB, user, storage)
+            .withToken("revoked");
+        MatcherAssert.assertThat(providers.created(), Matchers.is(3L));
+    }
+}
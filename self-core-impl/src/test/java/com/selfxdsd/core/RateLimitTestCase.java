@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.RateLimitedJsonResources.Priority;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link RateLimit}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class RateLimitTestCase {
+
+    /**
+     * Current moment used in the tests.
+     */
+    private static final Instant NOW = Instant.ofEpochSecond(1_000_000);
+
+    /**
+     * Requests don't wait if we don't know the budget yet.
+     */
+    @Test
+    public void noWaitIfBudgetIsUnknown() {
+        final RateLimit limit = new RateLimit(10);
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.LOW, NOW),
+            Matchers.equalTo(Duration.ZERO)
+        );
+        MatcherAssert.assertThat(limit.remaining(), Matchers.is(-1));
+    }
+
+    /**
+     * Even high priority requests wait until the reset if the budget
+     * is exhausted.
+     */
+    @Test
+    public void waitsForResetIfExhausted() {
+        final RateLimit limit = new RateLimit(10);
+        limit.update(this.github(0, 60), NOW);
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.HIGH, NOW),
+            Matchers.equalTo(Duration.ofSeconds(60))
+        );
+    }
+
+    /**
+     * Low priority requests are spread until the reset time and the
+     * remaining budget is decremented.
+     */
+    @Test
+    public void spreadsLowPriorityRequests() {
+        final RateLimit limit = new RateLimit(100);
+        limit.update(this.github(150, 50), NOW);
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.LOW, NOW),
+            Matchers.equalTo(Duration.ZERO)
+        );
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.LOW, NOW),
+            Matchers.equalTo(Duration.ofSeconds(1))
+        );
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.HIGH, NOW),
+            Matchers.equalTo(Duration.ZERO)
+        );
+        MatcherAssert.assertThat(limit.remaining(), Matchers.is(147));
+    }
+
+    /**
+     * Low priority requests don't touch the reserve, while high priority
+     * requests do.
+     */
+    @Test
+    public void keepsReserveForHighPriority() {
+        final RateLimit limit = new RateLimit(100);
+        limit.update(this.github(100, 30), NOW);
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.LOW, NOW),
+            Matchers.equalTo(Duration.ofSeconds(30))
+        );
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.HIGH, NOW),
+            Matchers.equalTo(Duration.ZERO)
+        );
+    }
+
+    /**
+     * Low priority requests are not slowed down while there is plenty of
+     * budget left above the reserve.
+     */
+    @Test
+    public void noSlowdownWhileBudgetIsPlenty() {
+        final RateLimit limit = new RateLimit(100);
+        limit.update(this.github(4000, 3600), NOW);
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.LOW, NOW),
+            Matchers.equalTo(Duration.ZERO)
+        );
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.LOW, NOW),
+            Matchers.equalTo(Duration.ZERO)
+        );
+        MatcherAssert.assertThat(limit.remaining(), Matchers.is(3998));
+    }
+
+    /**
+     * A request which would wait longer than the maximum is not reserved
+     * and it doesn't use the budget.
+     */
+    @Test
+    public void doesNotReserveBeyondMaxWait() {
+        final RateLimit limit = new RateLimit(100);
+        limit.update(this.github(100, 60), NOW);
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.LOW, NOW, Duration.ofSeconds(10)),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(limit.remaining(), Matchers.is(100));
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.HIGH, NOW, Duration.ofSeconds(10)),
+            Matchers.equalTo(Duration.ZERO)
+        );
+        MatcherAssert.assertThat(limit.remaining(), Matchers.is(99));
+    }
+
+    /**
+     * Retry-After blocks all the requests and the GitLab headers are
+     * understood as well.
+     */
+    @Test
+    public void respectsRetryAfterAndGitlabHeaders() {
+        final RateLimit limit = new RateLimit(10);
+        limit.update(
+            new MockResource(
+                429,
+                JsonValue.NULL,
+                Map.of(
+                    "RateLimit-Remaining", List.of("500"),
+                    "RateLimit-Reset",
+                    List.of(String.valueOf(NOW.getEpochSecond() + 600)),
+                    "Retry-After", List.of("20")
+                )
+            ),
+            NOW
+        );
+        MatcherAssert.assertThat(
+            limit.reserve(Priority.HIGH, NOW),
+            Matchers.equalTo(Duration.ofSeconds(20))
+        );
+        MatcherAssert.assertThat(limit.remaining(), Matchers.is(500));
+    }
+
+    /**
+     * Github response with rate limit headers.
+     * @param remaining Remaining requests.
+     * @param resetIn Seconds until the reset.
+     * @return Resource.
+     */
+    private Resource github(final int remaining, final long resetIn) {
+        return new MockResource(
+            HttpURLConnection.HTTP_OK,
+            JsonValue.NULL,
+            Map.of(
+                "X-RateLimit-Remaining", List.of(String.valueOf(remaining)),
+                "X-RateLimit-Reset",
+                List.of(String.valueOf(NOW.getEpochSecond() + resetIn))
+            )
+        );
+    }
+}
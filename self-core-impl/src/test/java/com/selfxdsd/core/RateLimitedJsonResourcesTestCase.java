@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link RateLimitedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class RateLimitedJsonResourcesTestCase {
+
+    /**
+     * The budget reported in the response headers is tracked and
+     * decremented with each request.
+     */
+    @Test
+    public void tracksRemainingRequests() {
+        final Instant now = Instant.ofEpochSecond(1_000_000);
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                JsonValue.NULL,
+                Map.of(
+                    "X-RateLimit-Remaining", List.of("4000"),
+                    "X-RateLimit-Reset",
+                    List.of(String.valueOf(now.getEpochSecond() + 3600))
+                )
+            )
+        );
+        final RateLimitedJsonResources limited =
+            new RateLimitedJsonResources(
+                origin, 100, Clock.fixed(now, ZoneOffset.UTC)
+            );
+        MatcherAssert.assertThat(limited.remaining(), Matchers.is(-1));
+        final URI uri = URI.create("https://api.github.com/issues/1");
+        MatcherAssert.assertThat(
+            limited.get(uri).statusCode(),
+            Matchers.is(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(limited.remaining(), Matchers.is(4000));
+        limited.post(uri, Json.createObjectBuilder().build());
+        MatcherAssert.assertThat(limited.remaining(), Matchers.is(4000));
+        MatcherAssert.assertThat(
+            origin.requests().last().getMethod(),
+            Matchers.equalTo("POST")
+        );
+    }
+
+    /**
+     * Asynchronous requests are tracked as well.
+     */
+    @Test
+    public void tracksAsyncRequests() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_CREATED,
+                JsonValue.NULL,
+                Map.of(
+                    "X-RateLimit-Remaining", List.of("10"),
+                    "X-RateLimit-Reset",
+                    List.of(
+                        String.valueOf(
+                            Instant.now().getEpochSecond() + 3600
+                        )
+                    )
+                )
+            )
+        );
+        final RateLimitedJsonResources limited =
+            new RateLimitedJsonResources(origin, 5);
+        MatcherAssert.assertThat(
+            limited.postAsync(
+                URI.create("https://api.github.com/issues/1/comments"),
+                Json.createObjectBuilder().build()
+            ).join().statusCode(),
+            Matchers.is(HttpURLConnection.HTTP_CREATED)
+        );
+        MatcherAssert.assertThat(limited.remaining(), Matchers.is(10));
+    }
+
+    /**
+     * A request which would wait longer than the maximum fails instead of
+     * blocking the caller until the reset.
+     */
+    @Test
+    public void rejectsRequestsWhichWaitTooLong() {
+        final Instant now = Instant.ofEpochSecond(1_000_000);
+        final MockJsonResources origin = this.budget(now, 5);
+        final RateLimitedJsonResources limited =
+            new RateLimitedJsonResources(
+                origin, 10, Duration.ofSeconds(1),
+                Clock.fixed(now, ZoneOffset.UTC)
+            );
+        final URI uri = URI.create("https://api.github.com/issues/1");
+        limited.post(uri, Json.createObjectBuilder().build());
+        try {
+            limited.get(uri);
+            MatcherAssert.assertThat("ISE was expected!", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(),
+                Matchers.startsWith("Rate limit exhausted")
+            );
+        }
+        MatcherAssert.assertThat(
+            limited.getAsync(uri).isCompletedExceptionally(),
+            Matchers.is(Boolean.TRUE)
+        );
+        MatcherAssert.assertThat(
+            origin.requests(), Matchers.iterableWithSize(1)
+        );
+        MatcherAssert.assertThat(limited.remaining(), Matchers.is(5));
+    }
+
+    /**
+     * A prioritized instance makes high priority GET requests, without
+     * adding anything to the requests sent to the provider.
+     */
+    @Test
+    public void prioritizesGets() {
+        final Instant now = Instant.ofEpochSecond(1_000_000);
+        final MockJsonResources origin = this.budget(now, 5);
+        final RateLimitedJsonResources limited =
+            new RateLimitedJsonResources(
+                origin, 10, Duration.ofSeconds(1),
+                Clock.fixed(now, ZoneOffset.UTC)
+            );
+        final URI uri = URI.create("https://api.github.com/issues/1");
+        limited.post(uri, Json.createObjectBuilder().build());
+        final JsonResources prioritized = limited.prioritized(
+            RateLimitedJsonResources.Priority.HIGH
+        );
+        MatcherAssert.assertThat(
+            prioritized.get(uri).statusCode(),
+            Matchers.is(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().keySet(),
+            Matchers.everyItem(Matchers.not(Matchers.startsWith("X-Self")))
+        );
+        MatcherAssert.assertThat(limited.remaining(), Matchers.is(4));
+    }
+
+    /**
+     * A prioritized instance makes low priority writes too (e.g. the
+     * writes of a background scan), so they don't use the reserve.
+     */
+    @Test
+    public void prioritizesWrites() {
+        final Instant now = Instant.ofEpochSecond(1_000_000);
+        final MockJsonResources origin = this.budget(now, 5);
+        final RateLimitedJsonResources limited =
+            new RateLimitedJsonResources(
+                origin, 10, Duration.ofSeconds(1),
+                Clock.fixed(now, ZoneOffset.UTC)
+            );
+        final URI uri = URI.create("https://api.github.com/issues/1");
+        limited.post(uri, Json.createObjectBuilder().build());
+        try {
+            limited.prioritized(RateLimitedJsonResources.Priority.LOW).post(
+                uri, Json.createObjectBuilder().build()
+            );
+            MatcherAssert.assertThat("ISE was expected!", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(),
+                Matchers.startsWith("Rate limit exhausted")
+            );
+        }
+    }
+
+    /**
+     * The GraphQL requests have their own budget: what the provider
+     * reports about it doesn't touch the REST budget.
+     */
+    @Test
+    public void keepsGraphqlBudgetApart() {
+        final Instant now = Instant.ofEpochSecond(1_000_000);
+        final RateLimitedJsonResources limited =
+            new RateLimitedJsonResources(
+                this.budget(now, 5), 10, Duration.ofSeconds(1),
+                Clock.fixed(now, ZoneOffset.UTC)
+            );
+        limited.post(
+            URI.create("https://api.github.com/graphql"),
+            Json.createObjectBuilder().build()
+        );
+        MatcherAssert.assertThat(limited.remaining(), Matchers.is(-1));
+        MatcherAssert.assertThat(
+            limited.get(URI.create("https://api.github.com/issues/1"))
+                .statusCode(),
+            Matchers.is(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(limited.remaining(), Matchers.is(5));
+    }
+
+    /**
+     * Mock provider which reports the given budget, reset in one hour.
+     * @param now Current moment.
+     * @param remaining Remaining requests.
+     * @return MockJsonResources.
+     */
+    private MockJsonResources budget(final Instant now, final int remaining) {
+        return new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                JsonValue.NULL,
+                Map.of(
+                    "X-RateLimit-Remaining",
+                    List.of(String.valueOf(remaining)),
+                    "X-RateLimit-Reset",
+                    List.of(String.valueOf(now.getEpochSecond() + 3600))
+                )
+            )
+        );
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link RetryingJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class RetryingJsonResourcesTestCase {
+
+    /**
+     * URI used in the tests.
+     */
+    private static final URI ISSUE = URI.create(
+        "https://api.github.com/repos/amihaiemil/docker-java-api/issues/1"
+    );
+
+    /**
+     * A GET which receives 503 is retried until it succeeds.
+     */
+    @Test
+    public void retriesGetOnServerError() {
+        final AtomicInteger calls = new AtomicInteger();
+        final RetryingJsonResources retrying = this.retrying(
+            new MockJsonResources(
+                req -> {
+                    final int status;
+                    if(calls.incrementAndGet() < 3) {
+                        status = HttpURLConnection.HTTP_UNAVAILABLE;
+                    } else {
+                        status = HttpURLConnection.HTTP_OK;
+                    }
+                    return new MockResource(status, JsonValue.NULL);
+                }
+            )
+        );
+        MatcherAssert.assertThat(
+            retrying.get(ISSUE).statusCode(),
+            Matchers.is(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(retrying.attempts(), Matchers.is(3L));
+        MatcherAssert.assertThat(retrying.retries(), Matchers.is(2L));
+        MatcherAssert.assertThat(retrying.exhausted(), Matchers.is(0L));
+    }
+
+    /**
+     * After the maximum number of attempts, the last response is returned.
+     */
+    @Test
+    public void returnsLastResponseWhenExhausted() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(429, JsonValue.NULL)
+        );
+        final RetryingJsonResources retrying = this.retrying(origin);
+        MatcherAssert.assertThat(
+            retrying.delete(ISSUE, JsonValue.NULL).statusCode(),
+            Matchers.is(429)
+        );
+        MatcherAssert.assertThat(
+            origin.requests(), Matchers.iterableWithSize(3)
+        );
+        MatcherAssert.assertThat(retrying.exhausted(), Matchers.is(1L));
+    }
+
+    /**
+     * POST is not idempotent, so it is not retried.
+     */
+    @Test
+    public void doesNotRetryPost() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_BAD_GATEWAY, JsonValue.NULL
+            )
+        );
+        final RetryingJsonResources retrying = this.retrying(origin);
+        MatcherAssert.assertThat(
+            retrying.post(
+                ISSUE, Json.createObjectBuilder().build()
+            ).statusCode(),
+            Matchers.is(HttpURLConnection.HTTP_BAD_GATEWAY)
+        );
+        MatcherAssert.assertThat(
+            origin.requests(), Matchers.iterableWithSize(1)
+        );
+    }
+
+    /**
+     * Connection problems (IOException) are retried.
+     */
+    @Test
+    public void retriesIoFailures() {
+        final AtomicInteger calls = new AtomicInteger();
+        final RetryingJsonResources retrying = this.retrying(
+            new MockJsonResources(
+                req -> {
+                    if(calls.incrementAndGet() == 1) {
+                        throw new IllegalStateException(
+                            "Couldn't GET", new IOException("reset")
+                        );
+                    } else {
+                        return new MockResource(
+                            HttpURLConnection.HTTP_OK, JsonValue.NULL
+                        );
+                    }
+                }
+            )
+        );
+        MatcherAssert.assertThat(
+            retrying.get(ISSUE).statusCode(),
+            Matchers.is(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(retrying.retries(), Matchers.is(1L));
+    }
+
+    /**
+     * Other failures are not retried.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void doesNotRetryOtherFailures() {
+        this.retrying(
+            new MockJsonResources(
+                req -> {
+                    throw new IllegalStateException("Interrupted");
+                }
+            )
+        ).get(ISSUE);
+    }
+
+    /**
+     * A response body which cannot be decoded is not retried, even though
+     * the HttpClient reports it as an IOException.
+     */
+    @Test
+    public void doesNotRetryUndecodableBodies() {
+        final AtomicInteger calls = new AtomicInteger();
+        final RetryingJsonResources retrying = this.retrying(
+            new MockJsonResources(
+                req -> {
+                    calls.incrementAndGet();
+                    try {
+                        new DecodedBodies().decode(
+                            "gzip", "{}".getBytes(StandardCharsets.UTF_8)
+                        );
+                    } catch (final IllegalStateException ex) {
+                        throw new IllegalStateException(
+                            "Couldn't GET", new IOException("Failed", ex)
+                        );
+                    }
+                    return new MockResource(
+                        HttpURLConnection.HTTP_OK, JsonValue.NULL
+                    );
+                }
+            )
+        );
+        try {
+            retrying.get(ISSUE);
+            MatcherAssert.assertThat("ISE was expected!", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(calls.get(), Matchers.is(1));
+            MatcherAssert.assertThat(retrying.retries(), Matchers.is(0L));
+        }
+    }
+
+    /**
+     * Asynchronous GETs are retried as well.
+     */
+    @Test
+    public void retriesAsyncGet() {
+        final AtomicInteger calls = new AtomicInteger();
+        final RetryingJsonResources retrying = this.retrying(
+            new MockJsonResources(
+                req -> {
+                    final int status;
+                    if(calls.incrementAndGet() == 1) {
+                        status = HttpURLConnection.HTTP_INTERNAL_ERROR;
+                    } else {
+                        status = HttpURLConnection.HTTP_OK;
+                    }
+                    return new MockResource(status, JsonValue.NULL);
+                }
+            )
+        );
+        MatcherAssert.assertThat(
+            retrying.getAsync(ISSUE).join().statusCode(),
+            Matchers.is(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(retrying.attempts(), Matchers.is(2L));
+    }
+
+    /**
+     * Retrying JsonResources with short delays, for tests.
+     * @param origin Original JsonResources.
+     * @return RetryingJsonResources.
+     */
+    private RetryingJsonResources retrying(final JsonResources origin) {
+        return new RetryingJsonResources(
+            origin,
+            Map.of("GET", 3, "PUT", 3, "DELETE", 3),
+            Duration.ofMillis(1),
+            Duration.ofSeconds(5)
+        );
+    }
+}
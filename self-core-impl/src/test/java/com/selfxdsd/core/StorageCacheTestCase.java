@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link StorageCache}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class StorageCacheTestCase {
+
+    /**
+     * StorageCache reads a snapshot from the origin once, then answers
+     * from the cache.
+     */
+    @Test
+    public void readsOriginOnce() {
+        final AtomicInteger reads = new AtomicInteger();
+        final StorageCache<String> cache = new StorageCache<>(
+            10, Duration.ofHours(1)
+        );
+        for(int idx = 0; idx < 3; ++idx) {
+            MatcherAssert.assertThat(
+                cache.get(
+                    "key",
+                    () -> {
+                        reads.incrementAndGet();
+                        return List.of("a", "b");
+                    }
+                ),
+                Matchers.contains("a", "b")
+            );
+        }
+        MatcherAssert.assertThat(reads.get(), Matchers.is(1));
+        MatcherAssert.assertThat(cache.misses(), Matchers.is(1L));
+        MatcherAssert.assertThat(cache.hits(), Matchers.is(2L));
+    }
+
+    /**
+     * An evicted snapshot is read again from the origin.
+     */
+    @Test
+    public void readsAgainAfterEviction() {
+        final AtomicInteger reads = new AtomicInteger();
+        final StorageCache<String> cache = new StorageCache<>(
+            10, Duration.ofHours(1)
+        );
+        cache.get("key", () -> List.of("a", String.valueOf(reads.get())));
+        reads.incrementAndGet();
+        cache.evict("key");
+        MatcherAssert.assertThat(
+            cache.get("key", () -> List.of("a", String.valueOf(reads.get()))),
+            Matchers.contains("a", "1")
+        );
+        MatcherAssert.assertThat(cache.misses(), Matchers.is(2L));
+    }
+
+    /**
+     * Expired snapshots are read again from the origin.
+     */
+    @Test
+    public void expiresSnapshots() {
+        final AtomicInteger reads = new AtomicInteger();
+        final StorageCache<String> cache = new StorageCache<>(
+            10, Duration.ofSeconds(-1), Clock.systemUTC()
+        );
+        for(int idx = 0; idx < 3; ++idx) {
+            cache.get(
+                "key",
+                () -> {
+                    reads.incrementAndGet();
+                    return List.of("a");
+                }
+            );
+        }
+        MatcherAssert.assertThat(reads.get(), Matchers.is(3));
+        MatcherAssert.assertThat(cache.hits(), Matchers.is(0L));
+    }
+
+    /**
+     * StorageCache keeps at most maxEntries snapshots.
+     */
+    @Test
+    public void isBounded() {
+        final StorageCache<String> cache = new StorageCache<>(
+            2, Duration.ofHours(1)
+        );
+        cache.get("one", () -> List.of("1"));
+        cache.get("two", () -> List.of("2"));
+        cache.get("three", () -> List.of("3"));
+        MatcherAssert.assertThat(cache.size(), Matchers.is(2));
+    }
+
+    /**
+     * A snapshot read while the cache was invalidated is returned,
+     * but not cached.
+     */
+    @Test
+    public void doesNotCacheStaleSnapshot() {
+        final StorageCache<String> cache = new StorageCache<>(
+            10, Duration.ofHours(1)
+        );
+        MatcherAssert.assertThat(
+            cache.get(
+                "key",
+                () -> {
+                    cache.evict("key");
+                    return List.of("stale");
+                }
+            ),
+            Matchers.contains("stale")
+        );
+        MatcherAssert.assertThat(cache.size(), Matchers.is(0));
+    }
+
+    /**
+     * A held snapshot is not cached until it is released as many times
+     * as it was held.
+     */
+    @Test
+    public void doesNotCacheHeldSnapshot() {
+        final StorageCache<String> cache = new StorageCache<>(
+            10, Duration.ofHours(1)
+        );
+        cache.hold("key");
+        cache.hold("key");
+        cache.get("key", () -> List.of("a"));
+        MatcherAssert.assertThat(cache.size(), Matchers.is(0));
+        cache.release("key");
+        cache.get("key", () -> List.of("a"));
+        MatcherAssert.assertThat(cache.size(), Matchers.is(0));
+        cache.release("key");
+        cache.get("key", () -> List.of("a"));
+        cache.get("key", () -> List.of("a"));
+        MatcherAssert.assertThat(cache.size(), Matchers.is(1));
+        MatcherAssert.assertThat(cache.misses(), Matchers.is(3L));
+        MatcherAssert.assertThat(cache.hits(), Matchers.is(1L));
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Event;
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.ProjectManager;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link Workers}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class WorkersTestCase {
+
+    /**
+     * SAME_THREAD runs the units on the caller's thread, right away.
+     */
+    @Test
+    public void runsOnSameThread() {
+        final Thread caller = Thread.currentThread();
+        final List<Thread> threads = new ArrayList<>();
+        final CompletableFuture<Void> done = Workers.SAME_THREAD.run(
+            "github/1", () -> threads.add(Thread.currentThread())
+        );
+        MatcherAssert.assertThat(done.isDone(), Matchers.is(true));
+        MatcherAssert.assertThat(threads, Matchers.contains(caller));
+    }
+
+    /**
+     * SAME_THREAD throws the failure of a unit right away.
+     */
+    @Test
+    public void failsFastOnSameThread() {
+        try {
+            Workers.SAME_THREAD.run(
+                "github/1",
+                () -> {
+                    throw new IllegalStateException("Provider down.");
+                }
+            );
+            MatcherAssert.assertThat("ISE was expected!", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), Matchers.equalTo("Provider down.")
+            );
+        }
+    }
+
+    /**
+     * The failure of a unit completes its future exceptionally.
+     */
+    @Test
+    public void reportsFailures() {
+        final CompletableFuture<Void> failed = new Workers(
+            Runnable::run, 1
+        ).run(
+            "github/1",
+            () -> {
+                throw new IllegalStateException("Provider down.");
+            }
+        );
+        MatcherAssert.assertThat(
+            failed.isCompletedExceptionally(), Matchers.is(true)
+        );
+    }
+
+    /**
+     * The concurrency of a key is limited by the permits, not by the
+     * number of threads.
+     */
+    @Test
+    public void limitsConcurrencyPerKey() {
+        final Workers workers = new Workers(Executors.newCachedThreadPool(), 2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<CompletableFuture<Void>> units = new ArrayList<>();
+        for(int idx = 0; idx < 10; ++idx) {
+            units.add(
+                workers.run(
+                    "github/1",
+                    () -> {
+                        max.accumulateAndGet(
+                            running.incrementAndGet(), Math::max
+                        );
+                        WorkersTestCase.sleep(Duration.ofMillis(20));
+                        running.decrementAndGet();
+                    }
+                )
+            );
+        }
+        CompletableFuture.allOf(
+            units.toArray(new CompletableFuture[0])
+        ).join();
+        MatcherAssert.assertThat(max.get(), Matchers.is(2));
+    }
+
+    /**
+     * The Workers resolve 50 Events at the same time: each Event waits
+     * until all 50 are in flight, which would never happen if they were
+     * resolved one after the other.
+     */
+    @Test
+    public void resolvesEventsConcurrently() {
+        final ProjectManager manager = Mockito.mock(ProjectManager.class);
+        Mockito.when(manager.id()).thenReturn(1);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.provider()).thenReturn("github");
+        Mockito.when(project.projectManager()).thenReturn(manager);
+        final CountDownLatch inFlight = new CountDownLatch(50);
+        final AtomicInteger together = new AtomicInteger();
+        Mockito.doAnswer(
+            invocation -> {
+                inFlight.countDown();
+                if(inFlight.await(30, TimeUnit.SECONDS)) {
+                    together.incrementAndGet();
+                }
+                return null;
+            }
+        ).when(project).resolve(Mockito.any(Event.class));
+        final Workers workers = new Workers(
+            Executors.newCachedThreadPool(), 50
+        );
+        final List<CompletableFuture<Void>> events = new ArrayList<>();
+        for(int idx = 0; idx < 50; ++idx) {
+            events.add(workers.resolve(project, Mockito.mock(Event.class)));
+        }
+        CompletableFuture.allOf(
+            events.toArray(new CompletableFuture[0])
+        ).join();
+        MatcherAssert.assertThat(together.get(), Matchers.is(50));
+    }
+
+    /**
+     * Sleep.
+     * @param duration Duration.
+     */
+    private static void sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -24,6 +24,8 @@ package com.selfxdsd.core.contracts;
 
 import com.selfxdsd.api.*;
 import com.selfxdsd.api.exceptions.ContractsException;
+import com.selfxdsd.api.storage.Query;
+import com.selfxdsd.api.storage.Queryable;
 import com.selfxdsd.api.storage.Storage;
 import com.selfxdsd.core.contributors.StoredContributor;
 import org.hamcrest.MatcherAssert;
@@ -45,6 +47,32 @@ import java.util.stream.Stream;
  */
 public final class ProjectContractsTestCase {
 
+    /**
+     * ProjectContracts.count() is answered by the Storage, the Contracts
+     * are not read.
+     */
+    @Test
+    public void pushesCountDown() {
+        final Contracts contracts = new ProjectContracts(
+            "john/test", "github",
+            new Queryable<Contract>() {
+                @Override
+                public Stream<Contract> find(final Query<Contract> query) {
+                    throw new IllegalStateException(
+                        "Contracts should not be read when counting."
+                    );
+                }
+
+                @Override
+                public long count(final Query<Contract> query) {
+                    return 42;
+                }
+            },
+            Mockito.mock(Storage.class)
+        );
+        MatcherAssert.assertThat(contracts.count(), Matchers.is(42));
+    }
+
     /**
      * ProjectContracts can return the Contracts
      * of a certain Contributor.
@@ -23,6 +23,8 @@
 package com.selfxdsd.core.contracts.invoices;
 
 import com.selfxdsd.api.*;
+import com.selfxdsd.api.storage.Query;
+import com.selfxdsd.api.storage.Queryable;
 import com.selfxdsd.api.storage.Storage;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -33,6 +35,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Unit tests for {@link ContractInvoices}.
@@ -374,6 +377,57 @@ public final class ContractInvoicesTestCase {
         MatcherAssert.assertThat(active, Matchers.is(created));
     }
 
+    /**
+     * Method active pushes the query for the oldest unpaid Invoice
+     * down to the Storage.
+     */
+    @Test
+    public void activePushesQueryDown() {
+        final Contract.Id contractId = new Contract.Id(
+            "john/test",
+            "mihai",
+            Provider.Names.GITHUB,
+            Contract.Roles.DEV
+        );
+        final Invoice unpaid = this.mockInvoice(contractId, Boolean.FALSE);
+        final List<Query<Invoice>> queries = new ArrayList<>();
+        final Invoices invoices = new ContractInvoices(
+            contractId,
+            new Queryable<Invoice>() {
+                @Override
+                public Stream<Invoice> find(final Query<Invoice> query) {
+                    queries.add(query);
+                    return Stream.of(unpaid);
+                }
+
+                @Override
+                public long count(final Query<Invoice> query) {
+                    throw new UnsupportedOperationException("Not needed.");
+                }
+            },
+            Mockito.mock(Storage.class)
+        );
+        MatcherAssert.assertThat(invoices.active(), Matchers.is(unpaid));
+        MatcherAssert.assertThat(queries, Matchers.hasSize(1));
+        final Query<Invoice> query = queries.get(0);
+        MatcherAssert.assertThat(query.criteria(), Matchers.hasSize(1));
+        MatcherAssert.assertThat(
+            query.criteria().get(0).field(),
+            Matchers.equalTo("paid")
+        );
+        MatcherAssert.assertThat(
+            query.criteria().get(0).value(),
+            Matchers.equalTo(Boolean.FALSE)
+        );
+        MatcherAssert.assertThat(query.orders(), Matchers.hasSize(1));
+        MatcherAssert.assertThat(
+            query.orders().get(0).field(),
+            Matchers.equalTo("createdAt")
+        );
+        MatcherAssert.assertThat(query.offset(), Matchers.is(0L));
+        MatcherAssert.assertThat(query.limit(), Matchers.is(1L));
+    }
+
     /**
      * Mock an invoice for test.
      * @param contractId ContractId.
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core.managers;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Unit tests for {@link ScanMarks}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class ScanMarksTestCase {
+
+    /**
+     * There is no mark before the first scan; after it, the next scan
+     * looks at the Issues updated since then, with some overlap.
+     */
+    @Test
+    public void marksScans() {
+        final ScanMarks marks = new ScanMarks(true, Duration.ofMinutes(1));
+        MatcherAssert.assertThat(
+            marks.since("github/mihai/test"), Matchers.nullValue()
+        );
+        marks.mark("github/mihai/test", Instant.ofEpochSecond(1000));
+        MatcherAssert.assertThat(
+            marks.since("github/mihai/test"),
+            Matchers.equalTo(Instant.ofEpochSecond(940))
+        );
+        MatcherAssert.assertThat(
+            marks.since("gitlab/mihai/test"), Matchers.nullValue()
+        );
+    }
+
+    /**
+     * Disabled marks always ask for a full scan.
+     */
+    @Test
+    public void disabledMarksAskForFullScans() {
+        final ScanMarks marks = new ScanMarks(false, Duration.ZERO);
+        marks.mark("github/mihai/test", Instant.ofEpochSecond(1000));
+        MatcherAssert.assertThat(
+            marks.since("github/mihai/test"), Matchers.nullValue()
+        );
+    }
+}
@@ -24,7 +24,9 @@ package com.selfxdsd.core.managers;
 import com.selfxdsd.api.*;
 import com.selfxdsd.api.Labels;
 import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.api.storage.UnitOfWork;
 import com.selfxdsd.core.Github;
+import com.selfxdsd.core.Workers;
 import com.selfxdsd.core.mock.InMemory;
 import com.selfxdsd.core.projects.English;
 import org.hamcrest.MatcherAssert;
@@ -33,7 +35,9 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -848,7 +852,7 @@ public final class StoredProjectManagerTestCase {
             Provider.Names.GITHUB,
             "123token",
             8,
-            Mockito.mock(Storage.class)
+            this.mockStorage()
         );
 
         manager.unassignedTasks(event);
@@ -891,7 +895,7 @@ public final class StoredProjectManagerTestCase {
             Provider.Names.GITHUB,
             "123token",
             8,
-            Mockito.mock(Storage.class)
+            this.mockStorage()
         );
 
         manager.unassignedTasks(event);
@@ -948,7 +952,7 @@ public final class StoredProjectManagerTestCase {
             Provider.Names.GITHUB,
             "123token",
             8,
-            Mockito.mock(Storage.class)
+            this.mockStorage()
         );
 
         manager.unassignedTasks(event);
@@ -1034,7 +1038,7 @@ public final class StoredProjectManagerTestCase {
             Provider.Names.GITHUB,
             "123token",
             8,
-            Mockito.mock(Storage.class)
+            this.mockStorage()
         );
 
         manager.unassignedTasks(event);
@@ -1127,7 +1131,7 @@ public final class StoredProjectManagerTestCase {
             Provider.Names.GITHUB,
             "123token",
             8,
-            Mockito.mock(Storage.class)
+            this.mockStorage()
         );
 
         manager.unassignedTasks(event);
@@ -1167,7 +1171,7 @@ public final class StoredProjectManagerTestCase {
             Provider.Names.GITHUB,
             "123token",
             8,
-            Mockito.mock(Storage.class)
+            this.mockStorage()
         );
 
         Mockito.when(event.project()).thenReturn(project);
@@ -1260,7 +1264,7 @@ public final class StoredProjectManagerTestCase {
             Provider.Names.GITHUB,
             "123token",
             8,
-            Mockito.mock(Storage.class)
+            this.mockStorage()
         );
         manager.assignedTasks(event);
         Mockito.verify(project, Mockito.never()).language();
@@ -1292,7 +1296,7 @@ public final class StoredProjectManagerTestCase {
             Provider.Names.GITHUB,
             "123token",
             8,
-            Mockito.mock(Storage.class)
+            this.mockStorage()
         );
         manager.assignedTasks(event);
         Mockito.verify(project, Mockito.never()).language();
@@ -1350,7 +1354,7 @@ public final class StoredProjectManagerTestCase {
 
         final Tasks all = Mockito.mock(Tasks.class);
         Mockito.when(all.remove(task)).thenReturn(true);
-        final Storage storage = Mockito.mock(Storage.class);
+        final Storage storage = this.mockStorage();
         Mockito.when(storage.tasks()).thenReturn(all);
 
         final Event event = Mockito.mock(Event.class);
@@ -1421,7 +1425,7 @@ public final class StoredProjectManagerTestCase {
             Provider.Names.GITHUB,
             "123token",
             8,
-            Mockito.mock(Storage.class),
+            this.mockStorage(),
             now
         );
         manager.assignedTasks(event);
@@ -1477,7 +1481,7 @@ public final class StoredProjectManagerTestCase {
             Provider.Names.GITHUB,
             "123token",
             8,
-            Mockito.mock(Storage.class),
+            this.mockStorage(),
             now
         );
         manager.assignedTasks(event);
@@ -1492,6 +1496,136 @@ public final class StoredProjectManagerTestCase {
                 + "I will assign it to someone else soon.");
     }
 
+    /**
+     * Each unassigned Task of a Project is checked in its own unit of
+     * work, which is committed once its check is done.
+     */
+    @Test
+    public void commitsEachUnassignedTask() {
+        final Issue closed = Mockito.mock(Issue.class);
+        Mockito.when(closed.isClosed()).thenReturn(true);
+        final Task first = Mockito.mock(Task.class);
+        Mockito.when(first.issue()).thenReturn(closed);
+        final Task second = Mockito.mock(Task.class);
+        Mockito.when(second.issue()).thenReturn(closed);
+        final Tasks unassigned = Mockito.mock(Tasks.class);
+        Mockito.when(unassigned.iterator()).thenReturn(
+            List.of(first, second).iterator()
+        );
+        final Tasks tasks = Mockito.mock(Tasks.class);
+        Mockito.when(tasks.unassigned()).thenReturn(unassigned);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.tasks()).thenReturn(tasks);
+        final Event event = Mockito.mock(Event.class);
+        Mockito.when(event.project()).thenReturn(project);
+        final UnitOfWork work = Mockito.mock(UnitOfWork.class);
+        final Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.begin()).thenReturn(work);
+        final ProjectManager manager = new StoredProjectManager(
+            1,
+            "123",
+            "zoeself",
+            Provider.Names.GITHUB,
+            "123token",
+            8,
+            storage
+        );
+        manager.unassignedTasks(event);
+        Mockito.verify(storage, Mockito.times(2)).begin();
+        Mockito.verify(work, Mockito.times(2)).commit();
+        Mockito.verify(work, Mockito.times(2)).close();
+        Mockito.verify(tasks, Mockito.times(1)).remove(first);
+        Mockito.verify(tasks, Mockito.times(1)).remove(second);
+    }
+
+    /**
+     * If checking an unassigned Task fails, what it wrote so far is still
+     * committed, since the Provider calls made along with it can't be
+     * rolled back.
+     */
+    @Test
+    public void commitsUnassignedTaskOnFailure() {
+        final Task task = Mockito.mock(Task.class);
+        Mockito.when(task.issue()).thenThrow(
+            new IllegalStateException("Provider is down.")
+        );
+        final Tasks unassigned = Mockito.mock(Tasks.class);
+        Mockito.when(unassigned.iterator()).thenReturn(
+            List.of(task).iterator()
+        );
+        final Tasks tasks = Mockito.mock(Tasks.class);
+        Mockito.when(tasks.unassigned()).thenReturn(unassigned);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.tasks()).thenReturn(tasks);
+        final Event event = Mockito.mock(Event.class);
+        Mockito.when(event.project()).thenReturn(project);
+        final UnitOfWork work = Mockito.mock(UnitOfWork.class);
+        final Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.begin()).thenReturn(work);
+        final ProjectManager manager = new StoredProjectManager(
+            1,
+            "123",
+            "zoeself",
+            Provider.Names.GITHUB,
+            "123token",
+            8,
+            storage
+        );
+        try {
+            manager.unassignedTasks(event);
+            MatcherAssert.assertThat("Exception expected.", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), Matchers.equalTo("Provider is down.")
+            );
+        }
+        Mockito.verify(work, Mockito.times(1)).commit();
+        Mockito.verify(work, Mockito.times(1)).close();
+    }
+
+    /**
+     * A Storage which doesn't begin units of work (e.g. a mock) has its
+     * mutations written immediately.
+     */
+    @Test
+    public void checksUnassignedTasksWithoutUnitOfWork() {
+        final Issue closed = Mockito.mock(Issue.class);
+        Mockito.when(closed.isClosed()).thenReturn(true);
+        final Task task = Mockito.mock(Task.class);
+        Mockito.when(task.issue()).thenReturn(closed);
+        final Tasks unassigned = Mockito.mock(Tasks.class);
+        Mockito.when(unassigned.iterator()).thenReturn(
+            List.of(task).iterator()
+        );
+        final Tasks tasks = Mockito.mock(Tasks.class);
+        Mockito.when(tasks.unassigned()).thenReturn(unassigned);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.tasks()).thenReturn(tasks);
+        final Event event = Mockito.mock(Event.class);
+        Mockito.when(event.project()).thenReturn(project);
+        final ProjectManager manager = new StoredProjectManager(
+            1,
+            "123",
+            "zoeself",
+            Provider.Names.GITHUB,
+            "123token",
+            8,
+            Mockito.mock(Storage.class)
+        );
+        manager.unassignedTasks(event);
+        Mockito.verify(tasks, Mockito.times(1)).remove(task);
+    }
+
+    /**
+     * Mock Storage which writes every mutation immediately.
+     * @return Storage.
+     */
+    private Storage mockStorage() {
+        final Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.begin()).thenReturn(new UnitOfWork.Immediate());
+        return storage;
+    }
+
     /**
      * Mock a Repo for test.
      *
@@ -1534,4 +1668,41 @@ public final class StoredProjectManagerTestCase {
         pmUser.register("foo", "secret", LocalDateTime.MIN);
     }
 
+    /**
+     * The first assigned tasks scan of a Project is a full one and it
+     * records the high-water mark for the next, incremental, scan.
+     */
+    @Test
+    public void marksFirstAssignedTasksScan() {
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.provider()).thenReturn(Provider.Names.GITHUB);
+        Mockito.when(project.repoFullName()).thenReturn("mihai/test");
+        final Task task = Mockito.mock(Task.class);
+        Mockito.when(task.assignee()).thenReturn(null);
+        final Tasks tasks = Mockito.mock(Tasks.class);
+        Mockito.when(tasks.iterator()).thenReturn(List.of(task).iterator());
+        Mockito.when(project.tasks()).thenReturn(tasks);
+        final Event event = Mockito.mock(Event.class);
+        Mockito.when(event.project()).thenReturn(project);
+        final ScanMarks marks = new ScanMarks(true, Duration.ZERO);
+        final LocalDateTime now = LocalDateTime.of(2021, 3, 1, 10, 0);
+        final ProjectManager manager = new StoredProjectManager(
+            1,
+            "123",
+            "zoeself",
+            Provider.Names.GITHUB,
+            "123token",
+            8,
+            this.mockStorage(),
+            () -> now,
+            marks,
+            Workers.SAME_THREAD
+        );
+        manager.assignedTasks(event);
+        MatcherAssert.assertThat(
+            marks.since("github/mihai/test"),
+            Matchers.equalTo(now.atZone(ZoneId.systemDefault()).toInstant())
+        );
+        Mockito.verify(task, Mockito.never()).issue();
+    }
 }
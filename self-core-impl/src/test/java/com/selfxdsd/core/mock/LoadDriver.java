@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core.mock;
+
+import com.selfxdsd.api.Event;
+import com.selfxdsd.api.Project;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load driver which replays a stream of webhook Events through
+ * {@link Project#resolve(Event)}, from the given number of threads, and
+ * measures the throughput and the latency of each Event. Pair it with
+ * {@link ReplayedJsonResources} to see how the PM behaves under the
+ * latency of a real provider, offline.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class LoadDriver {
+
+    /**
+     * Project resolving the Events.
+     */
+    private final Project project;
+
+    /**
+     * Number of threads resolving the Events, like the webhook workers.
+     */
+    private final int threads;
+
+    /**
+     * Time between two Events (arrival rate), zero to send them all
+     * at once.
+     */
+    private final Duration pace;
+
+    /**
+     * Ctor. All the Events are sent at once.
+     * @param project Project resolving the Events.
+     * @param threads Number of threads resolving the Events.
+     */
+    public LoadDriver(final Project project, final int threads) {
+        this(project, threads, Duration.ZERO);
+    }
+
+    /**
+     * Ctor.
+     * @param project Project resolving the Events.
+     * @param threads Number of threads resolving the Events.
+     * @param pace Time between two Events, zero to send them all at once.
+     */
+    public LoadDriver(
+        final Project project,
+        final int threads,
+        final Duration pace
+    ) {
+        this.project = project;
+        this.threads = threads;
+        this.pace = pace;
+    }
+
+    /**
+     * Replay the Events and wait for all of them to be resolved.
+     * @param events Events, in the order they arrived.
+     * @return Report.
+     */
+    public Report replay(final List<Event> events) {
+        final ExecutorService workers = Executors.newFixedThreadPool(
+            this.threads
+        );
+        try {
+            final long start = System.nanoTime();
+            final List<Future<Long>> resolved = new ArrayList<>();
+            for(final Event event : events) {
+                resolved.add(
+                    workers.submit(
+                        () -> {
+                            final long received = System.nanoTime();
+                            this.project.resolve(event);
+                            return System.nanoTime() - received;
+                        }
+                    )
+                );
+                if(!this.pace.isZero()) {
+                    Thread.sleep(this.pace.toMillis());
+                }
+            }
+            final List<Long> latencies = new ArrayList<>();
+            int failed = 0;
+            for(final Future<Long> future : resolved) {
+                try {
+                    latencies.add(future.get());
+                } catch (final ExecutionException ex) {
+                    failed = failed + 1;
+                }
+            }
+            return new Report(
+                latencies, failed, Duration.ofNanos(System.nanoTime() - start)
+            );
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while replaying the Events.", ex
+            );
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Results of a replay.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.70
+     */
+    public static final class Report {
+
+        /**
+         * Latencies of the resolved Events, in nanoseconds, sorted.
+         */
+        private final long[] latencies;
+
+        /**
+         * Number of Events which failed.
+         */
+        private final int failed;
+
+        /**
+         * Time it took to resolve all the Events.
+         */
+        private final Duration elapsed;
+
+        /**
+         * Ctor.
+         * @param latencies Latencies of the resolved Events, in nanoseconds.
+         * @param failed Number of Events which failed.
+         * @param elapsed Time it took to resolve all the Events.
+         */
+        Report(
+            final List<Long> latencies,
+            final int failed,
+            final Duration elapsed
+        ) {
+            this.latencies = latencies.stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+            Arrays.sort(this.latencies);
+            this.failed = failed;
+            this.elapsed = elapsed;
+        }
+
+        /**
+         * Number of Events resolved successfully.
+         * @return Integer.
+         */
+        public int resolved() {
+            return this.latencies.length;
+        }
+
+        /**
+         * Number of Events which failed.
+         * @return Integer.
+         */
+        public int failed() {
+            return this.failed;
+        }
+
+        /**
+         * Time it took to resolve all the Events.
+         * @return Duration.
+         */
+        public Duration elapsed() {
+            return this.elapsed;
+        }
+
+        /**
+         * Events resolved per second.
+         * @return Double.
+         */
+        public double throughput() {
+            double throughput = 0;
+            if(!this.elapsed.isZero()) {
+                throughput = this.latencies.length * 1_000_000_000.0
+                    / this.elapsed.toNanos();
+            }
+            return throughput;
+        }
+
+        /**
+         * Latency percentile (e.g. 50, 95, 99), nearest-rank.
+         * @param percentile Percentile, between 0 and 100.
+         * @return Duration, zero if no Event was resolved.
+         */
+        public Duration percentile(final double percentile) {
+            Duration latency = Duration.ZERO;
+            if(this.latencies.length > 0) {
+                final int rank = (int) Math.ceil(
+                    percentile / 100 * this.latencies.length
+                );
+                latency = Duration.ofNanos(
+                    this.latencies[Math.max(rank, 1) - 1]
+                );
+            }
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%d resolved, %d failed in %d ms (%.1f/s), "
+                + "p50 %d ms, p95 %d ms, p99 %d ms",
+                this.resolved(),
+                this.failed,
+                this.elapsed.toMillis(),
+                this.throughput(),
+                this.percentile(50).toMillis(),
+                this.percentile(95).toMillis(),
+                this.percentile(99).toMillis()
+            );
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core.mock;
+
+import com.selfxdsd.api.Event;
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.User;
+import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.core.Github;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for {@link LoadDriver}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class LoadDriverTestCase {
+
+    /**
+     * It replays the Events and measures them.
+     */
+    @Test
+    public void replaysEvents() {
+        final Github github = new Github(
+            Mockito.mock(User.class),
+            Mockito.mock(Storage.class),
+            new ReplayedJsonResources(
+                ReplayedJsonResourcesTestCase.trace(),
+                () -> Duration.ofMillis(20),
+                0,
+                -1
+            )
+        );
+        final Project project = Mockito.mock(Project.class);
+        Mockito.doAnswer(
+            invocation -> github.repo("mihai", "test").issues().getById("1")
+                .json()
+        ).when(project).resolve(Mockito.any(Event.class));
+        final List<Event> events = new ArrayList<>();
+        for(int idx = 0; idx < 8; ++idx) {
+            events.add(Mockito.mock(Event.class));
+        }
+        final LoadDriver.Report report = new LoadDriver(project, 4)
+            .replay(events);
+        MatcherAssert.assertThat(report.resolved(), Matchers.is(8));
+        MatcherAssert.assertThat(report.failed(), Matchers.is(0));
+        MatcherAssert.assertThat(
+            report.percentile(50).toMillis(),
+            Matchers.greaterThanOrEqualTo(20L)
+        );
+        MatcherAssert.assertThat(
+            report.percentile(99),
+            Matchers.greaterThanOrEqualTo(report.percentile(50))
+        );
+        MatcherAssert.assertThat(
+            report.throughput(), Matchers.greaterThan(0.0)
+        );
+    }
+
+    /**
+     * It counts the Events which failed.
+     */
+    @Test
+    public void countsFailedEvents() {
+        final Project project = Mockito.mock(Project.class);
+        final Event failing = Mockito.mock(Event.class);
+        Mockito.doThrow(new IllegalStateException("Provider down."))
+            .when(project).resolve(failing);
+        final LoadDriver.Report report = new LoadDriver(
+            project, 2, Duration.ofMillis(1)
+        ).replay(List.of(Mockito.mock(Event.class), failing));
+        MatcherAssert.assertThat(report.resolved(), Matchers.is(1));
+        MatcherAssert.assertThat(report.failed(), Matchers.is(1));
+    }
+}
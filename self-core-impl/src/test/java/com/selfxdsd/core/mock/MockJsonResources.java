@@ -12,6 +12,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -121,13 +122,19 @@ public final class MockJsonResources implements JsonResources {
 
     @Override
     public Resource get(final URI uri) {
+        return this.get(uri, Map.of());
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
         final MockRequest request = new MockRequest(
             "GET",
             uri,
             JsonValue.NULL,
-            accessToken
+            this.accessToken,
+            headers
         );
-        return onRequest.apply(request);
+        return this.onRequest.apply(request);
     }
 
     @Override
@@ -203,6 +210,10 @@ public final class MockJsonResources implements JsonResources {
          * Access token for authenticated requests.
          */
         private final AccessToken accessToken;
+        /**
+         * Extra request headers.
+         */
+        private final Map<String, String> headers;
 
         /**
          * Ctor.
@@ -215,10 +226,27 @@ public final class MockJsonResources implements JsonResources {
                             final URI uri,
                             final JsonValue body,
                             final AccessToken accessToken) {
+            this(method, uri, body, accessToken, Map.of());
+        }
+
+        /**
+         * Ctor.
+         * @param method Http method.
+         * @param uri Request URI.
+         * @param body Request body.
+         * @param accessToken Access token for authenticated requests.
+         * @param headers Extra request headers.
+         */
+        private MockRequest(final String method,
+                            final URI uri,
+                            final JsonValue body,
+                            final AccessToken accessToken,
+                            final Map<String, String> headers) {
             this.method = method;
             this.uri = uri;
             this.body = body;
             this.accessToken = accessToken;
+            this.headers = headers;
         }
 
         /**
@@ -252,6 +280,14 @@ public final class MockJsonResources implements JsonResources {
         public AccessToken getAccessToken() {
             return accessToken;
         }
+
+        /**
+         * Extra request headers (e.g. If-None-Match).
+         * @return Map.
+         */
+        public Map<String, String> getHeaders() {
+            return this.headers;
+        }
     }
 
     /**
@@ -325,6 +361,10 @@ public final class MockJsonResources implements JsonResources {
          * Response body.
          */
         private final JsonValue body;
+        /**
+         * Response headers.
+         */
+        private final Map<String, List<String>> headers;
 
         /**
          * Ctor.
@@ -332,8 +372,23 @@ public final class MockJsonResources implements JsonResources {
          * @param body Response body.
          */
         public MockResource(final int statusCode, final JsonValue body) {
+            this(statusCode, body, Map.of());
+        }
+
+        /**
+         * Ctor.
+         * @param statusCode Status code.
+         * @param body Response body.
+         * @param headers Response headers.
+         */
+        public MockResource(
+            final int statusCode,
+            final JsonValue body,
+            final Map<String, List<String>> headers
+        ) {
             this.statusCode = statusCode;
             this.body = body;
+            this.headers = headers;
         }
 
         @Override
@@ -341,6 +396,11 @@ public final class MockJsonResources implements JsonResources {
             return statusCode;
         }
 
+        @Override
+        public Map<String, List<String>> headers() {
+            return this.headers;
+        }
+
         @Override
         public JsonObject asJsonObject() {
             final JsonObject jsonObject;
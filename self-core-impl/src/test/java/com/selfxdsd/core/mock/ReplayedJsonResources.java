@@ -0,0 +1,431 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core.mock;
+
+import com.selfxdsd.core.AccessToken;
+import com.selfxdsd.core.JsonResources;
+import com.selfxdsd.core.Resource;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * JsonResources which replay recorded responses, with injected latency,
+ * errors and rate limit headers. Unlike {@link MockJsonResources}, which
+ * answers instantly, it lets us see how the PM behaves under the latency
+ * of a real provider (see {@link LoadDriver}).<br><br>
+ *
+ * The trace is a JSON array of recorded exchanges:
+ * <pre>
+ * [
+ *   {
+ *     "method": "GET",
+ *     "uri": "https://api.github.com/repos/mihai/test/issues/1",
+ *     "status": 200,
+ *     "headers": {"ETag": ["\"abc\""]},
+ *     "body": {"number": 1, "state": "open"}
+ *   }
+ * ]
+ * </pre>
+ * Requests are matched by method and URI. If an exchange was recorded
+ * more than once, the recordings are replayed in turn. Requests which
+ * were not recorded get 404.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class ReplayedJsonResources implements JsonResources {
+
+    /**
+     * Recorded exchanges, by method and URI.
+     */
+    private final Map<String, List<JsonObject>> recorded;
+
+    /**
+     * How many times each exchange was replayed.
+     */
+    private final Map<String, AtomicInteger> replayed;
+
+    /**
+     * Latency of each response.
+     */
+    private final Supplier<Duration> latency;
+
+    /**
+     * Fraction (0..1) of the requests which get a 502 Bad Gateway.
+     */
+    private final double errors;
+
+    /**
+     * Simulated rate limit, negative if there is no rate limit.
+     */
+    private final int limit;
+
+    /**
+     * Remaining requests of the simulated rate limit.
+     */
+    private final AtomicInteger remaining;
+
+    /**
+     * When the simulated rate limit resets, in epoch seconds.
+     */
+    private final long reset;
+
+    /**
+     * Random numbers for the injected errors.
+     */
+    private final Random random;
+
+    /**
+     * Number of requests received.
+     */
+    private final AtomicLong requests;
+
+    /**
+     * Ctor. Responses are replayed instantly, without errors or
+     * rate limit.
+     * @param trace Path to the recorded trace.
+     */
+    public ReplayedJsonResources(final Path trace) {
+        this(ReplayedJsonResources.read(trace), () -> Duration.ZERO, 0, -1);
+    }
+
+    /**
+     * Ctor.
+     * @param trace Recorded exchanges.
+     * @param latency Latency of each response (e.g. {@link #uniform}).
+     * @param errors Fraction (0..1) of the requests which get a 502.
+     * @param limit Simulated rate limit (requests per hour), negative
+     *  if there should be no rate limit.
+     */
+    public ReplayedJsonResources(
+        final JsonArray trace,
+        final Supplier<Duration> latency,
+        final double errors,
+        final int limit
+    ) {
+        this.recorded = new TreeMap<>();
+        for(final JsonValue value : trace) {
+            final JsonObject exchange = value.asJsonObject();
+            this.recorded.computeIfAbsent(
+                ReplayedJsonResources.key(
+                    exchange.getString("method"),
+                    URI.create(exchange.getString("uri"))
+                ),
+                key -> new ArrayList<>()
+            ).add(exchange);
+        }
+        this.replayed = new ConcurrentHashMap<>();
+        this.latency = latency;
+        this.errors = errors;
+        this.limit = limit;
+        this.remaining = new AtomicInteger(limit);
+        this.reset = Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+        this.random = new Random();
+        this.requests = new AtomicLong();
+    }
+
+    /**
+     * Uniformly distributed latency.
+     * @param min Minimum latency.
+     * @param max Maximum latency.
+     * @return Latency supplier.
+     */
+    public static Supplier<Duration> uniform(
+        final Duration min,
+        final Duration max
+    ) {
+        final Random random = new Random();
+        return () -> min.plusMillis(
+            (long) (random.nextDouble() * max.minus(min).toMillis())
+        );
+    }
+
+    /**
+     * Log-normally distributed latency: most responses are close to the
+     * median, but there is a long tail of slow ones, like with a real
+     * provider.
+     * @param median Median latency.
+     * @param sigma Spread of the tail (e.g. 0.5).
+     * @return Latency supplier.
+     */
+    public static Supplier<Duration> lognormal(
+        final Duration median,
+        final double sigma
+    ) {
+        final Random random = new Random();
+        return () -> Duration.ofMillis(
+            (long) (median.toMillis()
+                * Math.exp(sigma * random.nextGaussian()))
+        );
+    }
+
+    /**
+     * Number of requests received so far.
+     * @return Long.
+     */
+    public long requests() {
+        return this.requests.get();
+    }
+
+    /**
+     * The simulated rate limit is the same for all tokens.
+     * @param accessToken Access token.
+     * @return This JsonResources.
+     */
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return this;
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.replay("GET", uri);
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        return this.replay("GET", uri);
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.replay("POST", uri);
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.replay("PATCH", uri);
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.replay("PUT", uri);
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.replay("DELETE", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.replayAsync("GET", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return this.replayAsync("GET", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.replayAsync("POST", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.replayAsync("PATCH", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.replayAsync("PUT", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.replayAsync("DELETE", uri);
+    }
+
+    /**
+     * Wait for the latency, then replay the response.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @return Resource.
+     */
+    private Resource replay(final String method, final URI uri) {
+        final Duration wait = this.latency.get();
+        if(!wait.isZero() && !wait.isNegative()) {
+            try {
+                Thread.sleep(wait.toMillis());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                    "Interrupted while replaying " + method + " " + uri, ex
+                );
+            }
+        }
+        return this.response(method, uri);
+    }
+
+    /**
+     * Replay the response asynchronously, after the latency.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @return Future Resource.
+     */
+    private CompletableFuture<Resource> replayAsync(
+        final String method,
+        final URI uri
+    ) {
+        final Duration wait = this.latency.get();
+        return CompletableFuture.supplyAsync(
+            () -> this.response(method, uri),
+            CompletableFuture.delayedExecutor(
+                Math.max(wait.toMillis(), 0), TimeUnit.MILLISECONDS
+            )
+        );
+    }
+
+    /**
+     * The response of a request: an injected error, the rate limit
+     * exceeded error or the recorded response.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @return MockResource.
+     */
+    private MockResource response(final String method, final URI uri) {
+        this.requests.incrementAndGet();
+        final Map<String, List<String>> headers = new TreeMap<>(
+            String.CASE_INSENSITIVE_ORDER
+        );
+        int left = 0;
+        if(this.limit >= 0) {
+            left = this.remaining.decrementAndGet();
+            headers.put(
+                "X-RateLimit-Remaining",
+                List.of(String.valueOf(Math.max(left, 0)))
+            );
+            headers.put(
+                "X-RateLimit-Reset", List.of(String.valueOf(this.reset))
+            );
+        }
+        final MockResource response;
+        if(left < 0) {
+            response = new MockResource(403, JsonValue.NULL, headers);
+        } else if(this.random.nextDouble() < this.errors) {
+            response = new MockResource(502, JsonValue.NULL, headers);
+        } else {
+            final String key = ReplayedJsonResources.key(method, uri);
+            final List<JsonObject> recordings = this.recorded.get(key);
+            if(recordings == null) {
+                response = new MockResource(404, JsonValue.NULL, headers);
+            } else {
+                final JsonObject exchange = recordings.get(
+                    this.replayed.computeIfAbsent(
+                        key, k -> new AtomicInteger()
+                    ).getAndIncrement() % recordings.size()
+                );
+                final JsonObject recorded = exchange.getJsonObject(
+                    "headers"
+                );
+                if(recorded != null) {
+                    for(final String name : recorded.keySet()) {
+                        final List<String> values = new ArrayList<>();
+                        for(final JsonValue header
+                            : recorded.getJsonArray(name)) {
+                            values.add(((JsonString) header).getString());
+                        }
+                        headers.putIfAbsent(name, values);
+                    }
+                }
+                response = new MockResource(
+                    exchange.getInt("status"),
+                    exchange.getOrDefault("body", JsonValue.NULL),
+                    headers
+                );
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Key of a recorded exchange.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @return String.
+     */
+    private static String key(final String method, final URI uri) {
+        return method + " " + uri;
+    }
+
+    /**
+     * Read the trace from disk.
+     * @param trace Path to the trace.
+     * @return JsonArray.
+     */
+    private static JsonArray read(final Path trace) {
+        try (
+            final Reader file = Files.newBufferedReader(
+                trace, StandardCharsets.UTF_8
+            );
+            final JsonReader reader = Json.createReader(file)
+        ) {
+            return reader.readArray();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "Could not read the trace " + trace, ex
+            );
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core.mock;
+
+import com.selfxdsd.core.JsonResources;
+import com.selfxdsd.core.Resource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Unit tests for {@link ReplayedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class ReplayedJsonResourcesTestCase {
+
+    /**
+     * URI of the recorded issue.
+     */
+    private static final URI ISSUE = URI.create(
+        "https://api.github.com/repos/mihai/test/issues/1"
+    );
+
+    /**
+     * It replays a trace read from disk, in turn.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void replaysTraceFromDisk() throws IOException {
+        final Path trace = Files.createTempFile("trace", ".json");
+        try {
+            Files.write(
+                trace,
+                ReplayedJsonResourcesTestCase.trace().toString()
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+            final JsonResources resources = new ReplayedJsonResources(trace);
+            final Resource first = resources.get(ISSUE);
+            MatcherAssert.assertThat(first.statusCode(), Matchers.is(200));
+            MatcherAssert.assertThat(
+                first.asJsonObject().getString("state"),
+                Matchers.equalTo("open")
+            );
+            MatcherAssert.assertThat(
+                first.headers().get("ETag"),
+                Matchers.contains("\"v1\"")
+            );
+            MatcherAssert.assertThat(
+                resources.get(ISSUE).asJsonObject().getString("state"),
+                Matchers.equalTo("closed")
+            );
+            MatcherAssert.assertThat(
+                resources.get(ISSUE).asJsonObject().getString("state"),
+                Matchers.equalTo("open")
+            );
+            MatcherAssert.assertThat(
+                resources.post(ISSUE, Json.createObjectBuilder().build())
+                    .statusCode(),
+                Matchers.is(404)
+            );
+        } finally {
+            Files.delete(trace);
+        }
+    }
+
+    /**
+     * It injects the latency.
+     */
+    @Test
+    public void injectsLatency() {
+        final JsonResources resources = new ReplayedJsonResources(
+            ReplayedJsonResourcesTestCase.trace(),
+            () -> Duration.ofMillis(50),
+            0,
+            -1
+        );
+        final long start = System.nanoTime();
+        resources.getAsync(ISSUE).join();
+        resources.get(ISSUE);
+        MatcherAssert.assertThat(
+            Duration.ofNanos(System.nanoTime() - start).toMillis(),
+            Matchers.greaterThanOrEqualTo(100L)
+        );
+    }
+
+    /**
+     * It injects errors.
+     */
+    @Test
+    public void injectsErrors() {
+        final ReplayedJsonResources resources = new ReplayedJsonResources(
+            ReplayedJsonResourcesTestCase.trace(),
+            () -> Duration.ZERO,
+            1,
+            -1
+        );
+        MatcherAssert.assertThat(
+            resources.get(ISSUE).statusCode(), Matchers.is(502)
+        );
+        MatcherAssert.assertThat(resources.requests(), Matchers.is(1L));
+    }
+
+    /**
+     * It simulates the rate limit.
+     */
+    @Test
+    public void simulatesRateLimit() {
+        final JsonResources resources = new ReplayedJsonResources(
+            ReplayedJsonResourcesTestCase.trace(),
+            () -> Duration.ZERO,
+            0,
+            2
+        );
+        final Resource first = resources.get(ISSUE);
+        MatcherAssert.assertThat(first.statusCode(), Matchers.is(200));
+        MatcherAssert.assertThat(
+            first.headers().get("X-RateLimit-Remaining"),
+            Matchers.equalTo(List.of("1"))
+        );
+        MatcherAssert.assertThat(
+            resources.get(ISSUE).headers().get("X-RateLimit-Remaining"),
+            Matchers.equalTo(List.of("0"))
+        );
+        final Resource exceeded = resources.get(ISSUE);
+        MatcherAssert.assertThat(exceeded.statusCode(), Matchers.is(403));
+        MatcherAssert.assertThat(
+            exceeded.headers().get("X-RateLimit-Remaining"),
+            Matchers.equalTo(List.of("0"))
+        );
+    }
+
+    /**
+     * The latency distributions are within bounds.
+     */
+    @Test
+    public void generatesLatencies() {
+        final Duration uniform = ReplayedJsonResources.uniform(
+            Duration.ofMillis(10), Duration.ofMillis(20)
+        ).get();
+        MatcherAssert.assertThat(
+            uniform.toMillis(),
+            Matchers.allOf(
+                Matchers.greaterThanOrEqualTo(10L),
+                Matchers.lessThanOrEqualTo(20L)
+            )
+        );
+        MatcherAssert.assertThat(
+            ReplayedJsonResources.lognormal(Duration.ofMillis(100), 0.5)
+                .get().toMillis(),
+            Matchers.greaterThanOrEqualTo(0L)
+        );
+    }
+
+    /**
+     * A trace with the same issue recorded twice.
+     * @return JsonArray.
+     */
+    static JsonArray trace() {
+        return Json.createArrayBuilder()
+            .add(
+                Json.createObjectBuilder()
+                    .add("method", "GET")
+                    .add("uri", ISSUE.toString())
+                    .add("status", 200)
+                    .add(
+                        "headers",
+                        Json.createObjectBuilder().add(
+                            "ETag", Json.createArrayBuilder().add("\"v1\"")
+                        )
+                    )
+                    .add(
+                        "body",
+                        Json.createObjectBuilder()
+                            .add("number", 1)
+                            .add("state", "open")
+                    )
+            )
+            .add(
+                Json.createObjectBuilder()
+                    .add("method", "GET")
+                    .add("uri", ISSUE.toString())
+                    .add("status", 200)
+                    .add(
+                        "body",
+                        Json.createObjectBuilder()
+                            .add("number", 1)
+                            .add("state", "closed")
+                    )
+            )
+            .build();
+    }
+}
@@ -25,11 +25,13 @@ package com.selfxdsd.core.projects;
 import com.selfxdsd.api.*;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.junit.Assume;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import java.lang.management.ManagementFactory;
 
 /**
  * Unit tests for {@link GithubWebhookEvent}.
@@ -256,6 +258,76 @@ public final class GithubWebhookEventTestCase {
         );
     }
 
+    /**
+     * GithubWebhookEvent materialises the Issue and Comment only once,
+     * no matter how many times they are requested.
+     */
+    @Test
+    public void materialisesCommentOnce() {
+        final Comments comments = Mockito.mock(Comments.class);
+        final JsonObject jsonComment = Json.createObjectBuilder()
+            .add("body", "test comment").build();
+        Mockito.when(comments.received(jsonComment)).thenReturn(
+            Mockito.mock(Comment.class)
+        );
+        final Issue issue = Mockito.mock(Issue.class);
+        Mockito.when(issue.comments()).thenReturn(comments);
+        final JsonObject json = Json.createObjectBuilder()
+            .add("number", 1).build();
+        final Issues issues = Mockito.mock(Issues.class);
+        Mockito.when(issues.received(json)).thenReturn(issue);
+        final Repo repo = Mockito.mock(Repo.class);
+        Mockito.when(repo.issues()).thenReturn(issues);
+        final Provider provider = Mockito.mock(Provider.class);
+        Mockito.when(provider.repo("mihai", "test")).thenReturn(repo);
+        final ProjectManager manager = Mockito.mock(ProjectManager.class);
+        Mockito.when(manager.provider()).thenReturn(provider);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn("mihai/test");
+        Mockito.when(project.projectManager()).thenReturn(manager);
+
+        final Event event = new GithubWebhookEvent(
+            project,
+            "issue_comment",
+            Json.createObjectBuilder()
+                .add("action", "created")
+                .add("issue", json)
+                .add("comment", jsonComment)
+                .build()
+                .toString()
+        );
+        final long before = GithubWebhookEventTestCase.allocated();
+        final Comment first = event.comment();
+        final long materialised = GithubWebhookEventTestCase.allocated();
+        final int calls = 10_000;
+        Comment last = null;
+        for(int idx = 0; idx < calls; ++idx) {
+            last = event.comment();
+            event.issue();
+            event.type();
+        }
+        final long repeated = GithubWebhookEventTestCase.allocated();
+
+        MatcherAssert.assertThat(last, Matchers.is(first));
+
+        Mockito.verify(manager, Mockito.times(1)).provider();
+        Mockito.verify(issues, Mockito.times(1)).received(json);
+        Mockito.verify(comments, Mockito.times(1)).received(jsonComment);
+        MatcherAssert.assertThat(
+            event.type(),
+            Matchers.equalTo(Event.Type.ISSUE_COMMENT)
+        );
+        Assume.assumeTrue(before >= 0);
+        MatcherAssert.assertThat(
+            "Comment event: " + (materialised - before)
+            + " bytes allocated to materialise, "
+            + (repeated - materialised) / calls
+            + " bytes allocated per repeated access.",
+            repeated - materialised,
+            Matchers.lessThan(materialised - before)
+        );
+    }
+
     /**
      * It can return the Commit if the type is push.
      */
@@ -312,4 +384,19 @@ public final class GithubWebhookEventTestCase {
             Matchers.nullValue()
         );
     }
+
+    /**
+     * Bytes allocated so far by the current thread.
+     * @return Bytes or -1 if the JVM can't tell.
+     */
+    private static long allocated() {
+        final java.lang.management.ThreadMXBean threads =
+            ManagementFactory.getThreadMXBean();
+        long bytes = -1;
+        if(threads instanceof com.sun.management.ThreadMXBean) {
+            bytes = ((com.sun.management.ThreadMXBean) threads)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return bytes;
+    }
 }
@@ -610,6 +610,41 @@ public final class GitlabWebhookEventTestCase {
         );
     }
 
+    /**
+     * The Comment is materialised only once.
+     */
+    @Test
+    public void commentIsCached() {
+        final Project project = Mockito.mock(Project.class);
+        final Issue issue = this.mockIssue(project, "1", Boolean.FALSE);
+        this.mockComment(issue);
+
+        final Event gitlabEvent = new GitlabWebhookEvent(
+            project,
+            "Note Hook",
+            Json.createObjectBuilder()
+                .add(
+                    "user",
+                    Json.createObjectBuilder().add("username", "mihai")
+                ).add(
+                "object_attributes",
+                Json.createObjectBuilder()
+                    .add("id", 123)
+                    .add("note", "Issue comment here...")
+                    .add("noteable_type", "Issue")
+            ).add(
+                "issue",
+                Json.createObjectBuilder().add("iid", 1)
+            ).build().toString()
+        );
+        final Comment comment = gitlabEvent.comment();
+        MatcherAssert.assertThat(
+            gitlabEvent.comment(),
+            Matchers.is(comment)
+        );
+        Mockito.verify(issue, Mockito.times(1)).comments();
+    }
+
     /**
      * We can retrieve the Comment from an MR comment event.
      */
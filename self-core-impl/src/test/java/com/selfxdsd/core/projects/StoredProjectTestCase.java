@@ -24,11 +24,24 @@ package com.selfxdsd.core.projects;
 import com.selfxdsd.api.*;
 import com.selfxdsd.api.exceptions.WalletAlreadyExistsException;
 import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.core.CircuitBreakers;
+import com.selfxdsd.core.GuardedJsonResources;
+import com.selfxdsd.core.HttpTransport;
+import com.selfxdsd.core.InMemoryMetrics;
+import com.selfxdsd.core.JsonResources;
+import com.selfxdsd.core.Providers;
+import com.selfxdsd.core.Workers;
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -493,6 +506,83 @@ public final class StoredProjectTestCase {
         Mockito.verify(collaborators, Mockito.times(1)).remove("charlesmike");
     }
 
+    /**
+     * StoredProject.resolve(...) defers the tasks scans while the
+     * Provider's circuit is open, but other events are still handled.
+     */
+    @Test
+    public void resolveDefersScansWhenProviderIsUnavailable() {
+        final CircuitBreakers breakers = new CircuitBreakers(
+            1, Duration.ofMinutes(1), Duration.ofMinutes(1), 1
+        );
+        new GuardedJsonResources(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_INTERNAL_ERROR, JsonValue.NULL
+                )
+            ),
+            breakers, 1, Duration.ofSeconds(1)
+        ).get(URI.create("https://api.github.com/repos/john/test"));
+        final User owner = Mockito.mock(User.class);
+        final Provider provider = Mockito.mock(Provider.class);
+        Mockito.when(provider.name()).thenReturn(Provider.Names.GITHUB);
+        Mockito.when(owner.provider()).thenReturn(provider);
+        final ProjectManager manager = Mockito.mock(ProjectManager.class);
+        final Project project = new StoredProject(
+            owner,
+            "john/test",
+            "wh123token",
+            manager,
+            Mockito.mock(Storage.class),
+            new Providers(
+                1, new InMemoryMetrics(), new HttpTransport(),
+                breakers, Workers.SAME_THREAD
+            )
+        );
+        final Event assigned = Mockito.mock(Event.class);
+        Mockito.when(assigned.type()).thenReturn(Event.Type.ASSIGNED_TASKS);
+        final Event newIssue = Mockito.mock(Event.class);
+        Mockito.when(newIssue.type()).thenReturn(Event.Type.NEW_ISSUE);
+        project.resolve(assigned);
+        project.resolve(newIssue);
+        Mockito.verify(manager, Mockito.never()).assignedTasks(assigned);
+        Mockito.verify(manager, Mockito.times(1)).newIssue(newIssue);
+    }
+
+    /**
+     * StoredProject.resolve(...) handles the Event on the Workers of the
+     * Providers registry, without waiting for it.
+     */
+    @Test
+    public void resolveHandlesEventOnWorkers() {
+        final List<Runnable> queued = new ArrayList<>();
+        final User owner = Mockito.mock(User.class);
+        final Provider provider = Mockito.mock(Provider.class);
+        Mockito.when(provider.name()).thenReturn(Provider.Names.GITHUB);
+        Mockito.when(owner.provider()).thenReturn(provider);
+        final ProjectManager manager = Mockito.mock(ProjectManager.class);
+        final Project project = new StoredProject(
+            owner,
+            "john/test",
+            "wh123token",
+            manager,
+            Mockito.mock(Storage.class),
+            new Providers(
+                name -> Mockito.mock(JsonResources.class),
+                1,
+                new CircuitBreakers(),
+                new Workers(queued::add, 1)
+            )
+        );
+        final Event newIssue = Mockito.mock(Event.class);
+        Mockito.when(newIssue.type()).thenReturn(Event.Type.NEW_ISSUE);
+        project.resolve(newIssue);
+        Mockito.verify(manager, Mockito.never()).newIssue(newIssue);
+        MatcherAssert.assertThat(queued, Matchers.iterableWithSize(1));
+        queued.get(0).run();
+        Mockito.verify(manager, Mockito.times(1)).newIssue(newIssue);
+    }
+
     /**
      * Mock a Repo for test.
      *
@@ -24,6 +24,8 @@ package com.selfxdsd.core.projects;
 
 import com.selfxdsd.api.*;
 import com.selfxdsd.api.storage.Paged;
+import com.selfxdsd.api.storage.Query;
+import com.selfxdsd.api.storage.Queryable;
 import com.selfxdsd.api.storage.Storage;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
@@ -101,6 +103,37 @@ public final class UserProjectsTestCase {
             Matchers.iterableWithSize(1));
     }
 
+    /**
+     * UserProjects pushes the paging and the counting down to the Storage.
+     */
+    @Test
+    public void pushesPagingDown() {
+        final Project project = Mockito.mock(Project.class);
+        final List<Query<Project>> queries = new ArrayList<>();
+        final Projects projects = new UserProjects(
+            Mockito.mock(User.class),
+            new Queryable<Project>() {
+                @Override
+                public Stream<Project> find(final Query<Project> query) {
+                    queries.add(query);
+                    return Stream.of(project);
+                }
+
+                @Override
+                public long count(final Query<Project> query) {
+                    return 3;
+                }
+            },
+            Mockito.mock(Storage.class),
+            new Paged.Page(2, 2)
+        );
+        MatcherAssert.assertThat(projects, Matchers.contains(project));
+        MatcherAssert.assertThat(projects.totalPages(), Matchers.is(2));
+        MatcherAssert.assertThat(queries, Matchers.hasSize(1));
+        MatcherAssert.assertThat(queries.get(0).offset(), Matchers.is(2L));
+        MatcherAssert.assertThat(queries.get(0).limit(), Matchers.is(2L));
+    }
+
     /**
      * Method ownedBy() returns itself if the User matches.
      */
@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2020-2021, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core.tasks;
+
+import com.selfxdsd.api.Contract;
+import com.selfxdsd.api.Contributor;
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.Task;
+import com.selfxdsd.api.Tasks;
+import com.selfxdsd.api.storage.Storage;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for {@link IndexedTasks}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.70
+ */
+public final class IndexedTasksTestCase {
+
+    /**
+     * IndexedTasks finds a Task by its normalised key.
+     */
+    @Test
+    public void findsTaskById() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Task first = IndexedTasksTestCase.task("1", null, reads);
+        final Task second = IndexedTasksTestCase.task("2", "mihai", reads);
+        final Tasks tasks = new IndexedTasks(
+            Mockito.mock(Tasks.class),
+            () -> List.of(first, second).stream()
+        );
+        MatcherAssert.assertThat(
+            tasks.getById("2", "John/Test", "GitHub", false),
+            Matchers.is(second)
+        );
+        MatcherAssert.assertThat(
+            tasks.getById("1", "john/test", "github", false),
+            Matchers.is(first)
+        );
+        MatcherAssert.assertThat(
+            tasks.getById("1", "john/test", "github", true),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            tasks.getById("1", "john/other", "github", false),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(tasks, Matchers.iterableWithSize(2));
+    }
+
+    /**
+     * IndexedTasks.count() asks the origin until the index is built,
+     * then it answers from the index.
+     */
+    @Test
+    public void countsTasks() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Tasks origin = Mockito.mock(Tasks.class);
+        Mockito.when(origin.count()).thenReturn(7);
+        final Tasks tasks = new IndexedTasks(
+            origin,
+            () -> Stream.of(IndexedTasksTestCase.task("1", null, reads))
+        );
+        MatcherAssert.assertThat(tasks.count(), Matchers.is(7));
+        tasks.getById("1", "john/test", "github", false);
+        MatcherAssert.assertThat(tasks.count(), Matchers.is(1));
+    }
+
+    /**
+     * Once the index is built, the cost of a lookup does not depend on
+     * the number of Tasks. This is our benchmark: we count the reads of
+     * Task.issueId(), which ProjectTasks does for every Task it scans.
+     */
+    @Test
+    public void lookupCostIsIndependentOfTaskCount() {
+        for(final int count : new int[] {10, 1000}) {
+            final AtomicInteger reads = new AtomicInteger();
+            final List<Task> all = new ArrayList<>();
+            for(int idx = 0; idx < count; ++idx) {
+                all.add(
+                    IndexedTasksTestCase.task(String.valueOf(idx), null, reads)
+                );
+            }
+            final Tasks scanned = new ProjectTasks(
+                "john/test", "github", all::stream,
+                Mockito.mock(Storage.class)
+            );
+            final String last = String.valueOf(count - 1);
+            scanned.getById(last, "john/test", "github", false);
+            MatcherAssert.assertThat(
+                reads.get(),
+                Matchers.greaterThanOrEqualTo(count)
+            );
+            final Tasks indexed = new IndexedTasks(scanned);
+            indexed.getById(last, "john/test", "github", false);
+            final int built = reads.get();
+            for(int idx = 0; idx < 1000; ++idx) {
+                MatcherAssert.assertThat(
+                    indexed.getById(last, "john/test", "github", false),
+                    Matchers.is(all.get(count - 1))
+                );
+            }
+            MatcherAssert.assertThat(reads.get(), Matchers.is(built));
+        }
+    }
+
+    /**
+     * Once the index is built, the Tasks of a contributor, of a contract
+     * and the unassigned ones are read from the secondary indexes.
+     */
+    @Test
+    public void usesSecondaryIndexes() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Task unassigned = IndexedTasksTestCase.task("1", null, reads);
+        final Task assigned = IndexedTasksTestCase.task("2", "mihai", reads);
+        final AtomicInteger sourced = new AtomicInteger();
+        final Tasks tasks = new IndexedTasks(
+            new ProjectTasks(
+                "john/test", "github",
+                () -> {
+                    sourced.incrementAndGet();
+                    return List.of(unassigned, assigned).stream();
+                },
+                Mockito.mock(Storage.class)
+            )
+        );
+        tasks.getById("1", "john/test", "github", false);
+        MatcherAssert.assertThat(
+            tasks.ofContributor("Mihai", "github"),
+            Matchers.contains(assigned)
+        );
+        MatcherAssert.assertThat(
+            tasks.ofContributor("vlad", "github"),
+            Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(
+            tasks.ofContract(
+                new Contract.Id(
+                    "john/test", "mihai", "github", Contract.Roles.DEV
+                )
+            ),
+            Matchers.contains(assigned)
+        );
+        MatcherAssert.assertThat(
+            tasks.unassigned(),
+            Matchers.contains(unassigned)
+        );
+        MatcherAssert.assertThat(
+            tasks.ofProject("john/test", "github"),
+            Matchers.iterableWithSize(2)
+        );
+        MatcherAssert.assertThat(sourced.get(), Matchers.is(1));
+    }
+
+    /**
+     * Before the index is built, the Tasks of a contributor are read
+     * from the original Tasks, without building the whole index.
+     */
+    @Test
+    public void readsOriginalViewsIfNotBuilt() {
+        final Tasks origin = Mockito.mock(Tasks.class);
+        final Task assigned = IndexedTasksTestCase.task(
+            "2", "mihai", new AtomicInteger()
+        );
+        final Tasks ofContributor = Mockito.mock(Tasks.class);
+        Mockito.when(ofContributor.spliterator()).thenReturn(
+            List.of(assigned).spliterator()
+        );
+        Mockito.when(origin.ofContributor("mihai", "github"))
+            .thenReturn(ofContributor);
+        MatcherAssert.assertThat(
+            new IndexedTasks(origin).ofContributor("mihai", "github"),
+            Matchers.contains(assigned)
+        );
+        Mockito.verify(origin, Mockito.never()).iterator();
+        Mockito.verify(origin, Mockito.never()).spliterator();
+    }
+
+    /**
+     * The Tasks registered and removed through IndexedTasks are
+     * reflected in the index.
+     */
+    @Test
+    public void updatesIndexOnWrites() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Task existing = IndexedTasksTestCase.task("1", null, reads);
+        final Task registered = IndexedTasksTestCase.task("2", null, reads);
+        final Tasks origin = Mockito.mock(Tasks.class);
+        final Issue issue = Mockito.mock(Issue.class);
+        Mockito.when(origin.register(issue)).thenReturn(registered);
+        Mockito.when(origin.remove(existing)).thenReturn(true);
+        final Tasks tasks = new IndexedTasks(
+            origin, () -> List.of(existing).stream()
+        );
+        MatcherAssert.assertThat(
+            tasks.getById("2", "john/test", "github", false),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            tasks.register(issue), Matchers.is(registered)
+        );
+        MatcherAssert.assertThat(
+            tasks.getById("2", "john/test", "github", false),
+            Matchers.is(registered)
+        );
+        MatcherAssert.assertThat(tasks.remove(existing), Matchers.is(true));
+        MatcherAssert.assertThat(
+            tasks.getById("1", "john/test", "github", false),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            tasks.unassigned(), Matchers.iterableWithSize(1)
+        );
+    }
+
+    /**
+     * Mock a Task of john/test at github.
+     * @param issueId Issue ID.
+     * @param assignee Username of the assignee, null if unassigned.
+     * @param reads Counts the reads of Task.issueId().
+     * @return Task.
+     */
+    private static Task task(
+        final String issueId,
+        final String assignee,
+        final AtomicInteger reads
+    ) {
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn("john/test");
+        Mockito.when(project.provider()).thenReturn("github");
+        final Task task = Mockito.mock(Task.class);
+        Mockito.when(task.issueId()).thenAnswer(
+            invocation -> {
+                reads.incrementAndGet();
+                return issueId;
+            }
+        );
+        Mockito.when(task.isPullRequest()).thenReturn(false);
+        Mockito.when(task.role()).thenReturn(Contract.Roles.DEV);
+        Mockito.when(task.project()).thenReturn(project);
+        if(assignee != null) {
+            final Contributor contributor = Mockito.mock(Contributor.class);
+            Mockito.when(contributor.username()).thenReturn(assignee);
+            Mockito.when(contributor.provider()).thenReturn("github");
+            Mockito.when(task.assignee()).thenReturn(contributor);
+        }
+        return task;
+    }
+}
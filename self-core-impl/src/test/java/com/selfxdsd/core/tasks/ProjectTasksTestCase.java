@@ -62,6 +62,22 @@ public final class ProjectTasksTestCase {
         MatcherAssert.assertThat(tasks, Matchers.iterableWithSize(3));
     }
 
+    /**
+     * ProjectTasks can count the Tasks.
+     */
+    @Test
+    public void countsTasks() {
+        final Tasks tasks = new ProjectTasks(
+            "john/test", "github",
+            () -> Stream.of(
+                Mockito.mock(Task.class),
+                Mockito.mock(Task.class)
+            ),
+            Mockito.mock(Storage.class)
+        );
+        MatcherAssert.assertThat(tasks.count(), Matchers.is(2));
+    }
+
     /**
      * Returns null when the specified Task is not found.
      */